@@ -1,5 +1,6 @@
 package com.pranjal.assign1;
 
+import java.util.Collection;
 import java.util.LinkedList;
 import java.util.Queue;
 import java.util.concurrent.TimeUnit;
@@ -10,36 +11,92 @@ import java.util.concurrent.locks.ReentrantLock;
  * Thread-safe blocking queue with fair locking and timeout support.
  * 
  * Uses ReentrantLock with fair mode to prevent thread starvation.
- * Provides blocking operations (put/take) and timeout operations (offer/poll).
+ * Provides blocking operations (put/take), timeout operations (offer/poll)
+ * and batch operations (drainTo/takeBatch/putAll) that move many elements
+ * per lock acquisition.
+ * Backing storage is either a LinkedList or a preallocated ring buffer,
+ * selected at construction via {@link QueueStorage}.
+ * Emits {@link QueueEvents} JFR events for puts, takes, timeouts and lock
+ * waits; they are not even allocated unless a flight recording enables them.
+ * Optional high/low watermark listeners are fired from the put and take
+ * paths, after the lock is released, when the size crosses a threshold.
+ * {@link #close()} wakes every waiting thread for shutdown: inserts are
+ * rejected and takers drain what is left before they see end of stream.
  * 
  * @param <T> the type of elements held in this queue
  * @author Pranjal
  * @version 2.1
  */
-public class AdvancedBlockingQueue<T> {
+public class AdvancedBlockingQueue<T> implements BoundedBlockingQueue<T> {
 
     private final Queue<T> queue;
     private final int capacity;
+    private final QueueStorage storage;
     
-    // Fair lock ensures FIFO ordering of waiting threads
-    private final ReentrantLock lock = new ReentrantLock(true);
+    // Element count, written under the lock; volatile so getSize() can read it without locking
+    private volatile int count;
+    
+    // Fair lock (default) ensures FIFO ordering of waiting threads
+    private final ReentrantLock lock;
     
     // Separate conditions for space available and data available
-    private final Condition notFull = lock.newCondition();
-    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull;
+    private final Condition notEmpty;
+    
+    // Set once by close(), under the lock; volatile for isClosed()
+    private volatile boolean closed;
+    
+    // Watermark triggers; null (one volatile read per operation) when none registered
+    private volatile Watermarks watermarks;
 
     /**
-     * Constructs a blocking queue with the specified capacity.
+     * Constructs a LinkedList-backed blocking queue with the specified capacity.
      * 
      * @param capacity maximum number of elements, must be positive
      * @throws IllegalArgumentException if capacity is not positive
      */
     public AdvancedBlockingQueue(int capacity) {
+        this(capacity, QueueStorage.LINKED_LIST);
+    }
+
+    /**
+     * Constructs a blocking queue with the specified capacity and storage.
+     * 
+     * @param capacity maximum number of elements, must be positive
+     * @param storage backing storage strategy, must not be null
+     * @throws IllegalArgumentException if capacity is not positive
+     * @throws NullPointerException if storage is null
+     */
+    public AdvancedBlockingQueue(int capacity, QueueStorage storage) {
+        this(capacity, storage, true);
+    }
+
+    /**
+     * Constructs a blocking queue with the specified capacity, storage and lock fairness.
+     * Unfair mode lets arriving threads barge ahead of waiting ones: higher throughput,
+     * no starvation guarantee. Intended for benchmarking the cost of fairness.
+     * 
+     * @param capacity maximum number of elements, must be positive
+     * @param storage backing storage strategy, must not be null
+     * @param fair true for a fair (FIFO hand-off) lock
+     * @throws IllegalArgumentException if capacity is not positive
+     * @throws NullPointerException if storage is null
+     */
+    public AdvancedBlockingQueue(int capacity, QueueStorage storage, boolean fair) {
         if (capacity <= 0) {
             throw new IllegalArgumentException("Queue capacity must be positive, got: " + capacity);
         }
+        if (storage == null) {
+            throw new NullPointerException("Queue storage must not be null");
+        }
         this.capacity = capacity;
-        this.queue = new LinkedList<>();
+        this.storage = storage;
+        this.queue = (storage == QueueStorage.RING_BUFFER) 
+            ? new ArrayRingBuffer<>(capacity) 
+            : new LinkedList<>();
+        this.lock = new ReentrantLock(fair);
+        this.notFull = lock.newCondition();
+        this.notEmpty = lock.newCondition();
     }
 
     /**
@@ -48,22 +105,40 @@ public class AdvancedBlockingQueue<T> {
      * @param item the element to add, must not be null
      * @throws InterruptedException if interrupted while waiting
      * @throws NullPointerException if item is null
+     * @throws QueueClosedException if the queue is closed, before or while waiting
      */
+    @Override
     public void put(T item) throws InterruptedException {
         if (item == null) {
             throw new NullPointerException("Cannot add null elements to queue");
         }
         
-        lock.lockInterruptibly();
+        QueueEvents.Put event = null;
+        if (QueueEvents.queueEventsEnabled) {
+            event = new QueueEvents.Put();
+            event.begin();
+        }
+        int crossing;
+        lockInterruptibly("put");
         try {
+            ensureOpenLocked("put");
             while (queue.size() == capacity) {
                 notFull.await();
+                ensureOpenLocked("put");
             }
             queue.add(item);
+            count++;
+            crossing = crossedLocked();
             notEmpty.signal();
         } finally {
             lock.unlock();
         }
+        fire(crossing);
+        if (event != null && event.shouldCommit()) {
+            event.queueSize = count;
+            event.capacity = capacity;
+            event.commit();
+        }
     }
 
     /**
@@ -71,19 +146,37 @@ public class AdvancedBlockingQueue<T> {
      * 
      * @return the head of this queue
      * @throws InterruptedException if interrupted while waiting
+     * @throws QueueClosedException if the queue is closed and empty
      */
+    @Override
     public T take() throws InterruptedException {
-        lock.lockInterruptibly();
+        QueueEvents.Take event = null;
+        if (QueueEvents.queueEventsEnabled) {
+            event = new QueueEvents.Take();
+            event.begin();
+        }
+        T item;
+        int crossing;
+        lockInterruptibly("take");
         try {
             while (queue.isEmpty()) {
+                ensureOpenLocked("take");
                 notEmpty.await();
             }
-            T item = queue.poll();
+            item = queue.poll();
+            count--;
+            crossing = crossedLocked();
             notFull.signal();
-            return item;
         } finally {
             lock.unlock();
         }
+        fire(crossing);
+        if (event != null && event.shouldCommit()) {
+            event.queueSize = count;
+            event.capacity = capacity;
+            event.commit();
+        }
+        return item;
     }
 
     /**
@@ -95,25 +188,54 @@ public class AdvancedBlockingQueue<T> {
      * @return true if successful, false if timeout elapsed
      * @throws InterruptedException if interrupted while waiting
      * @throws NullPointerException if item is null
+     * @throws QueueClosedException if the queue is closed, before or while waiting
      */
+    @Override
     public boolean offer(T item, long timeout, TimeUnit unit) throws InterruptedException {
         if (item == null) {
             throw new NullPointerException("Cannot add null elements to queue");
         }
         
+        QueueEvents.Put event = null;
+        QueueEvents.OfferTimeout timeoutEvent = null;
+        if (QueueEvents.queueEventsEnabled) {
+            event = new QueueEvents.Put();
+            timeoutEvent = new QueueEvents.OfferTimeout();
+            event.begin();
+            timeoutEvent.begin();
+        }
         long nanos = unit.toNanos(timeout);
-        lock.lockInterruptibly();
+        int crossing;
+        lockInterruptibly("offer");
         try {
+            ensureOpenLocked("offer");
             while (queue.size() == capacity) {
-                if (nanos <= 0) return false;
+                if (nanos <= 0) {
+                    if (timeoutEvent != null && timeoutEvent.shouldCommit()) {
+                        timeoutEvent.timeout = unit.toNanos(timeout);
+                        timeoutEvent.capacity = capacity;
+                        timeoutEvent.commit();
+                    }
+                    return false;
+                }
                 nanos = notFull.awaitNanos(nanos);
+                ensureOpenLocked("offer");
             }
             queue.add(item);
+            count++;
+            crossing = crossedLocked();
             notEmpty.signal();
-            return true;
         } finally {
             lock.unlock();
         }
+        fire(crossing);
+        if (event != null && event.shouldCommit()) {
+            event.queueSize = count;
+            event.capacity = capacity;
+            event.timed = true;
+            event.commit();
+        }
+        return true;
     }
 
     /**
@@ -123,35 +245,308 @@ public class AdvancedBlockingQueue<T> {
      * @param unit the time unit of the timeout
      * @return the head of this queue, or null if timeout elapsed
      * @throws InterruptedException if interrupted while waiting
+     * @throws QueueClosedException if the queue is closed and empty
      */
+    @Override
     public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+        QueueEvents.Take event = null;
+        QueueEvents.PollTimeout timeoutEvent = null;
+        if (QueueEvents.queueEventsEnabled) {
+            event = new QueueEvents.Take();
+            timeoutEvent = new QueueEvents.PollTimeout();
+            event.begin();
+            timeoutEvent.begin();
+        }
+        T item;
         long nanos = unit.toNanos(timeout);
-        lock.lockInterruptibly();
+        int crossing;
+        lockInterruptibly("poll");
         try {
             while (queue.isEmpty()) {
-                if (nanos <= 0) return null;
+                ensureOpenLocked("poll");
+                if (nanos <= 0) {
+                    if (timeoutEvent != null && timeoutEvent.shouldCommit()) {
+                        timeoutEvent.timeout = unit.toNanos(timeout);
+                        timeoutEvent.commit();
+                    }
+                    return null;
+                }
                 nanos = notEmpty.awaitNanos(nanos);
             }
-            T item = queue.poll();
+            item = queue.poll();
+            count--;
+            crossing = crossedLocked();
             notFull.signal();
-            return item;
         } finally {
             lock.unlock();
         }
+        fire(crossing);
+        if (event != null && event.shouldCommit()) {
+            event.queueSize = count;
+            event.capacity = capacity;
+            event.timed = true;
+            event.commit();
+        }
+        return item;
     }
 
     /**
-     * Returns the current number of elements in the queue.
+     * Removes up to maxElements available elements under a single lock acquisition.
      * 
-     * @return the number of elements currently in the queue
+     * @param target collection to receive the elements, must not be null
+     * @param maxElements maximum number of elements to transfer
+     * @return number of elements transferred
      */
-    public int getSize() {
+    @Override
+    public int drainTo(Collection<? super T> target, int maxElements) {
+        if (target == null) {
+            throw new NullPointerException("Drain target must not be null");
+        }
+        int transferred;
+        int crossing;
+        lock.lock();
+        try {
+            transferred = drainLocked(target, maxElements);
+            crossing = crossedLocked();
+        } finally {
+            lock.unlock();
+        }
+        fire(crossing);
+        return transferred;
+    }
+
+    /**
+     * Waits for at least one element, then drains up to maxElements,
+     * all under a single lock acquisition.
+     * 
+     * @param target collection to receive the elements, must not be null
+     * @param maxElements maximum number of elements to transfer
+     * @param timeout how long to wait for the first element
+     * @param unit the time unit of the timeout
+     * @return number of elements transferred, 0 if timeout elapsed
+     * @throws InterruptedException if interrupted while waiting
+     * @throws QueueClosedException if the queue is closed and empty
+     */
+    @Override
+    public int takeBatch(Collection<? super T> target, int maxElements, 
+                         long timeout, TimeUnit unit) throws InterruptedException {
+        if (target == null) {
+            throw new NullPointerException("Batch target must not be null");
+        }
+        long nanos = unit.toNanos(timeout);
+        int transferred;
+        int crossing;
+        lockInterruptibly("takeBatch");
+        try {
+            while (queue.isEmpty()) {
+                ensureOpenLocked("takeBatch");
+                if (nanos <= 0) return 0;
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            transferred = drainLocked(target, maxElements);
+            crossing = crossedLocked();
+        } finally {
+            lock.unlock();
+        }
+        fire(crossing);
+        return transferred;
+    }
+
+    /**
+     * Inserts all elements in order, filling as much free space as possible
+     * per lock acquisition and waiting only when the queue is full.
+     * 
+     * @param items elements to add, none may be null
+     * @throws InterruptedException if interrupted while waiting (elements already added stay queued)
+     * @throws NullPointerException if any element is null (nothing is inserted)
+     * @throws QueueClosedException if the queue is closed (elements already added stay queued)
+     */
+    @Override
+    public void putAll(Collection<? extends T> items) throws InterruptedException {
+        for (T item : items) {
+            if (item == null) {
+                throw new NullPointerException("Cannot add null elements to queue");
+            }
+        }
+        
+        int crossing = NO_CROSSING;
+        lockInterruptibly("putAll");
+        try {
+            ensureOpenLocked("putAll");
+            for (T item : items) {
+                while (queue.size() == capacity) {
+                    notEmpty.signalAll(); // Let consumers drain what we have added so far
+                    notFull.await();
+                    ensureOpenLocked("putAll");
+                }
+                queue.add(item);
+                count++;
+                int crossed = crossedLocked();
+                if (crossed != NO_CROSSING) {
+                    crossing = crossed;
+                }
+            }
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        fire(crossing);
+    }
+
+    /**
+     * Closes the queue. One lock acquisition and a signalAll on each condition
+     * wake every blocked producer and consumer together, instead of a poison
+     * pill relayed consumer to consumer; a full queue cannot block it either.
+     * 
+     * @return true
+     */
+    @Override
+    public boolean close() {
         lock.lock();
         try {
-            return queue.size();
+            if (!closed) {
+                closed = true;
+                notEmpty.signalAll();
+                notFull.signalAll();
+            }
         } finally {
             lock.unlock();
         }
+        return true;
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Registers a listener fired when the size rises to highWatermark and when it
+     * falls back to lowWatermark. Crossings are detected under the lock, so each
+     * one fires exactly once; the listener runs after the lock is released.
+     * 
+     * @param highWatermark size at or above which onHighWatermark fires
+     * @param lowWatermark size at or below which onLowWatermark fires, less than highWatermark
+     * @param listener callback, or null to remove
+     * @return true
+     * @throws IllegalArgumentException if not 0 &lt;= low &lt; high &lt;= capacity
+     */
+    @Override
+    public boolean setWatermarkListener(int highWatermark, int lowWatermark, WatermarkListener listener) {
+        if (listener != null && (lowWatermark < 0 || lowWatermark >= highWatermark || highWatermark > capacity)) {
+            throw new IllegalArgumentException("Watermarks must satisfy 0 <= low < high <= capacity, got: "
+                                               + lowWatermark + ", " + highWatermark);
+        }
+        lock.lock();
+        try {
+            if (listener == null) {
+                watermarks = null;
+            } else {
+                Watermarks w = new Watermarks(highWatermark, lowWatermark, listener);
+                w.high = count >= highWatermark;
+                watermarks = w;
+            }
+        } finally {
+            lock.unlock();
+        }
+        return true;
+    }
+
+    /**
+     * Acquires the lock, recording a lock-wait event for the time it took.
+     */
+    private void lockInterruptibly(String operation) throws InterruptedException {
+        if (!QueueEvents.queueEventsEnabled) {
+            lock.lockInterruptibly();
+            return;
+        }
+        QueueEvents.LockWait event = new QueueEvents.LockWait();
+        event.begin();
+        lock.lockInterruptibly();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.queueSize = count;
+            event.commit();
+        }
+    }
+
+    /**
+     * Throws if the queue has been closed. Caller must hold the lock.
+     */
+    private void ensureOpenLocked(String operation) {
+        if (closed) {
+            throw new QueueClosedException("Queue is closed: " + operation);
+        }
+    }
+
+    /**
+     * Checks the current count against the watermarks and flips the hysteresis
+     * state on a crossing. Caller must hold the lock.
+     * 
+     * @return NO_CROSSING, size + 1 for a high crossing, or -(size + 1) for a low crossing
+     */
+    private int crossedLocked() {
+        Watermarks w = watermarks;
+        if (w == null) {
+            return NO_CROSSING;
+        }
+        if (!w.high && count >= w.highWatermark) {
+            w.high = true;
+            return count + 1;
+        }
+        if (w.high && count <= w.lowWatermark) {
+            w.high = false;
+            return -(count + 1);
+        }
+        return NO_CROSSING;
+    }
+
+    /**
+     * Notifies the listener of a crossing. Called without the lock held.
+     */
+    private void fire(int crossing) {
+        if (crossing == NO_CROSSING) {
+            return;
+        }
+        Watermarks w = watermarks;
+        if (w == null) {
+            return; // Removed since the crossing
+        }
+        if (crossing > 0) {
+            w.listener.onHighWatermark(crossing - 1, capacity);
+        } else {
+            w.listener.onLowWatermark(-crossing - 1, capacity);
+        }
+    }
+
+    /**
+     * Moves up to maxElements from the queue to target. Caller must hold the lock.
+     */
+    private int drainLocked(Collection<? super T> target, int maxElements) {
+        int transferred = 0;
+        while (transferred < maxElements && !queue.isEmpty()) {
+            target.add(queue.poll());
+            transferred++;
+        }
+        count -= transferred;
+        // One freed slot per waiting producer
+        for (int i = 0; i < transferred; i++) {
+            notFull.signal();
+        }
+        return transferred;
+    }
+
+    /**
+     * Returns the current number of elements in the queue.
+     * Lock-free read of a volatile counter, so monitoring (dashboard,
+     * auto-scaler, metrics scrapes, log size probes) never contends with
+     * producers and consumers for the fair lock.
+     * 
+     * @return the number of elements currently in the queue
+     */
+    @Override
+    public int getSize() {
+        return count;
     }
     
     /**
@@ -159,7 +554,44 @@ public class AdvancedBlockingQueue<T> {
      * 
      * @return the maximum number of elements this queue can hold
      */
+    @Override
     public int getCapacity() {
         return capacity;
     }
+    
+    /**
+     * Returns the storage strategy chosen at construction.
+     * 
+     * @return the backing storage strategy
+     */
+    public QueueStorage getStorage() {
+        return storage;
+    }
+    
+    /**
+     * Returns whether the queue lock is fair.
+     * 
+     * @return true if waiting threads are served in FIFO order
+     */
+    public boolean isFair() {
+        return lock.isFair();
+    }
+    
+    private static final int NO_CROSSING = 0;
+    
+    /**
+     * Watermark thresholds, listener and hysteresis state.
+     */
+    private static final class Watermarks {
+        final int highWatermark;
+        final int lowWatermark;
+        final WatermarkListener listener;
+        boolean high; // Guarded by the queue lock: last event was HIGH
+        
+        Watermarks(int highWatermark, int lowWatermark, WatermarkListener listener) {
+            this.highWatermark = highWatermark;
+            this.lowWatermark = lowWatermark;
+            this.listener = listener;
+        }
+    }
 }
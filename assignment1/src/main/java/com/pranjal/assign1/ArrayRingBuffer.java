@@ -0,0 +1,106 @@
+package com.pranjal.assign1;
+
+import java.util.AbstractQueue;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Fixed-capacity circular array used as queue storage.
+ * 
+ * All slots are allocated up front, so adding and removing elements
+ * produces no garbage. NOT thread-safe - callers must hold their own lock.
+ * 
+ * @param <T> the type of elements held in this buffer
+ * @author Pranjal
+ * @version 2.1
+ */
+class ArrayRingBuffer<T> extends AbstractQueue<T> {
+
+    private final Object[] items;
+    private int head;   // index of next element to remove
+    private int tail;   // index of next free slot
+    private int count;
+
+    /**
+     * Constructs a ring buffer with the given number of slots.
+     * 
+     * @param capacity number of slots, must be positive
+     * @throws IllegalArgumentException if capacity is not positive
+     */
+    ArrayRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Ring buffer capacity must be positive, got: " + capacity);
+        }
+        this.items = new Object[capacity];
+    }
+
+    @Override
+    public boolean offer(T item) {
+        if (item == null) {
+            throw new NullPointerException("Cannot add null elements to ring buffer");
+        }
+        if (count == items.length) {
+            return false;
+        }
+        items[tail] = item;
+        if (++tail == items.length) tail = 0;
+        count++;
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T poll() {
+        if (count == 0) {
+            return null;
+        }
+        T item = (T) items[head];
+        items[head] = null; // Release reference for GC
+        if (++head == items.length) head = 0;
+        count--;
+        return item;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T peek() {
+        return count == 0 ? null : (T) items[head];
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    @Override
+    public void clear() {
+        while (count > 0) {
+            poll();
+        }
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private int index = head;
+            private int remaining = count;
+
+            @Override
+            public boolean hasNext() {
+                return remaining > 0;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() {
+                if (remaining == 0) {
+                    throw new NoSuchElementException();
+                }
+                T item = (T) items[index];
+                if (++index == items.length) index = 0;
+                remaining--;
+                return item;
+            }
+        };
+    }
+}
@@ -0,0 +1,222 @@
+package com.pranjal.assign1;
+
+import java.io.PrintWriter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous batched text sink.
+ * 
+ * Callers only enqueue an event into a lock-free ring buffer
+ * ({@link LockFreeBoundedQueue}); a dedicated writer thread formats the
+ * events and writes them in batches. Output is flushed when
+ * flushBatchSize lines are pending or flushIntervalMillis has passed,
+ * whichever comes first.
+ * 
+ * When the ring is full, callers block (spin, then park) until the writer
+ * catches up, so events are never dropped. close() drains the ring before
+ * closing the file.
+ * 
+ * @author Pranjal
+ * @version 2.1
+ */
+class AsyncLogSink implements LogSink {
+
+    static final int DEFAULT_RING_CAPACITY = 8192;
+    static final int DEFAULT_FLUSH_BATCH_SIZE = 256;
+    static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 100;
+
+    private final PrintWriter writer;
+    private final LockFreeBoundedQueue<LogEvent> ring;
+    private final int flushBatchSize;
+    private final long flushIntervalNanos;
+    private final Thread writerThread;
+
+    private volatile boolean closed = false;
+    // Set while the writer thread is parked on an empty ring
+    private volatile boolean writerIdle = false;
+
+    /**
+     * Creates an async sink with default ring size and flush policy.
+     * 
+     * @param writer destination, owned (and closed) by this sink
+     */
+    AsyncLogSink(PrintWriter writer) {
+        this(writer, DEFAULT_RING_CAPACITY, DEFAULT_FLUSH_BATCH_SIZE, DEFAULT_FLUSH_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Creates an async sink and starts its writer thread.
+     * 
+     * @param writer destination, owned (and closed) by this sink
+     * @param ringCapacity events buffered before callers block
+     * @param flushBatchSize flush after this many unflushed lines
+     * @param flushIntervalMillis flush pending lines at least this often
+     * @throws IllegalArgumentException if any size or interval is not positive
+     */
+    AsyncLogSink(PrintWriter writer, int ringCapacity, int flushBatchSize, long flushIntervalMillis) {
+        if (flushBatchSize <= 0) {
+            throw new IllegalArgumentException("Flush batch size must be positive, got: " + flushBatchSize);
+        }
+        if (flushIntervalMillis <= 0) {
+            throw new IllegalArgumentException("Flush interval must be positive, got: " + flushIntervalMillis);
+        }
+        this.writer = writer;
+        this.ring = new LockFreeBoundedQueue<>(ringCapacity, WaitStrategy.SPIN_THEN_PARK);
+        this.flushBatchSize = flushBatchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+
+        this.writerThread = new Thread(this::runWriter, "Log-Writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @Override
+    public void write(long epochMillis, String component, String message) {
+        if (!closed) {
+            enqueue(new LogEvent(epochMillis, component, EventType.MESSAGE, message, -1));
+        }
+    }
+
+    /**
+     * Enqueues the raw event; the writer thread renders the message.
+     */
+    @Override
+    public void writeEvent(long epochMillis, String component, EventType type, Object item, int queueSize) {
+        if (!closed) {
+            enqueue(new LogEvent(epochMillis, component, type, item, queueSize));
+        }
+    }
+
+    private void enqueue(LogEvent event) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                ring.put(event);
+                break;
+            } catch (InterruptedException e) {
+                // Logging must not swallow or lose the caller's interrupt
+                interrupted = true;
+            }
+        }
+        if (writerIdle) {
+            LockSupport.unpark(writerThread);
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Stops accepting events, waits for the writer thread to drain the ring,
+     * then flushes and closes the file.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        LockSupport.unpark(writerThread);
+        boolean interrupted = false;
+        while (writerThread.isAlive()) {
+            try {
+                writerThread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        // Callers that passed the closed check just before close() may still
+        // have published; write them rather than drop them.
+        drain();
+        writer.close();
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns the number of events waiting to be written.
+     * 
+     * @return current ring occupancy
+     */
+    int getPending() {
+        return ring.getSize();
+    }
+
+    // ==========================================
+    // WRITER THREAD
+    // ==========================================
+
+    private void runWriter() {
+        int unflushed = 0;
+        long lastFlush = System.nanoTime();
+
+        while (true) {
+            LogEvent event = ring.tryPoll();
+            if (event != null) {
+                event.writeTo(writer);
+                if (++unflushed >= flushBatchSize) {
+                    writer.flush();
+                    unflushed = 0;
+                    lastFlush = System.nanoTime();
+                }
+                continue;
+            }
+
+            // Ring is empty: flush if the interval has passed, then sleep
+            long now = System.nanoTime();
+            if (unflushed > 0 && now - lastFlush >= flushIntervalNanos) {
+                writer.flush();
+                unflushed = 0;
+                lastFlush = now;
+            }
+            if (closed) {
+                break;
+            }
+
+            writerIdle = true;
+            if (ring.getSize() == 0 && !closed) {
+                long parkNanos = unflushed > 0 ? flushIntervalNanos - (now - lastFlush) : flushIntervalNanos;
+                LockSupport.parkNanos(this, parkNanos);
+            }
+            writerIdle = false;
+        }
+        writer.flush();
+    }
+
+    /**
+     * Writes whatever is left in the ring. Only called once the writer thread has exited.
+     */
+    private void drain() {
+        LogEvent event;
+        while ((event = ring.tryPoll()) != null) {
+            event.writeTo(writer);
+        }
+        writer.flush();
+    }
+
+    /**
+     * One buffered log call. Formatting is deferred to the writer thread.
+     */
+    private static final class LogEvent {
+        final long epochMillis;
+        final String component;
+        final EventType type;
+        final Object item;
+        final int queueSize;
+
+        LogEvent(long epochMillis, String component, EventType type, Object item, int queueSize) {
+            this.epochMillis = epochMillis;
+            this.component = component;
+            this.type = type;
+            this.item = item;
+            this.queueSize = queueSize;
+        }
+
+        void writeTo(PrintWriter out) {
+            String message = type.format(String.valueOf(item), queueSize);
+            FileLogSink.format(out, epochMillis, component, message);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.pranjal.assign1;
+
+import java.io.PrintStream;
+import java.util.Locale;
+
+/**
+ * Outcome of one BenchmarkRunner run: throughput, latency percentiles,
+ * allocation and a queueing model comparison over the measured window.
+ *
+ * Printed as a console report and serialized to JSON for scripts that
+ * compare runs.
+ *
+ * @author Pranjal
+ * @version 2.1
+ */
+public final class BenchmarkResult {
+
+    private final Configuration config;
+    private final ThinkTime producerThinkTime;
+    private final ThinkTime consumerThinkTime;
+    private final long warmupMillis;
+    private final long elapsedNanos;
+    private final long produced;
+    private final long consumed;
+    private final double itemsPerLockAcquisition;
+    private final LatencySnapshot[] latencies = new LatencySnapshot[LatencyKind.values().length];
+    private final QueueingModelReport model;
+    private final long allocatedBytes;
+    private final long gcCount;
+    private final long gcMillis;
+
+    BenchmarkResult(Configuration config, ThinkTime producerThinkTime, ThinkTime consumerThinkTime,
+                    long warmupMillis, long elapsedNanos, MetricsCollector measured, double meanDepth,
+                    long allocatedBytes, long gcCount, long gcMillis) {
+        this.config = config;
+        this.producerThinkTime = producerThinkTime;
+        this.consumerThinkTime = consumerThinkTime;
+        this.warmupMillis = warmupMillis;
+        this.elapsedNanos = elapsedNanos;
+        this.produced = measured.getTotalProduced();
+        this.consumed = measured.getTotalConsumed();
+        this.itemsPerLockAcquisition = measured.getItemsPerLockAcquisition();
+        for (LatencyKind kind : LatencyKind.values()) {
+            latencies[kind.ordinal()] = measured.getLatency(kind);
+        }
+        this.model = new QueueingModelReport(config.getNumberOfConsumers(), produced / (elapsedNanos / 1e9),
+                                             getLatency(LatencyKind.PROCESSING).getMean(),
+                                             consumerThinkTime.getDistribution().getScv(),
+                                             meanDepth, getLatency(LatencyKind.QUEUE_WAIT).getMean());
+        this.allocatedBytes = allocatedBytes;
+        this.gcCount = gcCount;
+        this.gcMillis = gcMillis;
+    }
+
+    public Configuration getConfiguration() {
+        return config;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public long getProduced() {
+        return produced;
+    }
+
+    public long getConsumed() {
+        return consumed;
+    }
+
+    /**
+     * Returns items consumed per second over the measured window.
+     *
+     * @return consumption throughput
+     */
+    public double getThroughput() {
+        return consumed / (elapsedNanos / 1e9);
+    }
+
+    public LatencySnapshot getLatency(LatencyKind kind) {
+        return latencies[kind.ordinal()];
+    }
+
+    /**
+     * Returns the measured-versus-predicted queue depth and wait.
+     *
+     * @return queueing model comparison
+     */
+    public QueueingModelReport getQueueingModel() {
+        return model;
+    }
+
+    /**
+     * Returns heap bytes allocated by platform threads during the measured window.
+     *
+     * @return bytes, or -1 if the JVM does not track thread allocation
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * Returns the allocation rate over the measured window.
+     *
+     * @return bytes per second, or -1 if not tracked
+     */
+    public double getAllocationRate() {
+        return allocatedBytes < 0 ? -1 : allocatedBytes / (elapsedNanos / 1e9);
+    }
+
+    /**
+     * Returns allocated bytes per consumed item.
+     *
+     * @return bytes per item, or -1 if not tracked or nothing was consumed
+     */
+    public double getBytesPerItem() {
+        return allocatedBytes < 0 || consumed == 0 ? -1 : (double) allocatedBytes / consumed;
+    }
+
+    /**
+     * Prints the report in the style of the simulation's analysis results.
+     *
+     * @param out destination
+     */
+    public void print(PrintStream out) {
+        out.println();
+        out.println("=".repeat(70));
+        out.println("                    BENCHMARK RESULTS");
+        out.println("=".repeat(70));
+
+        out.println("\n[SETUP]");
+        out.println("  Configuration:            " + config);
+        out.println("  Think Time:               producer " + producerThinkTime + ", consumer " + consumerThinkTime);
+        out.println(String.format("  Warmup / Measured:        %d ms / %.0f ms", warmupMillis, elapsedNanos / 1e6));
+
+        out.println("\n[THROUGHPUT]");
+        out.println("  Items Produced:           " + produced);
+        out.println("  Items Consumed:           " + consumed);
+        out.println(String.format("  Throughput:               %,.0f items/sec", getThroughput()));
+        out.println(String.format("  Items per Lock Acquisition: %.2f", itemsPerLockAcquisition));
+
+        out.println("\n[LATENCY]");
+        for (LatencyKind kind : LatencyKind.values()) {
+            out.println(String.format("  %-26s%s", kind.getLabel() + ":", getLatency(kind)));
+        }
+
+        out.println("\n[QUEUEING MODEL]");
+        model.print(out);
+
+        out.println("\n[ALLOCATION]");
+        if (allocatedBytes < 0) {
+            out.println("  Allocation Rate:          not tracked by this JVM");
+        } else {
+            out.println(String.format("  Allocation Rate:          %.1f MB/sec (%.0f bytes/item)",
+                getAllocationRate() / (1024 * 1024), getBytesPerItem()));
+        }
+        out.println(String.format("  GC:                       %d collections, %d ms", gcCount, gcMillis));
+        out.println("=".repeat(70));
+    }
+
+    /**
+     * Serializes the result as a single JSON object. Latencies are in
+     * nanoseconds, rates per second; -1 marks values the JVM did not provide.
+     *
+     * @return JSON text
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder(1024);
+        json.append("{\n");
+        json.append("  \"queue\": \"").append(config.getQueueType()).append("\",\n");
+        json.append("  \"waitStrategy\": \"").append(config.getWaitStrategy()).append("\",\n");
+        json.append("  \"metrics\": \"").append(config.getMetricsType()).append("\",\n");
+        json.append("  \"executor\": \"").append(config.getExecutorType()).append("\",\n");
+        json.append("  \"producers\": ").append(config.getNumberOfProducers()).append(",\n");
+        json.append("  \"consumers\": ").append(config.getNumberOfConsumers()).append(",\n");
+        json.append("  \"capacity\": ").append(config.getQueueCapacity()).append(",\n");
+        json.append("  \"batchSize\": ").append(config.getConsumerBatchSize()).append(",\n");
+        json.append("  \"fsync\": ").append(config.isWriteAheadLogEnabled()
+            ? "\"" + config.getFsyncPolicy() + ":" + config.getFsyncEvery() + "\"" : "null").append(",\n");
+        json.append("  \"producerThink\": \"").append(producerThinkTime).append("\",\n");
+        json.append("  \"consumerThink\": \"").append(consumerThinkTime).append("\",\n");
+        json.append("  \"warmupMillis\": ").append(warmupMillis).append(",\n");
+        json.append("  \"measuredNanos\": ").append(elapsedNanos).append(",\n");
+        json.append("  \"produced\": ").append(produced).append(",\n");
+        json.append("  \"consumed\": ").append(consumed).append(",\n");
+        json.append("  \"throughputPerSec\": ").append(decimal(getThroughput())).append(",\n");
+        json.append("  \"itemsPerLockAcquisition\": ").append(decimal(itemsPerLockAcquisition)).append(",\n");
+        json.append("  \"latencyNanos\": {\n");
+        LatencyKind[] kinds = LatencyKind.values();
+        for (int i = 0; i < kinds.length; i++) {
+            LatencySnapshot s = getLatency(kinds[i]);
+            json.append("    \"").append(kinds[i]).append("\": {\"count\": ").append(s.getCount())
+                .append(", \"mean\": ").append(decimal(s.getMean()))
+                .append(", \"p50\": ").append(s.getP50())
+                .append(", \"p90\": ").append(s.getP90())
+                .append(", \"p99\": ").append(s.getP99())
+                .append(", \"p999\": ").append(s.getP999())
+                .append(", \"max\": ").append(s.getMax()).append('}')
+                .append(i < kinds.length - 1 ? ",\n" : "\n");
+        }
+        json.append("  },\n");
+        json.append("  \"queueingModel\": ").append(model.toJson()).append(",\n");
+        json.append("  \"allocatedBytes\": ").append(allocatedBytes).append(",\n");
+        json.append("  \"allocationBytesPerSec\": ").append(decimal(getAllocationRate())).append(",\n");
+        json.append("  \"bytesPerItem\": ").append(decimal(getBytesPerItem())).append(",\n");
+        json.append("  \"gcCount\": ").append(gcCount).append(",\n");
+        json.append("  \"gcMillis\": ").append(gcMillis).append('\n');
+        json.append("}\n");
+        return json.toString();
+    }
+
+    /**
+     * Formats a double with a dot decimal separator regardless of locale.
+     */
+    private static String decimal(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+}
@@ -0,0 +1,297 @@
+package com.pranjal.assign1;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Headless max-throughput run of the configured queue (Main --bench).
+ *
+ * Producers and consumers run with configurable, usually zero, think times
+ * and no dashboard, auto-scaler or metrics endpoint. After a warmup phase
+ * the workers' metrics are switched to a fresh collector for the measured
+ * window, so counts and latency percentiles cover only that window. Heap
+ * allocation is read from the per-thread allocation counters of the JVM,
+ * which do not see virtual threads. Queue depth is sampled every
+ * millisecond during the window so the result can be checked against
+ * queueing-theory predictions ({@link QueueingModelReport}). With a
+ * write-ahead log configured the queue is a {@link DurableQueue}, so the
+ * cost of each fsync policy shows up in throughput and latency; with a
+ * spill directory it is a {@link SpillingQueue}, and page-ins are measured
+ * as {@link LatencyKind#PAGE_IN}. A pipeline cannot be benchmarked.
+ *
+ * @author Pranjal
+ * @version 2.1
+ */
+public class BenchmarkRunner {
+
+    private final Configuration config;
+    private final ThinkTime producerThinkTime;
+    private final ThinkTime consumerThinkTime;
+    private final long warmupMillis;
+    private final long measureMillis;
+
+    /**
+     * Creates a benchmark of one configuration.
+     *
+     * @param config queue, worker counts, batch size, metrics and executor type;
+     *               items per producer and scaling options are ignored
+     * @param producerThinkTime pause before each produced item, must not be null
+     * @param consumerThinkTime processing time per consumed item, must not be null
+     * @param warmupMillis run time before measuring, may be 0
+     * @param measureMillis measured run time, must be positive
+     * @throws IllegalArgumentException if a duration is out of range, or config is invalid or enables a pipeline
+     * @throws NullPointerException if a think time is null
+     */
+    public BenchmarkRunner(Configuration config, ThinkTime producerThinkTime, ThinkTime consumerThinkTime,
+                           long warmupMillis, long measureMillis) {
+        config.validate();
+        if (config.isPipelineEnabled()) {
+            throw new IllegalArgumentException("A pipeline cannot be benchmarked, only a single queue");
+        }
+        if (producerThinkTime == null || consumerThinkTime == null) {
+            throw new NullPointerException("Think times must not be null");
+        }
+        if (warmupMillis < 0 || measureMillis <= 0) {
+            throw new IllegalArgumentException("Warmup must be >= 0 and duration > 0, got: "
+                                               + warmupMillis + "ms, " + measureMillis + "ms");
+        }
+        this.config = config;
+        this.producerThinkTime = producerThinkTime;
+        this.consumerThinkTime = consumerThinkTime;
+        this.warmupMillis = warmupMillis;
+        this.measureMillis = measureMillis;
+    }
+
+    /**
+     * Runs warmup and measurement, then stops every worker.
+     *
+     * @return measured throughput, latency and allocation
+     * @throws InterruptedException if interrupted while running
+     * @throws java.io.UncheckedIOException if the configured write-ahead log or spill directory cannot be opened
+     */
+    public BenchmarkResult run() throws InterruptedException {
+        WindowedMetrics metrics = new WindowedMetrics(config.getMetricsType().create());
+        BoundedBlockingQueue<Object> queue = InstrumentedQueue.instrument(config.createQueue(), metrics);
+        WriteAheadLog log = null;
+        SpillingQueue<Object> spill = null;
+        if (config.isWriteAheadLogEnabled()) {
+            log = SimulationEngine.openWriteAheadLog(config);
+            queue = new DurableQueue<>(queue, log, WalCodec.TEXT);
+        } else if (config.isSpillEnabled()) {
+            spill = SimulationEngine.openSpillingQueue(config, queue, metrics);
+            queue = spill;
+        }
+        AtomicBoolean stopped = new AtomicBoolean(false);
+        ExecutorService consumerPool = config.getExecutorType().create("BenchConsumer-");
+        ExecutorService producerPool = config.getExecutorType().create("BenchProducer-");
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        DepthSampler depth = new DepthSampler(queue);
+        WorkItemPool itemPool = config.createItemPool();
+
+        Logger.log("BENCHMARK", "Starting " + config + " (think " + producerThinkTime + "/" + consumerThinkTime
+                   + ", warmup " + warmupMillis + "ms, measure " + measureMillis + "ms)");
+        for (int i = 1; i <= config.getNumberOfConsumers(); i++) {
+            consumerPool.execute(new ConsumerWorker(queue, "Consumer-" + i, metrics,
+                                                    config.getConsumerBatchSize(), null, consumerThinkTime, itemPool));
+        }
+        List<Future<?>> producers = new ArrayList<>();
+        for (int i = 1; i <= config.getNumberOfProducers(); i++) {
+            producers.add(producerPool.submit(new ProducerWorker(queue, i, Integer.MAX_VALUE, metrics,
+                                                                 producerThinkTime, stopped::get, itemPool)));
+        }
+
+        try {
+            Thread.sleep(warmupMillis);
+
+            MetricsCollector measured = config.getMetricsType().create();
+            long allocatedBefore = allocatedBytes();
+            long[] gcBefore = gcTotals();
+            long start = System.nanoTime();
+            metrics.switchTo(measured);
+            sampler.scheduleAtFixedRate(depth, 0, 1, TimeUnit.MILLISECONDS);
+
+            Thread.sleep(measureMillis);
+
+            metrics.switchTo(config.getMetricsType().create()); // Shutdown traffic is not measured
+            long elapsed = System.nanoTime() - start;
+            long allocatedAfter = allocatedBytes();
+            long[] gcAfter = gcTotals();
+            sampler.shutdown();
+            sampler.awaitTermination(1, TimeUnit.SECONDS); // Publishes the sampler's totals
+
+            return new BenchmarkResult(config, producerThinkTime, consumerThinkTime, warmupMillis, elapsed,
+                                       measured, depth.getMean(),
+                                       allocatedBefore < 0 ? -1 : allocatedAfter - allocatedBefore,
+                                       gcAfter[0] - gcBefore[0], gcAfter[1] - gcBefore[1]);
+        } finally {
+            sampler.shutdownNow();
+            try {
+                stop(queue, stopped, producers, producerPool, consumerPool);
+            } finally {
+                if (spill != null) {
+                    spill.close(); // No-op after stop(); rejects inserts if stop() was interrupted before it
+                    Logger.log("BENCHMARK", "Spilled " + spill.getTotalSpilledItems() + " items, "
+                               + spill.getSpilledItems() + " left on disk");
+                }
+                if (log != null) {
+                    try {
+                        log.close();
+                    } catch (IOException e) {
+                        Logger.log(LogLevel.WARN, "BENCHMARK", "Cannot close write-ahead log: " + e.getMessage());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops producers between items, then ends the stream for consumers.
+     */
+    private static void stop(BoundedBlockingQueue<Object> queue, AtomicBoolean stopped, List<Future<?>> producers,
+                             ExecutorService producerPool, ExecutorService consumerPool) throws InterruptedException {
+        stopped.set(true);
+        producerPool.shutdown();
+        for (Future<?> producer : producers) {
+            try {
+                producer.get();
+            } catch (ExecutionException e) {
+                Logger.log(LogLevel.WARN, "BENCHMARK", "Producer failed: " + e.getCause());
+            }
+        }
+        if (!queue.close()) {
+            queue.put(QueueCommand.POISON_PILL); // Safe: producers are done, queue can only shrink
+        }
+        consumerPool.shutdown();
+        if (!consumerPool.awaitTermination(30, TimeUnit.SECONDS)) {
+            consumerPool.shutdownNow();
+        }
+        Logger.log("BENCHMARK", "All workers stopped.");
+    }
+
+    /**
+     * Sums the bytes allocated so far by every live platform thread.
+     *
+     * @return bytes, or -1 if the JVM does not track thread allocation
+     */
+    static long allocatedBytes() {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+        com.sun.management.ThreadMXBean hotspot = (com.sun.management.ThreadMXBean) threads;
+        if (!hotspot.isThreadAllocatedMemorySupported() || !hotspot.isThreadAllocatedMemoryEnabled()) {
+            return -1;
+        }
+        long total = 0;
+        for (long bytes : hotspot.getThreadAllocatedBytes(hotspot.getAllThreadIds())) {
+            if (bytes > 0) {
+                total += bytes; // -1 for threads that died in between
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Returns total collections and collection time in milliseconds across all collectors.
+     */
+    private static long[] gcTotals() {
+        long count = 0;
+        long millis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+            millis += Math.max(0, gc.getCollectionTime());
+        }
+        return new long[] {count, millis};
+    }
+
+    /**
+     * Accumulates periodic queue size reads for a time-averaged depth.
+     * Runs on the single sampler thread; getSize() is a lock-free read.
+     */
+    private static final class DepthSampler implements Runnable {
+        private final BoundedBlockingQueue<Object> queue;
+        private long sum;
+        private long samples;
+
+        DepthSampler(BoundedBlockingQueue<Object> queue) {
+            this.queue = queue;
+        }
+
+        @Override
+        public void run() {
+            sum += queue.getSize();
+            samples++;
+        }
+
+        double getMean() {
+            return samples == 0 ? 0 : (double) sum / samples;
+        }
+    }
+
+    /**
+     * Forwards to a collector that can be swapped while workers run, so the
+     * measured window starts from zero without restarting anything.
+     * Costs workers one volatile read per call.
+     */
+    private static final class WindowedMetrics implements MetricsCollector {
+        private volatile MetricsCollector current;
+
+        WindowedMetrics(MetricsCollector initial) {
+            this.current = initial;
+        }
+
+        void switchTo(MetricsCollector next) {
+            current = next;
+        }
+
+        @Override
+        public void recordProduction() {
+            current.recordProduction();
+        }
+
+        @Override
+        public void recordConsumption() {
+            current.recordConsumption();
+        }
+
+        @Override
+        public void recordBatchConsumption(int items) {
+            current.recordBatchConsumption(items);
+        }
+
+        @Override
+        public long getTotalProduced() {
+            return current.getTotalProduced();
+        }
+
+        @Override
+        public long getTotalConsumed() {
+            return current.getTotalConsumed();
+        }
+
+        @Override
+        public double getItemsPerLockAcquisition() {
+            return current.getItemsPerLockAcquisition();
+        }
+
+        @Override
+        public void recordLatency(LatencyKind kind, long nanos) {
+            current.recordLatency(kind, nanos);
+        }
+
+        @Override
+        public LatencySnapshot getLatency(LatencyKind kind) {
+            return current.getLatency(kind);
+        }
+    }
+}
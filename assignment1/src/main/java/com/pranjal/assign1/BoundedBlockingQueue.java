@@ -0,0 +1,198 @@
+package com.pranjal.assign1;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Common contract for the bounded blocking queues used by the simulation.
+ * 
+ * Enables dependency injection - workers can run against any implementation
+ * (fair single-lock, two-lock, ...) without knowing which one.
+ * All methods must be thread-safe.
+ * 
+ * @param <T> the type of elements held in this queue
+ * @author Pranjal
+ * @version 2.1
+ */
+public interface BoundedBlockingQueue<T> {
+
+    /**
+     * Inserts the element, waiting if necessary for space.
+     * 
+     * @param item the element to add, must not be null
+     * @throws InterruptedException if interrupted while waiting
+     * @throws NullPointerException if item is null
+     */
+    void put(T item) throws InterruptedException;
+
+    /**
+     * Retrieves and removes the head, waiting if necessary for an element.
+     * 
+     * @return the head of this queue
+     * @throws InterruptedException if interrupted while waiting
+     */
+    T take() throws InterruptedException;
+
+    /**
+     * Inserts the element, waiting up to the specified time for space.
+     * 
+     * @param item the element to add, must not be null
+     * @param timeout how long to wait before giving up
+     * @param unit the time unit of the timeout
+     * @return true if successful, false if timeout elapsed
+     * @throws InterruptedException if interrupted while waiting
+     * @throws NullPointerException if item is null
+     */
+    boolean offer(T item, long timeout, TimeUnit unit) throws InterruptedException;
+
+    /**
+     * Retrieves and removes the head, waiting up to the specified time.
+     * 
+     * @param timeout how long to wait before giving up
+     * @param unit the time unit of the timeout
+     * @return the head of this queue, or null if timeout elapsed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    T poll(long timeout, TimeUnit unit) throws InterruptedException;
+
+    /**
+     * Removes up to maxElements available elements and adds them to target, without waiting.
+     * Default implementation polls one element at a time; lock-based queues override
+     * it to move the whole batch under a single lock acquisition.
+     * 
+     * @param target collection to receive the elements, must not be null
+     * @param maxElements maximum number of elements to transfer
+     * @return number of elements transferred
+     */
+    default int drainTo(Collection<? super T> target, int maxElements) {
+        int transferred = 0;
+        try {
+            T item;
+            while (transferred < maxElements && (item = poll(0, TimeUnit.NANOSECONDS)) != null) {
+                target.add(item);
+                transferred++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return transferred;
+    }
+
+    /**
+     * Waits up to the specified time for at least one element, then removes
+     * up to maxElements available elements and adds them to target.
+     * 
+     * @param target collection to receive the elements, must not be null
+     * @param maxElements maximum number of elements to transfer, must be positive
+     * @param timeout how long to wait for the first element
+     * @param unit the time unit of the timeout
+     * @return number of elements transferred, 0 if timeout elapsed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    default int takeBatch(Collection<? super T> target, int maxElements, 
+                          long timeout, TimeUnit unit) throws InterruptedException {
+        T first = poll(timeout, unit);
+        if (first == null) {
+            return 0;
+        }
+        target.add(first);
+        return 1 + drainTo(target, maxElements - 1);
+    }
+
+    /**
+     * Inserts all elements in iteration order, waiting as necessary for space.
+     * 
+     * @param items elements to add, none may be null
+     * @throws InterruptedException if interrupted while waiting
+     * @throws NullPointerException if any element is null
+     */
+    default void putAll(Collection<? extends T> items) throws InterruptedException {
+        for (T item : items) {
+            put(item);
+        }
+    }
+
+    /**
+     * Marks everything the calling thread has taken so far as processed.
+     * Consumers call it once an item or batch is done, so a queue that
+     * tracks delivery, such as {@link DurableQueue}, can tell an item that
+     * was taken and finished from one that was taken and lost in a crash.
+     * 
+     * Default implementation does not track delivery and does nothing.
+     */
+    default void acknowledge() {
+    }
+
+    /**
+     * Registers a listener fired when the size rises to highWatermark, and
+     * again when it falls back to lowWatermark. The gap between the two is
+     * the hysteresis that stops the listener flapping around one threshold.
+     * Replaces any previous listener; a null listener removes it.
+     * 
+     * Default implementation does not support watermarks; callers that get
+     * false back should poll {@link #getSize()} instead.
+     * 
+     * @param highWatermark size at or above which onHighWatermark fires
+     * @param lowWatermark size at or below which onLowWatermark fires, less than highWatermark
+     * @param listener callback, or null to remove
+     * @return true if the queue will fire watermark events
+     * @throws IllegalArgumentException if not 0 &lt;= low &lt; high &lt;= capacity
+     */
+    default boolean setWatermarkListener(int highWatermark, int lowWatermark, WatermarkListener listener) {
+        return false;
+    }
+
+    /**
+     * Asks the queue to report how long items wait in it, as
+     * {@link LatencyKind#QUEUE_WAIT}. Queues that store items as bytes cannot
+     * carry InstrumentedQueue's timestamp envelope, so they stamp their
+     * records themselves.
+     * 
+     * Default implementation does not; callers that get false back wrap the
+     * queue in an InstrumentedQueue instead.
+     * 
+     * @param metrics receives queue wait samples, or null to stop
+     * @return true if the queue will record queue wait
+     */
+    default boolean setQueueWaitRecorder(MetricsCollector metrics) {
+        return false;
+    }
+
+    /**
+     * Closes the queue for shutdown. Every waiting thread wakes at once:
+     * inserts fail from then on, while takes keep returning the remaining
+     * items and fail only when none are left. Both failures are
+     * {@link QueueClosedException}. Closing again has no effect.
+     * 
+     * Default implementation cannot be closed; callers that get false back
+     * must stop consumers another way, such as {@link QueueCommand#POISON_PILL}.
+     * 
+     * @return true if the queue is now closed
+     */
+    default boolean close() {
+        return false;
+    }
+
+    /**
+     * Returns whether {@link #close()} has been called.
+     * 
+     * @return true once closed; the queue may still hold items
+     */
+    default boolean isClosed() {
+        return false;
+    }
+
+    /**
+     * Returns the current number of elements in the queue.
+     * 
+     * @return the number of elements currently in the queue
+     */
+    int getSize();
+
+    /**
+     * Returns the maximum capacity of the queue.
+     * 
+     * @return the maximum number of elements this queue can hold
+     */
+    int getCapacity();
+}
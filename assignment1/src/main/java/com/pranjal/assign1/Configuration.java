@@ -1,5 +1,6 @@
 package com.pranjal.assign1;
 
+import java.util.List;
 import java.util.Scanner;
 
 /**
@@ -17,13 +18,47 @@ public class Configuration {
     private final int itemsPerProducer;
     private final int numberOfConsumers;
     private final int queueCapacity;
+    private final QueueType queueType;
+    private final WaitStrategy waitStrategy;
+    private final int consumerBatchSize;
+    private final MetricsType metricsType;
+    private final int metricsPort;
+    private final ExecutorType executorType;
+    private final ScalingPolicyType scalingPolicy;
+    private final int minConsumers; // -1 = numberOfConsumers
+    private final int maxConsumers; // -1 = derived, see getMaxConsumers()
+    private final String walDirectory; // null = in-memory only
+    private final FsyncPolicy fsyncPolicy;
+    private final int fsyncEvery;
+    private final String spillDirectory; // null = producers wait for space
+    private final int itemPoolSize; // 0 = allocate every item
+    private final List<StageSpec> pipeline; // null = one queue between producers and consumers
     
     private Configuration(int numberOfProducers, int itemsPerProducer, 
                          int numberOfConsumers, int queueCapacity) {
-        this.numberOfProducers = numberOfProducers;
-        this.itemsPerProducer = itemsPerProducer;
-        this.numberOfConsumers = numberOfConsumers;
-        this.queueCapacity = queueCapacity;
+        this(new Builder(numberOfProducers, itemsPerProducer, numberOfConsumers, queueCapacity));
+    }
+    
+    private Configuration(Builder builder) {
+        this.numberOfProducers = builder.numberOfProducers;
+        this.itemsPerProducer = builder.itemsPerProducer;
+        this.numberOfConsumers = builder.numberOfConsumers;
+        this.queueCapacity = builder.queueCapacity;
+        this.queueType = builder.queueType;
+        this.waitStrategy = builder.waitStrategy;
+        this.consumerBatchSize = builder.consumerBatchSize;
+        this.metricsType = builder.metricsType;
+        this.metricsPort = builder.metricsPort;
+        this.executorType = builder.executorType;
+        this.scalingPolicy = builder.scalingPolicy;
+        this.minConsumers = builder.minConsumers;
+        this.maxConsumers = builder.maxConsumers;
+        this.walDirectory = builder.walDirectory;
+        this.fsyncPolicy = builder.fsyncPolicy;
+        this.fsyncEvery = builder.fsyncEvery;
+        this.spillDirectory = builder.spillDirectory;
+        this.itemPoolSize = builder.itemPoolSize;
+        this.pipeline = builder.pipeline;
     }
     
     /**
@@ -144,6 +179,363 @@ public class Configuration {
         return queueCapacity;
     }
     
+    public QueueType getQueueType() {
+        return queueType;
+    }
+    
+    public WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+    
+    public int getConsumerBatchSize() {
+        return consumerBatchSize;
+    }
+    
+    public MetricsType getMetricsType() {
+        return metricsType;
+    }
+    
+    /**
+     * Returns the port of the Prometheus metrics endpoint.
+     * 
+     * @return TCP port, 0 for any free port, or -1 if the endpoint is disabled
+     */
+    public int getMetricsPort() {
+        return metricsPort;
+    }
+    
+    public boolean isMetricsEndpointEnabled() {
+        return metricsPort >= 0;
+    }
+    
+    public ExecutorType getExecutorType() {
+        return executorType;
+    }
+    
+    public ScalingPolicyType getScalingPolicy() {
+        return scalingPolicy;
+    }
+    
+    /**
+     * Returns the fewest consumers the auto-scaler keeps running.
+     * 
+     * @return explicit minimum, or the initial consumer count by default
+     */
+    public int getMinConsumers() {
+        return minConsumers >= 0 ? minConsumers : numberOfConsumers;
+    }
+    
+    /**
+     * Returns the most consumers the auto-scaler may run.
+     * 
+     * @return explicit maximum, or the minimum plus 3 emergency consumers by default
+     */
+    public int getMaxConsumers() {
+        return maxConsumers >= 0 ? maxConsumers
+                                 : Math.max(getMinConsumers(), numberOfConsumers) + ThresholdScalingPolicy.MAX_ADDITIONS;
+    }
+    
+    /**
+     * Returns the directory of the write-ahead log.
+     * 
+     * @return log directory, or null if the queue is in-memory only
+     */
+    public String getWalDirectory() {
+        return walDirectory;
+    }
+    
+    public boolean isWriteAheadLogEnabled() {
+        return walDirectory != null;
+    }
+    
+    public FsyncPolicy getFsyncPolicy() {
+        return fsyncPolicy;
+    }
+    
+    /**
+     * Returns the fsync policy's parameter.
+     * 
+     * @return appends per force for BATCH, milliseconds for INTERVAL, unused otherwise
+     */
+    public int getFsyncEvery() {
+        return fsyncEvery;
+    }
+    
+    /**
+     * Returns the directory items overflow to when the queue is full.
+     * 
+     * @return spill directory, or null if producers wait for space
+     */
+    public String getSpillDirectory() {
+        return spillDirectory;
+    }
+    
+    public boolean isSpillEnabled() {
+        return spillDirectory != null;
+    }
+    
+    /**
+     * Returns how many consumed work items are kept for producers to reuse.
+     * 
+     * @return pool capacity, or 0 if every item is allocated
+     */
+    public int getItemPoolSize() {
+        return itemPoolSize;
+    }
+    
+    /**
+     * Returns the stages items pass through, in order.
+     * 
+     * @return stages, unmodifiable, or null if consumers take from a single queue
+     */
+    public List<StageSpec> getPipelineStages() {
+        return pipeline;
+    }
+    
+    public boolean isPipelineEnabled() {
+        return pipeline != null;
+    }
+    
+    /**
+     * Returns a copy of this configuration using a different queue implementation.
+     * 
+     * @param queueType queue implementation to use, must not be null
+     * @return new configuration with the given queue type
+     * @throws NullPointerException if queueType is null
+     */
+    public Configuration withQueueType(QueueType queueType) {
+        if (queueType == null) {
+            throw new NullPointerException("Queue type must not be null");
+        }
+        Builder copy = new Builder(this);
+        copy.queueType = queueType;
+        return copy.build();
+    }
+    
+    /**
+     * Returns a copy of this configuration using a different wait strategy.
+     * Only affects {@link QueueType#LOCK_FREE}.
+     * 
+     * @param waitStrategy wait strategy for blocked callers, must not be null
+     * @return new configuration with the given wait strategy
+     * @throws NullPointerException if waitStrategy is null
+     */
+    public Configuration withWaitStrategy(WaitStrategy waitStrategy) {
+        if (waitStrategy == null) {
+            throw new NullPointerException("Wait strategy must not be null");
+        }
+        Builder copy = new Builder(this);
+        copy.waitStrategy = waitStrategy;
+        return copy.build();
+    }
+    
+    /**
+     * Returns a copy of this configuration with a different consumer batch size.
+     * A batch size of 1 keeps the original one-item-per-take behaviour.
+     * 
+     * @param consumerBatchSize maximum items a consumer takes per lock acquisition
+     * @return new configuration with the given batch size
+     */
+    public Configuration withConsumerBatchSize(int consumerBatchSize) {
+        Builder copy = new Builder(this);
+        copy.consumerBatchSize = consumerBatchSize;
+        return copy.build();
+    }
+    
+    /**
+     * Returns a copy of this configuration using a different metrics implementation.
+     * 
+     * @param metricsType metrics collector to use, must not be null
+     * @return new configuration with the given metrics type
+     * @throws NullPointerException if metricsType is null
+     */
+    public Configuration withMetricsType(MetricsType metricsType) {
+        if (metricsType == null) {
+            throw new NullPointerException("Metrics type must not be null");
+        }
+        Builder copy = new Builder(this);
+        copy.metricsType = metricsType;
+        return copy.build();
+    }
+    
+    /**
+     * Returns a copy of this configuration that serves Prometheus metrics on a port.
+     * 
+     * @param metricsPort TCP port (0 for any free port), or -1 to disable the endpoint
+     * @return new configuration with the given metrics port
+     * @throws IllegalArgumentException if metricsPort is not -1 or a valid port
+     */
+    public Configuration withMetricsPort(int metricsPort) {
+        if (metricsPort < -1 || metricsPort > 65535) {
+            throw new IllegalArgumentException("Metrics port must be -1 or 0-65535, got: " + metricsPort);
+        }
+        Builder copy = new Builder(this);
+        copy.metricsPort = metricsPort;
+        return copy.build();
+    }
+    
+    /**
+     * Returns a copy of this configuration running workers on a different kind of thread.
+     * 
+     * @param executorType platform or virtual worker threads, must not be null
+     * @return new configuration with the given executor type
+     * @throws NullPointerException if executorType is null
+     */
+    public Configuration withExecutorType(ExecutorType executorType) {
+        if (executorType == null) {
+            throw new NullPointerException("Executor type must not be null");
+        }
+        Builder copy = new Builder(this);
+        copy.executorType = executorType;
+        return copy.build();
+    }
+    
+    /**
+     * Returns a copy of this configuration using a different auto-scaling policy.
+     * 
+     * @param scalingPolicy policy deciding the consumer count, must not be null
+     * @return new configuration with the given policy
+     * @throws NullPointerException if scalingPolicy is null
+     */
+    public Configuration withScalingPolicy(ScalingPolicyType scalingPolicy) {
+        if (scalingPolicy == null) {
+            throw new NullPointerException("Scaling policy must not be null");
+        }
+        Builder copy = new Builder(this);
+        copy.scalingPolicy = scalingPolicy;
+        return copy.build();
+    }
+    
+    /**
+     * Returns a copy of this configuration with explicit auto-scaler bounds.
+     * 
+     * @param minConsumers fewest consumers to keep running
+     * @param maxConsumers most consumers to run, at least 1
+     * @return new configuration with the given bounds
+     * @throws IllegalArgumentException if min is negative, max is not positive, or min exceeds max
+     */
+    public Configuration withConsumerBounds(int minConsumers, int maxConsumers) {
+        if (minConsumers < 0 || maxConsumers <= 0 || minConsumers > maxConsumers) {
+            throw new IllegalArgumentException(
+                "Consumer bounds must satisfy 0 <= min <= max, max > 0, got: " + minConsumers + ".." + maxConsumers);
+        }
+        Builder copy = new Builder(this);
+        copy.minConsumers = minConsumers;
+        copy.maxConsumers = maxConsumers;
+        return copy.build();
+    }
+    
+    /**
+     * Returns a copy of this configuration whose queue is backed by a write-ahead log.
+     * 
+     * @param walDirectory log directory, or null for an in-memory queue
+     * @return new configuration with the given log directory
+     * @throws IllegalArgumentException if walDirectory is empty
+     */
+    public Configuration withWriteAheadLog(String walDirectory) {
+        if (walDirectory != null && walDirectory.isBlank()) {
+            throw new IllegalArgumentException("Write-ahead log directory must not be empty");
+        }
+        Builder copy = new Builder(this);
+        copy.walDirectory = walDirectory;
+        return copy.build();
+    }
+    
+    /**
+     * Returns a copy of this configuration with a different write-ahead log fsync policy.
+     * Only affects configurations with a log directory.
+     * 
+     * @param fsyncPolicy when the log forces its pages to disk, must not be null
+     * @param fsyncEvery appends per force for BATCH, milliseconds for INTERVAL
+     * @return new configuration with the given policy
+     * @throws NullPointerException if fsyncPolicy is null
+     * @throws IllegalArgumentException if fsyncEvery is not positive
+     */
+    public Configuration withFsyncPolicy(FsyncPolicy fsyncPolicy, int fsyncEvery) {
+        if (fsyncPolicy == null) {
+            throw new NullPointerException("Fsync policy must not be null");
+        }
+        if (fsyncEvery <= 0) {
+            throw new IllegalArgumentException("Fsync interval must be positive, got: " + fsyncEvery);
+        }
+        Builder copy = new Builder(this);
+        copy.fsyncPolicy = fsyncPolicy;
+        copy.fsyncEvery = fsyncEvery;
+        return copy.build();
+    }
+    
+    /**
+     * Returns a copy of this configuration whose queue spills to disk when full.
+     * 
+     * @param spillDirectory directory for spill files, or null to make producers wait for space
+     * @return new configuration with the given spill directory
+     * @throws IllegalArgumentException if spillDirectory is empty
+     */
+    public Configuration withSpillDirectory(String spillDirectory) {
+        if (spillDirectory != null && spillDirectory.isBlank()) {
+            throw new IllegalArgumentException("Spill directory must not be empty");
+        }
+        Builder copy = new Builder(this);
+        copy.spillDirectory = spillDirectory;
+        return copy.build();
+    }
+    
+    /**
+     * Returns a copy of this configuration whose workers recycle work items.
+     * 
+     * @param itemPoolSize most consumed items kept for reuse; about the queue
+     *        capacity plus the items workers hold is enough, 0 disables pooling
+     * @return new configuration with the given pool size
+     * @throws IllegalArgumentException if itemPoolSize is negative
+     */
+    public Configuration withItemPool(int itemPoolSize) {
+        if (itemPoolSize < 0) {
+            throw new IllegalArgumentException("Item pool size must be >= 0, got: " + itemPoolSize);
+        }
+        Builder copy = new Builder(this);
+        copy.itemPoolSize = itemPoolSize;
+        return copy.build();
+    }
+    
+    /**
+     * Returns a copy of this configuration whose items pass through a
+     * pipeline of stages instead of a single queue. Each stage gets a queue
+     * of the configured type and capacity; the consumer count and bounds
+     * are replaced by each stage's own worker bounds.
+     * 
+     * @param pipeline stages separated by ';', each "name:workers[..max][:serviceTime]",
+     *        or null for a single queue
+     * @return new configuration with the given pipeline
+     * @throws IllegalArgumentException if the pipeline is malformed
+     * @see StageSpec#parseAll(String)
+     */
+    public Configuration withPipeline(String pipeline) {
+        List<StageSpec> stages = pipeline == null ? null : StageSpec.parseAll(pipeline);
+        Builder copy = new Builder(this);
+        copy.pipeline = stages;
+        return copy.build();
+    }
+    
+    /**
+     * Creates the pool workers share, if pooling is enabled.
+     * 
+     * @return new empty pool, or null if every item is allocated
+     */
+    public WorkItemPool createItemPool() {
+        return itemPoolSize == 0 ? null : new WorkItemPool(itemPoolSize);
+    }
+    
+    /**
+     * Creates a new, empty queue of the configured type and capacity.
+     * 
+     * @param <T> the type of elements held in the queue
+     * @return new queue instance
+     * @throws IllegalArgumentException if capacity is not positive
+     */
+    public <T> BoundedBlockingQueue<T> createQueue() {
+        return queueType.create(queueCapacity, waitStrategy);
+    }
+    
     /**
      * Calculates total items to be produced.
      * 
@@ -156,20 +548,93 @@ public class Configuration {
     @Override
     public String toString() {
         return String.format(
-            "Configuration{producers=%d, itemsPerProducer=%d, consumers=%d, capacity=%d, totalItems=%d}",
-            numberOfProducers, itemsPerProducer, numberOfConsumers, queueCapacity, getTotalExpectedItems()
+            "Configuration{producers=%d, itemsPerProducer=%d, consumers=%d, capacity=%d, totalItems=%d, queue=%s, wait=%s, batch=%d, metrics=%s, executor=%s, scaling=%s[%d..%d]%s%s%s%s}",
+            numberOfProducers, itemsPerProducer, numberOfConsumers, queueCapacity, getTotalExpectedItems(),
+            queueType, waitStrategy, consumerBatchSize, metricsType, executorType,
+            scalingPolicy, getMinConsumers(), getMaxConsumers(),
+            walDirectory == null ? "" : ", wal=" + walDirectory + " " + fsyncPolicy + ":" + fsyncEvery,
+            spillDirectory == null ? "" : ", spill=" + spillDirectory,
+            itemPoolSize == 0 ? "" : ", pool=" + itemPoolSize,
+            pipeline == null ? "" : ", pipeline=" + String.join(";", pipeline.stream().map(StageSpec::toString).toList())
         );
     }
     
     /**
-     * Validates all configuration values are positive.
+     * Validates all configuration values are positive and the options fit together.
      * 
-     * @throws IllegalArgumentException if any value is not positive
+     * @throws IllegalArgumentException if any value is not positive, or a
+     *         write-ahead log is combined with a queue that stores bytes or
+     *         with spilling, or a pipeline with a write-ahead log or spilling
      */
     public void validate() {
         if (numberOfProducers <= 0 || itemsPerProducer <= 0 || 
-            numberOfConsumers <= 0 || queueCapacity <= 0) {
+            numberOfConsumers <= 0 || queueCapacity <= 0 || consumerBatchSize <= 0) {
             throw new IllegalArgumentException("All configuration values must be positive");
         }
+        if (walDirectory != null && !queueType.storesObjects()) {
+            throw new IllegalArgumentException("Write-ahead log needs a queue that stores objects, not " + queueType);
+        }
+        if (walDirectory != null && spillDirectory != null) {
+            // Spill files are neither forced nor kept across restarts, so a spilled item could be lost after its put returned
+            throw new IllegalArgumentException("A write-ahead log cannot be combined with spilling");
+        }
+        if (pipeline != null && (walDirectory != null || spillDirectory != null)) {
+            throw new IllegalArgumentException("A pipeline cannot be combined with a write-ahead log or spilling");
+        }
+    }
+    
+    /**
+     * Mutable copy of every field, so that each wither sets only its own.
+     */
+    private static final class Builder {
+        private final int numberOfProducers;
+        private final int itemsPerProducer;
+        private final int numberOfConsumers;
+        private final int queueCapacity;
+        private QueueType queueType = QueueType.FAIR_LINKED;
+        private WaitStrategy waitStrategy = WaitStrategy.SPIN_THEN_PARK;
+        private int consumerBatchSize = 1;
+        private MetricsType metricsType = MetricsType.ATOMIC;
+        private int metricsPort = -1;
+        private ExecutorType executorType = ExecutorType.PLATFORM;
+        private ScalingPolicyType scalingPolicy = ScalingPolicyType.THRESHOLD;
+        private int minConsumers = -1;
+        private int maxConsumers = -1;
+        private String walDirectory;
+        private FsyncPolicy fsyncPolicy = FsyncPolicy.BATCH;
+        private int fsyncEvery = FsyncPolicy.BATCH.getDefaultSyncEvery();
+        private String spillDirectory;
+        private int itemPoolSize;
+        private List<StageSpec> pipeline;
+        
+        Builder(int numberOfProducers, int itemsPerProducer, int numberOfConsumers, int queueCapacity) {
+            this.numberOfProducers = numberOfProducers;
+            this.itemsPerProducer = itemsPerProducer;
+            this.numberOfConsumers = numberOfConsumers;
+            this.queueCapacity = queueCapacity;
+        }
+        
+        Builder(Configuration config) {
+            this(config.numberOfProducers, config.itemsPerProducer, config.numberOfConsumers, config.queueCapacity);
+            this.queueType = config.queueType;
+            this.waitStrategy = config.waitStrategy;
+            this.consumerBatchSize = config.consumerBatchSize;
+            this.metricsType = config.metricsType;
+            this.metricsPort = config.metricsPort;
+            this.executorType = config.executorType;
+            this.scalingPolicy = config.scalingPolicy;
+            this.minConsumers = config.minConsumers;
+            this.maxConsumers = config.maxConsumers;
+            this.walDirectory = config.walDirectory;
+            this.fsyncPolicy = config.fsyncPolicy;
+            this.fsyncEvery = config.fsyncEvery;
+            this.spillDirectory = config.spillDirectory;
+            this.itemPoolSize = config.itemPoolSize;
+            this.pipeline = config.pipeline;
+        }
+        
+        Configuration build() {
+            return new Configuration(this);
+        }
     }
 }
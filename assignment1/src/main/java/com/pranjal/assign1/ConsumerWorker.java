@@ -1,21 +1,44 @@
 package com.pranjal.assign1;
 
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntSupplier;
 
 /**
  * Consumer worker that processes items from the queue.
  * 
- * Continues processing until receiving POISON_PILL signal,
- * which it relays to other consumers before exiting.
+ * Continues processing until the queue reports end of stream (closed and
+ * drained, see {@link BoundedBlockingQueue#close()}), or until receiving a
+ * POISON_PILL signal, which it relays to other consumers before exiting.
+ * In batch mode (batchSize > 1) it moves up to batchSize items
+ * per queue lock acquisition via takeBatch.
+ * A consumer given a retire signal polls with a short timeout instead of
+ * blocking in take, and exits without a poison pill once the signal is set
+ * (used by the auto-scaler to scale down).
+ * Given a {@link WorkItemPool}, it returns each {@link WorkItem} to the
+ * pool once processed. Each processed item or batch is acknowledged to the
+ * queue ({@link BoundedBlockingQueue#acknowledge()}), so a durable queue
+ * commits it only then.
  * 
  * @author Pranjal
  * @version 2.1
  */
 public class ConsumerWorker implements Runnable {
 
-    private final AdvancedBlockingQueue<Object> queue;
+    // How long a retirable or batch consumer waits for an item before rechecking its signals
+    static final long RETIRE_CHECK_MILLIS = 100;
+
+    private final BoundedBlockingQueue<Object> queue;
     private final String name;
     private final MetricsCollector metrics;
+    private final int batchSize;
+    private final BooleanSupplier retired; // null = never retired, block in take()
+    private final ThinkTime thinkTime;
+    private final WorkItemPool pool; // null = consumed items are left to the GC
+    // Evaluated only when DEBUG logging is on
+    private final IntSupplier queueSize;
 
     /**
      * Constructs a consumer with a custom name.
@@ -24,11 +47,89 @@ public class ConsumerWorker implements Runnable {
      * @param name consumer name for logging
      * @param metrics metrics collector for recording events
      */
-    public ConsumerWorker(AdvancedBlockingQueue<Object> queue, String name, 
+    public ConsumerWorker(BoundedBlockingQueue<Object> queue, String name, 
                          MetricsCollector metrics) {
+        this(queue, name, metrics, 1);
+    }
+    
+    /**
+     * Constructs a consumer with a custom name and batch size.
+     * 
+     * @param queue the shared queue to consume from
+     * @param name consumer name for logging
+     * @param metrics metrics collector for recording events
+     * @param batchSize maximum items per take; 1 takes one item at a time
+     * @throws IllegalArgumentException if batchSize is not positive
+     */
+    public ConsumerWorker(BoundedBlockingQueue<Object> queue, String name, 
+                         MetricsCollector metrics, int batchSize) {
+        this(queue, name, metrics, batchSize, null);
+    }
+    
+    /**
+     * Constructs a consumer that can be retired without a poison pill.
+     * 
+     * @param queue the shared queue to consume from
+     * @param name consumer name for logging
+     * @param metrics metrics collector for recording events
+     * @param batchSize maximum items per take; 1 takes one item at a time
+     * @param retired checked between items; once true the consumer finishes
+     *                its current item or batch and exits (null = never)
+     * @throws IllegalArgumentException if batchSize is not positive
+     */
+    public ConsumerWorker(BoundedBlockingQueue<Object> queue, String name, 
+                         MetricsCollector metrics, int batchSize, BooleanSupplier retired) {
+        this(queue, name, metrics, batchSize, retired, ThinkTime.CONSUMER_DEFAULT);
+    }
+    
+    /**
+     * Constructs a retirable consumer with a custom processing time.
+     * 
+     * @param queue the shared queue to consume from
+     * @param name consumer name for logging
+     * @param metrics metrics collector for recording events
+     * @param batchSize maximum items per take; 1 takes one item at a time
+     * @param retired checked between items; once true the consumer finishes
+     *                its current item or batch and exits (null = never)
+     * @param thinkTime simulated processing time per item, must not be null
+     * @throws IllegalArgumentException if batchSize is not positive
+     * @throws NullPointerException if thinkTime is null
+     */
+    public ConsumerWorker(BoundedBlockingQueue<Object> queue, String name, MetricsCollector metrics,
+                         int batchSize, BooleanSupplier retired, ThinkTime thinkTime) {
+        this(queue, name, metrics, batchSize, retired, thinkTime, null);
+    }
+    
+    /**
+     * Constructs a retirable consumer that returns processed items to a pool.
+     * 
+     * @param queue the shared queue to consume from
+     * @param name consumer name for logging
+     * @param metrics metrics collector for recording events
+     * @param batchSize maximum items per take; 1 takes one item at a time
+     * @param retired checked between items; once true the consumer finishes
+     *                its current item or batch and exits (null = never)
+     * @param thinkTime simulated processing time per item, must not be null
+     * @param pool receives each WorkItem after processing (null = none)
+     * @throws IllegalArgumentException if batchSize is not positive
+     * @throws NullPointerException if thinkTime is null
+     */
+    public ConsumerWorker(BoundedBlockingQueue<Object> queue, String name, MetricsCollector metrics,
+                         int batchSize, BooleanSupplier retired, ThinkTime thinkTime, WorkItemPool pool) {
+        if (thinkTime == null) {
+            throw new NullPointerException("Think time must not be null");
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive, got: " + batchSize);
+        }
         this.queue = queue;
         this.name = name;
         this.metrics = metrics;
+        this.batchSize = batchSize;
+        this.retired = retired;
+        this.thinkTime = thinkTime;
+        this.pool = pool;
+        this.queueSize = queue::getSize;
     }
     
     /**
@@ -38,18 +139,34 @@ public class ConsumerWorker implements Runnable {
      * @param id numeric identifier for name generation
      * @param metrics metrics collector for recording events
      */
-    public ConsumerWorker(AdvancedBlockingQueue<Object> queue, int id, 
+    public ConsumerWorker(BoundedBlockingQueue<Object> queue, int id, 
                          MetricsCollector metrics) {
         this(queue, "Consumer-" + id, metrics);
     }
 
     @Override
     public void run() {
+        if (batchSize > 1) {
+            runBatched();
+            return;
+        }
         try {
             Logger.log(name, "STARTED.");
             
             while (true) {
-                Object item = queue.take();
+                Object item;
+                if (retired == null) {
+                    item = queue.take();
+                } else {
+                    if (retired.getAsBoolean()) {
+                        Logger.log(name, "RETIRED by auto-scaler.");
+                        break;
+                    }
+                    item = queue.poll(RETIRE_CHECK_MILLIS, TimeUnit.MILLISECONDS);
+                    if (item == null) {
+                        continue;
+                    }
+                }
                 
                 // Check for shutdown signal
                 if (item == QueueCommand.POISON_PILL) {
@@ -58,16 +175,99 @@ public class ConsumerWorker implements Runnable {
                     break; 
                 }
 
+                long processingStart = System.nanoTime();
                 metrics.recordConsumption();
-                Logger.log(name, "PROCESSED " + item + " | Queue Size: " + queue.getSize());
+                Logger.event(LogLevel.DEBUG, name, EventType.PROCESSED, loggable(item), queueSize);
 
                 // Simulate processing time
-                Thread.sleep(ThreadLocalRandom.current().nextInt(50, 250));
+                thinkTime.pause();
+                metrics.recordLatency(LatencyKind.PROCESSING, System.nanoTime() - processingStart);
+                recycle(item);
+                queue.acknowledge();
+            }
+        } catch (QueueClosedException e) {
+            Logger.log(name, "Queue CLOSED and drained. Stopping.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            Logger.log(name, "INTERRUPTED.");
+        }
+        Logger.log(name, "SHUTDOWN complete.");
+    }
+
+    /**
+     * Batch consumption loop: one takeBatch call per lock acquisition.
+     * Items that arrive in the same batch as the poison pill are still
+     * processed before the pill is relayed.
+     */
+    private void runBatched() {
+        List<Object> batch = new ArrayList<>(batchSize);
+        try {
+            Logger.log(name, "STARTED (batch size " + batchSize + ").");
+            
+            boolean stop = false;
+            while (!stop) {
+                if (retired != null && retired.getAsBoolean()) {
+                    Logger.log(name, "RETIRED by auto-scaler.");
+                    break;
+                }
+                batch.clear();
+                int taken = queue.takeBatch(batch, batchSize, RETIRE_CHECK_MILLIS, TimeUnit.MILLISECONDS);
+                if (taken == 0) {
+                    continue;
+                }
+                
+                int processed = 0;
+                for (int i = 0; i < batch.size(); i++) { // Indexed: an iterator per batch would be garbage
+                    if (batch.get(i) == QueueCommand.POISON_PILL) {
+                        stop = true;
+                    } else {
+                        processed++;
+                    }
+                }
+                metrics.recordBatchConsumption(processed);
+                Logger.event(LogLevel.DEBUG, name, EventType.BATCH_TAKEN, processed, queueSize);
+                
+                for (int i = 0; i < batch.size(); i++) {
+                    Object item = batch.get(i);
+                    if (item == QueueCommand.POISON_PILL) {
+                        continue;
+                    }
+                    long processingStart = System.nanoTime();
+                    Logger.event(LogLevel.DEBUG, name, EventType.BATCH_PROCESSED, loggable(item));
+                    // Simulate processing time
+                    thinkTime.pause();
+                    metrics.recordLatency(LatencyKind.PROCESSING, System.nanoTime() - processingStart);
+                    recycle(item);
+                }
+                queue.acknowledge();
+                
+                if (stop) {
+                    Logger.log(name, "Received POISON PILL. Stopping.");
+                    queue.put(QueueCommand.POISON_PILL); // Relay to other consumers
+                }
             }
+        } catch (QueueClosedException e) {
+            Logger.log(name, "Queue CLOSED and drained. Stopping.");
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             Logger.log(name, "INTERRUPTED.");
         }
         Logger.log(name, "SHUTDOWN complete.");
     }
+
+    /**
+     * Returns what to log for an item that may be reused after processing.
+     */
+    private Object loggable(Object item) {
+        return pool == null ? item : WorkItemPool.loggable(item);
+    }
+
+    /**
+     * Returns a processed WorkItem to the pool, if there is one.
+     */
+    private void recycle(Object item) {
+        if (pool != null && item instanceof WorkItem) {
+            pool.release((WorkItem) item);
+        }
+    }
 }
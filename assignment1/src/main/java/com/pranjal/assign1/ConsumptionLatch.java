@@ -0,0 +1,92 @@
+package com.pranjal.assign1;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Wakes threads waiting for a consumed count to reach a target.
+ *
+ * Used by the metrics collectors for {@link MetricsCollector#awaitConsumed}.
+ * A waiter publishes the lowest target anyone is waiting for; the consuming
+ * thread calls {@link #consumed()} after each increment, which costs one
+ * volatile read unless that increment reached the target. The thread that
+ * reaches it signals the waiters itself, so they wake at once instead of on
+ * their next poll.
+ *
+ * @author Pranjal
+ * @version 2.1
+ */
+final class ConsumptionLatch {
+
+    private static final long NO_WAITER = Long.MAX_VALUE;
+
+    private final LongSupplier consumed;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition reached = lock.newCondition();
+
+    // Lowest target being waited for; written under the lock, read lock-free by consumers
+    private volatile long target = NO_WAITER;
+    private int waiters; // Guarded by lock
+
+    /**
+     * Creates a latch over a consumed counter.
+     *
+     * @param consumed reads the current consumed total
+     */
+    ConsumptionLatch(LongSupplier consumed) {
+        this.consumed = consumed;
+    }
+
+    /**
+     * Called by consumers after incrementing the counter. Reads the counter
+     * only while somebody is waiting.
+     */
+    void consumed() {
+        long t = target;
+        if (t != NO_WAITER && consumed.getAsLong() >= t) {
+            lock.lock();
+            try {
+                target = NO_WAITER; // Waiters still short of their own target re-register
+                reached.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Waits until the counter reaches goal.
+     *
+     * @param goal consumed total to wait for
+     * @param timeout how long to wait before giving up
+     * @param unit the time unit of the timeout
+     * @return true if reached, false if timeout elapsed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    boolean await(long goal, long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        waiters++;
+        try {
+            while (true) {
+                // Publish before re-reading the counter: a consumer that increments
+                // after our read is then guaranteed to see the target and signal
+                target = Math.min(target, goal);
+                if (consumed.getAsLong() >= goal) {
+                    return true;
+                }
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = reached.awaitNanos(nanos);
+            }
+        } finally {
+            if (--waiters == 0) {
+                target = NO_WAITER; // Back to the one-read fast path for consumers
+            }
+            lock.unlock();
+        }
+    }
+}
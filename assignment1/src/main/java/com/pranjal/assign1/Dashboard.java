@@ -15,7 +15,7 @@ import java.util.concurrent.TimeUnit;
  */
 public class Dashboard {
 
-    private final AdvancedBlockingQueue<Object> queue;
+    private final BoundedBlockingQueue<Object> queue;
     private final ThreadManager manager;
     private final MetricsCollector metrics;
     private final ScheduledExecutorService scheduler;
@@ -27,7 +27,7 @@ public class Dashboard {
      * @param manager thread manager to monitor
      * @param metrics metrics collector to monitor
      */
-    public Dashboard(AdvancedBlockingQueue<Object> queue, ThreadManager manager, 
+    public Dashboard(BoundedBlockingQueue<Object> queue, ThreadManager manager, 
                     MetricsCollector metrics) {
         this.queue = queue;
         this.manager = manager;
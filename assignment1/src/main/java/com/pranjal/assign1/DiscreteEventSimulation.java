@@ -0,0 +1,515 @@
+package com.pranjal.assign1;
+
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-threaded discrete-event version of the simulation for fast what-if runs.
+ *
+ * Producers, consumers, the bounded queue and the auto-scaler run on a
+ * virtual clock: every think time, blocked put and scaling tick is an event
+ * in a priority queue ordered by virtual time, and the clock jumps from one
+ * event to the next instead of sleeping. Think times are drawn from a Random
+ * seeded by the caller, so the same seed and configuration always give the
+ * same report.
+ *
+ * The model follows the threaded workers:
+ * - A producer thinks, then offers its item; if the queue stays full for
+ *   PRODUCER_TIMEOUT_NANOS the item is dropped, as with ProducerWorker's offer timeout
+ * - A consumer takes up to the batch size, then processes the items for one think time each
+ * - Blocked producers and idle consumers are woken in FIFO order, as by the fair lock
+ * - The auto-scaler ticks on its policy's interval, plus immediately on
+ *   watermark crossings for queue types that support them, and retires the
+ *   newest consumers after their current item
+ *
+ * Lock contention, thread scheduling and sleep overshoot are not modelled,
+ * so latencies are the ideal ones for the configured think times.
+ * Executor type, wait strategy, the metrics endpoint and the write-ahead
+ * log do not apply. Spilling would unbound the queue being modelled and a
+ * pipeline would replace it, so both are rejected.
+ *
+ * @author Pranjal
+ * @version 2.1
+ */
+public class DiscreteEventSimulation {
+
+    // Producers give up on an item after this long, as ProducerWorker's offer timeout
+    static final long PRODUCER_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(2);
+
+    private final Configuration config;
+    private final ThinkTime producerThinkTime;
+    private final ThinkTime consumerThinkTime;
+    private final long seed;
+    private final Random random;
+    private final MetricsCollector metrics;
+    private final PriorityQueue<Event> events = new PriorityQueue<>();
+
+    // Bounded FIFO queue; each slot holds the virtual time its item was enqueued
+    private final long[] enqueuedAt;
+    private int head = 0;
+    private int size = 0;
+
+    // Workers waiting on the queue, oldest first, and consumers the auto-scaler may retire (newest last)
+    private final ArrayDeque<Producer> blockedProducers = new ArrayDeque<>();
+    private final ArrayDeque<Consumer> idleConsumers = new ArrayDeque<>();
+    private final ArrayDeque<Consumer> activeConsumers = new ArrayDeque<>();
+    private int runningProducers = 0;
+    private int busyConsumers = 0;
+    private int emergencyConsumerCount = 0;
+    private int retiredConsumerCount = 0;
+    private long timedOutItems = 0;
+
+    // Auto-scaling: policy, bounds, watermarks and the previous sample
+    private final ScalingPolicy scalingPolicy;
+    private final ScalingTimeline timeline;
+    private final boolean watermarkDriven;
+    private final int highWatermark;
+    private final int lowWatermark;
+    private boolean aboveHighWatermark = false;
+    private boolean scalePending = false;
+    private long lastSampleNanos = 0;
+    private long lastProduced = 0;
+    private long lastConsumed = 0;
+    private double arrivalRate;
+    private double serviceRate;
+    private double serviceRatePerConsumer;
+
+    private long now = 0; // Virtual time in nanoseconds
+    private long sequence = 0; // Orders events scheduled for the same instant
+    private long eventCount = 0;
+    private long wallNanos = 0;
+    private boolean started = false;
+
+    /**
+     * Creates a simulation with the threaded simulation's default think times.
+     *
+     * @param config simulation parameters
+     * @param seed seed for every random draw
+     * @throws IllegalArgumentException if configuration invalid
+     */
+    public DiscreteEventSimulation(Configuration config, long seed) {
+        this(config, ThinkTime.PRODUCER_DEFAULT, ThinkTime.CONSUMER_DEFAULT, seed);
+    }
+
+    /**
+     * Creates a simulation with custom think times.
+     *
+     * @param config simulation parameters
+     * @param producerThinkTime pause before each produced item, must not be null
+     * @param consumerThinkTime processing time per consumed item, must not be null
+     * @param seed seed for every random draw
+     * @throws IllegalArgumentException if configuration invalid or enables spilling or a pipeline
+     * @throws NullPointerException if a think time is null
+     */
+    public DiscreteEventSimulation(Configuration config, ThinkTime producerThinkTime,
+                                   ThinkTime consumerThinkTime, long seed) {
+        config.validate();
+        if (config.isSpillEnabled()) {
+            throw new IllegalArgumentException("Spilling cannot be simulated on the virtual clock");
+        }
+        if (config.isPipelineEnabled()) {
+            throw new IllegalArgumentException("A pipeline cannot be simulated on the virtual clock");
+        }
+        if (producerThinkTime == null || consumerThinkTime == null) {
+            throw new NullPointerException("Think times must not be null");
+        }
+        this.config = config;
+        this.producerThinkTime = producerThinkTime;
+        this.consumerThinkTime = consumerThinkTime;
+        this.seed = seed;
+        this.random = new Random(seed);
+        this.metrics = config.getMetricsType().create();
+        this.enqueuedAt = new long[config.getQueueCapacity()];
+        this.scalingPolicy = config.getScalingPolicy().create();
+        this.timeline = new ScalingTimeline(scalingPolicy.getTargetDepth(config.getQueueCapacity()),
+                                            config.getQueueCapacity());
+
+        // Same thresholds as ThreadManager.runAutoScalerLoop
+        int capacity = config.getQueueCapacity();
+        this.watermarkDriven = config.getQueueType().supportsWatermarks();
+        this.highWatermark = Math.min(capacity, (int) (capacity * ThreadManager.HIGH_WATERMARK) + 1);
+        this.lowWatermark = Math.min(highWatermark - 1, (int) (capacity * ThreadManager.LOW_WATERMARK));
+    }
+
+    /**
+     * Runs the simulation until every producer has finished and the queue
+     * is drained. Can be called once.
+     *
+     * @throws IllegalStateException if the simulation already ran
+     */
+    public void run() {
+        if (started) {
+            throw new IllegalStateException("Simulation already ran");
+        }
+        started = true;
+        producerThinkTime.getDistribution().reset(); // Trace replay starts over, as the seeded Random does
+        consumerThinkTime.getDistribution().reset();
+        long wallStart = System.nanoTime();
+        Logger.log("DES", "Starting discrete-event run of " + config + " (seed " + seed + ", think "
+                   + producerThinkTime + "/" + consumerThinkTime + ")");
+
+        for (int i = 1; i <= config.getNumberOfConsumers(); i++) {
+            startConsumer("Consumer-" + i);
+        }
+        for (int i = 1; i <= config.getNumberOfProducers(); i++) {
+            Producer producer = new Producer();
+            runningProducers++;
+            schedule(now + producerThinkTime.getDistribution().nextNanos(random), EventKind.PRODUCE, producer);
+        }
+        schedule(now, EventKind.SCALE_TICK, null);
+
+        while (!isFinished()) {
+            Event event = events.poll();
+            if (event == null) {
+                break; // Nothing left that could make progress
+            }
+            now = event.time;
+            eventCount++;
+            dispatch(event);
+        }
+
+        wallNanos = System.nanoTime() - wallStart;
+        Logger.log("DES", String.format("Finished %d events: %.3fs virtual in %.3fs wall.",
+                   eventCount, now / 1e9, wallNanos / 1e9));
+    }
+
+    private boolean isFinished() {
+        return runningProducers == 0 && size == 0 && busyConsumers == 0;
+    }
+
+    private void dispatch(Event event) {
+        switch (event.kind) {
+            case PRODUCE:
+                offer((Producer) event.subject);
+                break;
+            case PRODUCER_TIMEOUT:
+                timeOut((Producer) event.subject, event.token);
+                break;
+            case CONSUMER_READY:
+                takeOrWait((Consumer) event.subject);
+                break;
+            case CONSUMER_DONE:
+                busyConsumers--;
+                takeOrWait((Consumer) event.subject);
+                break;
+            case SCALE_TICK:
+                scaleOnce("TIMER", -1);
+                if (runningProducers == 0 && busyConsumers == 0 && activeConsumers.isEmpty()) {
+                    // The threaded run would wait forever here
+                    Logger.log(LogLevel.WARN, "DES", "No consumers left to drain " + size + " items. Stopping.");
+                    break;
+                }
+                schedule(now + TimeUnit.MILLISECONDS.toNanos(scalingPolicy.getIntervalMillis()),
+                         EventKind.SCALE_TICK, null);
+                break;
+            case SCALE_TRIGGER:
+                scalePending = false;
+                scaleOnce((String) event.subject, 0); // Reacts at the same virtual instant
+                break;
+            default:
+                throw new IllegalStateException("Unknown event: " + event.kind);
+        }
+    }
+
+    private void schedule(long time, EventKind kind, Object subject) {
+        schedule(time, kind, subject, 0);
+    }
+
+    private void schedule(long time, EventKind kind, Object subject, long token) {
+        events.add(new Event(time, sequence++, kind, subject, token));
+    }
+
+    /**
+     * A producer's think time elapsed: enqueue, or block until a slot frees up or the offer times out.
+     */
+    private void offer(Producer producer) {
+        if (size < enqueuedAt.length) {
+            metrics.recordLatency(LatencyKind.PRODUCER_BLOCK, 0);
+            enqueue(producer);
+            return;
+        }
+        producer.blockedSince = now;
+        producer.token++;
+        blockedProducers.addLast(producer);
+        schedule(now + PRODUCER_TIMEOUT_NANOS, EventKind.PRODUCER_TIMEOUT, producer, producer.token);
+    }
+
+    private void timeOut(Producer producer, long token) {
+        if (producer.token != token || !blockedProducers.remove(producer)) {
+            return; // Got its slot before the timeout
+        }
+        metrics.recordLatency(LatencyKind.PRODUCER_BLOCK, PRODUCER_TIMEOUT_NANOS);
+        timedOutItems++;
+        nextItem(producer);
+    }
+
+    private void enqueue(Producer producer) {
+        enqueuedAt[(head + size) % enqueuedAt.length] = now;
+        size++;
+        metrics.recordProduction();
+        checkWatermarks();
+        wakeIdleConsumer();
+        nextItem(producer);
+    }
+
+    private void nextItem(Producer producer) {
+        producer.attempted++;
+        if (producer.attempted < config.getItemsPerProducer()) {
+            schedule(now + producerThinkTime.getDistribution().nextNanos(random), EventKind.PRODUCE, producer);
+        } else {
+            runningProducers--;
+        }
+    }
+
+    private void wakeIdleConsumer() {
+        Consumer consumer = idleConsumers.pollFirst();
+        if (consumer != null) {
+            schedule(now, EventKind.CONSUMER_READY, consumer);
+        }
+    }
+
+    /**
+     * A consumer is free: exit if retired, otherwise take a batch and process it, or wait for an item.
+     */
+    private void takeOrWait(Consumer consumer) {
+        if (consumer.retired) {
+            if (size > 0) {
+                wakeIdleConsumer(); // Hand on the item that may have woken this consumer
+            }
+            return;
+        }
+        if (size == 0) {
+            idleConsumers.addLast(consumer);
+            return;
+        }
+
+        int taken = Math.min(config.getConsumerBatchSize(), size);
+        for (int i = 0; i < taken; i++) {
+            metrics.recordLatency(LatencyKind.QUEUE_WAIT, now - enqueuedAt[head]);
+            head = (head + 1) % enqueuedAt.length;
+            size--;
+        }
+        if (config.getConsumerBatchSize() > 1) {
+            metrics.recordBatchConsumption(taken);
+        } else {
+            metrics.recordConsumption();
+        }
+        checkWatermarks();
+
+        // Freed slots go to blocked producers in arrival order
+        for (int i = 0; i < taken && !blockedProducers.isEmpty(); i++) {
+            Producer producer = blockedProducers.pollFirst();
+            metrics.recordLatency(LatencyKind.PRODUCER_BLOCK, now - producer.blockedSince);
+            enqueue(producer);
+        }
+
+        long busy = 0;
+        for (int i = 0; i < taken; i++) {
+            long processing = consumerThinkTime.getDistribution().nextNanos(random);
+            metrics.recordLatency(LatencyKind.PROCESSING, processing);
+            busy += processing;
+        }
+        busyConsumers++;
+        schedule(now + busy, EventKind.CONSUMER_DONE, consumer);
+    }
+
+    private void startConsumer(String name) {
+        Consumer consumer = new Consumer(name);
+        activeConsumers.addLast(consumer);
+        schedule(now, EventKind.CONSUMER_READY, consumer);
+    }
+
+    /**
+     * Fires a scaling tick on a watermark crossing, with the same hysteresis
+     * as AdvancedBlockingQueue. A pending tick absorbs further crossings.
+     */
+    private void checkWatermarks() {
+        if (!watermarkDriven) {
+            return;
+        }
+        String trigger = null;
+        if (!aboveHighWatermark && size >= highWatermark) {
+            aboveHighWatermark = true;
+            trigger = "HIGH_WATERMARK";
+        } else if (aboveHighWatermark && size <= lowWatermark) {
+            aboveHighWatermark = false;
+            trigger = "LOW_WATERMARK";
+        }
+        if (trigger != null && !scalePending) {
+            scalePending = true;
+            schedule(now, EventKind.SCALE_TRIGGER, trigger);
+        }
+    }
+
+    /**
+     * One auto-scaler tick on the virtual clock, as ThreadManager.scaleOnce.
+     *
+     * @param trigger TIMER, HIGH_WATERMARK or LOW_WATERMARK
+     * @param reactionNanos virtual time from the crossing to the decision, -1 for the timer
+     */
+    private void scaleOnce(String trigger, long reactionNanos) {
+        ScalingSample sample = sample();
+        int consumers = sample.getConsumers();
+        int desired = Math.max(config.getMinConsumers(),
+                               Math.min(config.getMaxConsumers(), scalingPolicy.desiredConsumers(sample)));
+
+        for (int i = consumers; i < desired; i++) {
+            int id = ++emergencyConsumerCount;
+            Logger.log("AUTO-SCALER", String.format("[DES +%.3fs] Queue at %.1f%%. Deploying Emergency Consumer %d",
+                       now / 1e9, sample.getLoad() * 100, id));
+            startConsumer("EmergencyConsumer-" + id);
+        }
+        for (int i = desired; i < consumers; i++) {
+            Consumer consumer = activeConsumers.pollLast();
+            if (consumer == null) {
+                break;
+            }
+            consumer.retired = true;
+            idleConsumers.remove(consumer); // An idle consumer exits at once, a busy one after its batch
+            retiredConsumerCount++;
+            Logger.log("AUTO-SCALER", String.format("[DES +%.3fs] Queue at %.1f%%. Retiring %s",
+                       now / 1e9, sample.getLoad() * 100, consumer.name));
+        }
+        timeline.record(sample, activeConsumers.size(), trigger, reactionNanos);
+    }
+
+    /**
+     * Measures depth and rates as ThreadManager.sample does, on the virtual clock.
+     */
+    private ScalingSample sample() {
+        int consumers = activeConsumers.size();
+        if (now - lastSampleNanos >= ThreadManager.MIN_RATE_WINDOW_NANOS) {
+            long produced = metrics.getTotalProduced();
+            long consumed = metrics.getTotalConsumed();
+            double seconds = (now - lastSampleNanos) / 1e9;
+            arrivalRate = (produced - lastProduced) / seconds;
+            serviceRate = (consumed - lastConsumed) / seconds;
+            if (size > 0 && consumers > 0 && serviceRate > 0) {
+                double measured = serviceRate / consumers;
+                serviceRatePerConsumer = serviceRatePerConsumer == 0 ? measured
+                                         : 0.5 * serviceRatePerConsumer + 0.5 * measured;
+            }
+            lastSampleNanos = now;
+            lastProduced = produced;
+            lastConsumed = consumed;
+        }
+        return new ScalingSample(now / 1_000_000, size, enqueuedAt.length, arrivalRate, serviceRate,
+                                 serviceRatePerConsumer, consumers,
+                                 config.getMinConsumers(), config.getMaxConsumers());
+    }
+
+    /**
+     * Prints the same analysis as the threaded simulation, plus virtual and wall time.
+     *
+     * @param out destination
+     */
+    public void printAnalysisResults(PrintStream out) {
+        SimulationEngine.printAnalysisResults(out, "DISCRETE-EVENT SIMULATION RESULTS", config, metrics, size,
+                                              emergencyConsumerCount, retiredConsumerCount,
+                                              config.getMinConsumers(), config.getMaxConsumers(), timeline, true);
+
+        out.println("\n[DISCRETE-EVENT]");
+        out.println("  Seed:                     " + seed);
+        out.println("  Think Time:               producer " + producerThinkTime + ", consumer " + consumerThinkTime);
+        out.println("  Items Timed Out:          " + timedOutItems);
+        out.println(String.format("  Events Processed:         %,d", eventCount));
+        out.println(String.format("  Virtual / Wall Time:      %.3f s / %.3f s (%,.0fx)",
+            now / 1e9, wallNanos / 1e9, wallNanos == 0 ? 0 : (double) now / wallNanos));
+
+        out.println("\n" + "=".repeat(70));
+        out.println("=".repeat(70) + "\n");
+    }
+
+    public MetricsCollector getMetrics() {
+        return metrics;
+    }
+
+    public ScalingTimeline getScalingTimeline() {
+        return timeline;
+    }
+
+    public int getEmergencyConsumerCount() {
+        return emergencyConsumerCount;
+    }
+
+    public int getRetiredConsumerCount() {
+        return retiredConsumerCount;
+    }
+
+    /**
+     * Returns items dropped because the queue stayed full for the producer timeout.
+     *
+     * @return timed-out offers
+     */
+    public long getTimedOutItems() {
+        return timedOutItems;
+    }
+
+    public int getQueueSize() {
+        return size;
+    }
+
+    /**
+     * Returns the virtual time at which the run ended.
+     *
+     * @return nanoseconds of simulated time
+     */
+    public long getVirtualNanos() {
+        return now;
+    }
+
+    public long getEventCount() {
+        return eventCount;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    private enum EventKind {
+        PRODUCE, PRODUCER_TIMEOUT, CONSUMER_READY, CONSUMER_DONE, SCALE_TICK, SCALE_TRIGGER
+    }
+
+    /**
+     * Scheduled event; ties in time run in scheduling order.
+     */
+    private static final class Event implements Comparable<Event> {
+        final long time;
+        final long sequence;
+        final EventKind kind;
+        final Object subject; // Producer, Consumer or trigger name
+        final long token;
+
+        Event(long time, long sequence, EventKind kind, Object subject, long token) {
+            this.time = time;
+            this.sequence = sequence;
+            this.kind = kind;
+            this.subject = subject;
+            this.token = token;
+        }
+
+        @Override
+        public int compareTo(Event other) {
+            int byTime = Long.compare(time, other.time);
+            return byTime != 0 ? byTime : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    private static final class Producer {
+        int attempted = 0;
+        long blockedSince;
+        long token = 0; // Invalidates the timeout of an earlier blocked offer
+    }
+
+    private static final class Consumer {
+        final String name;
+        boolean retired = false;
+
+        Consumer(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,465 @@
+package com.pranjal.assign1;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Factory for the built-in TimeDistributions.
+ *
+ * Parameters are in milliseconds. Worker threads sample with
+ * ThreadLocalRandom, so they never contend on a shared generator.
+ * The text form accepted by {@link #parse(String)} is
+ * {@code const:<ms>}, {@code uniform:<min>-<max>}, {@code exp:<mean>},
+ * {@code pareto:<mean>,<alpha>[,<max>]}, {@code lognormal:<mean>,<sigma>} or
+ * {@code trace:<file>}.
+ *
+ * @author Pranjal
+ * @version 2.1
+ */
+public final class Distributions {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    /** Pareto draws are capped at this multiple of the mean unless a maximum is given. */
+    public static final double DEFAULT_PARETO_CAP = 1000;
+
+    private Distributions() {
+    }
+
+    /**
+     * Always the same duration.
+     *
+     * @param millis duration, not negative
+     * @return constant distribution
+     * @throws IllegalArgumentException if millis is negative
+     */
+    public static TimeDistribution constant(double millis) {
+        requireNonNegative("Constant time", millis);
+        return new Constant(millis * NANOS_PER_MILLI);
+    }
+
+    /**
+     * Uniform in [min, max).
+     *
+     * @param minMillis shortest duration, inclusive
+     * @param maxMillis longest duration, exclusive; equal to min for a constant
+     * @return uniform distribution
+     * @throws IllegalArgumentException if min is negative or max is less than min
+     */
+    public static TimeDistribution uniform(double minMillis, double maxMillis) {
+        if (minMillis < 0 || maxMillis < minMillis) {
+            throw new IllegalArgumentException(
+                "Uniform time must satisfy 0 <= min <= max, got: " + minMillis + "-" + maxMillis);
+        }
+        return minMillis == maxMillis ? constant(minMillis)
+                                      : new Uniform(minMillis * NANOS_PER_MILLI, maxMillis * NANOS_PER_MILLI);
+    }
+
+    /**
+     * Exponential (memoryless) with the given mean, the M in M/M/c.
+     *
+     * @param meanMillis mean duration, positive
+     * @return exponential distribution
+     * @throws IllegalArgumentException if the mean is not positive
+     */
+    public static TimeDistribution exponential(double meanMillis) {
+        requirePositive("Exponential mean", meanMillis);
+        return new Exponential(meanMillis * NANOS_PER_MILLI);
+    }
+
+    /**
+     * Pareto (heavy-tailed) with the given mean and tail index, with draws
+     * capped at {@link #DEFAULT_PARETO_CAP} times the mean.
+     *
+     * @param meanMillis mean duration before the cap, positive
+     * @param alpha tail index, greater than 1 so that the mean exists
+     * @return Pareto distribution
+     * @throws IllegalArgumentException if the mean is not positive or alpha &lt;= 1
+     */
+    public static TimeDistribution pareto(double meanMillis, double alpha) {
+        return pareto(meanMillis, alpha, meanMillis * DEFAULT_PARETO_CAP);
+    }
+
+    /**
+     * Pareto (heavy-tailed) with the given mean and tail index, with draws
+     * capped at maxMillis. Without a cap a single draw can stall a worker
+     * for hours when alpha is close to 1. The reported mean and SCV are
+     * those of the capped distribution, so the SCV is finite even for
+     * alpha &lt;= 2.
+     *
+     * @param meanMillis mean duration before the cap, positive
+     * @param alpha tail index, greater than 1 so that the mean exists
+     * @param maxMillis longest duration drawn, at least the mean
+     * @return Pareto distribution
+     * @throws IllegalArgumentException if the mean is not positive, alpha &lt;= 1
+     *                                  or the maximum is below the mean or infinite
+     */
+    public static TimeDistribution pareto(double meanMillis, double alpha, double maxMillis) {
+        requirePositive("Pareto mean", meanMillis);
+        if (!(alpha > 1)) {
+            throw new IllegalArgumentException("Pareto alpha must be > 1, got: " + alpha);
+        }
+        if (!(maxMillis >= meanMillis) || Double.isInfinite(maxMillis)) {
+            throw new IllegalArgumentException(
+                "Pareto maximum must be finite and at least the mean " + meanMillis + ", got: " + maxMillis);
+        }
+        return new Pareto(meanMillis * NANOS_PER_MILLI, alpha, maxMillis * NANOS_PER_MILLI,
+                          maxMillis == meanMillis * DEFAULT_PARETO_CAP);
+    }
+
+    /**
+     * Lognormal with the given mean and shape (standard deviation of the underlying normal).
+     *
+     * @param meanMillis mean duration, positive
+     * @param sigma shape, not negative
+     * @return lognormal distribution
+     * @throws IllegalArgumentException if the mean is not positive or sigma is negative
+     */
+    public static TimeDistribution lognormal(double meanMillis, double sigma) {
+        requirePositive("Lognormal mean", meanMillis);
+        requireNonNegative("Lognormal sigma", sigma);
+        return new LogNormal(meanMillis * NANOS_PER_MILLI, sigma);
+    }
+
+    /**
+     * Replays recorded durations in order, cycling at the end. Workers share
+     * one position, so together they replay the trace once per cycle;
+     * {@link TimeDistribution#reset()} rewinds it to the first duration.
+     *
+     * @param file text file with one duration in milliseconds per line;
+     *             blank lines and lines starting with # are skipped
+     * @return trace replay distribution
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the file has no durations or a malformed or negative one
+     */
+    public static TimeDistribution trace(Path file) throws IOException {
+        List<Long> values = new ArrayList<>();
+        int lineNumber = 0;
+        for (String line : Files.readAllLines(file)) {
+            lineNumber++;
+            String text = line.trim();
+            if (text.isEmpty() || text.startsWith("#")) {
+                continue;
+            }
+            try {
+                double millis = Double.parseDouble(text);
+                requireNonNegative("Trace duration", millis);
+                values.add(Math.round(millis * NANOS_PER_MILLI));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(file + ":" + lineNumber + ": not a duration: " + text);
+            }
+        }
+        if (values.isEmpty()) {
+            throw new IllegalArgumentException("Trace has no durations: " + file);
+        }
+        long[] nanos = new long[values.size()];
+        for (int i = 0; i < nanos.length; i++) {
+            nanos[i] = values.get(i);
+        }
+        return new Trace(nanos, file.getFileName().toString());
+    }
+
+    /**
+     * Parses the text form described in the class comment.
+     *
+     * @param text distribution specification
+     * @return parsed distribution
+     * @throws IllegalArgumentException if text is malformed, out of range, or names an unreadable trace
+     */
+    public static TimeDistribution parse(String text) {
+        int colon = text.indexOf(':');
+        if (colon < 0) {
+            throw new IllegalArgumentException("Distribution must be <kind>:<params>, got: " + text);
+        }
+        String kind = text.substring(0, colon).trim().toLowerCase();
+        String params = text.substring(colon + 1).trim();
+        try {
+            switch (kind) {
+                case "const":
+                    return constant(Double.parseDouble(params));
+                case "uniform": {
+                    int dash = params.indexOf('-', 1);
+                    if (dash < 0) {
+                        throw new IllegalArgumentException("Uniform needs <min>-<max>, got: " + params);
+                    }
+                    return uniform(Double.parseDouble(params.substring(0, dash)),
+                                   Double.parseDouble(params.substring(dash + 1)));
+                }
+                case "exp":
+                    return exponential(Double.parseDouble(params));
+                case "pareto": {
+                    String[] p = params.split(",");
+                    if (p.length == 3) {
+                        return pareto(Double.parseDouble(p[0].trim()), Double.parseDouble(p[1].trim()),
+                                      Double.parseDouble(p[2].trim()));
+                    }
+                    double[] pair = pair(params);
+                    return pareto(pair[0], pair[1]);
+                }
+                case "lognormal": {
+                    double[] p = pair(params);
+                    return lognormal(p[0], p[1]);
+                }
+                case "trace":
+                    return trace(Paths.get(params));
+                default:
+                    throw new IllegalArgumentException("Unknown distribution: " + kind);
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid distribution parameters: " + text);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot read trace " + params + ": " + e.getMessage());
+        }
+    }
+
+    private static double[] pair(String params) {
+        int comma = params.indexOf(',');
+        if (comma < 0) {
+            throw new IllegalArgumentException("Expected <mean>,<shape>, got: " + params);
+        }
+        return new double[] {Double.parseDouble(params.substring(0, comma).trim()),
+                             Double.parseDouble(params.substring(comma + 1).trim())};
+    }
+
+    private static void requirePositive(String what, double value) {
+        if (!(value > 0) || Double.isInfinite(value)) {
+            throw new IllegalArgumentException(what + " must be positive, got: " + value);
+        }
+    }
+
+    private static void requireNonNegative(String what, double value) {
+        if (!(value >= 0) || Double.isInfinite(value)) {
+            throw new IllegalArgumentException(what + " must not be negative, got: " + value);
+        }
+    }
+
+    private static String millis(double nanos) {
+        double ms = nanos / NANOS_PER_MILLI;
+        return ms == Math.rint(ms) ? String.valueOf((long) ms) : String.valueOf(ms);
+    }
+
+    /**
+     * Uniform draw in (0, 1], safe to take the log of.
+     */
+    private static double openUnit(Random random) {
+        return 1.0 - random.nextDouble();
+    }
+
+    private static final class Constant implements TimeDistribution {
+        private final double nanos;
+
+        Constant(double nanos) {
+            this.nanos = nanos;
+        }
+
+        @Override
+        public long nextNanos(Random random) {
+            return (long) nanos;
+        }
+
+        @Override
+        public double getMeanNanos() {
+            return nanos;
+        }
+
+        @Override
+        public double getScv() {
+            return 0;
+        }
+
+        @Override
+        public String toString() {
+            return "const:" + millis(nanos);
+        }
+    }
+
+    private static final class Uniform implements TimeDistribution {
+        private final double min;
+        private final double max;
+
+        Uniform(double min, double max) {
+            this.min = min;
+            this.max = max;
+        }
+
+        @Override
+        public long nextNanos(Random random) {
+            return (long) (min + (max - min) * random.nextDouble());
+        }
+
+        @Override
+        public double getMeanNanos() {
+            return (min + max) / 2;
+        }
+
+        @Override
+        public double getScv() {
+            double mean = getMeanNanos();
+            return (max - min) * (max - min) / 12 / (mean * mean);
+        }
+
+        @Override
+        public String toString() {
+            return "uniform:" + millis(min) + "-" + millis(max);
+        }
+    }
+
+    private static final class Exponential implements TimeDistribution {
+        private final double mean;
+
+        Exponential(double mean) {
+            this.mean = mean;
+        }
+
+        @Override
+        public long nextNanos(Random random) {
+            return (long) (-mean * Math.log(openUnit(random)));
+        }
+
+        @Override
+        public double getMeanNanos() {
+            return mean;
+        }
+
+        @Override
+        public double getScv() {
+            return 1;
+        }
+
+        @Override
+        public String toString() {
+            return "exp:" + millis(mean);
+        }
+    }
+
+    private static final class Pareto implements TimeDistribution {
+        private final double mean; // Before the cap
+        private final double alpha;
+        private final double max;
+        private final boolean defaultCap;
+        private final double scale; // Smallest possible value, x_m
+        private final double cappedMean;
+        private final double cappedScv;
+
+        Pareto(double mean, double alpha, double max, boolean defaultCap) {
+            this.mean = mean;
+            this.alpha = alpha;
+            this.max = max;
+            this.defaultCap = defaultCap;
+            this.scale = mean * (alpha - 1) / alpha;
+            // E[min(X, max)] is the integral of P(X > x) = (x_m / x)^alpha up to max, E[min(X, max)^2]
+            // that of 2x P(X > x)
+            double ratio = max / scale;
+            this.cappedMean = scale + scale / (alpha - 1) * (1 - Math.pow(ratio, 1 - alpha));
+            double tail = alpha == 2 ? Math.log(ratio) : (Math.pow(ratio, 2 - alpha) - 1) / (2 - alpha);
+            double secondMoment = scale * scale * (1 + 2 * tail);
+            this.cappedScv = Math.max(0, secondMoment / (cappedMean * cappedMean) - 1);
+        }
+
+        @Override
+        public long nextNanos(Random random) {
+            return (long) Math.min(max, scale / Math.pow(openUnit(random), 1 / alpha));
+        }
+
+        @Override
+        public double getMeanNanos() {
+            return cappedMean;
+        }
+
+        @Override
+        public double getScv() {
+            return cappedScv;
+        }
+
+        @Override
+        public String toString() {
+            return "pareto:" + millis(mean) + "," + alpha + (defaultCap ? "" : "," + millis(max));
+        }
+    }
+
+    private static final class LogNormal implements TimeDistribution {
+        private final double mean;
+        private final double sigma;
+        private final double mu; // Mean of the underlying normal
+
+        LogNormal(double mean, double sigma) {
+            this.mean = mean;
+            this.sigma = sigma;
+            this.mu = Math.log(mean) - sigma * sigma / 2;
+        }
+
+        @Override
+        public long nextNanos(Random random) {
+            return (long) Math.exp(mu + sigma * random.nextGaussian());
+        }
+
+        @Override
+        public double getMeanNanos() {
+            return mean;
+        }
+
+        @Override
+        public double getScv() {
+            return Math.expm1(sigma * sigma);
+        }
+
+        @Override
+        public String toString() {
+            return "lognormal:" + millis(mean) + "," + sigma;
+        }
+    }
+
+    private static final class Trace implements TimeDistribution {
+        private final long[] nanos;
+        private final String name;
+        private final double mean;
+        private final double scv;
+        private final AtomicLong position = new AtomicLong();
+
+        Trace(long[] nanos, String name) {
+            this.nanos = nanos;
+            this.name = name;
+            double sum = 0;
+            for (long n : nanos) {
+                sum += n;
+            }
+            this.mean = sum / nanos.length;
+            double squares = 0;
+            for (long n : nanos) {
+                squares += (n - mean) * (n - mean);
+            }
+            this.scv = mean == 0 ? 0 : squares / nanos.length / (mean * mean);
+        }
+
+        @Override
+        public long nextNanos(Random random) {
+            return nanos[(int) (position.getAndIncrement() % nanos.length)];
+        }
+
+        @Override
+        public void reset() {
+            position.set(0);
+        }
+
+        @Override
+        public double getMeanNanos() {
+            return mean;
+        }
+
+        @Override
+        public double getScv() {
+            return scv;
+        }
+
+        @Override
+        public String toString() {
+            return "trace:" + name + "[" + nanos.length + "]";
+        }
+    }
+}
@@ -0,0 +1,343 @@
+package com.pranjal.assign1;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Decorator that records every item of a BoundedBlockingQueue in a
+ * {@link WriteAheadLog}, so a restarted process can pick up where a crashed
+ * one stopped.
+ *
+ * Each inserted item is first appended to the log, which assigns its
+ * sequence number, and then queued in an envelope carrying that sequence.
+ * No lock is held across the append or the insert, so a producer waiting
+ * for the disk or for space does not hold up the others, and queue order
+ * can differ slightly from log order. A taken item is not yet consumed: its
+ * sequence is acknowledged when the thread that took it calls
+ * {@link #acknowledge()} after processing it, so an item lost with a
+ * crashed consumer is replayed. The log's commit offset only moves over
+ * sequences that are all acknowledged, so it never passes an item still
+ * queued or being processed. After a crash, an item finished ahead of an
+ * older unfinished one is replayed as well: items are delivered at least
+ * once. A thread that never acknowledges holds the commit offset back.
+ *
+ * An insert that fails after the append (timed out, interrupted or closed)
+ * acknowledges its sequence at once, so the record is never replayed.
+ *
+ * Construction puts the log's recovered items back into the delegate ahead
+ * of anything new. The log must not be appended to except through this
+ * queue, or the commit offset waits for sequences it never sees. Control
+ * objects ({@link QueueCommand}) pass through unlogged. The log is owned by
+ * the caller, who closes it after the consumers have stopped.
+ *
+ * @param <T> the type of elements held in this queue
+ * @author Pranjal
+ * @version 2.1
+ */
+public class DurableQueue<T> implements BoundedBlockingQueue<T> {
+
+    private final BoundedBlockingQueue<Object> delegate;
+    private final WriteAheadLog log;
+    private final WalCodec<T> codec;
+    private final ThreadLocal<Taken> taken = ThreadLocal.withInitial(Taken::new);
+    // Batch takes drain the delegate into this; it is cleared after each use but keeps its capacity
+    private final ThreadLocal<List<Object>> batchBuffer = ThreadLocal.withInitial(ArrayList::new);
+    private final ReentrantLock ackLock = new ReentrantLock();
+    private final PriorityQueue<Long> acknowledged = new PriorityQueue<>(); // Above the low-water mark; guarded by ackLock
+    private final int recoveredCount;
+    private long lowWaterMark; // Every sequence up to here is acknowledged; guarded by ackLock
+
+    /**
+     * Wraps a queue and replays the log's unconsumed items into it.
+     *
+     * @param delegate underlying queue, must have room for the recovered items
+     * @param log open write-ahead log
+     * @param codec converts items to log payloads and back
+     * @throws IllegalStateException if the recovered items do not fit the delegate
+     */
+    public DurableQueue(BoundedBlockingQueue<Object> delegate, WriteAheadLog log, WalCodec<T> codec) {
+        this.delegate = delegate;
+        this.log = log;
+        this.codec = codec;
+
+        List<WriteAheadLog.Entry> recovered = log.getRecovered();
+        if (recovered.size() > delegate.getCapacity() - delegate.getSize()) {
+            throw new IllegalStateException("Cannot replay " + recovered.size() + " items from "
+                + log.getDirectory() + " into a queue with room for " + (delegate.getCapacity() - delegate.getSize()));
+        }
+        try {
+            for (WriteAheadLog.Entry entry : recovered) {
+                delegate.put(new Logged(codec.decode(entry.getPayload()), entry.getSequence()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while replaying " + log.getDirectory(), e);
+        }
+        this.recoveredCount = recovered.size();
+        // Sequences before, between or after the recovered ones were never queued here
+        long next = log.getNextSequence();
+        this.lowWaterMark = (recovered.isEmpty() ? next : recovered.get(0).getSequence()) - 1;
+        for (int i = 0; i < recovered.size(); i++) {
+            long end = i + 1 < recovered.size() ? recovered.get(i + 1).getSequence() : next;
+            for (long missing = recovered.get(i).getSequence() + 1; missing < end; missing++) {
+                acknowledged.add(missing);
+            }
+        }
+    }
+
+    @Override
+    public void put(T item) throws InterruptedException {
+        if (item instanceof QueueCommand) {
+            delegate.put(item);
+            return;
+        }
+        long sequence = append(encode(item));
+        boolean queued = false;
+        try {
+            delegate.put(new Logged(item, sequence));
+            queued = true;
+        } finally {
+            if (!queued) {
+                abandon(sequence);
+            }
+        }
+    }
+
+    @Override
+    public T take() throws InterruptedException {
+        return unwrap(delegate.take());
+    }
+
+    @Override
+    public boolean offer(T item, long timeout, TimeUnit unit) throws InterruptedException {
+        if (item instanceof QueueCommand) {
+            return delegate.offer(item, timeout, unit);
+        }
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        long sequence = append(encode(item));
+        boolean queued = false;
+        try {
+            queued = delegate.offer(new Logged(item, sequence), deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            return queued;
+        } finally {
+            if (!queued) {
+                abandon(sequence);
+            }
+        }
+    }
+
+    @Override
+    public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+        Object element = delegate.poll(timeout, unit);
+        return element == null ? null : unwrap(element);
+    }
+
+    @Override
+    public int drainTo(Collection<? super T> target, int maxElements) {
+        List<Object> raw = batchBuffer.get();
+        try {
+            int drained = delegate.drainTo(raw, maxElements);
+            unwrapAll(raw, target);
+            return drained;
+        } finally {
+            raw.clear();
+        }
+    }
+
+    @Override
+    public int takeBatch(Collection<? super T> target, int maxElements,
+                         long timeout, TimeUnit unit) throws InterruptedException {
+        List<Object> raw = batchBuffer.get();
+        try {
+            int taken = delegate.takeBatch(raw, maxElements, timeout, unit);
+            unwrapAll(raw, target);
+            return taken;
+        } finally {
+            raw.clear();
+        }
+    }
+
+    /**
+     * Acknowledges every item the calling thread has taken since its last
+     * call, with one commit for all of them.
+     */
+    @Override
+    public void acknowledge() {
+        Taken pending = taken.get();
+        if (pending.count == 0) {
+            return;
+        }
+        long commit = 0;
+        ackLock.lock();
+        try {
+            for (int i = 0; i < pending.count; i++) {
+                commit = Math.max(commit, acknowledgeLocked(pending.sequences[i]));
+            }
+        } finally {
+            ackLock.unlock();
+        }
+        pending.count = 0;
+        if (commit > 0) {
+            log.commit(commit);
+        }
+    }
+
+    @Override
+    public boolean setWatermarkListener(int highWatermark, int lowWatermark, WatermarkListener listener) {
+        return delegate.setWatermarkListener(highWatermark, lowWatermark, listener);
+    }
+
+    @Override
+    public boolean close() {
+        return delegate.close();
+    }
+
+    @Override
+    public boolean isClosed() {
+        return delegate.isClosed();
+    }
+
+    @Override
+    public int getSize() {
+        return delegate.getSize();
+    }
+
+    @Override
+    public int getCapacity() {
+        return delegate.getCapacity();
+    }
+
+    /**
+     * Returns how many items were replayed from the log at construction.
+     *
+     * @return recovered item count
+     */
+    public int getRecoveredCount() {
+        return recoveredCount;
+    }
+
+    public WriteAheadLog getLog() {
+        return log;
+    }
+
+    private byte[] encode(T item) {
+        if (item == null) {
+            throw new NullPointerException("Cannot add null elements to queue");
+        }
+        return codec.encode(item);
+    }
+
+    /**
+     * Appends an item before it is queued. If the log fails nothing is
+     * queued and the producer sees the failure.
+     *
+     * @return the item's sequence
+     */
+    private long append(byte[] payload) {
+        try {
+            return log.append(payload);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Write-ahead log append failed", e);
+        }
+    }
+
+    /**
+     * Marks the sequence of an insert that failed after the append as done,
+     * and commits the low-water mark if it moved.
+     */
+    private void abandon(long sequence) {
+        long commit;
+        ackLock.lock();
+        try {
+            commit = acknowledgeLocked(sequence);
+        } finally {
+            ackLock.unlock();
+        }
+        if (commit > 0) {
+            log.commit(commit);
+        }
+    }
+
+    /**
+     * Caller holds ackLock.
+     *
+     * @return the new low-water mark, or 0 if it did not move
+     */
+    private long acknowledgeLocked(long sequence) {
+        if (sequence != lowWaterMark + 1) {
+            acknowledged.add(sequence);
+            return 0;
+        }
+        lowWaterMark = sequence;
+        while (!acknowledged.isEmpty() && acknowledged.peek() == lowWaterMark + 1) {
+            lowWaterMark = acknowledged.poll();
+        }
+        return lowWaterMark;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T unwrap(Object element) {
+        if (!(element instanceof Logged)) {
+            return (T) element; // Control object, never logged
+        }
+        Logged logged = (Logged) element;
+        taken.get().add(logged.sequence);
+        return (T) logged.item;
+    }
+
+    /**
+     * Unwraps a batch, remembering its sequences for the next acknowledge.
+     */
+    @SuppressWarnings("unchecked")
+    private void unwrapAll(List<Object> raw, Collection<? super T> target) {
+        Taken pending = null;
+        for (int i = 0; i < raw.size(); i++) {
+            Object element = raw.get(i);
+            if (element instanceof Logged) {
+                Logged logged = (Logged) element;
+                if (pending == null) {
+                    pending = taken.get();
+                }
+                pending.add(logged.sequence);
+                target.add((T) logged.item);
+            } else {
+                target.add((T) element);
+            }
+        }
+    }
+
+    /**
+     * Sequences one thread has taken and not yet acknowledged.
+     */
+    private static final class Taken {
+        long[] sequences = new long[16];
+        int count;
+
+        void add(long sequence) {
+            if (count == sequences.length) {
+                sequences = Arrays.copyOf(sequences, count * 2);
+            }
+            sequences[count++] = sequence;
+        }
+    }
+
+    /**
+     * An item plus its log sequence number.
+     */
+    private static final class Logged {
+        final Object item;
+        final long sequence;
+
+        Logged(Object item, long sequence) {
+            this.item = item;
+            this.sequence = sequence;
+        }
+    }
+}
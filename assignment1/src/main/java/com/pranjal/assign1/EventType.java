@@ -0,0 +1,86 @@
+package com.pranjal.assign1;
+
+/**
+ * Structured per-item worker events.
+ * 
+ * Text sinks render an event with {@link #format(String, int)}; the binary
+ * journal stores only the type, an item id and the queue size, and
+ * JournalDecoder renders it with the same method, so both produce
+ * identical message text.
+ * 
+ * @author Pranjal
+ * @version 2.1
+ */
+public enum EventType {
+
+    /** Free-text message (lifecycle, errors). The journal stores it in its dictionary. */
+    MESSAGE {
+        @Override
+        public String format(String item, int queueSize) {
+            return item;
+        }
+    },
+
+    /** Producer added an item. */
+    ADDED {
+        @Override
+        public String format(String item, int queueSize) {
+            return "ADDED " + item + " | Queue Size: " + queueSize;
+        }
+    },
+
+    /** Producer gave up waiting for space. */
+    TIMED_OUT {
+        @Override
+        public String format(String item, int queueSize) {
+            return "TIMED OUT waiting to add " + item;
+        }
+    },
+
+    /** Consumer processed an item taken on its own. */
+    PROCESSED {
+        @Override
+        public String format(String item, int queueSize) {
+            return "PROCESSED " + item + " | Queue Size: " + queueSize;
+        }
+    },
+
+    /** Batch consumer took several items in one lock acquisition; the item is the count. */
+    BATCH_TAKEN {
+        @Override
+        public String format(String item, int queueSize) {
+            return "TOOK BATCH of " + item + " | Queue Size: " + queueSize;
+        }
+
+        @Override
+        public boolean isCount() {
+            return true;
+        }
+    },
+
+    /** Batch consumer processed one item of its batch. */
+    BATCH_PROCESSED {
+        @Override
+        public String format(String item, int queueSize) {
+            return "PROCESSED " + item;
+        }
+    };
+
+    /**
+     * Renders the event as a log message.
+     * 
+     * @param item item text (or the message itself for MESSAGE)
+     * @param queueSize queue size at the time of the event; ignored by some types
+     * @return message text as written by the text sinks
+     */
+    public abstract String format(String item, int queueSize);
+
+    /**
+     * Whether the item is a plain number (stored as is) rather than a queue item.
+     * 
+     * @return true for count events
+     */
+    public boolean isCount() {
+        return false;
+    }
+}
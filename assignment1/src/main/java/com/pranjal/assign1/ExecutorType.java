@@ -0,0 +1,96 @@
+package com.pranjal.assign1;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Selects which kind of thread ThreadManager runs producers and consumers on.
+ *
+ * The project compiles for Java 17, so virtual threads are created through
+ * reflection and are only available when running on Java 21 or later.
+ *
+ * @author Pranjal
+ * @version 2.1
+ */
+public enum ExecutorType {
+
+    /**
+     * Cached pool of platform threads, one OS thread per worker (original behaviour).
+     */
+    PLATFORM {
+        @Override
+        public ExecutorService create(String namePrefix) {
+            // CachedThreadPool creates threads as needed, reuses idle threads
+            return Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r);
+                t.setName(namePrefix + t.getId());
+                return t;
+            });
+        }
+
+        @Override
+        public boolean isSupported() {
+            return true;
+        }
+    },
+
+    /**
+     * One virtual thread per worker. Sleeping or blocking in the queue unmounts
+     * the worker from its carrier, so tens of thousands of workers fit in a few
+     * OS threads. Requires Java 21+.
+     */
+    VIRTUAL {
+        @Override
+        public ExecutorService create(String namePrefix) {
+            if (!isSupported()) {
+                throw new UnsupportedOperationException(
+                    "Virtual threads require Java 21+, running on " + Runtime.version());
+            }
+            try {
+                Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+                Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+                builder = builderType.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+                ThreadFactory factory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+                return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, factory);
+            } catch (ReflectiveOperationException e) {
+                Throwable cause = e instanceof InvocationTargetException ? e.getCause() : e;
+                throw new IllegalStateException("Cannot create virtual thread executor", cause);
+            }
+        }
+
+        @Override
+        public boolean isSupported() {
+            return NEW_THREAD_PER_TASK_EXECUTOR != null;
+        }
+    };
+
+    // Executors.newThreadPerTaskExecutor(ThreadFactory), null before Java 21
+    private static final Method NEW_THREAD_PER_TASK_EXECUTOR = findThreadPerTaskExecutor();
+
+    /**
+     * Creates an executor that starts a thread of this kind for each submitted worker.
+     *
+     * @param namePrefix thread name prefix, followed by a sequence number
+     * @return new executor service
+     * @throws UnsupportedOperationException if this type is not available on the running JVM
+     */
+    public abstract ExecutorService create(String namePrefix);
+
+    /**
+     * Returns whether the running JVM supports this executor type.
+     *
+     * @return true if {@link #create} will succeed
+     */
+    public abstract boolean isSupported();
+
+    private static Method findThreadPerTaskExecutor() {
+        try {
+            return Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.pranjal.assign1;
+
+import java.io.PrintWriter;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Synchronous text sink - the original Logger behaviour.
+ * 
+ * Formats and flushes each line on the calling thread.
+ * Guarded by a ReentrantLock rather than a monitor so a virtual thread
+ * blocked on the flush releases its carrier.
+ * Format: [HH:mm:ss.SSS] [Component] : Message
+ * 
+ * @author Pranjal
+ * @version 2.1
+ */
+class FileLogSink implements LogSink {
+
+    static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss.SSS");
+    static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private final PrintWriter writer;
+    private final ReentrantLock lock = new ReentrantLock();
+    private boolean closed; // Guarded by lock
+
+    FileLogSink(PrintWriter writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public void write(long epochMillis, String component, String message) {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            format(writer, epochMillis, component, message);
+            writer.flush(); // Immediate flush for crash resistance
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            writer.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes one line in the standard log format. Shared by all text sinks.
+     */
+    static void format(PrintWriter out, long epochMillis, String component, String message) {
+        String timestamp = TIME_FORMAT.format(LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZONE));
+        out.printf("[%s] [%-15s] : %s%n", timestamp, component, message);
+    }
+}
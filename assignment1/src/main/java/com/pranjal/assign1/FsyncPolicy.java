@@ -0,0 +1,56 @@
+package com.pranjal.assign1;
+
+/**
+ * When a WriteAheadLog forces its memory-mapped pages to disk.
+ *
+ * Writes to a mapped file land in the OS page cache, so every policy
+ * survives the JVM dying. The policy only decides how much of the log an
+ * OS crash or power loss can take with it, and what each append pays for that.
+ *
+ * @author Pranjal
+ * @version 2.1
+ */
+public enum FsyncPolicy {
+
+    /**
+     * Forces after every append and every commit.
+     * Nothing acknowledged is lost; each put and take costs a disk flush,
+     * though producers flush in parallel rather than one at a time.
+     */
+    EVERY_WRITE(1),
+
+    /**
+     * Forces once per N appends, group commit style: the producer that
+     * completes a batch waits for the disk, the others keep appending.
+     * Loses at most the last N-1 items.
+     */
+    BATCH(1024),
+
+    /**
+     * A background thread forces every N milliseconds.
+     * Appends never wait for the disk; loses at most the last interval.
+     */
+    INTERVAL(10),
+
+    /**
+     * Never forces; the OS writes pages back when it chooses.
+     * In-memory speed, only the JVM crash is covered.
+     */
+    OS(1);
+
+    private final int defaultSyncEvery;
+
+    FsyncPolicy(int defaultSyncEvery) {
+        this.defaultSyncEvery = defaultSyncEvery;
+    }
+
+    /**
+     * Returns the N used when none is given: appends per force for BATCH,
+     * milliseconds for INTERVAL; ignored by the other policies.
+     *
+     * @return default sync parameter
+     */
+    public int getDefaultSyncEvery() {
+        return defaultSyncEvery;
+    }
+}
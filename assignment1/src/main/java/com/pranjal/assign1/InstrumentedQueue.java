@@ -0,0 +1,242 @@
+package com.pranjal.assign1;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decorator that measures how long items wait in a BoundedBlockingQueue.
+ * 
+ * Each item is wrapped in a small envelope carrying its enqueue time; on
+ * dequeue the envelope is unwrapped and the enqueue-to-dequeue time goes to
+ * {@link MetricsCollector#recordLatency} as {@link LatencyKind#QUEUE_WAIT}.
+ * Callers see their own items; only the delegate holds envelopes.
+ * Control objects ({@link QueueCommand}) are neither wrapped nor measured.
+ * A {@link WorkItem} carries its own enqueue time, so it is stamped in
+ * place instead of wrapped and costs no allocation. Batch takes drain into
+ * a per-thread buffer that is reused, so they do not allocate either.
+ * 
+ * The envelope is stamped again right after a successful insert, so time a
+ * producer spent blocked on a full queue is not counted as queue wait (it is
+ * reported separately as PRODUCER_BLOCK by ProducerWorker). A consumer that
+ * takes the item in the few nanoseconds before the restamp uses the
+ * provisional time instead.
+ * 
+ * @param <T> the type of elements held in this queue
+ * @author Pranjal
+ * @version 2.1
+ */
+class InstrumentedQueue<T> implements BoundedBlockingQueue<T> {
+
+    private final BoundedBlockingQueue<Object> delegate;
+    private final MetricsCollector metrics;
+    // Batch takes drain the delegate into this; it is cleared after each use but keeps its capacity
+    private final ThreadLocal<List<Object>> batchBuffer = ThreadLocal.withInitial(ArrayList::new);
+
+    /**
+     * Wraps a queue. The delegate must not be used directly for items, except
+     * for control objects like the poison pill, which pass through unmeasured.
+     * 
+     * @param delegate underlying queue
+     * @param metrics receives queue wait samples
+     */
+    InstrumentedQueue(BoundedBlockingQueue<Object> delegate, MetricsCollector metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Makes a queue report queue wait: the queue itself if it can record it,
+     * otherwise the queue wrapped in an InstrumentedQueue.
+     * 
+     * @param queue underlying queue
+     * @param metrics receives queue wait samples
+     * @return queue to hand to workers
+     */
+    static BoundedBlockingQueue<Object> instrument(BoundedBlockingQueue<Object> queue, MetricsCollector metrics) {
+        return queue.setQueueWaitRecorder(metrics) ? queue : new InstrumentedQueue<>(queue, metrics);
+    }
+
+    @Override
+    public void put(T item) throws InterruptedException {
+        if (item instanceof QueueCommand) {
+            delegate.put(item);
+            return;
+        }
+        Object element = wrap(item);
+        long provisional = System.nanoTime();
+        stamp(element, provisional);
+        delegate.put(element);
+        restamp(element, provisional);
+    }
+
+    @Override
+    public T take() throws InterruptedException {
+        return unwrap(delegate.take());
+    }
+
+    @Override
+    public boolean offer(T item, long timeout, TimeUnit unit) throws InterruptedException {
+        if (item instanceof QueueCommand) {
+            return delegate.offer(item, timeout, unit);
+        }
+        Object element = wrap(item);
+        long provisional = System.nanoTime();
+        stamp(element, provisional);
+        if (delegate.offer(element, timeout, unit)) {
+            restamp(element, provisional);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+        Object element = delegate.poll(timeout, unit);
+        return element == null ? null : unwrap(element);
+    }
+
+    @Override
+    public int drainTo(Collection<? super T> target, int maxElements) {
+        List<Object> raw = batchBuffer.get();
+        try {
+            int drained = delegate.drainTo(raw, maxElements);
+            unwrapAll(raw, target);
+            return drained;
+        } finally {
+            raw.clear();
+        }
+    }
+
+    @Override
+    public int takeBatch(Collection<? super T> target, int maxElements,
+                         long timeout, TimeUnit unit) throws InterruptedException {
+        List<Object> raw = batchBuffer.get();
+        try {
+            int taken = delegate.takeBatch(raw, maxElements, timeout, unit);
+            unwrapAll(raw, target);
+            return taken;
+        } finally {
+            raw.clear();
+        }
+    }
+
+    @Override
+    public void putAll(Collection<? extends T> items) throws InterruptedException {
+        List<Object> wrapped = new ArrayList<>(items.size());
+        long provisional = System.nanoTime();
+        for (T item : items) {
+            Object element = item instanceof QueueCommand ? item : wrap(item);
+            stamp(element, provisional);
+            wrapped.add(element);
+        }
+        delegate.putAll(wrapped);
+        for (Object element : wrapped) {
+            restamp(element, provisional);
+        }
+    }
+
+    @Override
+    public void acknowledge() {
+        delegate.acknowledge();
+    }
+
+    @Override
+    public boolean setWatermarkListener(int highWatermark, int lowWatermark, WatermarkListener listener) {
+        return delegate.setWatermarkListener(highWatermark, lowWatermark, listener);
+    }
+
+    @Override
+    public boolean close() {
+        return delegate.close();
+    }
+
+    @Override
+    public boolean isClosed() {
+        return delegate.isClosed();
+    }
+
+    @Override
+    public int getSize() {
+        return delegate.getSize();
+    }
+
+    @Override
+    public int getCapacity() {
+        return delegate.getCapacity();
+    }
+
+    /**
+     * Returns the wrapped queue.
+     * 
+     * @return underlying queue
+     */
+    BoundedBlockingQueue<Object> getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Returns what the delegate stores for an item: the item itself if it is
+     * a WorkItem, otherwise a new envelope.
+     */
+    private Object wrap(T item) {
+        if (item == null) {
+            throw new NullPointerException("Cannot add null elements to queue");
+        }
+        return item instanceof WorkItem ? item : new Stamped(item);
+    }
+
+    private static void stamp(Object element, long nanoTime) {
+        if (element instanceof WorkItem) {
+            ((WorkItem) element).stamp(nanoTime);
+        } else if (element instanceof Stamped) {
+            ((Stamped) element).enqueuedAt = nanoTime;
+        }
+    }
+
+    /**
+     * Moves the stamp to after the insert. A pooled WorkItem may already have
+     * been consumed and reused, so it is only restamped if still provisional.
+     */
+    private static void restamp(Object element, long provisional) {
+        if (element instanceof WorkItem) {
+            ((WorkItem) element).restamp(provisional, System.nanoTime());
+        } else if (element instanceof Stamped) {
+            ((Stamped) element).enqueuedAt = System.nanoTime();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private T unwrap(Object element) {
+        if (element instanceof WorkItem) {
+            metrics.recordLatency(LatencyKind.QUEUE_WAIT, System.nanoTime() - ((WorkItem) element).getEnqueuedAt());
+            return (T) element;
+        }
+        if (!(element instanceof Stamped)) {
+            return (T) element; // Control object, never wrapped
+        }
+        Stamped stamped = (Stamped) element;
+        metrics.recordLatency(LatencyKind.QUEUE_WAIT, System.nanoTime() - stamped.enqueuedAt);
+        return (T) stamped.item;
+    }
+
+    private void unwrapAll(List<Object> raw, Collection<? super T> target) {
+        for (int i = 0; i < raw.size(); i++) {
+            target.add(unwrap(raw.get(i)));
+        }
+    }
+
+    /**
+     * An item plus its enqueue time. The time is provisional (set before the
+     * insert) until the producer restamps it; volatile so consumers see the restamp.
+     */
+    private static final class Stamped {
+        final Object item;
+        volatile long enqueuedAt;
+
+        Stamped(Object item) {
+            this.item = item;
+        }
+    }
+}
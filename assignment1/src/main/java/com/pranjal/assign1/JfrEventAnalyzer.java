@@ -0,0 +1,176 @@
+package com.pranjal.assign1;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Summarizes the queue and thread-management events in a flight recording.
+ *
+ * Usage:
+ *   java com.pranjal.assign1.JfrEventAnalyzer recording.jfr
+ *
+ * Prints count and duration statistics per {@link QueueEvents} type,
+ * auto-scaler decisions and consumer starts/stops, then the GC pauses and
+ * safepoints in the recording and how many queue stalls overlapped one.
+ * A stall that coincides with a pause points at the JVM, not the queue.
+ *
+ * @author Pranjal
+ * @version 2.1
+ */
+public class JfrEventAnalyzer {
+
+    private static final String[] QUEUE_EVENTS = {
+        "QueuePut", "QueueTake", "QueueOfferTimeout", "QueuePollTimeout", "QueueLockWait"
+    };
+    private static final String GC_PAUSE = "jdk.GCPhasePause";
+    private static final String SAFEPOINT = "jdk.SafepointBegin";
+
+    /**
+     * Analyzes a recording and prints the summary to stdout.
+     *
+     * @param args path to a .jfr file
+     */
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            System.err.println("Usage: java com.pranjal.assign1.JfrEventAnalyzer <recording.jfr>");
+            return;
+        }
+        PrintWriter out = new PrintWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        try {
+            analyze(Paths.get(args[0]), out);
+        } catch (IOException e) {
+            System.err.println("ERROR: " + e.getMessage());
+        } finally {
+            out.flush();
+        }
+    }
+
+    /**
+     * Reads a recording and writes the summary.
+     *
+     * @param recording .jfr file
+     * @param out destination for the report
+     * @return number of application events (queue and thread management) found
+     * @throws IOException if the recording cannot be read
+     */
+    public static long analyze(Path recording, PrintWriter out) throws IOException {
+        Map<String, Stats> queueStats = new LinkedHashMap<>();
+        for (String name : QUEUE_EVENTS) {
+            queueStats.put(QueueEvents.PREFIX + name, new Stats());
+        }
+        Map<String, Integer> decisions = new TreeMap<>();
+        int started = 0;
+        int emergencyStarted = 0;
+        int stopped = 0;
+        Stats gcPauses = new Stats();
+        Stats safepoints = new Stats();
+        List<RecordedEvent> stalls = new ArrayList<>();
+        List<RecordedEvent> pauses = new ArrayList<>();
+        long applicationEvents = 0;
+
+        for (RecordedEvent event : RecordingFile.readAllEvents(recording)) {
+            String name = event.getEventType().getName();
+            Stats stats = queueStats.get(name);
+            if (stats != null) {
+                stats.add(event.getDuration().toNanos());
+                stalls.add(event);
+                applicationEvents++;
+            } else if (name.equals(QueueEvents.PREFIX + "AutoScaleDecision")) {
+                decisions.merge(event.getString("action"), 1, Integer::sum);
+                applicationEvents++;
+            } else if (name.equals(QueueEvents.PREFIX + "ConsumerLifecycle")) {
+                if ("START".equals(event.getString("action"))) {
+                    started++;
+                    if (event.getBoolean("emergency")) {
+                        emergencyStarted++;
+                    }
+                } else {
+                    stopped++;
+                }
+                applicationEvents++;
+            } else if (name.equals(GC_PAUSE)) {
+                gcPauses.add(event.getDuration().toNanos());
+                pauses.add(event);
+            } else if (name.equals(SAFEPOINT)) {
+                safepoints.add(event.getDuration().toNanos());
+                pauses.add(event);
+            }
+        }
+
+        out.println("=== JFR QUEUE EVENT SUMMARY: " + recording.getFileName() + " ===");
+        out.println();
+        out.println(String.format("%-22s%10s%12s%12s%12s", "Event", "Count", "Total ms", "Avg ms", "Max ms"));
+        for (Map.Entry<String, Stats> entry : queueStats.entrySet()) {
+            out.println(String.format("%-22s%s", entry.getKey().substring(QueueEvents.PREFIX.length()), entry.getValue()));
+        }
+
+        out.println();
+        out.println("[AUTO-SCALER]  " + decisions.values().stream().mapToInt(Integer::intValue).sum()
+                    + " decisions " + decisions);
+        out.println("[CONSUMERS]    " + started + " started (" + emergencyStarted + " emergency), "
+                    + stopped + " stopped");
+        out.println("[GC PAUSES]    " + gcPauses.summary());
+        out.println("[SAFEPOINTS]   " + safepoints.summary());
+
+        int overlapping = countOverlapping(stalls, pauses);
+        out.println("[CORRELATION]  " + overlapping + " of " + stalls.size() + " queue events overlapped a GC pause or safepoint"
+                    + (stalls.isEmpty() ? "" : String.format(" (%.1f%%)", overlapping * 100.0 / stalls.size())));
+        return applicationEvents;
+    }
+
+    /**
+     * Counts events whose [start, end] interval intersects any pause.
+     */
+    private static int countOverlapping(List<RecordedEvent> events, List<RecordedEvent> pauses) {
+        int overlapping = 0;
+        for (RecordedEvent event : events) {
+            Instant start = event.getStartTime();
+            Instant end = event.getEndTime();
+            for (RecordedEvent pause : pauses) {
+                if (pause.getStartTime().isBefore(end) && pause.getEndTime().isAfter(start)) {
+                    overlapping++;
+                    break;
+                }
+            }
+        }
+        return overlapping;
+    }
+
+    /**
+     * Count and duration totals for one event type.
+     */
+    private static final class Stats {
+        long count;
+        long totalNanos;
+        long maxNanos;
+
+        void add(long nanos) {
+            count++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+
+        String summary() {
+            return String.format("%d, total %.3f ms, max %.3f ms", count, totalNanos / 1e6, maxNanos / 1e6);
+        }
+
+        @Override
+        public String toString() {
+            double avg = count == 0 ? 0 : totalNanos / 1e6 / count;
+            return String.format("%10d%12.3f%12.3f%12.3f", count, totalNanos / 1e6, avg, maxNanos / 1e6);
+        }
+    }
+}
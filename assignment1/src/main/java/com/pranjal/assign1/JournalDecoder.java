@@ -0,0 +1,138 @@
+package com.pranjal.assign1;
+
+import java.io.BufferedReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Converts a binary event journal back into the text log format.
+ *
+ * Usage:
+ *   java com.pranjal.assign1.JournalDecoder [journalBase] [outputFile]
+ *
+ * journalBase defaults to execution_history.journal (next to the text log);
+ * output goes to stdout unless outputFile is given. Each line has the
+ * same [HH:mm:ss.SSS] [Component] : Message format as execution_history.log.
+ *
+ * @author Pranjal
+ * @version 2.1
+ */
+public class JournalDecoder {
+
+    /**
+     * Decodes a journal to stdout or a file.
+     *
+     * @param args optional journal base path and output file
+     */
+    public static void main(String[] args) {
+        Path base = Paths.get(args.length > 0 ? args[0] : Logger.defaultPath(LogMode.JOURNAL));
+        try (PrintWriter out = args.length > 1
+                ? new PrintWriter(new FileWriter(args[1], StandardCharsets.UTF_8))
+                : new PrintWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))) {
+            long records = decode(base, out);
+            out.flush();
+            System.err.println("Decoded " + records + " records from " + base);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("ERROR: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Decodes every segment of a journal, in order.
+     *
+     * @param base journal base path
+     * @param out destination for text lines
+     * @return number of records decoded
+     * @throws IOException if the journal cannot be read
+     * @throws IllegalArgumentException if a segment is not a journal file
+     */
+    public static long decode(Path base, PrintWriter out) throws IOException {
+        Map<Integer, String> dictionary = readDictionary(JournalLogSink.dictionaryPath(base));
+        EventType[] types = EventType.values();
+        long records = 0;
+
+        for (int index = 0; ; index++) {
+            Path path = JournalLogSink.segmentPath(base, index);
+            if (!Files.exists(path)) {
+                break;
+            }
+            ByteBuffer segment = read(path);
+            if (segment.getInt(0) != JournalLogSink.MAGIC) {
+                throw new IllegalArgumentException("Not a journal segment: " + path);
+            }
+            int recordSize = segment.getInt(8);
+
+            for (int offset = JournalLogSink.HEADER_SIZE; offset + recordSize <= segment.limit(); offset += recordSize) {
+                long timestamp = segment.getLong(offset + JournalLogSink.TIMESTAMP_OFFSET);
+                if (timestamp == 0) {
+                    continue; // Unused slot
+                }
+                String component = dictionary.get(segment.getInt(offset + JournalLogSink.COMPONENT_OFFSET));
+                EventType type = types[segment.getInt(offset + JournalLogSink.TYPE_OFFSET)];
+                long itemId = segment.getLong(offset + JournalLogSink.ITEM_OFFSET);
+                int queueSize = segment.getInt(offset + JournalLogSink.QUEUE_SIZE_OFFSET);
+
+                String item;
+                if (type == EventType.MESSAGE) {
+                    item = dictionary.get((int) itemId);
+                } else if (type.isCount()) {
+                    item = Long.toString(itemId);
+                } else if (itemId >= 0) {
+                    item = JournalLogSink.formatRecordId(itemId);
+                } else {
+                    item = dictionary.get((int) -(itemId + 1));
+                }
+                FileLogSink.format(out, timestamp / 1_000_000L, component, type.format(item, queueSize));
+                records++;
+            }
+        }
+        return records;
+    }
+
+    private static ByteBuffer read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    private static Map<Integer, String> readDictionary(Path path) throws IOException {
+        Map<Integer, String> dictionary = new HashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int tab = line.indexOf('\t');
+                if (tab > 0) {
+                    dictionary.put(Integer.parseInt(line.substring(0, tab)), unescape(line.substring(tab + 1)));
+                }
+            }
+        }
+        return dictionary;
+    }
+
+    private static String unescape(String text) {
+        if (text.indexOf('\\') < 0) {
+            return text;
+        }
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\' && i + 1 < text.length()) {
+                char next = text.charAt(++i);
+                sb.append(next == 'n' ? '\n' : next == 'r' ? '\r' : next == 't' ? '\t' : next);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,354 @@
+package com.pranjal.assign1;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Binary event journal sink backed by rolling memory-mapped segment files.
+ *
+ * Each event is one fixed 32-byte record, written with a handful of absolute
+ * stores into a {@link MappedByteBuffer} - no formatting, no syscall:
+ * <pre>
+ *   offset  0  long  timestamp (epoch nanos)
+ *   offset  8  int   component id
+ *   offset 12  int   event type (EventType ordinal)
+ *   offset 16  long  item id
+ *   offset 24  int   queue size (-1 if not applicable)
+ *   offset 28  int   reserved
+ * </pre>
+ * Writers claim a record slot with one atomic increment, so the sink is
+ * lock-free except when a new segment has to be mapped. The slow paths use
+ * ReentrantLocks rather than monitors so virtual-thread writers doing file
+ * I/O there do not pin their carrier.
+ *
+ * Files (for base path "execution_history.journal"):
+ * - execution_history.journal.0000, .0001, ...  segments, each a 16-byte header
+ *   plus recordsPerSegment records; unused slots are zero
+ * - execution_history.journal.dict  "id TAB text" lines mapping component
+ *   names and free-text messages to ids
+ *
+ * Item ids: producer items ({@link WorkItem}s or their "Record-P-I" text)
+ * pack into (P &lt;&lt; 32 | I); any other item is stored in the dictionary
+ * and its id is stored negated (-(id + 1)).
+ * Count events (batch sizes) store the number itself. JournalDecoder turns
+ * the journal back into the text log format.
+ *
+ * @author Pranjal
+ * @version 2.1
+ */
+class JournalLogSink implements LogSink {
+
+    static final int MAGIC = 0x514A4E4C; // "QJNL"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int RECORD_SIZE = 32;
+    static final int TIMESTAMP_OFFSET = 0;
+    static final int COMPONENT_OFFSET = 8;
+    static final int TYPE_OFFSET = 12;
+    static final int ITEM_OFFSET = 16;
+    static final int QUEUE_SIZE_OFFSET = 24;
+
+    static final int DEFAULT_RECORDS_PER_SEGMENT = 512 * 1024; // 16 MB segments
+    static final String DICTIONARY_SUFFIX = ".dict";
+
+    private final Path base;
+    private final int recordsPerSegment;
+    private final AtomicLong sequence = new AtomicLong(0);
+
+    // Wall-clock anchor so timestamps have nanosecond resolution
+    private final long anchorEpochNanos;
+    private final long anchorNanoTime;
+
+    // Dictionary: lookups are lock-free, new entries are appended under dictionaryLock
+    private final ConcurrentHashMap<String, Integer> dictionary = new ConcurrentHashMap<>();
+    private final BufferedWriter dictionaryWriter;
+    private final ReentrantLock dictionaryLock = new ReentrantLock();
+    private int nextId = 0; // Guarded by dictionaryLock
+
+    // Segments in use; older ones are remapped on the (rare) lagging-writer path
+    private final ReentrantLock segmentLock = new ReentrantLock();
+    private volatile Segment current;
+    private Segment previous; // Guarded by segmentLock
+
+    private volatile boolean closed = false;
+
+    /**
+     * Creates a journal with default 16 MB segments, replacing any previous journal at base.
+     *
+     * @param base base path; segments and dictionary get suffixes
+     * @throws IOException if the files cannot be created
+     */
+    JournalLogSink(Path base) throws IOException {
+        this(base, DEFAULT_RECORDS_PER_SEGMENT);
+    }
+
+    /**
+     * Creates a journal, replacing any previous journal at base.
+     *
+     * @param base base path; segments and dictionary get suffixes
+     * @param recordsPerSegment records before rolling to the next segment file
+     * @throws IllegalArgumentException if recordsPerSegment is not positive or too large to map
+     * @throws IOException if the files cannot be created
+     */
+    JournalLogSink(Path base, int recordsPerSegment) throws IOException {
+        if (recordsPerSegment <= 0 || recordsPerSegment > (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE) {
+            throw new IllegalArgumentException("Records per segment out of range, got: " + recordsPerSegment);
+        }
+        this.base = base;
+        this.recordsPerSegment = recordsPerSegment;
+
+        // Overwrite mode, like the text log: drop segments left by a previous run
+        for (int i = 0; Files.deleteIfExists(segmentPath(base, i)); i++) {
+            // deleted
+        }
+        this.dictionaryWriter = Files.newBufferedWriter(dictionaryPath(base), StandardCharsets.UTF_8);
+
+        this.anchorEpochNanos = System.currentTimeMillis() * 1_000_000L;
+        this.anchorNanoTime = System.nanoTime();
+        this.current = map(0, true);
+    }
+
+    /**
+     * Records a free-text message. The message goes to the dictionary once
+     * per distinct text; the record stores its id.
+     */
+    @Override
+    public void write(long epochMillis, String component, String message) {
+        if (!closed) {
+            append(idOf(component), EventType.MESSAGE, idOf(message), -1);
+        }
+    }
+
+    @Override
+    public void writeEvent(long epochMillis, String component, EventType type, Object item, int queueSize) {
+        if (!closed) {
+            long itemId = type.isCount() ? ((Number) item).longValue() : itemId(item);
+            append(idOf(component), type, itemId, queueSize);
+        }
+    }
+
+    /**
+     * Forces the mapped segments to disk and closes the dictionary.
+     * Events written concurrently with close() may be dropped.
+     */
+    @Override
+    public void close() {
+        segmentLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            current.buffer.force();
+            if (previous != null) {
+                previous.buffer.force();
+            }
+        } finally {
+            segmentLock.unlock();
+        }
+        dictionaryLock.lock();
+        try {
+            dictionaryWriter.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            dictionaryLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of records written so far.
+     *
+     * @return record count
+     */
+    long getRecordCount() {
+        return sequence.get();
+    }
+
+    // ==========================================
+    // RECORD WRITING
+    // ==========================================
+
+    private void append(int componentId, EventType type, long itemId, int queueSize) {
+        long seq = sequence.getAndIncrement();
+        int segmentIndex = (int) (seq / recordsPerSegment);
+        Segment segment = current;
+        if (segment.index != segmentIndex) {
+            segment = segmentFor(segmentIndex);
+        }
+
+        int offset = HEADER_SIZE + (int) (seq % recordsPerSegment) * RECORD_SIZE;
+        MappedByteBuffer buffer = segment.buffer;
+        buffer.putInt(offset + COMPONENT_OFFSET, componentId);
+        buffer.putInt(offset + TYPE_OFFSET, type.ordinal());
+        buffer.putLong(offset + ITEM_OFFSET, itemId);
+        buffer.putInt(offset + QUEUE_SIZE_OFFSET, queueSize);
+        // Timestamp last: a zero timestamp marks an unused slot
+        buffer.putLong(offset + TIMESTAMP_OFFSET, anchorEpochNanos + (System.nanoTime() - anchorNanoTime));
+    }
+
+    /**
+     * Slow path: rolls forward to a new segment, or finds an older one for a lagging writer.
+     */
+    private Segment segmentFor(int index) {
+        segmentLock.lock();
+        try {
+            while (current.index < index) {
+                previous = current;
+                current = map(current.index + 1, true);
+            }
+            if (current.index == index) {
+                return current;
+            }
+            if (previous != null && previous.index == index) {
+                return previous;
+            }
+            return map(index, false); // Writer fell more than one segment behind
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot map journal segment " + index, e);
+        } finally {
+            segmentLock.unlock();
+        }
+    }
+
+    private Segment map(int index, boolean create) throws IOException {
+        Path path = segmentPath(base, index);
+        long size = HEADER_SIZE + (long) recordsPerSegment * RECORD_SIZE;
+        try (FileChannel channel = create
+                ? FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                                   StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            if (create) {
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, VERSION);
+                buffer.putInt(8, RECORD_SIZE);
+                buffer.putInt(12, recordsPerSegment);
+            }
+            return new Segment(index, buffer); // Mapping stays valid after the channel closes
+        }
+    }
+
+    // ==========================================
+    // IDS
+    // ==========================================
+
+    /**
+     * Returns the dictionary id for a string, adding it on first use.
+     */
+    private int idOf(String text) {
+        Integer id = dictionary.get(text);
+        if (id != null) {
+            return id;
+        }
+        dictionaryLock.lock();
+        try {
+            id = dictionary.get(text);
+            if (id == null) {
+                id = nextId++;
+                try {
+                    dictionaryWriter.write(id + "\t" + escape(text));
+                    dictionaryWriter.newLine();
+                    dictionaryWriter.flush();
+                } catch (IOException e) {
+                    throw new IllegalStateException("Cannot write journal dictionary", e);
+                }
+                dictionary.put(text, id);
+            }
+            return id;
+        } finally {
+            dictionaryLock.unlock();
+        }
+    }
+
+    private long itemId(Object item) {
+        long packed = parseRecordId(item);
+        return packed >= 0 ? packed : -(idOf(String.valueOf(item)) + 1L);
+    }
+
+    /**
+     * Packs a producer item, or its name "Record-P-I", into (P &lt;&lt; 32 | I) without allocating.
+     *
+     * @param item queue item
+     * @return packed id, or -1 if the item does not have that form
+     */
+    static long parseRecordId(Object item) {
+        if (item instanceof WorkItem) {
+            WorkItem work = (WorkItem) item;
+            long seq = work.getSequence();
+            if (work.getProducerId() < 0 || seq < 0 || seq > 0xFFFFFFFFL) return -1;
+            return ((long) work.getProducerId() << 32) | seq;
+        }
+        if (!(item instanceof String)) {
+            return -1;
+        }
+        String s = (String) item;
+        final String prefix = "Record-";
+        if (!s.startsWith(prefix)) {
+            return -1;
+        }
+        long producer = 0;
+        long seq = 0;
+        int i = prefix.length();
+        int digits = 0;
+        for (; i < s.length() && s.charAt(i) != '-'; i++, digits++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9' || digits > 9) return -1;
+            producer = producer * 10 + (c - '0');
+        }
+        if (digits == 0 || i == s.length() || producer > Integer.MAX_VALUE) return -1;
+        digits = 0;
+        for (i++; i < s.length(); i++, digits++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9' || digits > 9) return -1;
+            seq = seq * 10 + (c - '0');
+        }
+        if (digits == 0 || seq > 0xFFFFFFFFL) return -1;
+        return (producer << 32) | seq;
+    }
+
+    /**
+     * Reverses {@link #parseRecordId(Object)}.
+     *
+     * @param packed packed id
+     * @return "Record-P-I"
+     */
+    static String formatRecordId(long packed) {
+        return "Record-" + (packed >>> 32) + "-" + (packed & 0xFFFFFFFFL);
+    }
+
+    static String escape(String text) {
+        return text.replace("\\", "\\\\").replace("\n", "\\n").replace("\r", "\\r").replace("\t", "\\t");
+    }
+
+    static Path segmentPath(Path base, int index) {
+        return Paths.get(base + String.format(".%04d", index));
+    }
+
+    static Path dictionaryPath(Path base) {
+        return Paths.get(base + DICTIONARY_SUFFIX);
+    }
+
+    /**
+     * A mapped segment file and its number.
+     */
+    private static final class Segment {
+        final int index;
+        final MappedByteBuffer buffer;
+
+        Segment(int index, MappedByteBuffer buffer) {
+            this.index = index;
+            this.buffer = buffer;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.pranjal.assign1;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free high-dynamic-range histogram of nanosecond latencies.
+ * 
+ * Log-linear buckets in the style of HdrHistogram: values below 256 get
+ * one bucket each, and every power-of-two range above that is split into
+ * 128 equal buckets. That covers 0 to Long.MAX_VALUE in 7296 counters with
+ * a relative error below 0.8%, at a fixed 58 KB.
+ * 
+ * record() is one atomic increment on the bucket plus striped count/sum
+ * updates, so any number of threads can record without locking.
+ * Percentiles are computed from a snapshot of the counters; a snapshot
+ * taken while threads are recording may miss their in-flight values.
+ * 
+ * @author Pranjal
+ * @version 2.1
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 8;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS; // 256
+    private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT >> 1;  // 128
+    static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (63 - SUB_BUCKET_BITS) * SUB_BUCKET_HALF;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong(0);
+
+    /**
+     * Creates one empty histogram per LatencyKind, indexed by ordinal.
+     * 
+     * @return new histograms
+     */
+    static LatencyHistogram[] perKind() {
+        LatencyHistogram[] histograms = new LatencyHistogram[LatencyKind.values().length];
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+        return histograms;
+    }
+
+    /**
+     * Records one latency.
+     * 
+     * @param nanos latency in nanoseconds; negative values count as 0
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(indexOf(value));
+        sum.add(value);
+        long current = max.get();
+        while (value > current && !max.compareAndSet(current, value)) {
+            current = max.get();
+        }
+    }
+
+    /**
+     * Returns the number of recorded values.
+     * 
+     * @return sample count
+     */
+    public long getCount() {
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Returns the value at the given percentile. The result is the upper
+     * bound of the bucket holding that rank, capped at the recorded maximum.
+     * 
+     * @param percentile 0 to 100
+     * @return latency in nanoseconds, 0 if nothing recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        return valueAt(snapshotCounts(), percentile);
+    }
+
+    /**
+     * Summarizes count, mean, p50, p90, p99, p99.9 and max from one snapshot.
+     * 
+     * @return immutable summary
+     */
+    public LatencySnapshot snapshot() {
+        long[] snapshot = snapshotCounts();
+        long total = 0;
+        for (long c : snapshot) {
+            total += c;
+        }
+        if (total == 0) {
+            return LatencySnapshot.EMPTY;
+        }
+        return new LatencySnapshot(total, (double) sum.sum() / total,
+            valueAt(snapshot, 50), valueAt(snapshot, 90), valueAt(snapshot, 99),
+            valueAt(snapshot, 99.9), max.get());
+    }
+
+    private long[] snapshotCounts() {
+        long[] snapshot = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = counts.get(i);
+        }
+        return snapshot;
+    }
+
+    private long valueAt(long[] snapshot, double percentile) {
+        long total = 0;
+        for (long c : snapshot) {
+            total += c;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(percentile, 100.0) / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(highestEquivalentValue(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Maps a value to its bucket.
+     */
+    static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        // Shift so the top SUB_BUCKET_BITS bits land in [128, 256)
+        int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1);
+        return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF + (int) ((value >>> shift) - SUB_BUCKET_HALF);
+    }
+
+    /**
+     * Returns the largest value that maps to the given bucket.
+     */
+    static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int offset = index - SUB_BUCKET_COUNT;
+        int shift = offset / SUB_BUCKET_HALF + 1;
+        long lowest = (long) (offset % SUB_BUCKET_HALF + SUB_BUCKET_HALF) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,37 @@
+package com.pranjal.assign1;
+
+/**
+ * Latencies tracked by MetricsCollector, one histogram each.
+ * 
+ * @author Pranjal
+ * @version 2.1
+ */
+public enum LatencyKind {
+
+    /** Time an item spends in the queue, from enqueue to dequeue. */
+    QUEUE_WAIT("Queue Wait"),
+
+    /** Time a producer spends inside offer, waiting for space. */
+    PRODUCER_BLOCK("Producer Block"),
+
+    /** Time a consumer spends processing one item after taking it. */
+    PROCESSING("Processing"),
+
+    /** Time to read one batch of spilled items back from disk into the queue. */
+    PAGE_IN("Page-In");
+
+    private final String label;
+
+    LatencyKind(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Returns the name used in reports.
+     * 
+     * @return human-readable label
+     */
+    public String getLabel() {
+        return label;
+    }
+}
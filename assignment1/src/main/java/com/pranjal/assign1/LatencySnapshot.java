@@ -0,0 +1,72 @@
+package com.pranjal.assign1;
+
+/**
+ * Immutable percentile summary of a LatencyHistogram. All values in nanoseconds.
+ * 
+ * @author Pranjal
+ * @version 2.1
+ */
+public final class LatencySnapshot {
+
+    /** Summary of an empty histogram. */
+    public static final LatencySnapshot EMPTY = new LatencySnapshot(0, 0, 0, 0, 0, 0, 0);
+
+    private final long count;
+    private final double mean;
+    private final long p50;
+    private final long p90;
+    private final long p99;
+    private final long p999;
+    private final long max;
+
+    LatencySnapshot(long count, double mean, long p50, long p90, long p99, long p999, long max) {
+        this.count = count;
+        this.mean = mean;
+        this.p50 = p50;
+        this.p90 = p90;
+        this.p99 = p99;
+        this.p999 = p999;
+        this.max = max;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public long getP50() {
+        return p50;
+    }
+
+    public long getP90() {
+        return p90;
+    }
+
+    public long getP99() {
+        return p99;
+    }
+
+    public long getP999() {
+        return p999;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Formats the percentiles in milliseconds, e.g.
+     * "p50=1.234 p90=... p99=... p99.9=... max=... ms (n=80)".
+     */
+    @Override
+    public String toString() {
+        if (count == 0) {
+            return "no samples";
+        }
+        return String.format("p50=%.3f p90=%.3f p99=%.3f p99.9=%.3f max=%.3f ms (n=%d)",
+            p50 / 1e6, p90 / 1e6, p99 / 1e6, p999 / 1e6, max / 1e6, count);
+    }
+}
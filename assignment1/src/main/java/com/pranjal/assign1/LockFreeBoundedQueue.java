@@ -0,0 +1,213 @@
+package com.pranjal.assign1;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free multi-producer/multi-consumer bounded queue.
+ *
+ * Based on Dmitry Vyukov's sequence-numbered ring: every slot carries a
+ * sequence number telling producers and consumers whose turn it is, so a
+ * single CAS on the enqueue or dequeue position claims a slot. The two
+ * positions are padded to avoid false sharing between producers and consumers.
+ *
+ * Blocking calls (put/take/offer/poll) retry the non-blocking path and wait
+ * between attempts according to the configured {@link WaitStrategy}.
+ *
+ * @param <T> the type of elements held in this queue
+ * @author Pranjal
+ * @version 2.1
+ */
+public class LockFreeBoundedQueue<T> implements BoundedBlockingQueue<T> {
+
+    private final int capacity;
+    private final int slots;
+    private final Object[] items;
+    private final AtomicLongArray sequences;
+    private final WaitStrategy waitStrategy;
+
+    // Separate cache lines: producers hammer one, consumers the other
+    private final PaddedAtomicLong enqueuePos = new PaddedAtomicLong(0);
+    private final PaddedAtomicLong dequeuePos = new PaddedAtomicLong(0);
+
+    /**
+     * Constructs a lock-free queue using {@link WaitStrategy#SPIN_THEN_PARK}.
+     *
+     * @param capacity maximum number of elements, must be positive
+     * @throws IllegalArgumentException if capacity is not positive
+     */
+    public LockFreeBoundedQueue(int capacity) {
+        this(capacity, WaitStrategy.SPIN_THEN_PARK);
+    }
+
+    /**
+     * Constructs a lock-free queue.
+     *
+     * @param capacity maximum number of elements, must be positive
+     * @param waitStrategy how blocked callers wait between retries, must not be null
+     * @throws IllegalArgumentException if capacity is not positive
+     * @throws NullPointerException if waitStrategy is null
+     */
+    public LockFreeBoundedQueue(int capacity, WaitStrategy waitStrategy) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Queue capacity must be positive, got: " + capacity);
+        }
+        if (waitStrategy == null) {
+            throw new NullPointerException("Wait strategy must not be null");
+        }
+        this.capacity = capacity;
+        this.waitStrategy = waitStrategy;
+        // A one-slot ring cannot tell "full" from "free for the next lap",
+        // so capacity 1 uses two slots plus an explicit size check in tryOffer.
+        this.slots = Math.max(capacity, 2);
+        this.items = new Object[slots];
+        this.sequences = new AtomicLongArray(slots);
+        for (int i = 0; i < slots; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Inserts the element if a slot is free, without waiting.
+     *
+     * @param item the element to add, must not be null
+     * @return true if added, false if the queue is full
+     * @throws NullPointerException if item is null
+     */
+    public boolean tryOffer(T item) {
+        if (item == null) {
+            throw new NullPointerException("Cannot add null elements to queue");
+        }
+
+        long pos = enqueuePos.get();
+        while (true) {
+            if (slots != capacity && pos - dequeuePos.get() >= capacity) {
+                return false;
+            }
+            int index = (int) (pos % slots);
+            long seq = sequences.getAcquire(index);
+            long diff = seq - pos;
+
+            if (diff == 0) {
+                // Slot is free for this position - try to claim it
+                if (enqueuePos.compareAndSet(pos, pos + 1)) {
+                    items[index] = item;
+                    sequences.setRelease(index, pos + 1); // Publish to consumers
+                    return true;
+                }
+                pos = enqueuePos.get();
+            } else if (diff < 0) {
+                return false; // Consumer has not freed this slot yet: full
+            } else {
+                pos = enqueuePos.get(); // Another producer got here first
+            }
+        }
+    }
+
+    /**
+     * Retrieves and removes the head if present, without waiting.
+     *
+     * @return the head of this queue, or null if empty
+     */
+    @SuppressWarnings("unchecked")
+    public T tryPoll() {
+        long pos = dequeuePos.get();
+        while (true) {
+            int index = (int) (pos % slots);
+            long seq = sequences.getAcquire(index);
+            long diff = seq - (pos + 1);
+
+            if (diff == 0) {
+                if (dequeuePos.compareAndSet(pos, pos + 1)) {
+                    T item = (T) items[index];
+                    items[index] = null;
+                    sequences.setRelease(index, pos + slots); // Free slot for next lap
+                    return item;
+                }
+                pos = dequeuePos.get();
+            } else if (diff < 0) {
+                return null; // Producer has not filled this slot yet: empty
+            } else {
+                pos = dequeuePos.get();
+            }
+        }
+    }
+
+    @Override
+    public void put(T item) throws InterruptedException {
+        int attempt = 0;
+        while (!tryOffer(item)) {
+            checkInterrupt();
+            waitStrategy.idle(attempt++);
+        }
+    }
+
+    @Override
+    public T take() throws InterruptedException {
+        int attempt = 0;
+        T item;
+        while ((item = tryPoll()) == null) {
+            checkInterrupt();
+            waitStrategy.idle(attempt++);
+        }
+        return item;
+    }
+
+    @Override
+    public boolean offer(T item, long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int attempt = 0;
+        while (!tryOffer(item)) {
+            checkInterrupt();
+            if (System.nanoTime() - deadline >= 0) return false;
+            waitStrategy.idle(attempt++);
+        }
+        return true;
+    }
+
+    @Override
+    public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int attempt = 0;
+        T item;
+        while ((item = tryPoll()) == null) {
+            checkInterrupt();
+            if (System.nanoTime() - deadline >= 0) return null;
+            waitStrategy.idle(attempt++);
+        }
+        return item;
+    }
+
+    /**
+     * Returns a snapshot of the element count.
+     * Lock-free; may be momentarily stale while operations are in flight.
+     *
+     * @return the number of elements currently in the queue
+     */
+    @Override
+    public int getSize() {
+        long size = enqueuePos.get() - dequeuePos.get();
+        if (size < 0) return 0;
+        return (int) Math.min(size, capacity);
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the wait strategy used by blocking calls.
+     *
+     * @return the wait strategy chosen at construction
+     */
+    public WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    private static void checkInterrupt() throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+    }
+}
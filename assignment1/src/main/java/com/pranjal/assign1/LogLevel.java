@@ -0,0 +1,24 @@
+package com.pranjal.assign1;
+
+/**
+ * Severity of a log event, lowest first.
+ * 
+ * Logger drops events below its current level before any message is built.
+ * Per-item worker events are DEBUG, so INFO and above keep the hot path free
+ * of string building and queue size lookups.
+ * 
+ * @author Pranjal
+ * @version 2.1
+ */
+public enum LogLevel {
+    /** Per-item events (ADDED / PROCESSED). */
+    DEBUG,
+    /** Lifecycle events (STARTED, shutdown steps, auto-scaling). */
+    INFO,
+    /** Recoverable problems such as timeouts. */
+    WARN,
+    /** Failures. */
+    ERROR,
+    /** Disables logging entirely. */
+    OFF
+}
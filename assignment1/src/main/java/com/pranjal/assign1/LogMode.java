@@ -0,0 +1,28 @@
+package com.pranjal.assign1;
+
+/**
+ * How Logger writes execution_history.log.
+ * 
+ * @author Pranjal
+ * @version 2.1
+ */
+public enum LogMode {
+
+    /**
+     * Caller formats, writes and flushes every line (original behaviour).
+     * Simple and crash-resistant, but every event pays a lock and a syscall.
+     */
+    SYNC,
+
+    /**
+     * Caller enqueues to a lock-free ring buffer; a background writer thread
+     * formats and writes in batches, flushing by size or time.
+     */
+    ASYNC,
+
+    /**
+     * Caller appends a fixed 32-byte binary record to a memory-mapped journal
+     * (execution_history.journal.*); decode with JournalDecoder.
+     */
+    JOURNAL
+}
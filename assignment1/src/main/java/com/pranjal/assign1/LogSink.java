@@ -0,0 +1,44 @@
+package com.pranjal.assign1;
+
+/**
+ * Destination for Logger events.
+ * 
+ * Logger decides WHAT to record; a sink decides HOW it is written
+ * (immediately, batched on a background thread, ...).
+ * Implementations must be thread-safe.
+ * 
+ * @author Pranjal
+ * @version 2.1
+ */
+public interface LogSink {
+
+    /**
+     * Records one event.
+     * 
+     * @param epochMillis wall-clock time of the event
+     * @param component name of component generating log
+     * @param message log message
+     */
+    void write(long epochMillis, String component, String message);
+
+    /**
+     * Records one structured worker event.
+     * Text sinks render it as {@code type.format(item, queueSize)}; binary sinks
+     * may store the fields directly.
+     * 
+     * @param epochMillis wall-clock time of the event
+     * @param component name of component generating log
+     * @param type event type
+     * @param item the queue item, or a count for {@link EventType#isCount()} types
+     * @param queueSize queue size at the time of the event, or -1 if not applicable
+     */
+    default void writeEvent(long epochMillis, String component, EventType type, Object item, int queueSize) {
+        write(epochMillis, component, type.format(String.valueOf(item), queueSize));
+    }
+
+    /**
+     * Writes out everything recorded so far and releases resources.
+     * No events may be lost; later writes are ignored.
+     */
+    void close();
+}
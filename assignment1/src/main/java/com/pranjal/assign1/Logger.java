@@ -3,8 +3,9 @@ package com.pranjal.assign1;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.nio.file.Paths;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
 
 /**
  * Thread-safe file logger for persistent event recording.
@@ -12,55 +13,318 @@ import java.time.format.DateTimeFormatter;
  * Writes all events to execution_history.log with timestamps.
  * Format: [HH:mm:ss.SSS] [Component] : Message
  * 
+ * The actual writing is delegated to a {@link LogSink} chosen by
+ * {@link LogMode}: SYNC (default) flushes every line on the caller,
+ * ASYNC hands events to a background writer thread, JOURNAL appends
+ * binary records to a memory-mapped journal.
+ * 
+ * Events below the current {@link LogLevel} are dropped. The levelled
+ * overloads take a template with {} placeholders and fixed arguments
+ * (no varargs array); IntSupplier and Supplier arguments are only
+ * evaluated when the event is enabled, so a disabled call allocates nothing.
+ * 
+ * Example:
+ * <pre>
+ * Logger.log(LogLevel.DEBUG, name, "ADDED {} | Queue Size: {}", data, sizeProbe);
+ * </pre>
+ * Worker per-item events use {@link #event} instead, which keeps the
+ * fields separate so the journal can store them without formatting.
+ * 
  * @author Pranjal
  * @version 2.1
  */
 public class Logger {
 
-    private static PrintWriter writer;
-    private static final DateTimeFormatter dtf = DateTimeFormatter.ofPattern("HH:mm:ss.SSS");
+    private static volatile LogSink sink;
+    // Ordinal of the lowest enabled level; DEBUG keeps the original "log everything" behaviour
+    private static volatile int threshold = LogLevel.DEBUG.ordinal();
 
     /**
-     * Initializes logger and creates log file in overwrite mode.
+     * Initializes logger in SYNC mode and creates log file in overwrite mode.
      */
     public static void init() {
+        init(LogMode.SYNC);
+    }
+
+    /**
+     * Initializes logger and creates log file in overwrite mode.
+     * 
+     * @param mode how events are written
+     */
+    public static void init(LogMode mode) {
+        init(mode, defaultPath(mode));
+    }
+
+    /**
+     * Initializes logger writing to the given file in overwrite mode.
+     * 
+     * @param mode how events are written
+     * @param logPath log file path (journal base path in JOURNAL mode)
+     */
+    public static void init(LogMode mode, String logPath) {
         try {
-            // Check if we're already in assignment1 directory
-            String currentDir = System.getProperty("user.dir");
-            String logPath = currentDir.endsWith("assignment1") ? 
-                "execution_history.log" : "assignment1/execution_history.log";
-            
-            writer = new PrintWriter(new FileWriter(logPath, false));
-            log("SYSTEM", "Logger Initialized. Recording events...");
+            if (mode == LogMode.JOURNAL) {
+                init(new JournalLogSink(Paths.get(logPath)));
+                return;
+            }
+            PrintWriter writer = new PrintWriter(new FileWriter(logPath, false));
+            init(mode == LogMode.ASYNC ? new AsyncLogSink(writer) : new FileLogSink(writer));
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
     /**
-     * Logs a message with timestamp and component name.
-     * Thread-safe via synchronized keyword.
-     * Flushes immediately to prevent data loss on crash.
+     * Returns the default log location for a mode:
+     * execution_history.log, or execution_history.journal for JOURNAL.
+     * 
+     * @param mode logging mode
+     * @return path relative to the working directory
+     */
+    static String defaultPath(LogMode mode) {
+        String name = mode == LogMode.JOURNAL ? "execution_history.journal" : "execution_history.log";
+        // Check if we're already in assignment1 directory
+        String currentDir = System.getProperty("user.dir");
+        return currentDir.endsWith("assignment1") ? name : "assignment1/" + name;
+    }
+
+    /**
+     * Initializes logger with an explicit sink. Any previous sink is closed first.
+     * 
+     * @param newSink destination for all subsequent events
+     */
+    static void init(LogSink newSink) {
+        LogSink previous = sink;
+        sink = newSink;
+        if (previous != null) {
+            previous.close();
+        }
+        log("SYSTEM", "Logger Initialized. Recording events...");
+    }
+
+    /**
+     * Sets the lowest level that is written.
+     * 
+     * @param level new threshold; OFF disables logging
+     * @throws NullPointerException if level is null
+     */
+    public static void setLevel(LogLevel level) {
+        if (level == null) {
+            throw new NullPointerException("Log level must not be null");
+        }
+        threshold = level.ordinal();
+    }
+
+    /**
+     * Returns the lowest level that is written.
+     * 
+     * @return current threshold
+     */
+    public static LogLevel getLevel() {
+        return LogLevel.values()[threshold];
+    }
+
+    /**
+     * Checks whether events at the given level would be written.
+     * Use to guard expensive message construction.
+     * 
+     * @param level event level
+     * @return true if enabled and a sink is installed
+     */
+    public static boolean isEnabled(LogLevel level) {
+        return level.ordinal() >= threshold && level != LogLevel.OFF && sink != null;
+    }
+
+    /**
+     * Logs a message with timestamp and component name at INFO level.
+     * Thread-safe; in SYNC mode flushes immediately to prevent data loss on crash.
      * 
      * @param component name of component generating log
      * @param message log message
      */
-    public static synchronized void log(String component, String message) {
-        if (writer != null) {
-            String timestamp = dtf.format(LocalDateTime.now());
-            writer.printf("[%s] [%-15s] : %s%n", timestamp, component, message);
-            writer.flush(); // Immediate flush for crash resistance
+    public static void log(String component, String message) {
+        log(LogLevel.INFO, component, message);
+    }
+
+    /**
+     * Logs a prebuilt message at the given level.
+     * 
+     * @param level event level
+     * @param component name of component generating log
+     * @param message log message
+     */
+    public static void log(LogLevel level, String component, String message) {
+        if (isEnabled(level)) {
+            write(component, message);
+        }
+    }
+
+    /**
+     * Logs a message built on demand. The supplier runs only if level is enabled.
+     * 
+     * @param level event level
+     * @param component name of component generating log
+     * @param message message supplier
+     */
+    public static void log(LogLevel level, String component, Supplier<String> message) {
+        if (isEnabled(level)) {
+            write(component, message.get());
+        }
+    }
+
+    /**
+     * Logs a template with one argument.
+     * 
+     * @param level event level
+     * @param component name of component generating log
+     * @param template message with {} placeholders
+     * @param arg value for the first placeholder; a Supplier is evaluated lazily
+     */
+    public static void log(LogLevel level, String component, String template, Object arg) {
+        if (isEnabled(level)) {
+            write(component, format(template, 1, resolve(arg), null));
+        }
+    }
+
+    /**
+     * Logs a template with two arguments.
+     * 
+     * @param level event level
+     * @param component name of component generating log
+     * @param template message with {} placeholders
+     * @param arg1 value for the first placeholder; a Supplier is evaluated lazily
+     * @param arg2 value for the second placeholder; a Supplier is evaluated lazily
+     */
+    public static void log(LogLevel level, String component, String template, Object arg1, Object arg2) {
+        if (isEnabled(level)) {
+            write(component, format(template, 2, resolve(arg1), resolve(arg2)));
+        }
+    }
+
+    /**
+     * Logs a template whose second argument is computed lazily,
+     * e.g. a queue size probe that should not run when the level is disabled.
+     * 
+     * @param level event level
+     * @param component name of component generating log
+     * @param template message with {} placeholders
+     * @param arg value for the first placeholder
+     * @param lazy evaluated only if enabled, for the second placeholder
+     */
+    public static void log(LogLevel level, String component, String template, Object arg, IntSupplier lazy) {
+        if (isEnabled(level)) {
+            write(component, format(template, 2, resolve(arg), lazy.getAsInt()));
+        }
+    }
+
+    /**
+     * Logs a template with a primitive first argument (no boxing when disabled)
+     * and a lazily computed second argument.
+     * 
+     * @param level event level
+     * @param component name of component generating log
+     * @param template message with {} placeholders
+     * @param arg value for the first placeholder
+     * @param lazy evaluated only if enabled, for the second placeholder
+     */
+    public static void log(LogLevel level, String component, String template, int arg, IntSupplier lazy) {
+        if (isEnabled(level)) {
+            write(component, format(template, 2, arg, lazy.getAsInt()));
+        }
+    }
+
+    /**
+     * Logs a structured per-item event. The queue size probe runs only if
+     * level is enabled; nothing is formatted on the caller in JOURNAL mode.
+     * 
+     * @param level event level
+     * @param component name of component generating log
+     * @param type event type
+     * @param item the queue item
+     * @param queueSize evaluated only if enabled
+     */
+    public static void event(LogLevel level, String component, EventType type, Object item, IntSupplier queueSize) {
+        if (isEnabled(level)) {
+            writeEvent(component, type, item, queueSize.getAsInt());
+        }
+    }
+
+    /**
+     * Logs a structured per-item event that has no queue size.
+     * 
+     * @param level event level
+     * @param component name of component generating log
+     * @param type event type
+     * @param item the queue item
+     */
+    public static void event(LogLevel level, String component, EventType type, Object item) {
+        if (isEnabled(level)) {
+            writeEvent(component, type, item, -1);
+        }
+    }
+
+    /**
+     * Logs a structured count event such as {@link EventType#BATCH_TAKEN}.
+     * The count is only boxed when the level is enabled.
+     * 
+     * @param level event level
+     * @param component name of component generating log
+     * @param type event type
+     * @param count number carried by the event
+     * @param queueSize evaluated only if enabled
+     */
+    public static void event(LogLevel level, String component, EventType type, int count, IntSupplier queueSize) {
+        if (isEnabled(level)) {
+            writeEvent(component, type, count, queueSize.getAsInt());
+        }
+    }
+
+    private static void writeEvent(String component, EventType type, Object item, int queueSize) {
+        LogSink current = sink;
+        if (current != null) {
+            current.writeEvent(System.currentTimeMillis(), component, type, item, queueSize);
+        }
+    }
+
+    private static void write(String component, String message) {
+        LogSink current = sink;
+        if (current != null) {
+            current.write(System.currentTimeMillis(), component, message);
+        }
+    }
+
+    private static Object resolve(Object arg) {
+        return arg instanceof Supplier ? ((Supplier<?>) arg).get() : arg;
+    }
+
+    /**
+     * Replaces the first argCount {} placeholders with the arguments, in order.
+     * Placeholders beyond the arguments are left as is.
+     */
+    static String format(String template, int argCount, Object arg1, Object arg2) {
+        StringBuilder sb = new StringBuilder(template.length() + 32);
+        int from = 0;
+        int argIndex = 0;
+        int at;
+        while (argIndex < argCount && (at = template.indexOf("{}", from)) >= 0) {
+            sb.append(template, from, at).append(argIndex == 0 ? arg1 : arg2);
+            from = at + 2;
+            argIndex++;
         }
+        return sb.append(template, from, template.length()).toString();
     }
 
     /**
      * Closes logger and releases file resources.
+     * In ASYNC mode, blocks until every queued event has been written.
      * Should be called in finally block at shutdown.
      */
     public static void close() {
-        if (writer != null) {
+        LogSink current = sink;
+        if (current != null) {
             log("SYSTEM", "System Shutdown. Closing logs.");
-            writer.close();
+            sink = null;
+            current.close();
         }
     }
 }
@@ -1,5 +1,12 @@
 package com.pranjal.assign1;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Main entry point for the Producer-Consumer Simulation System.
  * 
@@ -8,6 +15,12 @@ package com.pranjal.assign1;
  * - Default: java Main --default (uses defaults)
  * - Custom: java Main 4 20 2 10 (four integers)
  * 
+ * Any mode accepts trailing --key=value options, e.g. --queue=LOCK_FREE --wait=BUSY_SPIN --log=ASYNC.
+ * Adding --bench runs a headless max-throughput benchmark instead of the
+ * simulation (defaults unless four integers are given; items per producer is ignored).
+ * Adding --des runs the simulation as a seeded discrete-event model on a
+ * virtual clock, which finishes large scenarios in seconds.
+ * 
  * @author Pranjal
  * @version 2.1
  */
@@ -19,12 +32,18 @@ public class Main {
      * @param args command-line arguments for configuration
      */
     public static void main(String[] args) {
-        Logger.init();
+        Logger.init(getLogMode(args));
         
         try {
-            Configuration config = getConfiguration(args);
-            SimulationEngine engine = new SimulationEngine(config);
-            engine.runSimulation();
+            if (hasFlag(args, "--bench")) {
+                runBenchmark(args);
+            } else if (hasFlag(args, "--des")) {
+                runDiscreteEvent(args);
+            } else {
+                Configuration config = getConfiguration(args);
+                SimulationEngine engine = new SimulationEngine(config);
+                engine.runSimulation();
+            }
         } catch (Exception e) {
             System.err.println("ERROR: " + e.getMessage());
             Logger.log("SYSTEM", "Fatal error: " + e.getMessage());
@@ -34,6 +53,172 @@ public class Main {
         }
     }
     
+    private static boolean hasFlag(String[] args, String flag) {
+        for (String arg : args) {
+            if (arg.equals(flag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Runs the headless benchmark: no dashboard, auto-scaler or per-item
+     * logging, zero think times unless given. Prints the report and writes
+     * the JSON summary.
+     * 
+     * @param args command-line arguments including --bench
+     * @throws IOException if the JSON summary cannot be written
+     * @throws InterruptedException if interrupted while running
+     * @throws IllegalArgumentException if arguments invalid
+     */
+    private static void runBenchmark(String[] args) throws IOException, InterruptedException {
+        Logger.setLevel(LogLevel.INFO); // Per-item events are DEBUG; --log-level can still override
+        
+        List<String> positional = new ArrayList<>();
+        List<String> options = new ArrayList<>();
+        ThinkTime producerThink = ThinkTime.NONE;
+        ThinkTime consumerThink = ThinkTime.NONE;
+        int warmupSeconds = 2;
+        int durationSeconds = 10;
+        Path json = Paths.get("bench-result.json");
+        for (String arg : args) {
+            if (arg.equals("--bench")) {
+                continue;
+            }
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                positional.add(arg);
+                continue;
+            }
+            String key = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1).trim();
+            switch (key) {
+                case "producer-think":
+                    producerThink = parseThinkTime(key, value);
+                    break;
+                case "consumer-think":
+                    consumerThink = parseThinkTime(key, value);
+                    break;
+                case "warmup":
+                    warmupSeconds = parseInt(key, value, 0);
+                    break;
+                case "duration":
+                    durationSeconds = parseInt(key, value);
+                    break;
+                case "bench-json":
+                    json = Paths.get(value);
+                    break;
+                default:
+                    options.add(arg);
+            }
+        }
+        
+        Configuration base = positional.isEmpty() ? Configuration.withDefaults()
+                                                  : getBaseConfiguration(positional.toArray(new String[0]));
+        Configuration config = applyOptions(base, options);
+        System.out.println("\nBenchmarking " + config + " for " + durationSeconds + "s after "
+                           + warmupSeconds + "s warmup...");
+        
+        BenchmarkRunner runner = new BenchmarkRunner(config, producerThink, consumerThink,
+                                                     warmupSeconds * 1000L, durationSeconds * 1000L);
+        BenchmarkResult result = runner.run();
+        result.print(System.out);
+        Files.writeString(json, result.toJson());
+        System.out.println("JSON summary: " + json.toAbsolutePath());
+    }
+    
+    /**
+     * Runs the discrete-event simulation: same configuration and report as
+     * the threaded simulation, the original think times unless given, and a
+     * seed (default 42) that makes the run repeatable.
+     * 
+     * @param args command-line arguments including --des
+     * @throws IllegalArgumentException if arguments invalid
+     */
+    private static void runDiscreteEvent(String[] args) {
+        List<String> positional = new ArrayList<>();
+        List<String> options = new ArrayList<>();
+        ThinkTime producerThink = ThinkTime.PRODUCER_DEFAULT;
+        ThinkTime consumerThink = ThinkTime.CONSUMER_DEFAULT;
+        long seed = 42;
+        for (String arg : args) {
+            if (arg.equals("--des")) {
+                continue;
+            }
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                positional.add(arg);
+                continue;
+            }
+            String key = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1).trim();
+            switch (key) {
+                case "producer-think":
+                    producerThink = parseThinkTime(key, value);
+                    break;
+                case "consumer-think":
+                    consumerThink = parseThinkTime(key, value);
+                    break;
+                case "seed":
+                    try {
+                        seed = Long.parseLong(value);
+                    } catch (NumberFormatException e) {
+                        printUsage();
+                        throw new IllegalArgumentException("Invalid value for --" + key + ": " + value);
+                    }
+                    break;
+                default:
+                    options.add(arg);
+            }
+        }
+        
+        Configuration base = positional.isEmpty() ? Configuration.withDefaults()
+                                                  : getBaseConfiguration(positional.toArray(new String[0]));
+        Configuration config = applyOptions(base, options);
+        System.out.println("\nSimulating " + config + " on a virtual clock (seed " + seed + ")...");
+        
+        DiscreteEventSimulation simulation = new DiscreteEventSimulation(config, producerThink, consumerThink, seed);
+        simulation.run();
+        simulation.printAnalysisResults(System.out);
+    }
+    
+    /**
+     * Parses a think time option value.
+     * 
+     * @param key option name for error reporting
+     * @param value raw option value, "ms", "min-max" or a distribution such as "exp:10"
+     * @return parsed think time
+     * @throws IllegalArgumentException if value is malformed
+     */
+    private static ThinkTime parseThinkTime(String key, String value) {
+        try {
+            return ThinkTime.parse(value);
+        } catch (IllegalArgumentException e) {
+            printUsage();
+            throw new IllegalArgumentException("Invalid value for --" + key + ": " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Picks the logging mode from a --log=SYNC|ASYNC|JOURNAL option.
+     * Read before anything else so the whole run is logged in that mode;
+     * an invalid value is reported later by applyOptions.
+     * 
+     * @param args command-line arguments
+     * @return requested mode, SYNC if absent or invalid
+     */
+    private static LogMode getLogMode(String[] args) {
+        for (String arg : args) {
+            if (arg.startsWith("--log=")) {
+                try {
+                    return LogMode.valueOf(arg.substring("--log=".length()).trim().toUpperCase());
+                } catch (IllegalArgumentException e) {
+                    return LogMode.SYNC;
+                }
+            }
+        }
+        return LogMode.SYNC;
+    }
+    
     /**
      * Determines configuration based on command-line arguments.
      * 
@@ -42,6 +227,31 @@ public class Main {
      * @throws IllegalArgumentException if arguments invalid
      */
     private static Configuration getConfiguration(String[] args) {
+        List<String> positional = new ArrayList<>();
+        List<String> options = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.add(arg);
+            } else {
+                positional.add(arg);
+            }
+        }
+        
+        Configuration config = applyOptions(getBaseConfiguration(positional.toArray(new String[0])), options);
+        if (!options.isEmpty()) {
+            System.out.println("Options applied: " + config);
+        }
+        return config;
+    }
+    
+    /**
+     * Determines base configuration from positional arguments.
+     * 
+     * @param args positional command-line arguments
+     * @return configuration instance
+     * @throws IllegalArgumentException if arguments invalid
+     */
+    private static Configuration getBaseConfiguration(String[] args) {
         if (args.length == 0) {
             // Interactive mode
             return Configuration.fromUserInput();
@@ -75,6 +285,135 @@ public class Main {
         }
     }
     
+    /**
+     * Applies --key=value options on top of a base configuration.
+     * 
+     * @param config base configuration
+     * @param options option arguments of the form --key=value
+     * @return configuration with options applied
+     * @throws IllegalArgumentException if an option is unknown or has an invalid value
+     */
+    private static Configuration applyOptions(Configuration config, List<String> options) {
+        for (String option : options) {
+            String key = option.substring(2, option.indexOf('='));
+            String value = option.substring(option.indexOf('=') + 1).trim();
+            switch (key) {
+                case "queue":
+                    config = config.withQueueType(parseEnum(QueueType.class, key, value));
+                    break;
+                case "wait":
+                    config = config.withWaitStrategy(parseEnum(WaitStrategy.class, key, value));
+                    break;
+                case "batch":
+                    config = config.withConsumerBatchSize(parseInt(key, value));
+                    break;
+                case "metrics":
+                    config = config.withMetricsType(parseEnum(MetricsType.class, key, value));
+                    break;
+                case "metrics-port":
+                    config = config.withMetricsPort(parseInt(key, value, 0)); // 0 binds any free port
+                    break;
+                case "threads":
+                    config = config.withExecutorType(parseEnum(ExecutorType.class, key, value));
+                    break;
+                case "scaling":
+                    config = config.withScalingPolicy(parseEnum(ScalingPolicyType.class, key, value));
+                    break;
+                case "min-consumers": {
+                    int min = parseInt(key, value);
+                    config = config.withConsumerBounds(min, Math.max(min, config.getMaxConsumers()));
+                    break;
+                }
+                case "max-consumers": {
+                    int max = parseInt(key, value);
+                    config = config.withConsumerBounds(Math.min(config.getMinConsumers(), max), max);
+                    break;
+                }
+                case "wal":
+                    config = config.withWriteAheadLog(value);
+                    break;
+                case "fsync": {
+                    int colon = value.indexOf(':');
+                    FsyncPolicy policy = parseEnum(FsyncPolicy.class, key, colon < 0 ? value : value.substring(0, colon));
+                    config = config.withFsyncPolicy(policy, colon < 0 ? policy.getDefaultSyncEvery()
+                                                                      : parseInt(key, value.substring(colon + 1)));
+                    break;
+                }
+                case "spill":
+                    config = config.withSpillDirectory(value);
+                    break;
+                case "pool":
+                    config = config.withItemPool(parseInt(key, value));
+                    break;
+                case "pipeline":
+                    config = config.withPipeline(value);
+                    break;
+                case "log":
+                    parseEnum(LogMode.class, key, value); // Applied at startup by getLogMode
+                    break;
+                case "log-level":
+                    Logger.setLevel(parseEnum(LogLevel.class, key, value));
+                    break;
+                default:
+                    printUsage();
+                    throw new IllegalArgumentException("Unknown option: " + option);
+            }
+        }
+        return config;
+    }
+    
+    /**
+     * Parses an enum option value, case-insensitively.
+     * 
+     * @param type enum class
+     * @param key option name for error reporting
+     * @param value raw option value
+     * @return matching enum constant
+     * @throws IllegalArgumentException if value names no constant
+     */
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String key, String value) {
+        try {
+            return Enum.valueOf(type, value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            printUsage();
+            throw new IllegalArgumentException("Invalid value for --" + key + ": " + value);
+        }
+    }
+    
+    /**
+     * Parses a positive integer option value.
+     * 
+     * @param key option name for error reporting
+     * @param value raw option value
+     * @return parsed value
+     * @throws IllegalArgumentException if value is not a positive integer
+     */
+    private static int parseInt(String key, String value) {
+        return parseInt(key, value, 1);
+    }
+    
+    /**
+     * Parses an integer option value with a lower bound.
+     * 
+     * @param key option name for error reporting
+     * @param value raw option value
+     * @param min smallest accepted value
+     * @return parsed value
+     * @throws IllegalArgumentException if value is not an integer of at least min
+     */
+    private static int parseInt(String key, String value, int min) {
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed >= min) {
+                return parsed;
+            }
+        } catch (NumberFormatException e) {
+            // Fall through to usage error
+        }
+        printUsage();
+        throw new IllegalArgumentException("Invalid value for --" + key + ": " + value);
+    }
+    
     /**
      * Prints usage information.
      */
@@ -83,6 +422,38 @@ public class Main {
         System.out.println("Interactive mode:  java Main");
         System.out.println("Default config:    java Main --default");
         System.out.println("Custom config:     java Main <producers> <itemsPerProducer> <consumers> <capacity>");
+        System.out.println("\nOptions (any mode):");
+        System.out.println("  --queue=<FAIR_LINKED|FAIR_RING|TWO_LOCK|LOCK_FREE|OFF_HEAP>");
+        System.out.println("  --wait=<PARK|YIELD|SPIN_THEN_PARK|BUSY_SPIN>   (LOCK_FREE only)");
+        System.out.println("  --batch=<n>   consumer takes up to n items per lock acquisition");
+        System.out.println("  --metrics=<ATOMIC|STRIPED>   STRIPED uses LongAdder counters");
+        System.out.println("  --metrics-port=<port>   serve Prometheus metrics at http://localhost:<port>/metrics (0 = any free port)");
+        System.out.println("  --threads=<PLATFORM|VIRTUAL>   VIRTUAL runs workers on virtual threads (Java 21+)");
+        System.out.println("  --scaling=<THRESHOLD|PID|MMC>   auto-scaler policy (PID/MMC also retire consumers)");
+        System.out.println("  --min-consumers=<n> --max-consumers=<n>   auto-scaler bounds");
+        System.out.println("  --wal=<dir>   back the queue with a write-ahead log; unconsumed items are replayed on restart");
+        System.out.println("  --fsync=<EVERY_WRITE|BATCH[:n]|INTERVAL[:ms]|OS>   when the log is forced (default BATCH:1024)");
+        System.out.println("  --spill=<dir>   items beyond the queue capacity overflow to files in <dir> instead of");
+        System.out.println("                  blocking producers; paged back in FIFO order as consumers drain (not with --wal or --des)");
+        System.out.println("  --pool=<n>   consumers return up to n work items for producers to reuse (default 0: allocate each)");
+        System.out.println("  --pipeline=<name:workers[..max][:t];...>   chain stages, each with its own queue and workers,");
+        System.out.println("                  instead of one queue; the auto-scaler grows the busiest stage (threaded mode only)");
+        System.out.println("  --log=<SYNC|ASYNC|JOURNAL>   ASYNC writes the log on a background thread,");
+        System.out.println("                               JOURNAL writes binary records (decode with JournalDecoder)");
+        System.out.println("  --log-level=<DEBUG|INFO|WARN|ERROR|OFF>   INFO skips per-item events");
+        System.out.println("\nBenchmark mode:    java Main --bench [<producers> <itemsPerProducer> <consumers> <capacity>] [options]");
+        System.out.println("  --producer-think=<t> --consumer-think=<t>   default 0; <t> is <ms>, <min>-<max> or one of");
+        System.out.println("      const:<ms> uniform:<min>-<max> exp:<mean> pareto:<mean>,<alpha>[,<max>] lognormal:<mean>,<sigma> trace:<file>");
+        System.out.println("  --warmup=<s> (default 2)  --duration=<s> (default 10)");
+        System.out.println("  --bench-json=<path>   JSON summary (default bench-result.json)");
+        System.out.println("\nDiscrete-event mode: java Main --des [<producers> <itemsPerProducer> <consumers> <capacity>] [options]");
+        System.out.println("  --seed=<n> (default 42)   --producer-think=<t> --consumer-think=<t>   default 50-150 / 50-250");
         System.out.println("\nExample: java Main 4 20 2 10");
+        System.out.println("Example: java Main --default --queue=LOCK_FREE --wait=SPIN_THEN_PARK");
+        System.out.println("Example: java Main --bench 4 1 4 1024 --queue=FAIR_RING --batch=32 --duration=5");
+        System.out.println("Example: java Main --default --wal=wal-data --fsync=INTERVAL:10");
+        System.out.println("Example: java Main 4 5000 1 100 --spill=spill-data");
+        System.out.println("Example: java Main 4 500 1 20 --pipeline=\"parse:1:20;enrich:1..4:exp:120;persist:1:40\"");
+        System.out.println("Example: java Main --des 10 100000 2 100 --scaling=MMC --max-consumers=16 --seed=7");
     }
 }
@@ -1,5 +1,7 @@
 package com.pranjal.assign1;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * Interface for collecting production and consumption metrics.
  * 
@@ -24,6 +26,18 @@ public interface MetricsCollector {
      */
     void recordConsumption();
     
+    /**
+     * Records that a batch of items was consumed with one queue lock acquisition.
+     * Default implementation records each item individually.
+     * 
+     * @param items number of items in the batch
+     */
+    default void recordBatchConsumption(int items) {
+        for (int i = 0; i < items; i++) {
+            recordConsumption();
+        }
+    }
+    
     /**
      * Returns total items produced since system start.
      * 
@@ -37,4 +51,58 @@ public interface MetricsCollector {
      * @return cumulative consumption count, never negative
      */
     long getTotalConsumed();
+    
+    /**
+     * Blocks until getTotalConsumed() reaches target or the timeout elapses.
+     * Default implementation polls every 10ms; SystemMetrics and StripedMetrics
+     * override it to wake the moment the consuming thread reaches the target.
+     * 
+     * @param target consumed total to wait for
+     * @param timeout how long to wait before giving up
+     * @param unit the time unit of the timeout
+     * @return true if the target was reached, false if timeout elapsed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    default boolean awaitConsumed(long target, long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        long start = System.nanoTime();
+        while (getTotalConsumed() < target) {
+            long remaining = nanos - (System.nanoTime() - start);
+            if (remaining <= 0) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.sleep(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(10)));
+        }
+        return true;
+    }
+    
+    /**
+     * Returns the average number of items consumed per queue lock acquisition.
+     * 1.0 when consumers take one item at a time.
+     * 
+     * @return items per lock acquisition, 0 if nothing consumed yet
+     */
+    default double getItemsPerLockAcquisition() {
+        return getTotalConsumed() == 0 ? 0.0 : 1.0;
+    }
+    
+    /**
+     * Records one latency sample.
+     * Default implementation discards it.
+     * 
+     * @param kind which latency was measured
+     * @param nanos duration in nanoseconds
+     */
+    default void recordLatency(LatencyKind kind, long nanos) {
+    }
+    
+    /**
+     * Returns p50/p90/p99/p99.9/max for one kind of latency.
+     * 
+     * @param kind which latency to summarize
+     * @return percentile summary, {@link LatencySnapshot#EMPTY} if not tracked
+     */
+    default LatencySnapshot getLatency(LatencyKind kind) {
+        return LatencySnapshot.EMPTY;
+    }
 }
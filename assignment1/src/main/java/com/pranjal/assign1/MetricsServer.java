@@ -0,0 +1,199 @@
+package com.pranjal.assign1;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Embedded HTTP endpoint exposing simulation metrics in Prometheus text format.
+ *
+ * Serves GET /metrics on its own daemon thread. Every value is read without
+ * locks - metrics counters are atomics/LongAdders, histograms are atomic
+ * arrays, queue sizes are lock-free reads and ThreadManager counts are
+ * AtomicIntegers - so a scrape never blocks producers or consumers.
+ *
+ * Example:
+ * <pre>
+ *   curl http://localhost:9400/metrics
+ * </pre>
+ *
+ * @author Pranjal
+ * @version 2.1
+ */
+public class MetricsServer {
+
+    static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final MetricsCollector metrics;
+    private final BoundedBlockingQueue<?> queue;
+    private final ThreadManager threadManager;
+    private final SpillingQueue<?> spill; // null unless the queue spills to disk
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * Binds the endpoint on localhost. Call {@link #start()} to begin serving.
+     *
+     * @param port TCP port, 0 for any free port
+     * @param metrics counters and latency histograms to expose
+     * @param queue queue whose size and capacity are exposed
+     * @param threadManager source of producer and consumer counts
+     * @throws IOException if the port cannot be bound
+     */
+    public MetricsServer(int port, MetricsCollector metrics, BoundedBlockingQueue<?> queue,
+                         ThreadManager threadManager) throws IOException {
+        this(port, metrics, queue, threadManager, null);
+    }
+
+    /**
+     * Binds the endpoint on localhost, also exposing spill counters.
+     *
+     * @param port TCP port, 0 for any free port
+     * @param metrics counters and latency histograms to expose
+     * @param queue queue whose size and capacity are exposed
+     * @param threadManager source of producer and consumer counts
+     * @param spill spilling decorator whose bytes and items are exposed, or null
+     * @throws IOException if the port cannot be bound
+     */
+    public MetricsServer(int port, MetricsCollector metrics, BoundedBlockingQueue<?> queue,
+                         ThreadManager threadManager, SpillingQueue<?> spill) throws IOException {
+        this.metrics = metrics;
+        this.queue = queue;
+        this.threadManager = threadManager;
+        this.spill = spill;
+        this.server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r);
+            t.setName("Metrics-Server");
+            t.setDaemon(true);
+            return t;
+        });
+        server.setExecutor(executor);
+        server.createContext("/metrics", this::handle);
+    }
+
+    /**
+     * Starts serving scrapes.
+     */
+    public void start() {
+        server.start();
+        Logger.log("METRICS", "Serving Prometheus metrics on http://localhost:" + getPort() + "/metrics");
+    }
+
+    /**
+     * Stops serving and releases the port.
+     */
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+        Logger.log("METRICS", "Metrics endpoint stopped.");
+    }
+
+    /**
+     * Returns the bound port (useful when constructed with port 0).
+     *
+     * @return TCP port
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = render().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Renders the current values in Prometheus text exposition format.
+     *
+     * @return metrics page
+     */
+    String render() {
+        StringBuilder sb = new StringBuilder(2048);
+
+        metric(sb, "simulation_items_produced_total", "counter", "Items added to the queue.",
+               metrics.getTotalProduced());
+        metric(sb, "simulation_items_consumed_total", "counter", "Items processed by consumers.",
+               metrics.getTotalConsumed());
+        metric(sb, "simulation_items_per_lock_acquisition", "gauge", "Average items moved per consumer queue access.",
+               metrics.getItemsPerLockAcquisition());
+
+        metric(sb, "simulation_queue_size", "gauge", "Items currently in the queue.", queue.getSize());
+        metric(sb, "simulation_queue_capacity", "gauge", "Maximum items the queue can hold.", queue.getCapacity());
+        if (spill != null) {
+            metric(sb, "simulation_spill_items", "gauge", "Items spilled to disk and not yet paged in.",
+                   spill.getSpilledItems());
+            metric(sb, "simulation_spill_bytes", "gauge", "Bytes of spilled items still on disk.",
+                   spill.getSpilledBytes());
+            metric(sb, "simulation_spilled_bytes_total", "counter", "Bytes written to spill files.",
+                   spill.getTotalSpilledBytes());
+        }
+
+        metric(sb, "simulation_producers_active", "gauge", "Producer threads currently running.",
+               threadManager.getProducerCount());
+        metric(sb, "simulation_consumers_active", "gauge", "Consumer threads currently running, including emergency ones.",
+               threadManager.getConsumerCount());
+        metric(sb, "simulation_emergency_consumers_total", "counter", "Emergency consumers deployed by the auto-scaler.",
+               threadManager.getEmergencyConsumerCount());
+        metric(sb, "simulation_retired_consumers_total", "counter", "Consumers retired by the auto-scaler.",
+               threadManager.getRetiredConsumerCount());
+
+        sb.append("# HELP simulation_latency_seconds Latency percentiles per kind.\n");
+        sb.append("# TYPE simulation_latency_seconds summary\n");
+        for (LatencyKind kind : LatencyKind.values()) {
+            LatencySnapshot snapshot = metrics.getLatency(kind);
+            String label = kind.name().toLowerCase(Locale.ROOT);
+            quantile(sb, label, "0.5", snapshot.getP50());
+            quantile(sb, label, "0.9", snapshot.getP90());
+            quantile(sb, label, "0.99", snapshot.getP99());
+            quantile(sb, label, "0.999", snapshot.getP999());
+            quantile(sb, label, "1", snapshot.getMax());
+            sb.append("simulation_latency_seconds_sum{kind=\"").append(label).append("\"} ")
+              .append(seconds(snapshot.getMean() * snapshot.getCount())).append('\n');
+            sb.append("simulation_latency_seconds_count{kind=\"").append(label).append("\"} ")
+              .append(snapshot.getCount()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static void metric(StringBuilder sb, String name, String type, String help, double value) {
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        sb.append(name).append(' ');
+        if (value == Math.rint(value)) {
+            sb.append((long) value);
+        } else {
+            sb.append(value);
+        }
+        sb.append('\n');
+    }
+
+    private static void quantile(StringBuilder sb, String kind, String quantile, long nanos) {
+        sb.append("simulation_latency_seconds{kind=\"").append(kind)
+          .append("\",quantile=\"").append(quantile).append("\"} ")
+          .append(seconds(nanos)).append('\n');
+    }
+
+    private static String seconds(double nanos) {
+        return Double.toString(nanos / 1e9);
+    }
+}
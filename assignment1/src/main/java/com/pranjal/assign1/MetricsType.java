@@ -0,0 +1,37 @@
+package com.pranjal.assign1;
+
+/**
+ * Selects which MetricsCollector implementation the simulation counts with.
+ * 
+ * @author Pranjal
+ * @version 2.1
+ */
+public enum MetricsType {
+
+    /**
+     * SystemMetrics - one AtomicLong per counter (original behaviour).
+     */
+    ATOMIC {
+        @Override
+        public MetricsCollector create() {
+            return new SystemMetrics();
+        }
+    },
+
+    /**
+     * StripedMetrics - LongAdder counters, for many producers and consumers.
+     */
+    STRIPED {
+        @Override
+        public MetricsCollector create() {
+            return new StripedMetrics();
+        }
+    };
+
+    /**
+     * Creates a new collector with all counters at zero.
+     * 
+     * @return new metrics collector
+     */
+    public abstract MetricsCollector create();
+}
@@ -0,0 +1,584 @@
+package com.pranjal.assign1;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded blocking queue that keeps its items as encoded bytes in a direct
+ * (off-heap) ByteBuffer ring, so a deep queue adds nothing for the garbage
+ * collector to trace or copy.
+ *
+ * Items are encoded by a {@link WalCodec} on insert and decoded on take; only
+ * that transient copy lives on the heap. Record layout, 8-byte aligned:
+ *   [int length][int state][long enqueue time][payload]
+ * A record never wraps: if it does not fit before the end of the ring, the
+ * rest of the ring is marked as padding and the record starts at offset 0.
+ * Control objects ({@link QueueCommand}) are header-only records with a
+ * negative length.
+ *
+ * The queue is bounded twice: by item count (getCapacity) and by ring bytes.
+ * Inserts wait for both, with one lock and notEmpty/notFull conditions as in
+ * AdvancedBlockingQueue, and close() has the same semantics.
+ *
+ * Consumers of raw bytes can avoid the decode copy with {@link #takeView()}
+ * and {@link #pollView}, which return a read-only view into the ring. The
+ * record's bytes stay reserved until the view is closed; views released out
+ * of order free their space once every older record is released too.
+ *
+ * Since the ring cannot carry InstrumentedQueue's envelope, the queue stamps
+ * each record itself and reports queue wait when given a recorder.
+ *
+ * @param <T> the type of elements held in this queue
+ * @author Pranjal
+ * @version 2.1
+ */
+public class OffHeapQueue<T> implements BoundedBlockingQueue<T> {
+
+    /** Ring bytes reserved per item of capacity when no ring size is given. */
+    public static final int DEFAULT_BYTES_PER_ITEM = 128;
+
+    static final int RECORD_HEADER_BYTES = 16; // length, state, enqueue time
+    private static final int MAX_RING_BYTES = Integer.MAX_VALUE & ~7;
+    private static final int PADDING = -1;      // Length of the filler before a wrap
+    private static final int COMMAND_BASE = -2; // Length COMMAND_BASE - ordinal marks a QueueCommand
+    private static final int LIVE = 0;
+    private static final int RELEASED = 1;
+    private static final QueueCommand[] COMMANDS = QueueCommand.values();
+
+    private final int capacity;
+    private final int ringBytes;
+    private final ByteBuffer ring;
+    private final WalCodec<T> codec;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+
+    // Monotonic byte positions, guarded by the lock; the ring offset is position % ringBytes.
+    // reclaim <= read <= write: [reclaim, read) is taken but possibly still viewed,
+    // [read, write) is queued.
+    private long writePosition;
+    private long readPosition;
+    private long reclaimPosition;
+
+    // Element count, written under the lock; volatile so getSize() can read it without locking
+    private volatile int count;
+    // Set once by close(), under the lock; volatile for isClosed()
+    private volatile boolean closed;
+    // Receives QUEUE_WAIT samples; null until setQueueWaitRecorder
+    private volatile MetricsCollector queueWait;
+
+    /**
+     * Creates a queue whose ring holds {@link #DEFAULT_BYTES_PER_ITEM} per item of capacity.
+     *
+     * @param capacity maximum number of items, must be positive
+     * @param codec converts items to ring records and back
+     * @throws IllegalArgumentException if capacity is not positive
+     */
+    public OffHeapQueue(int capacity, WalCodec<T> codec) {
+        this(capacity, (int) Math.min(MAX_RING_BYTES, (long) Math.max(capacity, 1) * DEFAULT_BYTES_PER_ITEM), codec);
+    }
+
+    /**
+     * Creates a queue with an explicit ring size.
+     *
+     * @param capacity maximum number of items, must be positive
+     * @param ringBytes off-heap bytes for records, rounded up to a multiple of 8
+     * @param codec converts items to ring records and back
+     * @throws IllegalArgumentException if capacity is not positive or the ring cannot hold one header
+     */
+    public OffHeapQueue(int capacity, int ringBytes, WalCodec<T> codec) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive, got: " + capacity);
+        }
+        if (ringBytes < RECORD_HEADER_BYTES || ringBytes > MAX_RING_BYTES) {
+            throw new IllegalArgumentException("Ring must be " + RECORD_HEADER_BYTES + ".." + MAX_RING_BYTES
+                                               + " bytes, got: " + ringBytes);
+        }
+        this.capacity = capacity;
+        this.ringBytes = align(ringBytes);
+        this.ring = ByteBuffer.allocateDirect(this.ringBytes);
+        this.codec = codec;
+    }
+
+    @Override
+    public void put(T item) throws InterruptedException {
+        byte[] payload = encode(item);
+        int recordBytes = recordBytes(payload);
+        lock.lockInterruptibly();
+        try {
+            ensureOpenLocked("put");
+            while (!hasRoomLocked(recordBytes)) {
+                notFull.await();
+                ensureOpenLocked("put");
+            }
+            insertLocked(item, payload, recordBytes);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public T take() throws InterruptedException {
+        Object element;
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                ensureOpenLocked("take");
+                notEmpty.await();
+            }
+            element = removeLocked();
+        } finally {
+            lock.unlock();
+        }
+        return decode(element);
+    }
+
+    @Override
+    public boolean offer(T item, long timeout, TimeUnit unit) throws InterruptedException {
+        byte[] payload = encode(item);
+        int recordBytes = recordBytes(payload);
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            ensureOpenLocked("offer");
+            while (!hasRoomLocked(recordBytes)) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = notFull.awaitNanos(nanos);
+                ensureOpenLocked("offer");
+            }
+            insertLocked(item, payload, recordBytes);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+        Object element;
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                ensureOpenLocked("poll");
+                if (nanos <= 0) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            element = removeLocked();
+        } finally {
+            lock.unlock();
+        }
+        return decode(element);
+    }
+
+    /**
+     * Copies up to maxElements records out under a single lock acquisition
+     * and decodes them after releasing it.
+     */
+    @Override
+    public int drainTo(Collection<? super T> target, int maxElements) {
+        if (target == null) {
+            throw new NullPointerException("Drain target must not be null");
+        }
+        List<Object> raw;
+        lock.lock();
+        try {
+            raw = drainLocked(maxElements);
+        } finally {
+            lock.unlock();
+        }
+        return decodeAll(raw, target);
+    }
+
+    @Override
+    public int takeBatch(Collection<? super T> target, int maxElements,
+                         long timeout, TimeUnit unit) throws InterruptedException {
+        if (target == null) {
+            throw new NullPointerException("Batch target must not be null");
+        }
+        List<Object> raw;
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                ensureOpenLocked("takeBatch");
+                if (nanos <= 0) {
+                    return 0;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            raw = drainLocked(maxElements);
+        } finally {
+            lock.unlock();
+        }
+        return decodeAll(raw, target);
+    }
+
+    /**
+     * Retrieves and removes the head as a view into the ring, waiting if
+     * necessary. The caller must close the view; its space is not reused before.
+     *
+     * @return view of the head record
+     * @throws InterruptedException if interrupted while waiting
+     * @throws QueueClosedException if the queue is closed and empty
+     */
+    public View takeView() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                ensureOpenLocked("takeView");
+                notEmpty.await();
+            }
+            return viewLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retrieves and removes the head as a view into the ring, waiting up to
+     * the specified time. The caller must close the view.
+     *
+     * @param timeout how long to wait before giving up
+     * @param unit the time unit of the timeout
+     * @return view of the head record, or null if timeout elapsed
+     * @throws InterruptedException if interrupted while waiting
+     * @throws QueueClosedException if the queue is closed and empty
+     */
+    public View pollView(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                ensureOpenLocked("pollView");
+                if (nanos <= 0) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return viewLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stamps records on insert and reports their queue wait on take.
+     *
+     * @param metrics receives QUEUE_WAIT samples, or null to stop
+     * @return true
+     */
+    @Override
+    public boolean setQueueWaitRecorder(MetricsCollector metrics) {
+        this.queueWait = metrics;
+        return true;
+    }
+
+    /**
+     * Closes the queue, waking every waiting producer and consumer.
+     *
+     * @return true
+     */
+    @Override
+    public boolean close() {
+        lock.lock();
+        try {
+            if (!closed) {
+                closed = true;
+                notEmpty.signalAll();
+                notFull.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public int getSize() {
+        return count;
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the size of the off-heap ring.
+     *
+     * @return ring bytes
+     */
+    public int getRingBytes() {
+        return ringBytes;
+    }
+
+    /**
+     * Returns the ring bytes held by queued records, open views and padding.
+     *
+     * @return bytes not available to inserts
+     */
+    public long getUsedBytes() {
+        lock.lock();
+        try {
+            return writePosition - reclaimPosition;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private byte[] encode(T item) {
+        if (item == null) {
+            throw new NullPointerException("Cannot add null elements to queue");
+        }
+        if (item instanceof QueueCommand) {
+            return null;
+        }
+        byte[] payload = codec.encode(item);
+        if (recordBytes(payload) > ringBytes) {
+            throw new IllegalArgumentException("Record of " + payload.length + " bytes exceeds the "
+                                               + ringBytes + "-byte ring");
+        }
+        return payload;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T decode(Object element) {
+        return element instanceof byte[] ? codec.decode((byte[]) element) : (T) element;
+    }
+
+    private int decodeAll(List<Object> raw, Collection<? super T> target) {
+        for (Object element : raw) {
+            target.add(decode(element));
+        }
+        return raw.size();
+    }
+
+    /**
+     * Checks the item count and the bytes the record needs, counting the
+     * padding it leaves if it has to wrap. An empty ring with nothing still
+     * viewed is first moved to the next ring start, since only a written
+     * record could otherwise wrap it and a record longer than the tail would
+     * never fit. Caller must hold the lock.
+     */
+    private boolean hasRoomLocked(int recordBytes) {
+        if (count == capacity) {
+            return false;
+        }
+        int tail = ringBytes - offset(writePosition);
+        if (tail < recordBytes && reclaimPosition == writePosition) {
+            writePosition += tail;
+            readPosition = writePosition;
+            reclaimPosition = writePosition;
+            tail = ringBytes;
+        }
+        long needed = tail < recordBytes ? tail + recordBytes : recordBytes;
+        return ringBytes - (writePosition - reclaimPosition) >= needed;
+    }
+
+    /**
+     * Writes a record at the write position. Caller must hold the lock and have checked room.
+     */
+    private void insertLocked(T item, byte[] payload, int recordBytes) {
+        int offset = offset(writePosition);
+        if (ringBytes - offset < recordBytes) {
+            ring.putInt(offset, PADDING);
+            writePosition += ringBytes - offset;
+            offset = 0;
+        }
+        int length = payload == null ? COMMAND_BASE - ((QueueCommand) item).ordinal() : payload.length;
+        ring.putInt(offset, length);
+        ring.putInt(offset + 4, LIVE);
+        ring.putLong(offset + 8, queueWait == null ? 0 : System.nanoTime());
+        if (payload != null) {
+            ring.put(offset + RECORD_HEADER_BYTES, payload);
+        }
+        writePosition += recordBytes;
+        count++;
+        notEmpty.signal();
+    }
+
+    /**
+     * Skips padding and returns the ring offset of the head record.
+     * Caller must hold the lock and count must be positive.
+     */
+    private int headLocked() {
+        int offset = offset(readPosition);
+        if (ring.getInt(offset) == PADDING) {
+            readPosition += ringBytes - offset;
+            offset = 0;
+        }
+        return offset;
+    }
+
+    /**
+     * Advances past the head record, recording its queue wait.
+     * Caller must hold the lock.
+     *
+     * @return the head record's length
+     */
+    private int advanceLocked(int offset) {
+        int length = ring.getInt(offset);
+        readPosition += length < 0 ? RECORD_HEADER_BYTES : align(RECORD_HEADER_BYTES + length);
+        count--;
+        MetricsCollector metrics = queueWait;
+        long enqueuedAt = ring.getLong(offset + 8);
+        if (metrics != null && length >= 0 && enqueuedAt != 0) {
+            metrics.recordLatency(LatencyKind.QUEUE_WAIT, System.nanoTime() - enqueuedAt);
+        }
+        return length;
+    }
+
+    /**
+     * Copies out and releases the head record. Caller must hold the lock.
+     *
+     * @return the payload bytes, or the QueueCommand
+     */
+    private Object removeLocked() {
+        int offset = headLocked();
+        int length = advanceLocked(offset);
+        Object element;
+        if (length < 0) {
+            element = COMMANDS[COMMAND_BASE - length];
+        } else {
+            byte[] payload = new byte[length];
+            ring.get(offset + RECORD_HEADER_BYTES, payload);
+            element = payload;
+        }
+        releaseLocked(offset);
+        return element;
+    }
+
+    private List<Object> drainLocked(int maxElements) {
+        int n = Math.min(maxElements, count);
+        List<Object> raw = new ArrayList<>(Math.max(n, 0));
+        for (int i = 0; i < n; i++) {
+            raw.add(removeLocked());
+        }
+        return raw;
+    }
+
+    private View viewLocked() {
+        int offset = headLocked();
+        int length = advanceLocked(offset);
+        if (length < 0) {
+            releaseLocked(offset);
+            return new View(-1, null, COMMANDS[COMMAND_BASE - length]);
+        }
+        notFull.signal(); // A slot is free even though the bytes are not
+        return new View(offset, ring.slice(offset + RECORD_HEADER_BYTES, length).asReadOnlyBuffer(), null);
+    }
+
+    /**
+     * Marks a taken record released and moves the reclaim position past
+     * every released record at the front. Caller must hold the lock.
+     */
+    private void releaseLocked(int offset) {
+        ring.putInt(offset + 4, RELEASED);
+        while (reclaimPosition < readPosition) {
+            int reclaimOffset = offset(reclaimPosition);
+            int length = ring.getInt(reclaimOffset);
+            if (length == PADDING) {
+                reclaimPosition += ringBytes - reclaimOffset;
+            } else if (ring.getInt(reclaimOffset + 4) == RELEASED) {
+                reclaimPosition += length < 0 ? RECORD_HEADER_BYTES : align(RECORD_HEADER_BYTES + length);
+            } else {
+                break; // An older view is still open
+            }
+        }
+        notFull.signal();
+    }
+
+    private void release(View view) {
+        lock.lock();
+        try {
+            releaseLocked(view.offset);
+            notFull.signalAll(); // Freed bytes may fit any waiting producer
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Throws if the queue has been closed. Caller must hold the lock.
+     */
+    private void ensureOpenLocked(String operation) {
+        if (closed) {
+            throw new QueueClosedException("Queue is closed: " + operation);
+        }
+    }
+
+    private int offset(long position) {
+        return (int) (position % ringBytes);
+    }
+
+    private static int recordBytes(byte[] payload) {
+        return payload == null ? RECORD_HEADER_BYTES : align(RECORD_HEADER_BYTES + payload.length);
+    }
+
+    private static int align(int bytes) {
+        return (bytes + 7) & ~7;
+    }
+
+    /**
+     * A taken record still in the ring. The payload buffer reads the ring
+     * directly and must not be used after {@link #close()}.
+     */
+    public final class View implements AutoCloseable {
+
+        private final int offset;
+        private final ByteBuffer payload;
+        private final QueueCommand command;
+        private boolean released;
+
+        private View(int offset, ByteBuffer payload, QueueCommand command) {
+            this.offset = offset;
+            this.payload = payload;
+            this.command = command;
+            this.released = command != null; // Commands hold no ring bytes
+        }
+
+        /**
+         * Returns the record's payload, read-only, positioned at its first byte.
+         *
+         * @return payload view, or null for a control object
+         */
+        public ByteBuffer payload() {
+            return payload;
+        }
+
+        /**
+         * Returns the control object this record carries.
+         *
+         * @return the command, or null for an item
+         */
+        public QueueCommand command() {
+            return command;
+        }
+
+        /**
+         * Releases the record's bytes for reuse. Closing again has no effect.
+         */
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                release(this);
+            }
+        }
+    }
+}
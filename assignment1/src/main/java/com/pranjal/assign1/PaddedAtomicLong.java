@@ -0,0 +1,24 @@
+package com.pranjal.assign1;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AtomicLong padded to fill a cache line.
+ * 
+ * Subclass fields are laid out after the parent's value field, so the padding
+ * keeps two hot counters allocated next to each other (e.g. a queue's head and
+ * tail) from sharing a 64-byte line and invalidating each other (false sharing).
+ * 
+ * @author Pranjal
+ * @version 2.1
+ */
+@SuppressWarnings({"serial", "unused"})
+class PaddedAtomicLong extends AtomicLong {
+
+    // 7 x 8 bytes of padding after the inherited value
+    private long p1, p2, p3, p4, p5, p6, p7;
+
+    PaddedAtomicLong(long initialValue) {
+        super(initialValue);
+    }
+}
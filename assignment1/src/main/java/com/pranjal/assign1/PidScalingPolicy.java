@@ -0,0 +1,89 @@
+package com.pranjal.assign1;
+
+/**
+ * PID controller that holds queue depth at a target fraction of capacity.
+ *
+ * The output is a consumer count: a feed-forward term lambda/mu (consumers
+ * needed to keep up with arrivals, once mu is known) plus a PID correction on
+ * the depth error, normalized by capacity so the gains do not depend on queue
+ * size. The integral is clamped to stop wind-up while the consumer count sits
+ * at a bound, and a small dead band around the target stops one-consumer flapping.
+ *
+ * @author Pranjal
+ * @version 2.1
+ */
+public class PidScalingPolicy implements ScalingPolicy {
+
+    static final double DEFAULT_TARGET_LOAD = 0.5;
+    private static final double DEAD_BAND = 0.1;
+    private static final double INTEGRAL_LIMIT = 2.0;
+
+    private final double targetLoad;
+    private final double kp;
+    private final double ki;
+    private final double kd;
+
+    private double integral = 0;
+    private double previousError = Double.NaN;
+    private long previousMillis = -1;
+
+    /**
+     * Creates a controller targeting a half-full queue with default gains.
+     */
+    public PidScalingPolicy() {
+        this(DEFAULT_TARGET_LOAD, 4.0, 1.0, 0.5);
+    }
+
+    /**
+     * Creates a controller with explicit target and gains.
+     *
+     * @param targetLoad depth to hold, as a fraction of capacity (0, 1)
+     * @param kp consumers added per unit of normalized depth error
+     * @param ki consumers added per unit of error-second
+     * @param kd consumers added per unit of error change per second
+     * @throws IllegalArgumentException if targetLoad is outside (0, 1) or a gain is negative
+     */
+    public PidScalingPolicy(double targetLoad, double kp, double ki, double kd) {
+        if (targetLoad <= 0 || targetLoad >= 1) {
+            throw new IllegalArgumentException("Target load must be between 0 and 1, got: " + targetLoad);
+        }
+        if (kp < 0 || ki < 0 || kd < 0) {
+            throw new IllegalArgumentException("PID gains must not be negative");
+        }
+        this.targetLoad = targetLoad;
+        this.kp = kp;
+        this.ki = ki;
+        this.kd = kd;
+    }
+
+    @Override
+    public int desiredConsumers(ScalingSample sample) {
+        double error = sample.getLoad() - targetLoad;
+        double dt = previousMillis < 0 ? getIntervalMillis() / 1000.0
+                                       : Math.max(1, sample.getElapsedMillis() - previousMillis) / 1000.0;
+
+        integral = Math.max(-INTEGRAL_LIMIT, Math.min(INTEGRAL_LIMIT, integral + error * dt));
+        double derivative = Double.isNaN(previousError) ? 0 : (error - previousError) / dt;
+        previousError = error;
+        previousMillis = sample.getElapsedMillis();
+
+        double mu = sample.getServiceRatePerConsumer();
+        double feedForward = mu > 0 ? sample.getArrivalRate() / mu : sample.getConsumers();
+        int desired = (int) Math.round(feedForward + kp * error + ki * integral + kd * derivative);
+
+        if (Math.abs(error) < DEAD_BAND && Math.abs(desired - sample.getConsumers()) <= 1) {
+            return sample.getConsumers();
+        }
+        return desired;
+    }
+
+    @Override
+    public int getTargetDepth(int capacity) {
+        return (int) Math.round(capacity * targetLoad);
+    }
+
+    @Override
+    public long getIntervalMillis() {
+        return 250;
+    }
+}
@@ -0,0 +1,415 @@
+package com.pranjal.assign1;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Staged pipeline: stages chained by bounded queues, each with its own
+ * worker pool and metrics (see {@link PipelineStage}).
+ *
+ * Producers put into {@link #getInput()}; the last stage records each item
+ * it finishes as consumed in the pipeline-wide metrics, so a caller waits
+ * for completion exactly as with a single queue. A full queue blocks the
+ * stage before it, so backpressure reaches the producers.
+ *
+ * The auto-scaler samples every stage once per interval. Only the
+ * bottleneck, the stage whose workers were busy the largest fraction of
+ * the interval, may grow: adding workers elsewhere would only fill the
+ * queue in front of it faster. Any stage whose policy wants fewer workers
+ * shrinks, so a stage that was the bottleneck earlier gives its workers
+ * back. Each stage has its own instance of the configured
+ * {@link ScalingPolicy}, fed with that stage's depth and rates.
+ *
+ * Shutdown: after the producers finish, {@link #close()} ends the first
+ * stage's input; each stage drains, then ends the next one's, and
+ * {@link #awaitTermination} returns once the last stage has drained.
+ *
+ * @author Pranjal
+ * @version 2.1
+ */
+public final class Pipeline {
+
+    private final List<PipelineStage> stages;
+    private final MetricsCollector metrics;
+    private final ScheduledExecutorService autoScalerPool;
+    private final long intervalMillis;
+    private long scalerStartNanos;
+    private volatile PipelineStage bottleneck;
+
+    private Pipeline(List<PipelineStage> stages, MetricsCollector metrics) {
+        this.stages = Collections.unmodifiableList(stages);
+        this.metrics = metrics;
+        this.intervalMillis = stages.get(0).getScalingPolicy().getIntervalMillis();
+        this.autoScalerPool = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r);
+            t.setName("Pipeline-AutoScaler");
+            return t;
+        });
+    }
+
+    /**
+     * Starts a builder whose last stage records consumption into metrics.
+     *
+     * @param metrics pipeline-wide metrics, which producers record into
+     * @return new builder with single-queue defaults
+     * @throws NullPointerException if metrics is null
+     */
+    public static Builder builder(MetricsCollector metrics) {
+        if (metrics == null) {
+            throw new NullPointerException("Pipeline metrics must not be null");
+        }
+        return new Builder(metrics);
+    }
+
+    /**
+     * Builds the pipeline a configuration describes: its stages, with the
+     * configured queue type, capacity, metrics, executor and scaling policy
+     * for each.
+     *
+     * @param config simulation parameters with a pipeline
+     * @param metrics pipeline-wide metrics
+     * @param itemPool shared by producers and the last stage (null = no pooling)
+     * @return new pipeline, not started
+     * @throws IllegalArgumentException if config has no pipeline
+     */
+    public static Pipeline fromConfiguration(Configuration config, MetricsCollector metrics, WorkItemPool itemPool) {
+        if (!config.isPipelineEnabled()) {
+            throw new IllegalArgumentException("Configuration has no pipeline");
+        }
+        Builder builder = builder(metrics)
+            .queueType(config.getQueueType(), config.getWaitStrategy())
+            .capacity(config.getQueueCapacity())
+            .metricsType(config.getMetricsType())
+            .executorType(config.getExecutorType())
+            .scalingPolicy(config.getScalingPolicy())
+            .itemPool(itemPool);
+        for (StageSpec stage : config.getPipelineStages()) {
+            builder.stage(stage);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Starts each stage's minimum number of workers.
+     */
+    public void start() {
+        for (PipelineStage stage : stages) {
+            for (int i = 0; i < stage.getSpec().getMinWorkers(); i++) {
+                stage.startWorker();
+            }
+        }
+        Logger.log("PIPELINE", "Started " + this);
+    }
+
+    /**
+     * Starts the auto-scaler, one tick per scaling-policy interval.
+     */
+    public void runAutoScaler() {
+        Logger.log("AUTO-SCALER", "Pipeline monitor started ("
+                   + stages.get(0).getScalingPolicy().getClass().getSimpleName() + " per stage).");
+        scalerStartNanos = System.nanoTime();
+        autoScalerPool.scheduleWithFixedDelay(() -> {
+            try {
+                scaleOnce();
+            } catch (Exception e) {
+                Logger.log("AUTO-SCALER", "Error in pipeline monitoring loop: " + e.getMessage());
+            }
+        }, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * One auto-scaler tick: samples every stage and asks each stage's policy
+     * for a worker count. Any stage may shrink, but only the bottleneck may
+     * grow: a stage upstream of it looks loaded only because it is blocked,
+     * and more workers there would just wait too. Runs on the auto-scaler
+     * thread only.
+     */
+    void scaleOnce() {
+        long now = System.nanoTime();
+        long elapsedMillis = scalerStartNanos == 0 ? 0 : (now - scalerStartNanos) / 1_000_000;
+        ScalingSample[] samples = new ScalingSample[stages.size()];
+        int busiest = 0;
+        for (int i = 0; i < stages.size(); i++) {
+            long arrived = i == 0 ? metrics.getTotalProduced() : stages.get(i - 1).getMetrics().getTotalConsumed();
+            samples[i] = stages.get(i).sample(now, arrived, elapsedMillis);
+            if (isBusier(stages.get(i), samples[i], stages.get(busiest), samples[busiest])) {
+                busiest = i;
+            }
+        }
+        bottleneck = stages.get(busiest);
+
+        for (int index = 0; index < stages.size(); index++) {
+            PipelineStage stage = stages.get(index);
+            ScalingSample sample = samples[index];
+            int workers = sample.getConsumers();
+            int desired = Math.max(sample.getMinConsumers(),
+                                   Math.min(sample.getMaxConsumers(), stage.getScalingPolicy().desiredConsumers(sample)));
+            String utilization = String.format("%.0f%%", stage.getUtilization() * 100);
+            if (desired > workers && index == busiest) {
+                for (int i = workers; i < desired; i++) {
+                    stage.startWorker();
+                }
+                String msg = "Bottleneck " + stage.getName() + " (busy " + utilization + ", queue at "
+                             + String.format("%.1f%%", sample.getLoad() * 100) + "). Workers " + workers + " -> " + desired;
+                Logger.log("AUTO-SCALER", msg);
+                System.out.println(">>> [AUTO-SCALER] " + msg);
+            } else if (desired < workers) {
+                for (int i = desired; i < workers; i++) {
+                    String retired = stage.retireWorker();
+                    if (retired == null) {
+                        break;
+                    }
+                    String msg = "Stage " + stage.getName() + " busy " + utilization + ". Retiring " + retired;
+                    Logger.log("AUTO-SCALER", msg);
+                    System.out.println(">>> [AUTO-SCALER] " + msg);
+                }
+            }
+        }
+    }
+
+    /**
+     * Orders stages by utilization, then by queue fill, which separates
+     * stages that are all saturated or all idle.
+     */
+    private static boolean isBusier(PipelineStage stage, ScalingSample sample,
+                                    PipelineStage other, ScalingSample otherSample) {
+        if (stage.getUtilization() != other.getUtilization()) {
+            return stage.getUtilization() > other.getUtilization();
+        }
+        return sample.getLoad() > otherSample.getLoad();
+    }
+
+    /**
+     * Ends the stream into the first stage. Call once every producer has
+     * finished; the stages then drain in order.
+     *
+     * @throws InterruptedException if interrupted while queueing a poison pill
+     */
+    public void close() throws InterruptedException {
+        autoScalerPool.shutdown();
+        stages.get(0).endInput();
+    }
+
+    /**
+     * Waits for every stage to drain, in order.
+     *
+     * @param timeout how long to wait in total
+     * @param unit the time unit of the timeout
+     * @return true if every worker of every stage exited in time
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        autoScalerPool.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        for (PipelineStage stage : stages) {
+            if (!stage.awaitWorkers(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                Logger.log(LogLevel.WARN, "PIPELINE", "Timed out waiting for stage " + stage.getName());
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Interrupts every worker and stops the auto-scaler.
+     */
+    public void shutdownNow() {
+        autoScalerPool.shutdownNow();
+        for (PipelineStage stage : stages) {
+            stage.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns the queue producers put into: the first stage's input.
+     *
+     * @return pipeline input queue
+     */
+    public BoundedBlockingQueue<Object> getInput() {
+        return stages.get(0).getInput();
+    }
+
+    public List<PipelineStage> getStages() {
+        return stages;
+    }
+
+    public MetricsCollector getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Returns the stage the auto-scaler last picked.
+     *
+     * @return busiest stage at the last tick, or null before the first tick
+     */
+    public PipelineStage getBottleneck() {
+        return bottleneck;
+    }
+
+    /**
+     * Returns the stage whose workers were busy the largest fraction of
+     * their lifetime, for the report after the run.
+     *
+     * @return busiest stage over the whole run
+     */
+    public PipelineStage getOverallBottleneck() {
+        PipelineStage busiest = stages.get(0);
+        for (PipelineStage stage : stages) {
+            if (stage.getOverallUtilization() > busiest.getOverallUtilization()) {
+                busiest = stage;
+            }
+        }
+        return busiest;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (PipelineStage stage : stages) {
+            text.append(text.length() == 0 ? "" : " -> ").append(stage.getSpec());
+        }
+        return text.toString();
+    }
+
+    /**
+     * Collects stages and the settings they share. Every stage gets a new
+     * queue, metrics collector, executor and scaling policy of the
+     * configured types.
+     */
+    public static final class Builder {
+
+        private final MetricsCollector metrics;
+        private final List<StageSpec> specs = new ArrayList<>();
+        private QueueType queueType = QueueType.FAIR_LINKED;
+        private WaitStrategy waitStrategy = WaitStrategy.SPIN_THEN_PARK;
+        private int capacity = 10;
+        private MetricsType metricsType = MetricsType.ATOMIC;
+        private ExecutorType executorType = ExecutorType.PLATFORM;
+        private ScalingPolicyType scalingPolicy = ScalingPolicyType.THRESHOLD;
+        private WorkItemPool itemPool;
+
+        private Builder(MetricsCollector metrics) {
+            this.metrics = metrics;
+        }
+
+        public Builder queueType(QueueType queueType, WaitStrategy waitStrategy) {
+            if (queueType == null || waitStrategy == null) {
+                throw new NullPointerException("Queue type and wait strategy must not be null");
+            }
+            this.queueType = queueType;
+            this.waitStrategy = waitStrategy;
+            return this;
+        }
+
+        /**
+         * Sets the capacity of every stage's queue.
+         *
+         * @param capacity items per queue
+         * @return this builder
+         * @throws IllegalArgumentException if capacity is not positive
+         */
+        public Builder capacity(int capacity) {
+            if (capacity <= 0) {
+                throw new IllegalArgumentException("Stage queue capacity must be positive, got: " + capacity);
+            }
+            this.capacity = capacity;
+            return this;
+        }
+
+        public Builder metricsType(MetricsType metricsType) {
+            if (metricsType == null) {
+                throw new NullPointerException("Metrics type must not be null");
+            }
+            this.metricsType = metricsType;
+            return this;
+        }
+
+        public Builder executorType(ExecutorType executorType) {
+            if (executorType == null) {
+                throw new NullPointerException("Executor type must not be null");
+            }
+            this.executorType = executorType;
+            return this;
+        }
+
+        public Builder scalingPolicy(ScalingPolicyType scalingPolicy) {
+            if (scalingPolicy == null) {
+                throw new NullPointerException("Scaling policy must not be null");
+            }
+            this.scalingPolicy = scalingPolicy;
+            return this;
+        }
+
+        /**
+         * Sets the pool the last stage returns WorkItems to.
+         *
+         * @param itemPool producers' pool, or null to leave items to the GC
+         * @return this builder
+         */
+        public Builder itemPool(WorkItemPool itemPool) {
+            this.itemPool = itemPool;
+            return this;
+        }
+
+        /**
+         * Appends a stage.
+         *
+         * @param name stage name
+         * @param minWorkers workers started, and the fewest the auto-scaler keeps
+         * @param maxWorkers most workers the auto-scaler runs
+         * @param serviceTime simulated processing time per item
+         * @return this builder
+         * @throws IllegalArgumentException if the stage is invalid or its name is taken
+         */
+        public Builder stage(String name, int minWorkers, int maxWorkers, ThinkTime serviceTime) {
+            return stage(new StageSpec(name, minWorkers, maxWorkers, serviceTime));
+        }
+
+        /**
+         * Appends a stage.
+         *
+         * @param spec stage description, must not be null
+         * @return this builder
+         * @throws IllegalArgumentException if another stage has the same name
+         */
+        public Builder stage(StageSpec spec) {
+            if (spec == null) {
+                throw new NullPointerException("Stage must not be null");
+            }
+            for (StageSpec existing : specs) {
+                if (existing.getName().equals(spec.getName())) {
+                    throw new IllegalArgumentException("Duplicate stage name: " + spec.getName());
+                }
+            }
+            specs.add(spec);
+            return this;
+        }
+
+        /**
+         * Creates the stages and chains them in the order they were added.
+         *
+         * @return new pipeline, not started
+         * @throws IllegalArgumentException if no stage was added
+         * @throws UnsupportedOperationException if the JVM does not support the executor type
+         */
+        public Pipeline build() {
+            if (specs.isEmpty()) {
+                throw new IllegalArgumentException("Pipeline needs at least one stage");
+            }
+            List<PipelineStage> stages = new ArrayList<>();
+            for (StageSpec spec : specs) {
+                BoundedBlockingQueue<Object> queue = queueType.create(capacity, waitStrategy);
+                stages.add(new PipelineStage(spec, queue, metricsType.create(), metrics, itemPool,
+                                             scalingPolicy.create(), executorType));
+            }
+            for (int i = 0; i + 1 < stages.size(); i++) {
+                stages.get(i).setNext(stages.get(i + 1));
+            }
+            return new Pipeline(stages, metrics);
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package com.pranjal.assign1;
+
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+/**
+ * One stage of a {@link Pipeline}: a bounded input queue, the workers that
+ * take from it, and the stage's own metrics.
+ *
+ * A worker takes an item, processes it for the stage's service time and
+ * puts it into the next stage's queue. When that queue is full the put
+ * blocks, so the worker stops taking and its own queue fills in turn:
+ * backpressure reaches the producers one stage at a time. Time blocked on
+ * the next stage is recorded as {@link LatencyKind#PRODUCER_BLOCK} in this
+ * stage's metrics and does not count as busy, so a stage waiting on a slow
+ * successor does not look like the bottleneck. The last stage has no
+ * successor; it records each item as consumed in the pipeline-wide metrics
+ * and returns WorkItems to the pool, if there is one.
+ *
+ * End of stream travels the same way. Workers exit once their queue is
+ * closed and drained (or on a poison pill, for queues that cannot be
+ * closed), and the last one out closes the next stage's queue. Workers poll
+ * with a short timeout so the auto-scaler can retire them between items;
+ * it never retires below the stage's minimum of at least one worker, so
+ * some worker always sees end of stream.
+ *
+ * @author Pranjal
+ * @version 2.1
+ */
+public final class PipelineStage {
+
+    private final StageSpec spec;
+    private final BoundedBlockingQueue<Object> queue;
+    private final BoundedBlockingQueue<Object> input; // queue + wait-time stamps into this stage's metrics
+    private final MetricsCollector metrics;
+    private final MetricsCollector pipelineMetrics;
+    private final WorkItemPool itemPool; // null = items are left to the GC
+    private final ScalingPolicy scalingPolicy;
+    private final ExecutorService workerPool;
+    private final IntSupplier queueSize;
+    private PipelineStage next; // Set once while the pipeline is built; null for the last stage
+
+    private final Deque<Worker> activeWorkers = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger liveWorkers = new AtomicInteger(); // Started and not exited, retired or not
+    private final AtomicInteger startedWorkers = new AtomicInteger();
+    private final AtomicInteger retiredWorkers = new AtomicInteger();
+    private final AtomicBoolean downstreamEnded = new AtomicBoolean(false);
+    private final LongAdder busyNanos = new LongAdder();
+    private final LongAdder workerNanos = new LongAdder(); // Lifetimes of exited workers
+    private volatile boolean endOfStream;
+    private volatile int peakWorkers;
+
+    // Sampling state, touched only by the pipeline's auto-scaler thread
+    private long lastSampleNanos;
+    private long lastBusyNanos;
+    private long lastArrived;
+    private long lastProcessed;
+    private double utilization;
+    private double serviceRatePerWorker;
+
+    PipelineStage(StageSpec spec, BoundedBlockingQueue<Object> queue, MetricsCollector metrics,
+                  MetricsCollector pipelineMetrics, WorkItemPool itemPool, ScalingPolicy scalingPolicy,
+                  ExecutorType executorType) {
+        this.spec = spec;
+        this.queue = queue;
+        this.input = InstrumentedQueue.instrument(queue, metrics);
+        this.metrics = metrics;
+        this.pipelineMetrics = pipelineMetrics;
+        this.itemPool = itemPool;
+        this.scalingPolicy = scalingPolicy;
+        this.workerPool = executorType.create(spec.getName() + "-Pool-");
+        this.queueSize = queue::getSize;
+    }
+
+    void setNext(PipelineStage next) {
+        this.next = next;
+    }
+
+    /**
+     * Starts one more worker.
+     */
+    void startWorker() {
+        Worker worker = new Worker(spec.getName() + "-" + startedWorkers.incrementAndGet());
+        activeWorkers.addLast(worker);
+        liveWorkers.incrementAndGet();
+        peakWorkers = Math.max(peakWorkers, activeWorkers.size());
+        workerPool.execute(worker);
+    }
+
+    /**
+     * Asks the newest worker to exit after its current item.
+     *
+     * @return the retired worker's name, or null if the stage is at its minimum
+     */
+    String retireWorker() {
+        if (activeWorkers.size() <= spec.getMinWorkers()) {
+            return null;
+        }
+        Worker worker = activeWorkers.pollLast();
+        if (worker == null) {
+            return null;
+        }
+        worker.retired = true;
+        retiredWorkers.incrementAndGet();
+        return worker.name;
+    }
+
+    /**
+     * Ends the stream into this stage: closes its queue, or queues a poison
+     * pill if it cannot be closed.
+     *
+     * @throws InterruptedException if interrupted while queueing the pill
+     */
+    void endInput() throws InterruptedException {
+        if (!input.close()) {
+            input.put(QueueCommand.POISON_PILL);
+        }
+    }
+
+    /**
+     * Stops accepting workers and waits for the running ones to exit.
+     *
+     * @return true if every worker exited in time
+     */
+    boolean awaitWorkers(long timeout, TimeUnit unit) throws InterruptedException {
+        workerPool.shutdown();
+        return workerPool.awaitTermination(timeout, unit);
+    }
+
+    void shutdownNow() {
+        workerPool.shutdownNow();
+    }
+
+    /**
+     * Measures utilization and rates since the previous sample. Runs on the
+     * auto-scaler thread only.
+     *
+     * @param now System.nanoTime() of this tick
+     * @param arrived items put into this stage so far
+     * @param elapsedMillis time since the auto-scaler started
+     * @return sample for this stage's scaling policy
+     */
+    ScalingSample sample(long now, long arrived, long elapsedMillis) {
+        int workers = activeWorkers.size();
+        long busy = busyNanos.sum();
+        long processed = metrics.getTotalConsumed();
+        double arrivalRate = 0;
+        double serviceRate = 0;
+        if (lastSampleNanos != 0 && now > lastSampleNanos) {
+            long window = now - lastSampleNanos;
+            double seconds = window / 1e9;
+            arrivalRate = (arrived - lastArrived) / seconds;
+            serviceRate = (processed - lastProcessed) / seconds;
+            utilization = workers == 0 ? 0 : Math.min(1.0, (double) (busy - lastBusyNanos) / (window * workers));
+            if (queue.getSize() > 0 && workers > 0 && serviceRate > 0) {
+                double measured = serviceRate / workers;
+                serviceRatePerWorker = serviceRatePerWorker == 0 ? measured
+                                       : 0.5 * serviceRatePerWorker + 0.5 * measured;
+            }
+        }
+        lastSampleNanos = now;
+        lastBusyNanos = busy;
+        lastArrived = arrived;
+        lastProcessed = processed;
+        return new ScalingSample(elapsedMillis, queue.getSize(), queue.getCapacity(), arrivalRate, serviceRate,
+                                 serviceRatePerWorker, workers, spec.getMinWorkers(), spec.getMaxWorkers());
+    }
+
+    public String getName() {
+        return spec.getName();
+    }
+
+    public StageSpec getSpec() {
+        return spec;
+    }
+
+    /**
+     * Returns the stage's input queue, without the wait-time decorator.
+     *
+     * @return underlying queue
+     */
+    public BoundedBlockingQueue<Object> getQueue() {
+        return queue;
+    }
+
+    /**
+     * Returns the queue to put items into for this stage.
+     *
+     * @return input queue that records queue wait into this stage's metrics
+     */
+    public BoundedBlockingQueue<Object> getInput() {
+        return input;
+    }
+
+    /**
+     * Returns this stage's metrics: items processed, PROCESSING, QUEUE_WAIT
+     * and PRODUCER_BLOCK (time blocked on the next stage).
+     *
+     * @return stage metrics
+     */
+    public MetricsCollector getMetrics() {
+        return metrics;
+    }
+
+    ScalingPolicy getScalingPolicy() {
+        return scalingPolicy;
+    }
+
+    /**
+     * Returns the fraction of worker time spent processing over the last
+     * auto-scaler interval.
+     *
+     * @return utilization between 0 and 1, 0 before the second sample
+     */
+    public double getUtilization() {
+        return utilization;
+    }
+
+    /**
+     * Returns the fraction of worker time spent processing since the start,
+     * counting only workers that have exited.
+     *
+     * @return utilization between 0 and 1, 0 while every worker still runs
+     */
+    public double getOverallUtilization() {
+        long lifetimes = workerNanos.sum();
+        return lifetimes == 0 ? 0 : Math.min(1.0, (double) busyNanos.sum() / lifetimes);
+    }
+
+    /**
+     * Returns the workers currently taking items, excluding retired ones.
+     *
+     * @return active worker count
+     */
+    public int getWorkerCount() {
+        return activeWorkers.size();
+    }
+
+    public int getPeakWorkerCount() {
+        return peakWorkers;
+    }
+
+    public int getStartedWorkerCount() {
+        return startedWorkers.get();
+    }
+
+    public int getRetiredWorkerCount() {
+        return retiredWorkers.get();
+    }
+
+    /**
+     * Returns whether every worker has exited after end of stream.
+     *
+     * @return true once the next stage has been told the stream ended
+     */
+    public boolean isDrained() {
+        return downstreamEnded.get();
+    }
+
+    /**
+     * Called by each exiting worker; the last one out after end of stream
+     * passes it to the next stage.
+     */
+    private void workerExited() {
+        if (liveWorkers.decrementAndGet() == 0 && endOfStream && downstreamEnded.compareAndSet(false, true)) {
+            if (next == null) {
+                Logger.log("PIPELINE", "Stage " + getName() + " drained. Pipeline finished.");
+                return;
+            }
+            Logger.log("PIPELINE", "Stage " + getName() + " drained. Ending input of " + next.getName() + ".");
+            try {
+                next.endInput();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                Logger.log(LogLevel.WARN, "PIPELINE", "Interrupted ending input of " + next.getName());
+            }
+        }
+    }
+
+    /**
+     * Worker loop: take, process, forward. Exits on end of stream or when retired.
+     */
+    private final class Worker implements Runnable {
+
+        private final String name;
+        private volatile boolean retired;
+
+        Worker(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void run() {
+            long startedAt = System.nanoTime();
+            try {
+                Logger.log(name, "STARTED.");
+                while (!retired) {
+                    Object item = input.poll(ConsumerWorker.RETIRE_CHECK_MILLIS, TimeUnit.MILLISECONDS);
+                    if (item == null) {
+                        continue;
+                    }
+                    if (item == QueueCommand.POISON_PILL) {
+                        Logger.log(name, "Received POISON PILL. Stopping.");
+                        endOfStream = true;
+                        input.put(QueueCommand.POISON_PILL); // Relay to the other workers of this stage
+                        break;
+                    }
+                    process(item);
+                }
+                if (retired) {
+                    Logger.log(name, "RETIRED by auto-scaler.");
+                }
+            } catch (QueueClosedException e) {
+                endOfStream = true;
+                Logger.log(name, "Queue CLOSED and drained. Stopping.");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                Logger.log(name, "INTERRUPTED.");
+            } finally {
+                activeWorkers.remove(this); // No-op if it was retired
+                workerNanos.add(System.nanoTime() - startedAt);
+                workerExited();
+            }
+        }
+
+        private void process(Object item) throws InterruptedException {
+            long processingStart = System.nanoTime();
+            Logger.event(LogLevel.DEBUG, name, EventType.PROCESSED,
+                         itemPool == null ? item : WorkItemPool.loggable(item), queueSize);
+            spec.getServiceTime().pause();
+            long processed = System.nanoTime();
+            busyNanos.add(processed - processingStart);
+            metrics.recordConsumption();
+            metrics.recordLatency(LatencyKind.PROCESSING, processed - processingStart);
+
+            if (next != null) {
+                next.input.put(item); // Blocks while the next stage is full
+                metrics.recordLatency(LatencyKind.PRODUCER_BLOCK, System.nanoTime() - processed);
+            } else {
+                pipelineMetrics.recordConsumption();
+                if (itemPool != null && item instanceof WorkItem) {
+                    itemPool.release((WorkItem) item);
+                }
+            }
+        }
+    }
+}
@@ -2,22 +2,34 @@ package com.pranjal.assign1;
 
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntSupplier;
 
 /**
  * Producer worker that generates items and adds them to the queue.
  * 
  * Uses dependency injection for metrics collection and ThreadLocalRandom
  * for better performance in concurrent environments.
+ * An optional stop signal ends production early, between items
+ * (used by the headless benchmark, which runs for a fixed duration).
+ * Items are {@link WorkItem}s, taken from a {@link WorkItemPool} when one
+ * is given so that producing allocates nothing once the pool is warm.
  * 
  * @author Pranjal
  * @version 2.1
  */
 public class ProducerWorker implements Runnable {
 
-    private final AdvancedBlockingQueue<Object> queue;
+    private final BoundedBlockingQueue<Object> queue;
     private final int id;
     private final int itemsToProduce;
     private final MetricsCollector metrics;
+    private final ThinkTime thinkTime;
+    private final BooleanSupplier stopped; // null = produce all items
+    private final WorkItemPool pool; // null = allocate every item
+    // Built once so per-item log calls allocate nothing when DEBUG is off
+    private final String name;
+    private final IntSupplier queueSize;
 
     /**
      * Constructs a producer worker.
@@ -27,40 +39,95 @@ public class ProducerWorker implements Runnable {
      * @param itemsToProduce number of items to generate
      * @param metrics metrics collector for recording events
      */
-    public ProducerWorker(AdvancedBlockingQueue<Object> queue, int id, 
+    public ProducerWorker(BoundedBlockingQueue<Object> queue, int id, 
                          int itemsToProduce, MetricsCollector metrics) {
+        this(queue, id, itemsToProduce, metrics, ThinkTime.PRODUCER_DEFAULT, null);
+    }
+
+    /**
+     * Constructs a producer worker with a custom think time and stop signal.
+     * 
+     * @param queue the shared queue to add items to
+     * @param id unique identifier for this producer
+     * @param itemsToProduce maximum number of items to generate
+     * @param metrics metrics collector for recording events
+     * @param thinkTime pause before each item, must not be null
+     * @param stopped checked before each item; once true the producer exits (null = never)
+     * @throws NullPointerException if thinkTime is null
+     */
+    public ProducerWorker(BoundedBlockingQueue<Object> queue, int id, int itemsToProduce,
+                         MetricsCollector metrics, ThinkTime thinkTime, BooleanSupplier stopped) {
+        this(queue, id, itemsToProduce, metrics, thinkTime, stopped, null);
+    }
+
+    /**
+     * Constructs a producer worker that takes its items from a pool.
+     * 
+     * @param queue the shared queue to add items to
+     * @param id unique identifier for this producer
+     * @param itemsToProduce maximum number of items to generate
+     * @param metrics metrics collector for recording events
+     * @param thinkTime pause before each item, must not be null
+     * @param stopped checked before each item; once true the producer exits (null = never)
+     * @param pool source of items, filled by consumers (null = allocate each item)
+     * @throws NullPointerException if thinkTime is null
+     */
+    public ProducerWorker(BoundedBlockingQueue<Object> queue, int id, int itemsToProduce,
+                         MetricsCollector metrics, ThinkTime thinkTime, BooleanSupplier stopped,
+                         WorkItemPool pool) {
+        if (thinkTime == null) {
+            throw new NullPointerException("Think time must not be null");
+        }
         this.queue = queue;
         this.id = id;
         this.itemsToProduce = itemsToProduce;
         this.metrics = metrics;
+        this.thinkTime = thinkTime;
+        this.stopped = stopped;
+        this.pool = pool;
+        this.name = "Producer-" + id;
+        this.queueSize = queue::getSize;
     }
 
     @Override
     public void run() {
         try {
-            Logger.log("Producer-" + id, "STARTED.");
+            Logger.log(name, "STARTED.");
             
             for (int i = 1; i <= itemsToProduce; i++) {
-                // ThreadLocalRandom eliminates contention vs shared Random
-                Thread.sleep(ThreadLocalRandom.current().nextInt(50, 150)); 
+                if (stopped != null && stopped.getAsBoolean()) {
+                    Logger.log(name, "STOPPED after " + (i - 1) + " items.");
+                    return;
+                }
+                thinkTime.pause();
                 
-                String data = "Record-" + id + "-" + i;
+                long payload = ThreadLocalRandom.current().nextLong();
+                WorkItem data = pool == null ? new WorkItem(id, i, payload) : pool.acquire().set(id, i, payload);
+                // Once accepted, a pooled item may be consumed and reused before it is logged
+                Object logged = pool == null ? data : WorkItemPool.loggable(data);
                 
                 // Use timeout to avoid indefinite blocking
+                long offerStart = System.nanoTime();
                 boolean success = queue.offer(data, 2, TimeUnit.SECONDS);
+                metrics.recordLatency(LatencyKind.PRODUCER_BLOCK, System.nanoTime() - offerStart);
                 
                 if (success) {
                     metrics.recordProduction();
-                    Logger.log("Producer-" + id, "ADDED " + data + " | Queue Size: " + queue.getSize());
+                    Logger.event(LogLevel.DEBUG, name, EventType.ADDED, logged, queueSize);
                 } else {
-                    Logger.log("Producer-" + id, "TIMED OUT waiting to add " + data);
+                    Logger.event(LogLevel.WARN, name, EventType.TIMED_OUT, logged);
+                    if (pool != null) {
+                        pool.release(data);
+                    }
                 }
             }
             
-            Logger.log("Producer-" + id, "FINISHED work.");
+            Logger.log(name, "FINISHED work.");
+        } catch (QueueClosedException e) {
+            Logger.log(name, "Queue CLOSED. Stopping early.");
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
-            Logger.log("Producer-" + id, "INTERRUPTED.");
+            Logger.log(name, "INTERRUPTED.");
         }
     }
 }
@@ -0,0 +1,25 @@
+package com.pranjal.assign1;
+
+/**
+ * Thrown by a closed BoundedBlockingQueue.
+ *
+ * Inserts throw it as soon as the queue is closed; takes throw it only once
+ * the remaining items have been drained, so for consumers it marks the end
+ * of the stream.
+ *
+ * @author Pranjal
+ * @version 2.1
+ */
+public class QueueClosedException extends IllegalStateException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructs the exception with a message naming the rejected operation.
+     *
+     * @param message detail message
+     */
+    public QueueClosedException(String message) {
+        super(message);
+    }
+}
@@ -18,6 +18,9 @@ public enum QueueCommand {
      * 1. Stop processing
      * 2. Relay the pill (put it back for other consumers)
      * 3. Exit
+     * 
+     * Shutdown uses {@link BoundedBlockingQueue#close()} where supported;
+     * the pill remains for queues that cannot be closed.
      */
     POISON_PILL
 }
@@ -0,0 +1,230 @@
+package com.pranjal.assign1;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Java Flight Recorder events for queue operations and thread management.
+ *
+ * Per-item call sites (put, take, timeouts, lock wait) follow this pattern:
+ * <pre>
+ *   QueueEvents.Put event = null;
+ *   if (QueueEvents.queueEventsEnabled) {
+ *       event = new QueueEvents.Put();
+ *       event.begin();
+ *   }
+ *   ... operation ...
+ *   if (event != null &amp;&amp; event.shouldCommit()) { set fields; event.commit(); }
+ * </pre>
+ * Field values are only computed inside the shouldCommit() branch. Escape
+ * analysis cannot be relied on to remove the allocation on the queue's
+ * lock-and-wait paths, hence the {@link #queueEventsEnabled} guard; rare
+ * events such as scaling decisions use the plain JFR pattern without it. A
+ * FlightRecorder listener refreshes that flag whenever a recording starts
+ * or stops; settings changed on a recording already running are picked up
+ * at its next state change.
+ *
+ * Enable with the bundled profile:
+ * <pre>
+ *   java -XX:StartFlightRecording=settings=src/main/resources/queue-events.jfc,filename=run.jfr ...
+ * </pre>
+ * and summarize with {@link JfrEventAnalyzer}.
+ *
+ * @author Pranjal
+ * @version 2.1
+ */
+final class QueueEvents {
+
+    static final String PREFIX = "com.pranjal.assign1.";
+    static final String CATEGORY = "Producer-Consumer";
+
+    /** True while a running recording enables any per-item queue event. */
+    static volatile boolean queueEventsEnabled;
+
+    static {
+        refresh();
+        try {
+            FlightRecorder.addListener(new FlightRecorderListener() {
+                @Override
+                public void recordingStateChanged(Recording recording) {
+                    refresh();
+                }
+            });
+        } catch (IllegalStateException | SecurityException e) {
+            // No flight recorder in this JVM: the events stay off
+        }
+    }
+
+    private QueueEvents() {
+    }
+
+    private static void refresh() {
+        try {
+            queueEventsEnabled = isEnabled(Put.class) || isEnabled(Take.class) || isEnabled(OfferTimeout.class)
+                                 || isEnabled(PollTimeout.class) || isEnabled(LockWait.class);
+        } catch (IllegalStateException | SecurityException e) {
+            queueEventsEnabled = false;
+        }
+    }
+
+    private static boolean isEnabled(Class<? extends Event> eventClass) {
+        return jdk.jfr.EventType.getEventType(eventClass).isEnabled(); // Not the logger's EventType
+    }
+
+    /**
+     * A completed put or successful timed offer, including any time spent waiting for space.
+     */
+    @Name(PREFIX + "QueuePut")
+    @Label("Queue Put")
+    @Category({CATEGORY, "Queue"})
+    @Description("Insert; duration includes waiting for a free slot")
+    @StackTrace(false)
+    static final class Put extends Event {
+        @Label("Queue Size")
+        int queueSize;
+
+        @Label("Capacity")
+        int capacity;
+
+        @Label("Timed")
+        @Description("True for offer with a timeout, false for put")
+        boolean timed;
+    }
+
+    /**
+     * A completed take or successful timed poll, including any time spent waiting for an element.
+     */
+    @Name(PREFIX + "QueueTake")
+    @Label("Queue Take")
+    @Category({CATEGORY, "Queue"})
+    @Description("Removal; duration includes waiting for an element")
+    @StackTrace(false)
+    static final class Take extends Event {
+        @Label("Queue Size")
+        int queueSize;
+
+        @Label("Capacity")
+        int capacity;
+
+        @Label("Timed")
+        @Description("True for poll with a timeout, false for take")
+        boolean timed;
+    }
+
+    /**
+     * A timed offer that gave up because the queue stayed full.
+     */
+    @Name(PREFIX + "QueueOfferTimeout")
+    @Label("Queue Offer Timeout")
+    @Category({CATEGORY, "Queue"})
+    @Description("Timed insert that expired on a full queue")
+    static final class OfferTimeout extends Event {
+        @Label("Timeout")
+        @Timespan(Timespan.NANOSECONDS)
+        long timeout;
+
+        @Label("Capacity")
+        int capacity;
+    }
+
+    /**
+     * A timed poll that gave up because the queue stayed empty.
+     */
+    @Name(PREFIX + "QueuePollTimeout")
+    @Label("Queue Poll Timeout")
+    @Category({CATEGORY, "Queue"})
+    @Description("Timed removal that expired on an empty queue")
+    @StackTrace(false)
+    static final class PollTimeout extends Event {
+        @Label("Timeout")
+        @Timespan(Timespan.NANOSECONDS)
+        long timeout;
+    }
+
+    /**
+     * Time spent acquiring the queue lock, before any condition wait.
+     */
+    @Name(PREFIX + "QueueLockWait")
+    @Label("Queue Lock Wait")
+    @Category({CATEGORY, "Queue"})
+    @Description("Time to acquire the queue's fair lock")
+    static final class LockWait extends Event {
+        @Label("Operation")
+        String operation;
+
+        @Label("Queue Size")
+        int queueSize;
+    }
+
+    /**
+     * One auto-scaler check and what it decided.
+     */
+    @Name(PREFIX + "AutoScaleDecision")
+    @Label("Auto-Scale Decision")
+    @Category({CATEGORY, "Threads"})
+    @Description("Periodic auto-scaler check of queue depth and rates")
+    @StackTrace(false)
+    static final class AutoScaleDecision extends Event {
+        @Label("Action")
+        @Description("SCALE_UP, SCALE_DOWN, HOLD or AT_LIMIT")
+        String action;
+
+        @Label("Trigger")
+        @Description("TIMER, HIGH_WATERMARK or LOW_WATERMARK")
+        String trigger;
+
+        @Label("Load")
+        @Description("Queue size divided by capacity")
+        double load;
+
+        @Label("Queue Size")
+        int queueSize;
+
+        @Label("Arrival Rate")
+        @Description("Items produced per second since the previous check")
+        double arrivalRate;
+
+        @Label("Service Rate")
+        @Description("Items consumed per second since the previous check")
+        double serviceRate;
+
+        @Label("Consumers Before")
+        int consumersBefore;
+
+        @Label("Consumers After")
+        int consumersAfter;
+
+        @Label("Emergency Consumers")
+        int emergencyConsumers;
+    }
+
+    /**
+     * A consumer starting or stopping.
+     */
+    @Name(PREFIX + "ConsumerLifecycle")
+    @Label("Consumer Lifecycle")
+    @Category({CATEGORY, "Threads"})
+    @StackTrace(false)
+    static final class ConsumerLifecycle extends Event {
+        @Label("Consumer")
+        String consumer;
+
+        @Label("Action")
+        @Description("START or STOP")
+        String action;
+
+        @Label("Emergency")
+        boolean emergency;
+
+        @Label("Active Consumers")
+        int activeConsumers;
+    }
+}
@@ -0,0 +1,25 @@
+package com.pranjal.assign1;
+
+/**
+ * Backing storage strategy for AdvancedBlockingQueue.
+ * 
+ * Chosen once at construction; both strategies honour the same
+ * put/take/offer/poll contract and differ only in memory behaviour.
+ * 
+ * @author Pranjal
+ * @version 2.1
+ */
+public enum QueueStorage {
+    
+    /**
+     * java.util.LinkedList - allocates a node per element.
+     * Original behaviour, kept as the default.
+     */
+    LINKED_LIST,
+    
+    /**
+     * Preallocated circular array sized to the queue capacity.
+     * Allocates nothing per element and keeps slots contiguous in memory.
+     */
+    RING_BUFFER
+}
@@ -0,0 +1,111 @@
+package com.pranjal.assign1;
+
+/**
+ * Selects which BoundedBlockingQueue implementation the simulation runs on.
+ * 
+ * Acts as a factory so Configuration stays a plain value object and
+ * SimulationEngine/ThreadManager never reference concrete queue classes.
+ * 
+ * @author Pranjal
+ * @version 2.1
+ */
+public enum QueueType {
+
+    /**
+     * AdvancedBlockingQueue with a fair lock and LinkedList storage (original behaviour).
+     */
+    FAIR_LINKED {
+        @Override
+        public <T> BoundedBlockingQueue<T> create(int capacity, WaitStrategy waitStrategy) {
+            return new AdvancedBlockingQueue<>(capacity, QueueStorage.LINKED_LIST);
+        }
+
+        @Override
+        public boolean supportsWatermarks() {
+            return true;
+        }
+    },
+
+    /**
+     * AdvancedBlockingQueue with a fair lock and preallocated ring buffer storage.
+     */
+    FAIR_RING {
+        @Override
+        public <T> BoundedBlockingQueue<T> create(int capacity, WaitStrategy waitStrategy) {
+            return new AdvancedBlockingQueue<>(capacity, QueueStorage.RING_BUFFER);
+        }
+
+        @Override
+        public boolean supportsWatermarks() {
+            return true;
+        }
+    },
+
+    /**
+     * TwoLockBlockingQueue - separate put and take locks.
+     */
+    TWO_LOCK {
+        @Override
+        public <T> BoundedBlockingQueue<T> create(int capacity, WaitStrategy waitStrategy) {
+            return new TwoLockBlockingQueue<>(capacity);
+        }
+    },
+
+    /**
+     * LockFreeBoundedQueue - CAS-based MPMC ring, blocking via the wait strategy.
+     */
+    LOCK_FREE {
+        @Override
+        public <T> BoundedBlockingQueue<T> create(int capacity, WaitStrategy waitStrategy) {
+            return new LockFreeBoundedQueue<>(capacity, waitStrategy);
+        }
+    },
+
+    /**
+     * OffHeapQueue - items as UTF-8 text in a direct ByteBuffer ring, so queue depth adds no GC work.
+     */
+    OFF_HEAP {
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> BoundedBlockingQueue<T> create(int capacity, WaitStrategy waitStrategy) {
+            return (BoundedBlockingQueue<T>) new OffHeapQueue<>(capacity, WalCodec.TEXT);
+        }
+
+        @Override
+        public boolean storesObjects() {
+            return false;
+        }
+    };
+
+    /**
+     * Creates a new queue of this type.
+     * 
+     * @param capacity maximum number of elements, must be positive
+     * @param waitStrategy wait strategy for lock-free queues (ignored by lock-based ones)
+     * @param <T> the type of elements held in the queue
+     * @return a new empty queue
+     * @throws IllegalArgumentException if capacity is not positive
+     */
+    public abstract <T> BoundedBlockingQueue<T> create(int capacity, WaitStrategy waitStrategy);
+
+    /**
+     * Returns whether queues of this type fire watermark events
+     * ({@link BoundedBlockingQueue#setWatermarkListener}).
+     * 
+     * @return true if the auto-scaler can react to watermark crossings
+     */
+    public boolean supportsWatermarks() {
+        return false;
+    }
+
+    /**
+     * Returns whether queues of this type hold the inserted objects themselves.
+     * Queues that encode items hand back equal copies, and cannot hold the
+     * envelopes of decorators such as DurableQueue.
+     * 
+     * @return false if items are stored as bytes
+     */
+    public boolean storesObjects() {
+        return true;
+    }
+}
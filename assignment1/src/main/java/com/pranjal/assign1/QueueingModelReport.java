@@ -0,0 +1,183 @@
+package com.pranjal.assign1;
+
+import java.io.PrintStream;
+import java.util.Locale;
+
+/**
+ * Compares measured queue depth and wait with queueing-theory predictions.
+ *
+ * Predictions use the measured arrival rate and mean service time, so only
+ * the model's shape assumptions are under test:
+ * - M/M/c: Poisson arrivals, exponential service (Erlang C)
+ * - M/G/1: Pollaczek-Khinchine, exact for one consumer with any service distribution
+ * - M/G/c: Allen-Cunneen approximation, M/M/c scaled by (1 + Cs^2) / 2
+ *
+ * Arrivals are P independent producer streams; their superposition is close
+ * to Poisson with exponential think times or many producers. The models
+ * assume an unbounded queue and one item per take, so a queue that often
+ * fills up, or batch consumers, will read low against them.
+ *
+ * @author Pranjal
+ * @version 2.1
+ */
+public final class QueueingModelReport {
+
+    private final int consumers;
+    private final double arrivalRate;     // lambda, items/s
+    private final double meanServiceNanos;
+    private final double serviceScv;
+    private final double measuredDepth;   // Time-averaged items waiting
+    private final double measuredWaitNanos;
+
+    /**
+     * Creates a report from one measured run.
+     *
+     * @param consumers number of consumers, c
+     * @param arrivalRate measured arrivals per second
+     * @param meanServiceNanos measured mean service time
+     * @param serviceScv squared coefficient of variation of the configured service distribution
+     * @param measuredDepth time-averaged queue depth
+     * @param measuredWaitNanos mean time items spent in the queue
+     */
+    QueueingModelReport(int consumers, double arrivalRate, double meanServiceNanos, double serviceScv,
+                        double measuredDepth, double measuredWaitNanos) {
+        this.consumers = consumers;
+        this.arrivalRate = arrivalRate;
+        this.meanServiceNanos = meanServiceNanos;
+        this.serviceScv = serviceScv;
+        this.measuredDepth = measuredDepth;
+        this.measuredWaitNanos = measuredWaitNanos;
+    }
+
+    /**
+     * Pollaczek-Khinchine mean queue length for M/G/1.
+     *
+     * @param lambda arrival rate
+     * @param meanService mean service time, in the reciprocal unit of lambda
+     * @param scv squared coefficient of variation of the service time
+     * @return Lq, infinite if utilization is 1 or more
+     */
+    static double mg1MeanQueueLength(double lambda, double meanService, double scv) {
+        double rho = lambda * meanService;
+        if (rho >= 1) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return rho * rho * (1 + scv) / (2 * (1 - rho));
+    }
+
+    /**
+     * Allen-Cunneen approximation of the M/G/c mean queue length.
+     *
+     * @param lambda arrival rate
+     * @param mu service rate of one consumer
+     * @param c number of consumers
+     * @param scv squared coefficient of variation of the service time
+     * @return Lq, infinite if utilization is 1 or more
+     */
+    static double mgcMeanQueueLength(double lambda, double mu, int c, double scv) {
+        return QueueingModelScalingPolicy.meanQueueLength(lambda, mu, c) * (1 + scv) / 2;
+    }
+
+    /**
+     * Returns per-consumer utilization, lambda / (c mu).
+     *
+     * @return rho; 1 or more means the queue cannot keep up
+     */
+    public double getUtilization() {
+        return arrivalRate * (meanServiceNanos / 1e9) / consumers;
+    }
+
+    public double getMeasuredDepth() {
+        return measuredDepth;
+    }
+
+    public double getMeasuredWaitMillis() {
+        return measuredWaitNanos / 1e6;
+    }
+
+    /**
+     * Returns the M/M/c (Erlang C) mean queue length.
+     *
+     * @return Lq in items, infinite if unstable, NaN without service samples
+     */
+    public double getMmcDepth() {
+        return meanServiceNanos > 0
+            ? QueueingModelScalingPolicy.meanQueueLength(arrivalRate, 1e9 / meanServiceNanos, consumers)
+            : Double.NaN;
+    }
+
+    /**
+     * Returns the M/G/1 mean queue length for one consumer, or the M/G/c
+     * Allen-Cunneen approximation for several.
+     *
+     * @return Lq in items, infinite if unstable, NaN without service samples
+     */
+    public double getMgDepth() {
+        if (!(meanServiceNanos > 0)) {
+            return Double.NaN;
+        }
+        return consumers == 1 ? mg1MeanQueueLength(arrivalRate, meanServiceNanos / 1e9, serviceScv)
+                              : mgcMeanQueueLength(arrivalRate, 1e9 / meanServiceNanos, consumers, serviceScv);
+    }
+
+    /**
+     * Converts a predicted queue length to a wait by Little's law, Wq = Lq / lambda.
+     */
+    private double waitMillis(double depth) {
+        return arrivalRate > 0 ? depth / arrivalRate * 1000 : Double.NaN;
+    }
+
+    /**
+     * Prints measured against predicted Lq and Wq.
+     *
+     * @param out destination
+     */
+    void print(PrintStream out) {
+        out.println(String.format("  Arrival Rate:             %.1f/s measured", arrivalRate));
+        out.println(String.format("  Service:                  mean %.3f ms measured, SCV %.2f, c = %d, rho = %.3f",
+            meanServiceNanos / 1e6, serviceScv, consumers, getUtilization()));
+        out.println(String.format("  %-30s%12s %12s", "", "Lq (items)", "Wq (ms)"));
+        out.println(String.format("  %-30s%12.3f %12.3f", "Measured", measuredDepth, getMeasuredWaitMillis()));
+        printRow(out, "M/M/c (Erlang C)", getMmcDepth());
+        printRow(out, consumers == 1 ? "M/G/1 (Pollaczek-Khinchine)" : "M/G/c (Allen-Cunneen)", getMgDepth());
+        if (getUtilization() >= 1) {
+            out.println("  rho >= 1: arrivals outpace service, the bounded queue fills and producers block");
+        }
+    }
+
+    private void printRow(PrintStream out, String model, double depth) {
+        if (Double.isNaN(depth) || Double.isInfinite(depth)) {
+            out.println(String.format("  %-30s%12s %12s", model, Double.isNaN(depth) ? "n/a" : "unstable", ""));
+            return;
+        }
+        String error = measuredDepth > 0 || depth > 0
+            ? String.format("  (measured %+.0f%%)", depth == 0 ? 0 : (measuredDepth - depth) / depth * 100)
+            : "";
+        out.println(String.format("  %-30s%12.3f %12.3f%s", model, depth, waitMillis(depth), error));
+    }
+
+    /**
+     * Serializes the comparison as a JSON object; null for predictions that are
+     * unstable or undefined.
+     *
+     * @return JSON text
+     */
+    String toJson() {
+        return "{\"consumers\": " + consumers
+            + ", \"arrivalRatePerSec\": " + number(arrivalRate)
+            + ", \"meanServiceMillis\": " + number(meanServiceNanos / 1e6)
+            + ", \"serviceScv\": " + number(serviceScv)
+            + ", \"utilization\": " + number(getUtilization())
+            + ", \"measuredDepth\": " + number(measuredDepth)
+            + ", \"measuredWaitMillis\": " + number(getMeasuredWaitMillis())
+            + ", \"mmcDepth\": " + number(getMmcDepth())
+            + ", \"mmcWaitMillis\": " + number(waitMillis(getMmcDepth()))
+            + ", \"" + (consumers == 1 ? "mg1" : "mgc") + "Depth\": " + number(getMgDepth())
+            + ", \"" + (consumers == 1 ? "mg1" : "mgc") + "WaitMillis\": " + number(waitMillis(getMgDepth()))
+            + "}";
+    }
+
+    private static String number(double value) {
+        return Double.isNaN(value) || Double.isInfinite(value) ? "null" : String.format(Locale.ROOT, "%.4f", value);
+    }
+}
@@ -0,0 +1,104 @@
+package com.pranjal.assign1;
+
+/**
+ * Sizes the consumer pool from an M/M/c queueing model.
+ *
+ * Treats producers as a Poisson arrival stream (lambda = measured arrival
+ * rate) and each consumer as an exponential server (mu = measured per-consumer
+ * service rate). Picks the smallest c for which the model is stable and the
+ * Erlang C mean queue length Lq is at most the target depth, then adds enough
+ * consumers to drain any backlog above the target within the drain time.
+ *
+ * Until mu has been measured (no backlog seen yet) it holds the current
+ * count, adding one consumer whenever the queue is above target.
+ *
+ * @author Pranjal
+ * @version 2.1
+ */
+public class QueueingModelScalingPolicy implements ScalingPolicy {
+
+    static final double DEFAULT_TARGET_LOAD = 0.5;
+    static final double DEFAULT_DRAIN_SECONDS = 2.0;
+
+    private final double targetLoad;
+    private final double drainSeconds;
+
+    /**
+     * Creates a policy targeting a half-full queue and a 2 second backlog drain.
+     */
+    public QueueingModelScalingPolicy() {
+        this(DEFAULT_TARGET_LOAD, DEFAULT_DRAIN_SECONDS);
+    }
+
+    /**
+     * Creates a policy with an explicit target depth and drain time.
+     *
+     * @param targetLoad mean queue length to allow, as a fraction of capacity (0, 1)
+     * @param drainSeconds time in which to work off a backlog above target
+     * @throws IllegalArgumentException if targetLoad is outside (0, 1) or drainSeconds is not positive
+     */
+    public QueueingModelScalingPolicy(double targetLoad, double drainSeconds) {
+        if (targetLoad <= 0 || targetLoad >= 1) {
+            throw new IllegalArgumentException("Target load must be between 0 and 1, got: " + targetLoad);
+        }
+        if (drainSeconds <= 0) {
+            throw new IllegalArgumentException("Drain time must be positive, got: " + drainSeconds);
+        }
+        this.targetLoad = targetLoad;
+        this.drainSeconds = drainSeconds;
+    }
+
+    @Override
+    public int desiredConsumers(ScalingSample sample) {
+        int target = getTargetDepth(sample.getCapacity());
+        double mu = sample.getServiceRatePerConsumer();
+        if (mu <= 0) {
+            return sample.getQueueDepth() > target ? sample.getConsumers() + 1 : sample.getConsumers();
+        }
+
+        double lambda = sample.getArrivalRate();
+        int c = 1;
+        while (c < sample.getMaxConsumers() && meanQueueLength(lambda, mu, c) > target) {
+            c++;
+        }
+
+        int backlog = sample.getQueueDepth() - target;
+        if (backlog > 0) {
+            c += (int) Math.ceil(backlog / (mu * drainSeconds));
+        }
+        return c;
+    }
+
+    /**
+     * Erlang C mean number waiting (Lq) for an M/M/c queue.
+     *
+     * @param lambda arrival rate
+     * @param mu service rate of one server
+     * @param c number of servers
+     * @return mean queue length, or positive infinity if lambda &gt;= c * mu
+     */
+    static double meanQueueLength(double lambda, double mu, int c) {
+        double offered = lambda / mu; // a = lambda / mu, in Erlangs
+        double rho = offered / c;
+        if (rho >= 1) {
+            return Double.POSITIVE_INFINITY;
+        }
+        // Erlang B by recursion, then convert to Erlang C (probability of waiting)
+        double erlangB = 1;
+        for (int k = 1; k <= c; k++) {
+            erlangB = offered * erlangB / (k + offered * erlangB);
+        }
+        double erlangC = erlangB / (1 - rho * (1 - erlangB));
+        return erlangC * rho / (1 - rho);
+    }
+
+    @Override
+    public int getTargetDepth(int capacity) {
+        return (int) Math.round(capacity * targetLoad);
+    }
+
+    @Override
+    public long getIntervalMillis() {
+        return 250;
+    }
+}
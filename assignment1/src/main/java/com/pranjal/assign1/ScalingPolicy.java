@@ -0,0 +1,41 @@
+package com.pranjal.assign1;
+
+/**
+ * Decides how many consumers the auto-scaler should run.
+ *
+ * ThreadManager calls {@link #desiredConsumers} once per interval from its
+ * single auto-scaler thread, so implementations may keep state without
+ * synchronization. The result is clamped to the sample's min/max bounds;
+ * ThreadManager then starts new consumers or retires the newest ones.
+ *
+ * @author Pranjal
+ * @version 2.1
+ */
+public interface ScalingPolicy {
+
+    /**
+     * Returns the number of consumers that should be running.
+     *
+     * @param sample current queue depth, rates and consumer count
+     * @return desired consumer count (clamped by the caller)
+     */
+    int desiredConsumers(ScalingSample sample);
+
+    /**
+     * Returns the queue depth this policy tries to hold, used to report how
+     * closely it tracked its goal.
+     *
+     * @param capacity queue capacity
+     * @return target depth in items
+     */
+    int getTargetDepth(int capacity);
+
+    /**
+     * Returns the time between auto-scaler ticks.
+     *
+     * @return interval in milliseconds
+     */
+    default long getIntervalMillis() {
+        return 1000;
+    }
+}
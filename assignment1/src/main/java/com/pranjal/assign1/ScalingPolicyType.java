@@ -0,0 +1,47 @@
+package com.pranjal.assign1;
+
+/**
+ * Selects which ScalingPolicy the auto-scaler runs.
+ *
+ * @author Pranjal
+ * @version 2.1
+ */
+public enum ScalingPolicyType {
+
+    /**
+     * ThresholdScalingPolicy - add a consumer above 75% load, at most 3, never retire (original behaviour).
+     */
+    THRESHOLD {
+        @Override
+        public ScalingPolicy create() {
+            return new ThresholdScalingPolicy();
+        }
+    },
+
+    /**
+     * PidScalingPolicy - PID controller on queue depth with lambda/mu feed-forward.
+     */
+    PID {
+        @Override
+        public ScalingPolicy create() {
+            return new PidScalingPolicy();
+        }
+    },
+
+    /**
+     * QueueingModelScalingPolicy - M/M/c sizing from measured arrival and service rates.
+     */
+    MMC {
+        @Override
+        public ScalingPolicy create() {
+            return new QueueingModelScalingPolicy();
+        }
+    };
+
+    /**
+     * Creates a new policy with fresh controller state.
+     *
+     * @return new scaling policy
+     */
+    public abstract ScalingPolicy create();
+}
@@ -0,0 +1,112 @@
+package com.pranjal.assign1;
+
+/**
+ * Immutable measurement taken by the auto-scaler on each tick and handed to a
+ * {@link ScalingPolicy}. Rates are in items per second over the last interval.
+ *
+ * @author Pranjal
+ * @version 2.1
+ */
+public final class ScalingSample {
+
+    private final long elapsedMillis;
+    private final int queueDepth;
+    private final int capacity;
+    private final double arrivalRate;
+    private final double serviceRate;
+    private final double serviceRatePerConsumer;
+    private final int consumers;
+    private final int minConsumers;
+    private final int maxConsumers;
+
+    ScalingSample(long elapsedMillis, int queueDepth, int capacity, double arrivalRate, double serviceRate,
+                  double serviceRatePerConsumer, int consumers, int minConsumers, int maxConsumers) {
+        this.elapsedMillis = elapsedMillis;
+        this.queueDepth = queueDepth;
+        this.capacity = capacity;
+        this.arrivalRate = arrivalRate;
+        this.serviceRate = serviceRate;
+        this.serviceRatePerConsumer = serviceRatePerConsumer;
+        this.consumers = consumers;
+        this.minConsumers = minConsumers;
+        this.maxConsumers = maxConsumers;
+    }
+
+    /**
+     * Returns the time since the auto-scaler started.
+     *
+     * @return milliseconds since the first sample
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns queue depth as a fraction of capacity.
+     *
+     * @return load between 0 and 1
+     */
+    public double getLoad() {
+        return (double) queueDepth / capacity;
+    }
+
+    /**
+     * Returns the rate at which producers added items (lambda).
+     *
+     * @return items per second
+     */
+    public double getArrivalRate() {
+        return arrivalRate;
+    }
+
+    /**
+     * Returns the rate at which all consumers together processed items.
+     *
+     * @return items per second
+     */
+    public double getServiceRate() {
+        return serviceRate;
+    }
+
+    /**
+     * Returns the estimated rate of one busy consumer (mu). Only measured
+     * while the queue has a backlog, since an idle consumer's throughput
+     * says nothing about its speed.
+     *
+     * @return items per second per consumer, or 0 if not yet measured
+     */
+    public double getServiceRatePerConsumer() {
+        return serviceRatePerConsumer;
+    }
+
+    /**
+     * Returns the consumers currently working, excluding any being retired.
+     *
+     * @return active consumer count
+     */
+    public int getConsumers() {
+        return consumers;
+    }
+
+    public int getMinConsumers() {
+        return minConsumers;
+    }
+
+    public int getMaxConsumers() {
+        return maxConsumers;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("depth %d/%d, in %.1f/s, out %.1f/s, mu %.2f/s, consumers %d",
+            queueDepth, capacity, arrivalRate, serviceRate, serviceRatePerConsumer, consumers);
+    }
+}
@@ -0,0 +1,282 @@
+package com.pranjal.assign1;
+
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Summary of the auto-scaler's ticks: how closely the queue depth tracked
+ * the policy's target depth, and the most recent scaling actions.
+ *
+ * Written by the auto-scaler thread, read for the final report. Tracking
+ * error is kept as running sums, and only the last {@link #MAX_CHANGES}
+ * ticks that changed the consumer count are kept, so a long run with a
+ * short interval uses constant memory.
+ *
+ * @author Pranjal
+ * @version 2.1
+ */
+public class ScalingTimeline {
+
+    /** Scaling actions kept for the report; older ones are only counted. */
+    static final int MAX_CHANGES = 1000;
+
+    private final int targetDepth;
+    private final int tolerance;
+    private final ReentrantLock lock = new ReentrantLock();
+    // Guarded by lock
+    private final ArrayDeque<Entry> changes = new ArrayDeque<>();
+    private int sampleCount;
+    private int withinCount;
+    private double absoluteErrorSum;
+    private double squaredErrorSum;
+    private int changeCount;
+    private int watermarkChangeCount;
+    private long reactionNanosSum;
+    private long reactionNanosMax;
+
+    /**
+     * Creates an empty timeline.
+     *
+     * @param targetDepth depth the policy aims for, in items
+     * @param capacity queue capacity; depth within 10% of it counts as on target
+     */
+    ScalingTimeline(int targetDepth, int capacity) {
+        this.targetDepth = targetDepth;
+        this.tolerance = Math.max(1, capacity / 10);
+    }
+
+    /**
+     * Records one tick.
+     *
+     * @param sample measurement the policy saw
+     * @param consumersAfter active consumers after applying the decision
+     */
+    void record(ScalingSample sample, int consumersAfter) {
+        record(sample, consumersAfter, "TIMER", -1);
+    }
+
+    /**
+     * Records one tick with what caused it.
+     *
+     * @param sample measurement the policy saw
+     * @param consumersAfter active consumers after applying the decision
+     * @param trigger TIMER, HIGH_WATERMARK or LOW_WATERMARK
+     * @param reactionNanos time from the watermark crossing to the decision, -1 for the timer
+     */
+    void record(ScalingSample sample, int consumersAfter, String trigger, long reactionNanos) {
+        int error = Math.abs(sample.getQueueDepth() - targetDepth);
+        lock.lock();
+        try {
+            sampleCount++;
+            absoluteErrorSum += error;
+            squaredErrorSum += (double) error * error;
+            if (error <= tolerance) {
+                withinCount++;
+            }
+            if (consumersAfter == sample.getConsumers()) {
+                return;
+            }
+            changeCount++;
+            if (reactionNanos >= 0) {
+                watermarkChangeCount++;
+                reactionNanosSum += reactionNanos;
+                reactionNanosMax = Math.max(reactionNanosMax, reactionNanos);
+            }
+            if (changes.size() == MAX_CHANGES) {
+                changes.removeFirst();
+            }
+            changes.addLast(new Entry(sample, consumersAfter, trigger, reactionNanos));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getTargetDepth() {
+        return targetDepth;
+    }
+
+    /**
+     * Returns how far from the target a depth may be and still count as on target.
+     *
+     * @return tolerance in items, 10% of capacity and at least 1
+     */
+    public int getTolerance() {
+        return tolerance;
+    }
+
+    public int getSampleCount() {
+        lock.lock();
+        try {
+            return sampleCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns how many ticks changed the consumer count, including those
+     * no longer kept.
+     *
+     * @return scaling action count
+     */
+    public int getChangeCount() {
+        lock.lock();
+        try {
+            return changeCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the most recent ticks on which the consumer count changed.
+     *
+     * @return up to {@link #MAX_CHANGES} scaling actions, oldest first
+     */
+    public List<Entry> getChanges() {
+        lock.lock();
+        try {
+            return new ArrayList<>(changes);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the mean absolute difference between queue depth and target depth.
+     *
+     * @return items, 0 if nothing was recorded
+     */
+    public double getMeanAbsoluteError() {
+        lock.lock();
+        try {
+            return sampleCount == 0 ? 0 : absoluteErrorSum / sampleCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the root-mean-square difference between queue depth and target depth.
+     *
+     * @return items, 0 if nothing was recorded
+     */
+    public double getRmsError() {
+        lock.lock();
+        try {
+            return sampleCount == 0 ? 0 : Math.sqrt(squaredErrorSum / sampleCount);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the share of ticks whose depth was within {@link #getTolerance()} of the target.
+     *
+     * @return fraction between 0 and 1, 0 if nothing was recorded
+     */
+    public double getFractionWithinTolerance() {
+        lock.lock();
+        try {
+            return sampleCount == 0 ? 0 : (double) withinCount / sampleCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the most recent watermark-triggered ticks that changed the consumer count.
+     *
+     * @return event-driven scaling actions among {@link #getChanges()}, oldest first
+     */
+    public List<Entry> getWatermarkChanges() {
+        List<Entry> triggered = new ArrayList<>();
+        for (Entry entry : getChanges()) {
+            if (entry.getReactionNanos() >= 0) {
+                triggered.add(entry);
+            }
+        }
+        return triggered;
+    }
+
+    /**
+     * Prints the tracking summary and each kept scaling action.
+     *
+     * @param out destination
+     */
+    void print(PrintStream out) {
+        List<Entry> kept;
+        int actions;
+        int triggered;
+        long reactionSum;
+        long reactionMax;
+        lock.lock();
+        try {
+            kept = new ArrayList<>(changes);
+            actions = changeCount;
+            triggered = watermarkChangeCount;
+            reactionSum = reactionNanosSum;
+            reactionMax = reactionNanosMax;
+        } finally {
+            lock.unlock();
+        }
+        out.println(String.format("  Depth Tracking:           target %d, mean |error| %.2f, RMS %.2f, %.1f%% within +/-%d (%d samples)",
+            targetDepth, getMeanAbsoluteError(), getRmsError(), getFractionWithinTolerance() * 100, tolerance,
+            getSampleCount()));
+        out.println("  Scaling Actions:          " + actions
+                    + (actions > kept.size() ? " (last " + kept.size() + " shown)" : ""));
+        if (triggered > 0) {
+            out.println(String.format("  Watermark Reaction:       %d actions, mean %.1f us, max %.1f us",
+                triggered, reactionSum / 1000.0 / triggered, reactionMax / 1000.0));
+        }
+        for (Entry entry : kept) {
+            out.println("    " + entry);
+        }
+    }
+
+    /**
+     * One auto-scaler tick.
+     */
+    public static final class Entry {
+        private final ScalingSample sample;
+        private final int consumersAfter;
+        private final String trigger;
+        private final long reactionNanos;
+
+        Entry(ScalingSample sample, int consumersAfter, String trigger, long reactionNanos) {
+            this.sample = sample;
+            this.consumersAfter = consumersAfter;
+            this.trigger = trigger;
+            this.reactionNanos = reactionNanos;
+        }
+
+        public ScalingSample getSample() {
+            return sample;
+        }
+
+        public int getConsumersAfter() {
+            return consumersAfter;
+        }
+
+        public String getTrigger() {
+            return trigger;
+        }
+
+        /**
+         * @return nanoseconds from the watermark crossing to the decision, -1 for timer ticks
+         */
+        public long getReactionNanos() {
+            return reactionNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("+%6.2fs  %-14s depth %4d/%-4d in %7.1f/s  out %7.1f/s  consumers %d -> %d",
+                sample.getElapsedMillis() / 1000.0, trigger, sample.getQueueDepth(), sample.getCapacity(),
+                sample.getArrivalRate(), sample.getServiceRate(), sample.getConsumers(), consumersAfter);
+        }
+    }
+}
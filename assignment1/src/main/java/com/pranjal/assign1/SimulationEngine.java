@@ -1,5 +1,11 @@
 package com.pranjal.assign1;
 
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Orchestrates the complete producer-consumer simulation lifecycle.
  * 
@@ -12,10 +18,16 @@ package com.pranjal.assign1;
 public class SimulationEngine {
     
     private final Configuration config;
-    private final AdvancedBlockingQueue<Object> queue;
+    private final BoundedBlockingQueue<Object> queue;
+    private final BoundedBlockingQueue<Object> workQueue; // queue + wait-time stamps (+ write-ahead log, spill)
+    private final WriteAheadLog writeAheadLog; // Only when config enables it
+    private final SpillingQueue<Object> spillingQueue; // Only when config enables it
+    private final int recoveredItems;          // Replayed from the log of a previous run
+    private final Pipeline pipeline; // Only when config enables it; its stages replace the consumers
     private final ThreadManager threadManager;
     private final Dashboard dashboard;
-    private final SystemMetrics metrics;
+    private final MetricsCollector metrics;
+    private MetricsServer metricsServer; // Only when config enables the endpoint
     
     /**
      * Constructs simulation engine with validated configuration.
@@ -23,18 +35,63 @@ public class SimulationEngine {
      * 
      * @param config simulation parameters
      * @throws IllegalArgumentException if configuration invalid
+     * @throws IllegalStateException if the write-ahead log holds more items than the queue
+     * @throws UncheckedIOException if the write-ahead log or spill directory cannot be opened
      */
     public SimulationEngine(Configuration config) {
         this.config = config;
         config.validate();
         
         // Create shared components (no dependencies)
-        this.queue = new AdvancedBlockingQueue<>(config.getQueueCapacity());
-        this.metrics = new SystemMetrics(); // Breaks circular dependency
+        this.metrics = config.getMetricsType().create(); // Breaks circular dependency
+        WorkItemPool itemPool = config.createItemPool();
+        
+        if (config.isPipelineEnabled()) {
+            // Producers feed the first stage, which times queue residence itself;
+            // stage workers replace the consumers
+            this.pipeline = Pipeline.fromConfiguration(config, metrics, itemPool);
+            this.queue = pipeline.getStages().get(0).getQueue();
+            this.workQueue = pipeline.getInput();
+            this.writeAheadLog = null;
+            this.spillingQueue = null;
+            this.recoveredItems = 0;
+        } else {
+            this.pipeline = null;
+            this.queue = config.createQueue(); // Implementation chosen by QueueType
+            
+            // Workers see the queue through a decorator that times queue residence
+            // (unless the queue times it itself), wrapped in one that logs items
+            // to disk when durability is enabled or one that overflows to disk
+            // when spilling is enabled (never both)
+            BoundedBlockingQueue<Object> instrumented = InstrumentedQueue.instrument(queue, metrics);
+            BoundedBlockingQueue<Object> inMemory;
+            if (config.isWriteAheadLogEnabled()) {
+                this.writeAheadLog = openWriteAheadLog(config);
+                DurableQueue<Object> durable = new DurableQueue<>(instrumented, writeAheadLog, WalCodec.TEXT);
+                inMemory = durable;
+                this.recoveredItems = durable.getRecoveredCount();
+                Logger.log("SYSTEM", "Write-ahead log " + config.getWalDirectory() + ": replayed "
+                           + recoveredItems + " unconsumed items");
+            } else {
+                this.writeAheadLog = null;
+                inMemory = instrumented;
+                this.recoveredItems = 0;
+            }
+            if (config.isSpillEnabled()) {
+                this.spillingQueue = openSpillingQueue(config, inMemory, metrics);
+                this.workQueue = spillingQueue;
+            } else {
+                this.spillingQueue = null;
+                this.workQueue = inMemory;
+            }
+        }
         
         // Create dependent components
-        this.threadManager = new ThreadManager(queue, metrics);
-        this.dashboard = new Dashboard(queue, threadManager, metrics);
+        this.threadManager = new ThreadManager(workQueue, metrics, config.getConsumerBatchSize(),
+                                               config.getExecutorType(), config.getScalingPolicy().create(),
+                                               config.getMinConsumers(), config.getMaxConsumers(),
+                                               itemPool);
+        this.dashboard = new Dashboard(workQueue, threadManager, metrics);
     }
     
     /**
@@ -44,28 +101,53 @@ public class SimulationEngine {
         Logger.log("SYSTEM", "Initializing simulation with " + config);
         System.out.println("Starting System...");
         
+        startMetricsServer();
         dashboard.start();
-        threadManager.startConsumers(config.getNumberOfConsumers());
+        if (pipeline != null) {
+            pipeline.start();
+        } else {
+            threadManager.startConsumers(config.getNumberOfConsumers());
+        }
         threadManager.startProducers(config.getNumberOfProducers(), 
                                      config.getItemsPerProducer());
-        threadManager.runAutoScalerLoop();
+        if (pipeline != null) {
+            pipeline.runAutoScaler();
+        } else {
+            threadManager.runAutoScalerLoop();
+        }
     }
     
     /**
      * Waits for all expected items to be consumed.
-     * Polls metrics every 100ms.
+     * Returns the moment the last item is recorded; no polling.
      * 
      * @throws InterruptedException if interrupted while waiting
      */
     public void waitForCompletion() throws InterruptedException {
-        int totalExpected = config.getTotalExpectedItems();
+        waitForCompletion(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+    
+    /**
+     * Waits up to the given time for all expected items, plus any replayed
+     * from the write-ahead log, to be consumed.
+     * 
+     * @param timeout how long to wait before giving up
+     * @param unit the time unit of the timeout
+     * @return true if all items were consumed, false if timeout elapsed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean waitForCompletion(long timeout, TimeUnit unit) throws InterruptedException {
+        long totalExpected = (long) config.getTotalExpectedItems() + recoveredItems;
         Logger.log("SYSTEM", "Waiting for " + totalExpected + " items to be processed...");
         
-        while (metrics.getTotalConsumed() < totalExpected) {
-            Thread.sleep(100);
+        if (!threadManager.awaitConsumed(totalExpected, timeout, unit)) {
+            Logger.log(LogLevel.WARN, "SYSTEM", "Timed out with " + metrics.getTotalConsumed() + " of "
+                       + totalExpected + " items processed.");
+            return false;
         }
         
         Logger.log("SYSTEM", "All " + totalExpected + " items processed.");
+        return true;
     }
     
     /**
@@ -73,9 +155,12 @@ public class SimulationEngine {
      * 
      * Safe Shutdown Pattern (prevents deadlock):
      * 1. Stop producers and wait for them to finish
-     * 2. Insert poison pill (safe because queue can only shrink)
+     * 2. Close the queue, waking every consumer at once; queues that cannot
+     *    be closed get a poison pill instead (safe because queue can only shrink)
      * 3. Wait for consumers to drain and exit
      * 
+     * A pipeline is ended the same way, one stage at a time.
+     * 
      * @throws InterruptedException if interrupted during shutdown
      */
     public void shutdown() throws InterruptedException {
@@ -88,17 +173,87 @@ public class SimulationEngine {
         threadManager.shutdown(); // Waits for producers to finish
         Logger.log("SYSTEM", "All producers stopped. Queue can only shrink now.");
         
-        // Phase 2: Insert poison pill (safe now)
-        Logger.log("SYSTEM", "Inserting poison pill for consumers...");
-        queue.put(QueueCommand.POISON_PILL);
-        
-        // Phase 3: Wait for consumers
-        Logger.log("SYSTEM", "Waiting for consumers to finish draining queue...");
-        threadManager.waitForConsumers();
+        if (pipeline != null) {
+            // Phases 2 and 3 per stage: the first stage's input is ended, and
+            // each stage ends the next one's once it has drained
+            Logger.log("SYSTEM", "Ending pipeline input. Stages drain in order...");
+            pipeline.close();
+            if (!pipeline.awaitTermination(30, TimeUnit.SECONDS)) {
+                Logger.log("SYSTEM", "Timeout waiting for pipeline stages, forcing shutdown");
+                pipeline.shutdownNow();
+            }
+        } else {
+            // Phase 2: Close the queue; consumers drain it and then see end of stream
+            if (workQueue.close()) {
+                Logger.log("SYSTEM", "Queue closed. Consumers drain remaining items and exit.");
+            } else {
+                Logger.log("SYSTEM", "Queue cannot be closed. Inserting poison pill for consumers...");
+                workQueue.put(QueueCommand.POISON_PILL);
+            }
+            
+            // Phase 3: Wait for consumers
+            Logger.log("SYSTEM", "Waiting for consumers to finish draining queue...");
+            threadManager.waitForConsumers();
+        }
         
+        if (writeAheadLog != null) {
+            try {
+                writeAheadLog.close(); // Every item is consumed; a restart replays nothing
+            } catch (IOException e) {
+                Logger.log(LogLevel.WARN, "WAL", "Cannot close write-ahead log: " + e.getMessage());
+            }
+        }
+        if (metricsServer != null) {
+            metricsServer.stop();
+        }
         Logger.log("SYSTEM", "Shutdown complete - all workers stopped gracefully.");
     }
     
+    /**
+     * Opens the configured write-ahead log; failing to is fatal, since the
+     * run would otherwise silently lose the durability it asked for.
+     */
+    static WriteAheadLog openWriteAheadLog(Configuration config) {
+        try {
+            return WriteAheadLog.open(Paths.get(config.getWalDirectory()), config.getFsyncPolicy(),
+                                      config.getFsyncEvery());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open write-ahead log " + config.getWalDirectory(), e);
+        }
+    }
+    
+    /**
+     * Wraps the queue in one that spills to the configured directory. Like
+     * the write-ahead log, a directory that cannot be used is fatal.
+     */
+    static SpillingQueue<Object> openSpillingQueue(Configuration config, BoundedBlockingQueue<Object> queue,
+                                                   MetricsCollector metrics) {
+        try {
+            return new SpillingQueue<>(queue, Paths.get(config.getSpillDirectory()), WalCodec.TEXT, metrics);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open spill directory " + config.getSpillDirectory(), e);
+        }
+    }
+    
+    /**
+     * Starts the Prometheus endpoint if the configuration asks for one.
+     * A port that cannot be bound is reported and the simulation runs without it.
+     */
+    private void startMetricsServer() {
+        if (!config.isMetricsEndpointEnabled()) {
+            return;
+        }
+        try {
+            metricsServer = new MetricsServer(config.getMetricsPort(), metrics, queue, threadManager,
+                                              spillingQueue);
+            metricsServer.start();
+            System.out.println("Metrics: http://localhost:" + metricsServer.getPort() + "/metrics");
+        } catch (IOException e) {
+            Logger.log(LogLevel.WARN, "METRICS", "Cannot start metrics endpoint: " + e.getMessage());
+            System.out.println("WARNING: Metrics endpoint unavailable (" + e.getMessage() + ")");
+        }
+    }
+    
     /**
      * Runs complete simulation: start, wait, shutdown.
      */
@@ -119,50 +274,30 @@ public class SimulationEngine {
      * Shows configuration, execution results, and system statistics.
      */
     void printAnalysisResults() {
-        System.out.println("\n\n");
-        System.out.println("=".repeat(70));
-        System.out.println("                    SIMULATION ANALYSIS RESULTS");
-        System.out.println("=".repeat(70));
-        
-        // Configuration Summary
-        System.out.println("\n[CONFIGURATION]");
-        System.out.println("  Producers Started:        " + config.getNumberOfProducers());
-        System.out.println("  Items per Producer:       " + config.getItemsPerProducer());
-        System.out.println("  Consumers Started:        " + config.getNumberOfConsumers());
-        System.out.println("  Emergency Consumers Added: " + threadManager.getEmergencyConsumerCount());
-        System.out.println("  Queue Capacity:           " + config.getQueueCapacity());
-        System.out.println("  Total Items Expected:     " + config.getTotalExpectedItems());
-        
-        // Execution Results
-        System.out.println("\n[EXECUTION RESULTS]");
-        System.out.println("  Items Produced:           " + metrics.getTotalProduced());
-        System.out.println("  Items Consumed:           " + metrics.getTotalConsumed());
-        System.out.println("  Final Queue Size:         " + queue.getSize());
-        
-        // Calculate success metrics
-        int expected = config.getTotalExpectedItems();
-        long produced = metrics.getTotalProduced();
-        long consumed = metrics.getTotalConsumed();
-        boolean success = (consumed == expected);
-        
-        System.out.println("\n[ANALYSIS]");
-        System.out.println("  Production Rate:          " + 
-            String.format("%.1f%%", (produced * 100.0 / expected)));
-        System.out.println("  Consumption Rate:         " + 
-            String.format("%.1f%%", (consumed * 100.0 / expected)));
-        System.out.println("  Status:                   " + 
-            (success ? "SUCCESS - All items processed" : "INCOMPLETE"));
-        
-        // System Summary
-        int totalConsumersUsed = config.getNumberOfConsumers() + threadManager.getEmergencyConsumerCount();
-        System.out.println("\n[SYSTEM SUMMARY]");
-        System.out.println("  Total Consumers Used:     " + totalConsumersUsed + 
-            " (" + config.getNumberOfConsumers() + " initial + " + 
-            threadManager.getEmergencyConsumerCount() + " emergency)");
-        System.out.println("  Shutdown Status:          " + 
-            (threadManager.getProducerCount() == 0 && threadManager.getConsumerCount() == 0 ? 
-            "Clean (All threads terminated)" : "WARNING: Threads still active"));
-        
+        boolean clean = threadManager.getProducerCount() == 0 && threadManager.getConsumerCount() == 0
+                        && (pipeline == null || pipeline.getStages().stream().allMatch(PipelineStage::isDrained));
+        printAnalysisResults(System.out, "SIMULATION ANALYSIS RESULTS", config, metrics, queue.getSize(),
+                             threadManager.getEmergencyConsumerCount(), threadManager.getRetiredConsumerCount(),
+                             threadManager.getMinConsumers(), threadManager.getMaxConsumers(),
+                             threadManager.getScalingTimeline(), clean);
+        if (writeAheadLog != null) {
+            System.out.println("\n[DURABILITY]");
+            System.out.println("  Write-Ahead Log:          " + writeAheadLog.getDirectory().toAbsolutePath()
+                               + " (fsync " + config.getFsyncPolicy() + ":" + config.getFsyncEvery() + ")");
+            System.out.println("  Items Replayed:           " + recoveredItems);
+            System.out.println("  Committed Sequence:       " + writeAheadLog.getCommittedSequence());
+        }
+        if (pipeline != null) {
+            printPipeline(System.out, pipeline);
+        }
+        if (spillingQueue != null) {
+            System.out.println("\n[SPILL]");
+            System.out.println("  Spill Directory:          " + spillingQueue.getDirectory().toAbsolutePath());
+            System.out.println("  Items Spilled:            " + spillingQueue.getTotalSpilledItems()
+                               + " (" + spillingQueue.getSpilledItems() + " still on disk)");
+            System.out.println(String.format("  Bytes Spilled:            %,d", spillingQueue.getTotalSpilledBytes()));
+            System.out.println("  Page-In:                  " + metrics.getLatency(LatencyKind.PAGE_IN));
+        }
         System.out.println("\n" + "=".repeat(70));
         System.out.println("=".repeat(70) + "\n");
         
@@ -206,10 +341,132 @@ public class SimulationEngine {
         Logger.log("SYSTEM", "Analysis results printed to console.");
     }
     
-    public AdvancedBlockingQueue<Object> getQueue() {
+    /**
+     * Prints the analysis sections shared by the threaded and the
+     * discrete-event simulation, up to the closing rule.
+     * 
+     * @param out destination
+     * @param title report heading
+     * @param config simulation parameters
+     * @param metrics collector the workers recorded into
+     * @param finalQueueSize items left in the queue
+     * @param emergencyConsumers consumers started by the auto-scaler
+     * @param retiredConsumers consumers retired by the auto-scaler
+     * @param minConsumers auto-scaler lower bound
+     * @param maxConsumers auto-scaler upper bound
+     * @param timeline auto-scaler ticks
+     * @param clean whether every worker has stopped
+     */
+    static void printAnalysisResults(PrintStream out, String title, Configuration config, MetricsCollector metrics,
+                                     int finalQueueSize, int emergencyConsumers, int retiredConsumers,
+                                     int minConsumers, int maxConsumers, ScalingTimeline timeline, boolean clean) {
+        out.println("\n\n");
+        out.println("=".repeat(70));
+        out.println("                    " + title);
+        out.println("=".repeat(70));
+        
+        // Configuration Summary
+        out.println("\n[CONFIGURATION]");
+        out.println("  Producers Started:        " + config.getNumberOfProducers());
+        out.println("  Items per Producer:       " + config.getItemsPerProducer());
+        out.println("  Consumers Started:        " + config.getNumberOfConsumers());
+        out.println("  Emergency Consumers Added: " + emergencyConsumers);
+        out.println("  Queue Capacity:           " + config.getQueueCapacity());
+        out.println("  Total Items Expected:     " + config.getTotalExpectedItems());
+        
+        // Execution Results
+        out.println("\n[EXECUTION RESULTS]");
+        out.println("  Items Produced:           " + metrics.getTotalProduced());
+        out.println("  Items Consumed:           " + metrics.getTotalConsumed());
+        out.println("  Final Queue Size:         " + finalQueueSize);
+        
+        // Calculate success metrics
+        int expected = config.getTotalExpectedItems();
+        long produced = metrics.getTotalProduced();
+        long consumed = metrics.getTotalConsumed();
+        boolean success = (consumed >= expected); // Items replayed from a write-ahead log come on top
+        
+        out.println("\n[ANALYSIS]");
+        out.println("  Production Rate:          " + 
+            String.format("%.1f%%", (produced * 100.0 / expected)));
+        out.println("  Consumption Rate:         " + 
+            String.format("%.1f%%", (consumed * 100.0 / expected)));
+        out.println("  Status:                   " + 
+            (success ? "SUCCESS - All items processed" : "INCOMPLETE"));
+        out.println("  Items per Lock Acquisition: " + 
+            String.format("%.2f", metrics.getItemsPerLockAcquisition()) + 
+            " (consumer batch size " + config.getConsumerBatchSize() + ")");
+        
+        // Latency percentiles
+        out.println("\n[LATENCY]");
+        for (LatencyKind kind : LatencyKind.values()) {
+            out.println(String.format("  %-26s%s", kind.getLabel() + ":", metrics.getLatency(kind)));
+        }
+        
+        // Auto-scaling timeline and how closely depth tracked the policy's target
+        out.println("\n[AUTO-SCALING]");
+        out.println("  Policy:                   " + config.getScalingPolicy() + 
+            " (consumers " + minConsumers + ".." + maxConsumers + ")");
+        out.println("  Consumers Retired:        " + retiredConsumers);
+        timeline.print(out);
+        
+        // System Summary
+        int totalConsumersUsed = config.getNumberOfConsumers() + emergencyConsumers;
+        out.println("\n[SYSTEM SUMMARY]");
+        out.println("  Total Consumers Used:     " + totalConsumersUsed + 
+            " (" + config.getNumberOfConsumers() + " initial + " + 
+            emergencyConsumers + " emergency, " + 
+            retiredConsumers + " retired)");
+        out.println("  Shutdown Status:          " + 
+            (clean ? "Clean (All threads terminated)" : "WARNING: Threads still active"));
+    }
+    
+    /**
+     * Prints each stage's workers, throughput and where its time went, and
+     * the stage that limited the run.
+     * 
+     * @param out destination
+     * @param pipeline finished pipeline
+     */
+    static void printPipeline(PrintStream out, Pipeline pipeline) {
+        out.println("\n[PIPELINE]");
+        for (PipelineStage stage : pipeline.getStages()) {
+            MetricsCollector stageMetrics = stage.getMetrics();
+            out.println("  Stage " + stage.getSpec());
+            out.println(String.format("    Workers:                %d..%d, peak %d (%d started, %d retired)",
+                                      stage.getSpec().getMinWorkers(), stage.getSpec().getMaxWorkers(),
+                                      stage.getPeakWorkerCount(), stage.getStartedWorkerCount(),
+                                      stage.getRetiredWorkerCount()));
+            out.println("    Items Processed:        " + stageMetrics.getTotalConsumed());
+            out.println(String.format("    Busy:                   %.1f%%", stage.getOverallUtilization() * 100));
+            out.println("    Queue Wait:             " + stageMetrics.getLatency(LatencyKind.QUEUE_WAIT));
+            out.println("    Blocked Downstream:     " + stageMetrics.getLatency(LatencyKind.PRODUCER_BLOCK));
+        }
+        out.println("  Bottleneck:               " + pipeline.getOverallBottleneck().getName());
+    }
+    
+    public BoundedBlockingQueue<Object> getQueue() {
         return queue;
     }
     
+    /**
+     * Returns the pipeline the workers run.
+     * 
+     * @return pipeline, or null if consumers take from a single queue
+     */
+    public Pipeline getPipeline() {
+        return pipeline;
+    }
+    
+    /**
+     * Returns the running metrics endpoint.
+     * 
+     * @return metrics server, or null if disabled or not started
+     */
+    MetricsServer getMetricsServer() {
+        return metricsServer;
+    }
+    
     public ThreadManager getThreadManager() {
         return threadManager;
     }
@@ -0,0 +1,296 @@
+package com.pranjal.assign1;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Append-only FIFO of byte records in segment files, used by SpillingQueue
+ * to hold the items that do not fit in memory.
+ *
+ * Records are [int length][payload], appended through a write buffer to the
+ * newest segment and read back in order through a read buffer from the
+ * oldest. A segment that would pass the size limit is closed and the next
+ * one started; a segment read to its end is deleted. When every record has
+ * been read the current segment is truncated, so a spill that keeps
+ * emptying reuses one file instead of growing it.
+ *
+ * Spilled items are overflow, not a log: nothing is forced, and files left
+ * by a previous process are deleted on open. Not thread-safe; the owner
+ * serializes all calls.
+ *
+ * @author Pranjal
+ * @version 2.1
+ */
+final class SpillStore implements Closeable {
+
+    /** Default segment size, 16 MiB. */
+    static final int DEFAULT_SEGMENT_BYTES = 16 * 1024 * 1024;
+
+    static final int RECORD_HEADER_BYTES = Integer.BYTES; // length
+    private static final int BUFFER_BYTES = 64 * 1024;
+    private static final String SEGMENT_PREFIX = "spill-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final ByteBuffer writeBuffer = ByteBuffer.allocate(BUFFER_BYTES);
+    private final ByteBuffer readBuffer = ByteBuffer.allocate(BUFFER_BYTES).flip(); // Starts empty
+
+    private FileChannel writeChannel;
+    private long writeIndex;
+    private long writeSegmentSize; // Bytes appended to the write segment, buffered or not
+    private FileChannel readChannel;
+    private long readIndex;
+    private long readPosition;     // File offset of the next byte to load into readBuffer
+
+    private long records;
+    private long bytes;            // Unread record bytes, headers included
+    private boolean closed;
+
+    /**
+     * Opens a spill directory, creating it if needed and deleting any segments left in it.
+     *
+     * @param directory directory for the segment files
+     * @param segmentBytes size at which a segment is closed and the next one started
+     * @throws IllegalArgumentException if segmentBytes cannot hold a header and a byte of payload
+     * @throws IOException if the directory or first segment cannot be created
+     */
+    SpillStore(Path directory, int segmentBytes) throws IOException {
+        if (segmentBytes <= RECORD_HEADER_BYTES) {
+            throw new IllegalArgumentException("Segment size must exceed " + RECORD_HEADER_BYTES
+                                               + " bytes, got: " + segmentBytes);
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(directory);
+        List<Path> stale = listSegments();
+        for (Path file : stale) {
+            Files.delete(file);
+        }
+        if (!stale.isEmpty()) {
+            Logger.log(LogLevel.WARN, "SPILL", "Deleted " + stale.size() + " stale spill segments in " + directory);
+        }
+        this.writeChannel = FileChannel.open(segmentPath(0), StandardOpenOption.CREATE,
+                                             StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        this.readChannel = FileChannel.open(segmentPath(0), StandardOpenOption.READ);
+    }
+
+    /**
+     * Appends a record after all earlier ones.
+     *
+     * @param payload record bytes, not empty
+     * @throws IllegalArgumentException if the payload is empty or larger than a segment
+     * @throws IllegalStateException if the store is closed
+     * @throws IOException if a segment cannot be written or created
+     */
+    void append(byte[] payload) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("Spill store is closed: " + directory);
+        }
+        int recordBytes = RECORD_HEADER_BYTES + payload.length;
+        if (payload.length == 0 || recordBytes > segmentBytes) {
+            throw new IllegalArgumentException("Payload must be 1.." + (segmentBytes - RECORD_HEADER_BYTES)
+                                               + " bytes, got: " + payload.length);
+        }
+        if (writeSegmentSize + recordBytes > segmentBytes) {
+            roll();
+        }
+        if (writeBuffer.remaining() < recordBytes) {
+            flush();
+        }
+        if (writeBuffer.remaining() < recordBytes) {
+            // Larger than the buffer; flush() left it empty
+            ByteBuffer record = ByteBuffer.allocate(recordBytes).putInt(payload.length).put(payload).flip();
+            writeFully(record);
+        } else {
+            writeBuffer.putInt(payload.length).put(payload);
+        }
+        writeSegmentSize += recordBytes;
+        records++;
+        bytes += recordBytes;
+    }
+
+    /**
+     * Removes and returns the oldest record.
+     *
+     * @return record bytes, or null if the store is empty
+     * @throws IOException if a segment cannot be read or is shorter than its records
+     */
+    byte[] next() throws IOException {
+        if (records == 0) {
+            return null;
+        }
+        if (!readBuffer.hasRemaining() && readIndex < writeIndex && readPosition >= readChannel.size()) {
+            nextReadSegment();
+        }
+        if (readIndex == writeIndex) {
+            flush(); // The record may still be in the write buffer
+        }
+        fill(RECORD_HEADER_BYTES);
+        int length = readBuffer.getInt();
+        byte[] payload = new byte[length];
+        if (length > readBuffer.capacity()) {
+            int buffered = readBuffer.remaining();
+            readBuffer.get(payload, 0, buffered);
+            ByteBuffer rest = ByteBuffer.wrap(payload, buffered, length - buffered);
+            while (rest.hasRemaining()) {
+                int read = readChannel.read(rest, readPosition);
+                if (read <= 0) {
+                    throw truncated();
+                }
+                readPosition += read;
+            }
+        } else {
+            fill(length);
+            readBuffer.get(payload);
+        }
+        records--;
+        bytes -= RECORD_HEADER_BYTES + length;
+        if (records == 0 && readIndex == writeIndex) {
+            rewind();
+        }
+        return payload;
+    }
+
+    /**
+     * Returns the number of records not yet read.
+     *
+     * @return record count
+     */
+    long getRecordCount() {
+        return records;
+    }
+
+    /**
+     * Returns the size of the unread records, headers included.
+     *
+     * @return bytes waiting on disk
+     */
+    long getByteCount() {
+        return bytes;
+    }
+
+    Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Returns how many segment files exist, for tests.
+     *
+     * @return segment count
+     */
+    int getSegmentCount() throws IOException {
+        return listSegments().size();
+    }
+
+    /**
+     * Closes the files and deletes every segment, read or not.
+     *
+     * @throws IOException if a segment cannot be deleted
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        writeChannel.close();
+        readChannel.close();
+        for (Path file : listSegments()) {
+            Files.delete(file);
+        }
+        records = 0;
+        bytes = 0;
+    }
+
+    /**
+     * Ensures readBuffer holds at least n bytes, loading from the read segment.
+     */
+    private void fill(int n) throws IOException {
+        if (readBuffer.remaining() >= n) {
+            return;
+        }
+        readBuffer.compact();
+        while (readBuffer.position() < n) {
+            int read = readChannel.read(readBuffer, readPosition);
+            if (read <= 0) {
+                readBuffer.flip();
+                throw truncated();
+            }
+            readPosition += read;
+        }
+        readBuffer.flip();
+    }
+
+    private void flush() throws IOException {
+        writeBuffer.flip();
+        writeFully(writeBuffer);
+        writeBuffer.clear();
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            writeChannel.write(buffer);
+        }
+    }
+
+    /**
+     * Starts the next write segment.
+     */
+    private void roll() throws IOException {
+        flush();
+        writeChannel.close();
+        writeIndex++;
+        writeChannel = FileChannel.open(segmentPath(writeIndex), StandardOpenOption.CREATE_NEW,
+                                        StandardOpenOption.WRITE);
+        writeSegmentSize = 0;
+    }
+
+    /**
+     * Deletes the fully read segment and moves to the next one.
+     */
+    private void nextReadSegment() throws IOException {
+        readChannel.close();
+        Files.delete(segmentPath(readIndex));
+        readIndex++;
+        readChannel = FileChannel.open(segmentPath(readIndex), StandardOpenOption.READ);
+        readPosition = 0;
+    }
+
+    /**
+     * Empties the single remaining segment once everything in it has been read.
+     */
+    private void rewind() throws IOException {
+        writeChannel.truncate(0);
+        writeChannel.position(0);
+        writeSegmentSize = 0;
+        readPosition = 0;
+        readBuffer.clear().flip();
+    }
+
+    private IOException truncated() {
+        return new IOException("Spill segment " + segmentPath(readIndex) + " ends before record "
+                               + "at offset " + readPosition + " (" + records + " records unread)");
+    }
+
+    private Path segmentPath(long index) {
+        return directory.resolve(String.format("%s%06d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> {
+                String name = p.getFileName().toString();
+                return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+            }).collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package com.pranjal.assign1;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Decorator that lets a BoundedBlockingQueue overflow to disk instead of
+ * blocking its producers.
+ *
+ * While the delegate has room, items go straight into it. An insert that
+ * finds it full is appended to a {@link SpillStore} instead, and from then on
+ * every insert is, until the spill has drained, so items keep their FIFO
+ * order. Consumers page spilled items back in: a take that finds the
+ * delegate at or below half full refills it from disk in one batch, timed as
+ * {@link LatencyKind#PAGE_IN}. Producers that spill also page in when memory
+ * has drained, so a lagging consumer never leaves work stuck on disk. Heap
+ * use stays bounded by the delegate's capacity; disk use is not bounded.
+ *
+ * put and offer therefore never wait for space. getSize counts spilled items
+ * too and can exceed getCapacity, which stays the in-memory capacity.
+ * Queue wait measured below this decorator counts from an item's page-in.
+ *
+ * close() rejects further inserts at once, but hands end of stream to the
+ * delegate only after the last spilled item is paged in, so consumers drain
+ * the disk before they stop. A delegate that cannot be closed gets a poison
+ * pill at that point, and close() returns true either way. The spill files
+ * are deleted then. Control objects ({@link QueueCommand}) go straight to the
+ * delegate, ahead of anything spilled.
+ *
+ * @param <T> the type of elements held in this queue
+ * @author Pranjal
+ * @version 2.1
+ */
+public class SpillingQueue<T> implements BoundedBlockingQueue<T> {
+
+    private final BoundedBlockingQueue<Object> delegate;
+    private final SpillStore store; // Guarded by spillLock
+    private final WalCodec<T> codec;
+    private final MetricsCollector metrics;
+    private final ReentrantLock spillLock = new ReentrantLock();
+    private final int pageInThreshold;
+    private Object pending; // Read from disk, not yet accepted by the delegate; guarded by spillLock
+
+    // Written under spillLock; volatile for the lock-free fast path and gauges
+    private volatile long spilledItems; // On disk or pending
+    private volatile long spilledBytes;
+    private volatile long totalSpilledItems;
+    private volatile long totalSpilledBytes;
+    private volatile boolean closed;
+    private volatile boolean closePending; // Closed, end of stream not yet handed to the delegate
+
+    /**
+     * Wraps a queue, spilling to segment files of the default size.
+     *
+     * @param delegate in-memory queue
+     * @param directory directory for the spill files; stale ones are deleted
+     * @param codec converts items to spill records and back
+     * @param metrics receives page-in latency samples
+     * @throws IOException if the directory cannot be prepared
+     */
+    public SpillingQueue(BoundedBlockingQueue<Object> delegate, Path directory, WalCodec<T> codec,
+                         MetricsCollector metrics) throws IOException {
+        this(delegate, directory, codec, metrics, SpillStore.DEFAULT_SEGMENT_BYTES);
+    }
+
+    SpillingQueue(BoundedBlockingQueue<Object> delegate, Path directory, WalCodec<T> codec,
+                  MetricsCollector metrics, int segmentBytes) throws IOException {
+        this.delegate = delegate;
+        this.codec = codec;
+        this.metrics = metrics;
+        this.pageInThreshold = delegate.getCapacity() / 2;
+        this.store = new SpillStore(directory, segmentBytes);
+    }
+
+    @Override
+    public void put(T item) throws InterruptedException {
+        if (item instanceof QueueCommand) {
+            delegate.put(item);
+            return;
+        }
+        insert(item);
+    }
+
+    @Override
+    public T take() throws InterruptedException {
+        pageInIfLow();
+        return cast(delegate.take());
+    }
+
+    /**
+     * Inserts an item. Only control objects can time out; items spill instead.
+     */
+    @Override
+    public boolean offer(T item, long timeout, TimeUnit unit) throws InterruptedException {
+        if (item instanceof QueueCommand) {
+            return delegate.offer(item, timeout, unit);
+        }
+        insert(item);
+        return true;
+    }
+
+    @Override
+    public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+        pageInIfLow();
+        return cast(delegate.poll(timeout, unit));
+    }
+
+    @Override
+    public int drainTo(Collection<? super T> target, int maxElements) {
+        try {
+            pageInIfLow();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Drain what memory holds
+        }
+        return delegate.drainTo(sink(target), maxElements);
+    }
+
+    @Override
+    public int takeBatch(Collection<? super T> target, int maxElements,
+                         long timeout, TimeUnit unit) throws InterruptedException {
+        pageInIfLow();
+        return delegate.takeBatch(sink(target), maxElements, timeout, unit);
+    }
+
+    @Override
+    public void acknowledge() {
+        delegate.acknowledge();
+    }
+
+    @Override
+    public boolean setWatermarkListener(int highWatermark, int lowWatermark, WatermarkListener listener) {
+        return delegate.setWatermarkListener(highWatermark, lowWatermark, listener);
+    }
+
+    /**
+     * Rejects further inserts and ends the stream once the spill is drained.
+     *
+     * @return true
+     */
+    @Override
+    public boolean close() {
+        spillLock.lock();
+        try {
+            if (!closed) {
+                closed = true;
+                closePending = true;
+            }
+            finishCloseLocked();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // A later page-in finishes it
+        } finally {
+            spillLock.unlock();
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Returns the items in memory plus those spilled to disk.
+     *
+     * @return total queued items, capped at Integer.MAX_VALUE
+     */
+    @Override
+    public int getSize() {
+        return (int) Math.min(Integer.MAX_VALUE, delegate.getSize() + spilledItems);
+    }
+
+    @Override
+    public int getCapacity() {
+        return delegate.getCapacity();
+    }
+
+    /**
+     * Returns the number of items currently spilled and not yet paged in.
+     *
+     * @return spilled item count
+     */
+    public long getSpilledItems() {
+        return spilledItems;
+    }
+
+    /**
+     * Returns the bytes of spilled records still on disk.
+     *
+     * @return spill file bytes not yet paged in
+     */
+    public long getSpilledBytes() {
+        return spilledBytes;
+    }
+
+    public long getTotalSpilledItems() {
+        return totalSpilledItems;
+    }
+
+    /**
+     * Returns the bytes written to spill files since construction.
+     *
+     * @return cumulative spilled bytes
+     */
+    public long getTotalSpilledBytes() {
+        return totalSpilledBytes;
+    }
+
+    public Path getDirectory() {
+        return store.getDirectory();
+    }
+
+    /**
+     * Returns how many spill segment files exist, for tests.
+     */
+    int getSegmentCount() throws IOException {
+        spillLock.lock();
+        try {
+            return store.getSegmentCount();
+        } finally {
+            spillLock.unlock();
+        }
+    }
+
+    /**
+     * Adds an item to memory if nothing is spilled and there is room,
+     * otherwise to the spill.
+     */
+    private void insert(T item) throws InterruptedException {
+        if (item == null) {
+            throw new NullPointerException("Cannot add null elements to queue");
+        }
+        if (!closed && spilledItems == 0 && delegate.offer(item, 0, TimeUnit.NANOSECONDS)) {
+            return;
+        }
+        byte[] payload = codec.encode(item);
+        spillLock.lockInterruptibly();
+        try {
+            if (closed) {
+                throw new QueueClosedException("Queue is closed: put");
+            }
+            if (spilledItems == 0 && delegate.offer(item, 0, TimeUnit.NANOSECONDS)) {
+                return; // Consumers made room since the first attempt
+            }
+            try {
+                store.append(payload);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Spill append to " + store.getDirectory() + " failed", e);
+            }
+            spilledItems++;
+            spilledBytes = store.getByteCount();
+            totalSpilledItems++;
+            totalSpilledBytes += SpillStore.RECORD_HEADER_BYTES + payload.length;
+            if (delegate.getSize() <= pageInThreshold) {
+                pageInLocked(); // Consumers are ahead of the disk
+            }
+        } finally {
+            spillLock.unlock();
+        }
+    }
+
+    /**
+     * Pages in if anything is spilled and memory is at or below half full.
+     * A consumer facing an empty delegate waits for the lock; otherwise it
+     * leaves the page-in to whoever holds it and takes from memory.
+     */
+    private void pageInIfLow() throws InterruptedException {
+        if (spilledItems == 0 && !closePending) {
+            return;
+        }
+        int size = delegate.getSize();
+        if (size > pageInThreshold) {
+            return;
+        }
+        if (size == 0) {
+            spillLock.lockInterruptibly();
+        } else if (!spillLock.tryLock()) {
+            return;
+        }
+        try {
+            pageInLocked();
+        } finally {
+            spillLock.unlock();
+        }
+    }
+
+    /**
+     * Moves spilled items into the delegate, oldest first, until it is full
+     * or the spill is empty. Caller holds spillLock.
+     */
+    private void pageInLocked() throws InterruptedException {
+        long start = System.nanoTime();
+        int moved = 0;
+        try {
+            while (spilledItems > 0) {
+                if (pending == null) {
+                    pending = codec.decode(store.next());
+                }
+                if (!delegate.offer(pending, 0, TimeUnit.NANOSECONDS)) {
+                    break;
+                }
+                pending = null;
+                spilledItems--;
+                moved++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Spill page-in from " + store.getDirectory() + " failed", e);
+        } finally {
+            spilledBytes = store.getByteCount();
+            if (moved > 0) {
+                metrics.recordLatency(LatencyKind.PAGE_IN, System.nanoTime() - start);
+            }
+        }
+        finishCloseLocked();
+    }
+
+    /**
+     * Once closed and drained, closes the delegate (or queues a poison pill
+     * if it cannot be closed) and deletes the spill files. Caller holds spillLock.
+     */
+    private void finishCloseLocked() throws InterruptedException {
+        if (!closePending || spilledItems > 0) {
+            return;
+        }
+        if (!delegate.close() && !delegate.offer(QueueCommand.POISON_PILL, 0, TimeUnit.NANOSECONDS)) {
+            return; // Memory is full; the next page-in retries
+        }
+        closePending = false;
+        try {
+            store.close();
+        } catch (IOException e) {
+            Logger.log(LogLevel.WARN, "SPILL", "Cannot delete spill files: " + e.getMessage());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private T cast(Object element) {
+        return (T) element;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Collection<Object> sink(Collection<? super T> target) {
+        return (Collection<Object>) target;
+    }
+}
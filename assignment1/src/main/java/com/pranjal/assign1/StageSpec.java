@@ -0,0 +1,129 @@
+package com.pranjal.assign1;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Immutable description of one {@link Pipeline} stage: its name, worker
+ * bounds and per-item service time.
+ *
+ * The text form is "name:workers[..max][:serviceTime]", e.g.
+ * "enrich:2..6:exp:120". Without a max the auto-scaler may add up to
+ * {@link #DEFAULT_HEADROOM} workers; without a service time the consumer
+ * default applies. A pipeline is stages separated by ';'.
+ *
+ * @author Pranjal
+ * @version 2.1
+ */
+public final class StageSpec {
+
+    /** Workers the auto-scaler may add to a stage whose max is not given. */
+    public static final int DEFAULT_HEADROOM = 3;
+
+    private final String name;
+    private final int minWorkers;
+    private final int maxWorkers;
+    private final ThinkTime serviceTime;
+
+    /**
+     * Creates a stage description.
+     *
+     * @param name stage name, used for its workers and in reports
+     * @param minWorkers workers started, and the fewest the auto-scaler keeps
+     * @param maxWorkers most workers the auto-scaler runs
+     * @param serviceTime simulated processing time per item, must not be null
+     * @throws IllegalArgumentException if the name is blank or contains ':' or ';',
+     *         or the bounds do not satisfy 1 <= min <= max
+     * @throws NullPointerException if name or serviceTime is null
+     */
+    public StageSpec(String name, int minWorkers, int maxWorkers, ThinkTime serviceTime) {
+        if (name == null || serviceTime == null) {
+            throw new NullPointerException("Stage name and service time must not be null");
+        }
+        if (name.isBlank() || name.contains(":") || name.contains(";")) {
+            throw new IllegalArgumentException("Stage name must be non-empty without ':' or ';', got: '" + name + "'");
+        }
+        if (minWorkers < 1 || minWorkers > maxWorkers) {
+            throw new IllegalArgumentException("Stage " + name + " workers must satisfy 1 <= min <= max, got: "
+                                               + minWorkers + ".." + maxWorkers);
+        }
+        this.name = name;
+        this.minWorkers = minWorkers;
+        this.maxWorkers = maxWorkers;
+        this.serviceTime = serviceTime;
+    }
+
+    /**
+     * Parses one stage, "name:workers[..max][:serviceTime]".
+     *
+     * @param text stage specification
+     * @return parsed stage
+     * @throws IllegalArgumentException if text is malformed or out of range
+     */
+    public static StageSpec parse(String text) {
+        String[] parts = text.trim().split(":", 3);
+        if (parts.length < 2) {
+            throw new IllegalArgumentException("Stage must be name:workers[..max][:serviceTime], got: " + text);
+        }
+        String workers = parts[1];
+        int range = workers.indexOf("..");
+        try {
+            int min = Integer.parseInt(range < 0 ? workers : workers.substring(0, range));
+            int max = range < 0 ? min + DEFAULT_HEADROOM : Integer.parseInt(workers.substring(range + 2));
+            ThinkTime serviceTime = parts.length == 3 ? ThinkTime.parse(parts[2]) : ThinkTime.CONSUMER_DEFAULT;
+            return new StageSpec(parts[0], min, max, serviceTime);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Stage workers must be n or min..max, got: " + text);
+        }
+    }
+
+    /**
+     * Parses a pipeline, stages separated by ';' in processing order.
+     *
+     * @param text pipeline specification
+     * @return stages, unmodifiable
+     * @throws IllegalArgumentException if a stage is malformed, a name repeats or there are no stages
+     */
+    public static List<StageSpec> parseAll(String text) {
+        List<StageSpec> stages = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+        for (String part : text.split(";")) {
+            if (part.isBlank()) {
+                continue;
+            }
+            StageSpec stage = parse(part);
+            if (!names.add(stage.getName())) {
+                throw new IllegalArgumentException("Duplicate stage name: " + stage.getName());
+            }
+            stages.add(stage);
+        }
+        if (stages.isEmpty()) {
+            throw new IllegalArgumentException("Pipeline needs at least one stage, got: '" + text + "'");
+        }
+        return Collections.unmodifiableList(stages);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMinWorkers() {
+        return minWorkers;
+    }
+
+    public int getMaxWorkers() {
+        return maxWorkers;
+    }
+
+    public ThinkTime getServiceTime() {
+        return serviceTime;
+    }
+
+    @Override
+    public String toString() {
+        return name + ":" + minWorkers + ".." + maxWorkers + ":" + serviceTime;
+    }
+}
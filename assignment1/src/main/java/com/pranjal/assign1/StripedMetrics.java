@@ -0,0 +1,106 @@
+package com.pranjal.assign1;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics collection using LongAdder (striped counters) for thread safety.
+ * 
+ * Same contract as SystemMetrics, but each increment lands on a per-thread
+ * cell instead of one shared AtomicLong, so dozens of producers and
+ * consumers no longer bounce a single cache line on every item.
+ * 
+ * Reads sum the cells. A sum taken while increments are in flight may miss
+ * them, but never over-counts and never goes backwards, and it is exact once
+ * the increments have returned - enough for SimulationEngine.waitForCompletion,
+ * which only waits for the consumed count to reach its target.
+ * 
+ * @author Pranjal
+ * @version 2.1
+ */
+public class StripedMetrics implements MetricsCollector {
+    
+    private final LongAdder producedTotal = new LongAdder();
+    private final LongAdder consumedTotal = new LongAdder();
+    
+    // Batch consumption: one lock acquisition per batch
+    private final LongAdder batchCount = new LongAdder();
+    private final LongAdder batchedItems = new LongAdder();
+    
+    // Wakes awaitConsumed callers from the consuming thread
+    private final ConsumptionLatch completion = new ConsumptionLatch(consumedTotal::sum);
+    
+    // One lock-free histogram per LatencyKind
+    private final LatencyHistogram[] latencies = LatencyHistogram.perKind();
+    
+    @Override
+    public void recordProduction() {
+        producedTotal.increment();
+    }
+    
+    @Override
+    public void recordConsumption() {
+        consumedTotal.increment();
+        completion.consumed();
+    }
+    
+    @Override
+    public void recordBatchConsumption(int items) {
+        if (items <= 0) {
+            return;
+        }
+        consumedTotal.add(items);
+        completion.consumed();
+        batchedItems.add(items);
+        batchCount.increment();
+    }
+    
+    @Override
+    public long getTotalProduced() {
+        return producedTotal.sum();
+    }
+    
+    @Override
+    public long getTotalConsumed() {
+        return consumedTotal.sum();
+    }
+    
+    @Override
+    public boolean awaitConsumed(long target, long timeout, TimeUnit unit) throws InterruptedException {
+        return completion.await(target, timeout, unit);
+    }
+    
+    /**
+     * Single-item consumptions count as one acquisition each,
+     * batches count as one acquisition for all their items.
+     */
+    @Override
+    public double getItemsPerLockAcquisition() {
+        // Read batch counters first: consumedTotal is bumped before them,
+        // so it can never lag behind what they report
+        long batches = batchCount.sum();
+        long batched = batchedItems.sum();
+        long consumed = consumedTotal.sum();
+        long acquisitions = (consumed - batched) + batches;
+        return acquisitions <= 0 ? 0.0 : (double) consumed / acquisitions;
+    }
+    
+    /**
+     * Returns the number of batch consumptions recorded.
+     * 
+     * @return batch count, never negative
+     */
+    public long getBatchCount() {
+        return batchCount.sum();
+    }
+    
+    @Override
+    public void recordLatency(LatencyKind kind, long nanos) {
+        latencies[kind.ordinal()].record(nanos);
+    }
+    
+    @Override
+    public LatencySnapshot getLatency(LatencyKind kind) {
+        return latencies[kind.ordinal()].snapshot();
+    }
+}
@@ -1,5 +1,6 @@
 package com.pranjal.assign1;
 
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -17,6 +18,16 @@ public class SystemMetrics implements MetricsCollector {
     private final AtomicLong producedTotal = new AtomicLong(0);
     private final AtomicLong consumedTotal = new AtomicLong(0);
     
+    // Batch consumption: one lock acquisition per batch
+    private final AtomicLong batchCount = new AtomicLong(0);
+    private final AtomicLong batchedItems = new AtomicLong(0);
+    
+    // Wakes awaitConsumed callers from the consuming thread
+    private final ConsumptionLatch completion = new ConsumptionLatch(consumedTotal::get);
+    
+    // One lock-free histogram per LatencyKind
+    private final LatencyHistogram[] latencies = LatencyHistogram.perKind();
+    
     @Override
     public void recordProduction() {
         producedTotal.incrementAndGet();
@@ -25,6 +36,18 @@ public class SystemMetrics implements MetricsCollector {
     @Override
     public void recordConsumption() {
         consumedTotal.incrementAndGet();
+        completion.consumed();
+    }
+    
+    @Override
+    public void recordBatchConsumption(int items) {
+        if (items <= 0) {
+            return;
+        }
+        consumedTotal.addAndGet(items);
+        completion.consumed();
+        batchedItems.addAndGet(items);
+        batchCount.incrementAndGet();
     }
     
     @Override
@@ -36,4 +59,43 @@ public class SystemMetrics implements MetricsCollector {
     public long getTotalConsumed() {
         return consumedTotal.get();
     }
+    
+    @Override
+    public boolean awaitConsumed(long target, long timeout, TimeUnit unit) throws InterruptedException {
+        return completion.await(target, timeout, unit);
+    }
+    
+    /**
+     * Single-item consumptions count as one acquisition each,
+     * batches count as one acquisition for all their items.
+     */
+    @Override
+    public double getItemsPerLockAcquisition() {
+        // Read batch counters first: consumedTotal is bumped before them,
+        // so it can never lag behind what they report
+        long batches = batchCount.get();
+        long batched = batchedItems.get();
+        long consumed = consumedTotal.get();
+        long acquisitions = (consumed - batched) + batches;
+        return acquisitions <= 0 ? 0.0 : (double) consumed / acquisitions;
+    }
+    
+    /**
+     * Returns the number of batch consumptions recorded.
+     * 
+     * @return batch count, never negative
+     */
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+    
+    @Override
+    public void recordLatency(LatencyKind kind, long nanos) {
+        latencies[kind.ordinal()].record(nanos);
+    }
+    
+    @Override
+    public LatencySnapshot getLatency(LatencyKind kind) {
+        return latencies[kind.ordinal()].snapshot();
+    }
 }
@@ -0,0 +1,107 @@
+package com.pranjal.assign1;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulated work time a worker spends per item, drawn from a TimeDistribution.
+ *
+ * For producers it is the inter-arrival time of each producer's stream, for
+ * consumers the service time. The simulation's uniform defaults keep runs
+ * slow enough to watch on the dashboard; {@link #NONE} removes the sleep
+ * entirely so benchmarks measure the queue.
+ *
+ * @author Pranjal
+ * @version 2.1
+ */
+public final class ThinkTime {
+
+    /** No pause at all. */
+    public static final ThinkTime NONE = new ThinkTime(Distributions.constant(0));
+
+    /** Original producer pause, uniform 50-150ms per item. */
+    public static final ThinkTime PRODUCER_DEFAULT = new ThinkTime(50, 150);
+
+    /** Original consumer pause, uniform 50-250ms per item. */
+    public static final ThinkTime CONSUMER_DEFAULT = new ThinkTime(50, 250);
+
+    private final TimeDistribution distribution;
+
+    /**
+     * Creates a uniform think time range.
+     *
+     * @param minMillis shortest pause, inclusive
+     * @param maxMillis longest pause, exclusive; equal to min for a fixed pause
+     * @throws IllegalArgumentException if min is negative or max is less than min
+     */
+    public ThinkTime(int minMillis, int maxMillis) {
+        this(Distributions.uniform(minMillis, maxMillis));
+    }
+
+    /**
+     * Creates a think time drawn from any distribution.
+     *
+     * @param distribution source of pause durations, must not be null
+     * @throws NullPointerException if distribution is null
+     */
+    public ThinkTime(TimeDistribution distribution) {
+        if (distribution == null) {
+            throw new NullPointerException("Distribution must not be null");
+        }
+        this.distribution = distribution;
+    }
+
+    /**
+     * Parses "n" (fixed), "min-max" (uniform) milliseconds, or any
+     * {@link Distributions#parse(String) distribution} such as "exp:20".
+     *
+     * @param text think time specification
+     * @return parsed think time
+     * @throws IllegalArgumentException if text is malformed or out of range
+     */
+    public static ThinkTime parse(String text) {
+        if (text.indexOf(':') >= 0) {
+            return new ThinkTime(Distributions.parse(text));
+        }
+        try {
+            int dash = text.indexOf('-', 1);
+            if (dash < 0) {
+                int fixed = Integer.parseInt(text.trim());
+                return fixed == 0 ? NONE : new ThinkTime(fixed, fixed);
+            }
+            return new ThinkTime(Integer.parseInt(text.substring(0, dash).trim()),
+                                 Integer.parseInt(text.substring(dash + 1).trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Think time must be <ms>, <min>-<max> or <kind>:<params>, got: " + text);
+        }
+    }
+
+    /**
+     * Sleeps for the next sampled time; returns at once for a zero sample.
+     *
+     * @throws InterruptedException if interrupted while sleeping
+     */
+    public void pause() throws InterruptedException {
+        long nanos = distribution.nextNanos();
+        if (nanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        }
+    }
+
+    public TimeDistribution getDistribution() {
+        return distribution;
+    }
+
+    /**
+     * Returns the mean pause.
+     *
+     * @return milliseconds, 0 for {@link #NONE}
+     */
+    public double getMeanMillis() {
+        return distribution.getMeanNanos() / 1e6;
+    }
+
+    @Override
+    public String toString() {
+        return distribution.toString();
+    }
+}
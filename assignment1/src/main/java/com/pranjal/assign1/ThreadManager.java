@@ -1,9 +1,13 @@
 package com.pranjal.assign1;
 
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -11,14 +15,35 @@ import java.util.concurrent.atomic.AtomicInteger;
  * 
  * Handles producers, consumers, and auto-scaling monitor using thread pools.
  * Implements safe shutdown pattern to prevent deadlocks.
+ * Auto-scaler decisions and consumer start/stop are emitted as
+ * {@link QueueEvents} JFR events.
+ * Producers and consumers run on platform or virtual threads, selected
+ * via {@link ExecutorType}; the auto-scaler always uses a platform thread.
+ * The auto-scaler measures arrival rate, service rate and queue depth each
+ * interval and asks a {@link ScalingPolicy} how many consumers to run within
+ * min/max bounds. Scaling down retires the newest consumers, which exit
+ * after their current item without a poison pill. Only consumers started
+ * beyond the minimum get a retire signal; the others block in take()
+ * instead of polling for it.
+ * Queues that support watermarks also trigger an immediate tick when their
+ * size crosses the high or low watermark, so bursts are handled within
+ * microseconds instead of waiting for the next interval.
  * 
  * @author Pranjal
  * @version 2.1
  */
 public class ThreadManager {
 
-    private final AdvancedBlockingQueue<Object> queue;
+    // Watermarks as fractions of capacity: high is the first size above 75% load
+    static final double HIGH_WATERMARK = 0.75;
+    static final double LOW_WATERMARK = 0.25;
+    // Event ticks closer together than this reuse the previous rates
+    static final long MIN_RATE_WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final BoundedBlockingQueue<Object> queue;
     private final MetricsCollector metrics;
+    private final int consumerBatchSize;
+    private final WorkItemPool itemPool; // null = workers allocate every item
     
     // Thread pools for different worker types
     private final ExecutorService producerPool;
@@ -29,6 +54,36 @@ public class ThreadManager {
     private final AtomicInteger producerCount = new AtomicInteger(0);
     private final AtomicInteger consumerCount = new AtomicInteger(0);
     private final AtomicInteger emergencyConsumerCount = new AtomicInteger(0);
+    private final AtomicInteger retiredConsumerCount = new AtomicInteger(0);
+    
+    // Auto-scaling: policy, bounds, and consumers it may retire (newest last)
+    private final ScalingPolicy scalingPolicy;
+    private final int minConsumers;
+    private final int maxConsumers;
+    private final ScalingTimeline timeline;
+    private final Deque<ConsumerHandle> activeConsumers = new ConcurrentLinkedDeque<>();
+    private final AtomicBoolean scalePending = new AtomicBoolean(false);
+    private volatile boolean watermarkDriven = false;
+    
+    // Previous sample; only touched by the auto-scaler thread
+    private long scalerStartNanos;
+    private long lastSampleNanos;
+    private long lastProduced;
+    private long lastConsumed;
+    private double arrivalRate;
+    private double serviceRate;
+    private double serviceRatePerConsumer;
+
+    /**
+     * Constructs ThreadManager with a new queue built from the configuration.
+     * 
+     * @param config configuration selecting queue type and capacity
+     * @param metrics metrics collector for workers
+     */
+    public ThreadManager(Configuration config, MetricsCollector metrics) {
+        this(config.createQueue(), metrics, config.getConsumerBatchSize(), config.getExecutorType(),
+             config.getScalingPolicy().create(), config.getMinConsumers(), config.getMaxConsumers());
+    }
 
     /**
      * Constructs ThreadManager with specified queue and metrics.
@@ -36,22 +91,88 @@ public class ThreadManager {
      * @param queue shared blocking queue
      * @param metrics metrics collector for workers
      */
-    public ThreadManager(AdvancedBlockingQueue<Object> queue, MetricsCollector metrics) {
+    public ThreadManager(BoundedBlockingQueue<Object> queue, MetricsCollector metrics) {
+        this(queue, metrics, 1);
+    }
+
+    /**
+     * Constructs ThreadManager whose consumers take items in batches.
+     * 
+     * @param queue shared blocking queue
+     * @param metrics metrics collector for workers
+     * @param consumerBatchSize maximum items per consumer take (1 = one at a time)
+     */
+    public ThreadManager(BoundedBlockingQueue<Object> queue, MetricsCollector metrics, 
+                        int consumerBatchSize) {
+        this(queue, metrics, consumerBatchSize, ExecutorType.PLATFORM);
+    }
+
+    /**
+     * Constructs ThreadManager running workers on the given kind of thread.
+     * 
+     * @param queue shared blocking queue
+     * @param metrics metrics collector for workers
+     * @param consumerBatchSize maximum items per consumer take (1 = one at a time)
+     * @param executorType platform or virtual worker threads
+     * @throws UnsupportedOperationException if the JVM does not support executorType
+     */
+    public ThreadManager(BoundedBlockingQueue<Object> queue, MetricsCollector metrics, 
+                        int consumerBatchSize, ExecutorType executorType) {
+        this(queue, metrics, consumerBatchSize, executorType, new ThresholdScalingPolicy(), 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Constructs ThreadManager with an explicit auto-scaling policy.
+     * 
+     * @param queue shared blocking queue
+     * @param metrics metrics collector for workers
+     * @param consumerBatchSize maximum items per consumer take (1 = one at a time)
+     * @param executorType platform or virtual worker threads
+     * @param scalingPolicy decides the consumer count on each auto-scaler tick
+     * @param minConsumers the auto-scaler never retires below this
+     * @param maxConsumers the auto-scaler never starts more than this
+     * @throws IllegalArgumentException if the bounds are negative or min exceeds max
+     * @throws UnsupportedOperationException if the JVM does not support executorType
+     */
+    public ThreadManager(BoundedBlockingQueue<Object> queue, MetricsCollector metrics, 
+                        int consumerBatchSize, ExecutorType executorType,
+                        ScalingPolicy scalingPolicy, int minConsumers, int maxConsumers) {
+        this(queue, metrics, consumerBatchSize, executorType, scalingPolicy, minConsumers, maxConsumers, null);
+    }
+
+    /**
+     * Constructs ThreadManager whose workers recycle work items through a pool.
+     * 
+     * @param queue shared blocking queue
+     * @param metrics metrics collector for workers
+     * @param consumerBatchSize maximum items per consumer take (1 = one at a time)
+     * @param executorType platform or virtual worker threads
+     * @param scalingPolicy decides the consumer count on each auto-scaler tick
+     * @param minConsumers the auto-scaler never retires below this
+     * @param maxConsumers the auto-scaler never starts more than this
+     * @param itemPool shared by producers and consumers (null = allocate every item)
+     * @throws IllegalArgumentException if the bounds are negative or min exceeds max
+     * @throws UnsupportedOperationException if the JVM does not support executorType
+     */
+    public ThreadManager(BoundedBlockingQueue<Object> queue, MetricsCollector metrics, 
+                        int consumerBatchSize, ExecutorType executorType,
+                        ScalingPolicy scalingPolicy, int minConsumers, int maxConsumers,
+                        WorkItemPool itemPool) {
+        if (minConsumers < 0 || minConsumers > maxConsumers) {
+            throw new IllegalArgumentException(
+                "Consumer bounds must satisfy 0 <= min <= max, got: " + minConsumers + ".." + maxConsumers);
+        }
         this.queue = queue;
         this.metrics = metrics;
+        this.consumerBatchSize = consumerBatchSize;
+        this.itemPool = itemPool;
+        this.scalingPolicy = scalingPolicy;
+        this.minConsumers = minConsumers;
+        this.maxConsumers = maxConsumers;
+        this.timeline = new ScalingTimeline(scalingPolicy.getTargetDepth(queue.getCapacity()), queue.getCapacity());
         
-        // CachedThreadPool creates threads as needed, reuses idle threads
-        this.producerPool = Executors.newCachedThreadPool(r -> {
-            Thread t = new Thread(r);
-            t.setName("Producer-Pool-" + t.getId());
-            return t;
-        });
-        
-        this.consumerPool = Executors.newCachedThreadPool(r -> {
-            Thread t = new Thread(r);
-            t.setName("Consumer-Pool-" + t.getId());
-            return t;
-        });
+        this.producerPool = executorType.create("Producer-Pool-");
+        this.consumerPool = executorType.create("Consumer-Pool-");
         
         this.autoScalerPool = Executors.newSingleThreadScheduledExecutor(r -> {
             Thread t = new Thread(r);
@@ -73,7 +194,8 @@ public class ThreadManager {
             
             producerPool.submit(() -> {
                 try {
-                    new ProducerWorker(queue, producerId, itemsPerProducer, metrics).run();
+                    new ProducerWorker(queue, producerId, itemsPerProducer, metrics,
+                                       ThinkTime.PRODUCER_DEFAULT, null, itemPool).run();
                 } finally {
                     producerCount.decrementAndGet();
                 }
@@ -88,7 +210,7 @@ public class ThreadManager {
      */
     public void startConsumers(int count) {
         for (int i = 1; i <= count; i++) {
-            startSingleConsumer("Consumer-" + i);
+            startSingleConsumer("Consumer-" + i, false);
         }
     }
 
@@ -96,44 +218,204 @@ public class ThreadManager {
      * Starts a single consumer with the given name.
      * 
      * @param name consumer name for logging
+     * @param emergency true if deployed by the auto-scaler
      */
-    private void startSingleConsumer(String name) {
-        consumerCount.incrementAndGet();
+    private void startSingleConsumer(String name, boolean emergency) {
+        ConsumerHandle handle = new ConsumerHandle(name, activeConsumers.size() >= minConsumers);
+        activeConsumers.addLast(handle);
+        int active = consumerCount.incrementAndGet();
+        recordConsumerLifecycle(name, "START", emergency, active);
         
         consumerPool.submit(() -> {
             try {
-                new ConsumerWorker(queue, name, metrics).run();
+                new ConsumerWorker(queue, name, metrics, consumerBatchSize, handle.retirable ? handle::isRetired : null,
+                                   ThinkTime.CONSUMER_DEFAULT, itemPool).run();
             } finally {
-                consumerCount.decrementAndGet();
+                activeConsumers.remove(handle); // No-op if it was retired
+                int remaining = consumerCount.decrementAndGet();
+                recordConsumerLifecycle(name, "STOP", emergency, remaining);
             }
         });
     }
+    
+    private static void recordConsumerLifecycle(String name, String action, boolean emergency, int active) {
+        QueueEvents.ConsumerLifecycle event = new QueueEvents.ConsumerLifecycle();
+        if (event.shouldCommit()) {
+            event.consumer = name;
+            event.action = action;
+            event.emergency = emergency;
+            event.activeConsumers = active;
+            event.commit();
+        }
+    }
 
     /**
-     * Starts the auto-scaling monitor that adds emergency consumers when load exceeds 75%.
-     * Checks queue load every second and can deploy up to 3 emergency consumers.
+     * Starts the auto-scaling monitor. Every {@link ScalingPolicy#getIntervalMillis()}
+     * it samples the queue and rates, asks the policy for a consumer count and
+     * starts emergency consumers or retires the newest consumers to reach it.
      */
     public void runAutoScalerLoop() {
-        Logger.log("AUTO-SCALER", "Monitor Started.");
+        Logger.log("AUTO-SCALER", "Monitor Started (" + scalingPolicy.getClass().getSimpleName()
+                   + ", consumers " + minConsumers + ".." + maxConsumers + ").");
+        scalerStartNanos = System.nanoTime();
+        lastSampleNanos = scalerStartNanos;
+        lastProduced = metrics.getTotalProduced();
+        lastConsumed = metrics.getTotalConsumed();
         
         // ScheduledExecutorService is more efficient than manual sleep loops
-        autoScalerPool.scheduleWithFixedDelay(() -> {
-            try {
-                int size = queue.getSize();
-                int capacity = queue.getCapacity();
-                double load = (double) size / capacity;
-
-                if (load > 0.75 && emergencyConsumerCount.get() < 3) {
-                    int id = emergencyConsumerCount.incrementAndGet();
-                    String msg = "High Load detected (" + (load*100) + "%). Deploying Emergency Consumer " + id;
-                    Logger.log("AUTO-SCALER", msg);
-                    System.out.println(">>> [AUTO-SCALER] " + msg); 
-                    startSingleConsumer("EmergencyConsumer-" + id);
+        autoScalerPool.scheduleWithFixedDelay(() -> scaleSafely("TIMER", 0),
+                                              0, scalingPolicy.getIntervalMillis(), TimeUnit.MILLISECONDS);
+        
+        // Event-driven ticks on top of the timer, which stays as a backstop and rate sampler
+        int capacity = queue.getCapacity();
+        int high = Math.min(capacity, (int) (capacity * HIGH_WATERMARK) + 1);
+        int low = Math.min(high - 1, (int) (capacity * LOW_WATERMARK));
+        watermarkDriven = queue.setWatermarkListener(high, low, new WatermarkListener() {
+            @Override
+            public void onHighWatermark(int size, int cap) {
+                triggerScale("HIGH_WATERMARK");
+            }
+            
+            @Override
+            public void onLowWatermark(int size, int cap) {
+                triggerScale("LOW_WATERMARK");
+            }
+        });
+        if (watermarkDriven) {
+            Logger.log("AUTO-SCALER", "Watermark triggers enabled (high " + high + ", low " + low + ").");
+        }
+    }
+    
+    /**
+     * Queues an immediate tick on the auto-scaler thread. Called from producer
+     * and consumer threads, so it only enqueues; a tick already pending absorbs it.
+     */
+    private void triggerScale(String trigger) {
+        if (!scalePending.compareAndSet(false, true)) {
+            return;
+        }
+        long triggeredAt = System.nanoTime();
+        try {
+            autoScalerPool.execute(() -> {
+                scalePending.set(false);
+                scaleSafely(trigger, triggeredAt);
+            });
+        } catch (RejectedExecutionException e) {
+            scalePending.set(false); // Shutting down
+        }
+    }
+    
+    private void scaleSafely(String trigger, long triggeredAt) {
+        try {
+            scaleOnce(trigger, triggeredAt);
+        } catch (Exception e) {
+            Logger.log("AUTO-SCALER", "Error in monitoring loop: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * One timer-driven auto-scaler tick. Runs on the auto-scaler thread only.
+     */
+    void scaleOnce() {
+        scaleOnce("TIMER", 0);
+    }
+    
+    /**
+     * One auto-scaler tick. Runs on the auto-scaler thread only.
+     * 
+     * @param trigger TIMER, HIGH_WATERMARK or LOW_WATERMARK
+     * @param triggeredAt System.nanoTime() of the watermark crossing, 0 for the timer
+     */
+    void scaleOnce(String trigger, long triggeredAt) {
+        QueueEvents.AutoScaleDecision decision = new QueueEvents.AutoScaleDecision();
+        decision.begin();
+        ScalingSample sample = sample();
+        int consumers = sample.getConsumers();
+        int requested = scalingPolicy.desiredConsumers(sample);
+        int desired = Math.max(minConsumers, Math.min(maxConsumers, requested));
+        String action = "HOLD";
+        
+        if (desired > consumers) {
+            for (int i = consumers; i < desired; i++) {
+                int id = emergencyConsumerCount.incrementAndGet();
+                String msg = "Queue at " + String.format("%.1f%%", sample.getLoad() * 100)
+                             + " (in " + String.format("%.1f", sample.getArrivalRate()) + "/s, out "
+                             + String.format("%.1f", sample.getServiceRate()) + "/s). Deploying Emergency Consumer " + id;
+                Logger.log("AUTO-SCALER", msg);
+                System.out.println(">>> [AUTO-SCALER] " + msg);
+                startSingleConsumer("EmergencyConsumer-" + id, true);
+            }
+            action = "SCALE_UP";
+        } else if (desired < consumers) {
+            for (int i = desired; i < consumers; i++) {
+                ConsumerHandle handle = activeConsumers.pollLast();
+                if (handle == null) {
+                    break;
                 }
-            } catch (Exception e) {
-                Logger.log("AUTO-SCALER", "Error in monitoring loop: " + e.getMessage());
+                if (!handle.retirable) {
+                    activeConsumers.addLast(handle); // Only the minimum is left
+                    break;
+                }
+                handle.retire();
+                retiredConsumerCount.incrementAndGet();
+                String msg = "Queue at " + String.format("%.1f%%", sample.getLoad() * 100) + ". Retiring " + handle.name;
+                Logger.log("AUTO-SCALER", msg);
+                System.out.println(">>> [AUTO-SCALER] " + msg);
+            }
+            action = "SCALE_DOWN";
+        } else if (requested > maxConsumers) {
+            action = "AT_LIMIT";
+        }
+        timeline.record(sample, activeConsumers.size(), trigger,
+                        triggeredAt == 0 ? -1 : System.nanoTime() - triggeredAt);
+        
+        if (decision.shouldCommit()) {
+            decision.action = action;
+            decision.trigger = trigger;
+            decision.load = sample.getLoad();
+            decision.queueSize = sample.getQueueDepth();
+            decision.arrivalRate = sample.getArrivalRate();
+            decision.serviceRate = sample.getServiceRate();
+            decision.consumersBefore = consumers;
+            decision.consumersAfter = activeConsumers.size();
+            decision.emergencyConsumers = emergencyConsumerCount.get();
+            decision.commit();
+        }
+    }
+    
+    /**
+     * Measures depth and the arrival/service rates since the previous tick.
+     * The per-consumer service rate is only updated while there is a backlog,
+     * when consumers are busy and their throughput reflects their speed.
+     * A tick within MIN_RATE_WINDOW_NANOS of the previous one (a watermark
+     * event) keeps the previous rates, since a few items over a few
+     * microseconds would give wildly inflated rates.
+     */
+    private ScalingSample sample() {
+        long now = System.nanoTime();
+        int depth = queue.getSize();
+        int consumers = activeConsumers.size();
+        
+        if (now - lastSampleNanos >= MIN_RATE_WINDOW_NANOS) {
+            long produced = metrics.getTotalProduced();
+            long consumed = metrics.getTotalConsumed();
+            double seconds = (now - lastSampleNanos) / 1e9;
+            arrivalRate = (produced - lastProduced) / seconds;
+            serviceRate = (consumed - lastConsumed) / seconds;
+            if (depth > 0 && consumers > 0 && serviceRate > 0) {
+                double measured = serviceRate / consumers;
+                // Exponentially weighted so one noisy interval does not swing the estimate
+                serviceRatePerConsumer = serviceRatePerConsumer == 0 ? measured
+                                         : 0.5 * serviceRatePerConsumer + 0.5 * measured;
             }
-        }, 0, 1, TimeUnit.SECONDS);
+            lastSampleNanos = now;
+            lastProduced = produced;
+            lastConsumed = consumed;
+        }
+        
+        return new ScalingSample((now - scalerStartNanos) / 1_000_000, depth, queue.getCapacity(),
+                                 arrivalRate, serviceRate, serviceRatePerConsumer, consumers,
+                                 minConsumers, maxConsumers);
     }
     
     /**
@@ -142,13 +424,17 @@ public class ThreadManager {
      * 
      * Safe Shutdown Pattern:
      * 1. Call this method - stops and waits for producers
-     * 2. Insert poison pill - safe because queue can only shrink now
+     * 2. Close the queue (or insert a poison pill if it cannot be closed) -
+     *    safe because queue can only shrink now
      * 3. Call waitForConsumers() - consumers drain and exit
      */
     public void shutdown() {
         Logger.log("AUTO-SCALER", "Initiating thread pool shutdown...");
         
         // Stop accepting new tasks
+        if (watermarkDriven) {
+            queue.setWatermarkListener(0, 0, null);
+        }
         autoScalerPool.shutdown();
         producerPool.shutdown();
         consumerPool.shutdown();
@@ -179,7 +465,8 @@ public class ThreadManager {
 
     /**
      * Waits for consumers to finish (Phase 3 of safe shutdown).
-     * Must be called AFTER shutdown() and poison pill insertion.
+     * Must be called AFTER shutdown() and after the queue is closed (or a
+     * poison pill inserted if it cannot be closed).
      */
     public void waitForConsumers() {
         try {
@@ -200,6 +487,25 @@ public class ThreadManager {
         }
     }
     
+    /**
+     * Waits until consumers have processed the expected number of items.
+     * Wakes as soon as the consumer that finishes the last item records it,
+     * rather than on a polling interval.
+     * 
+     * @param expected consumed total to wait for
+     * @param timeout how long to wait before giving up
+     * @param unit the time unit of the timeout
+     * @return true if every expected item was consumed, false if timeout elapsed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean awaitConsumed(long expected, long timeout, TimeUnit unit) throws InterruptedException {
+        return metrics.awaitConsumed(expected, timeout, unit);
+    }
+    
+    public BoundedBlockingQueue<Object> getQueue() {
+        return queue;
+    }
+    
     public int getProducerCount() { 
         return producerCount.get(); 
     }
@@ -211,4 +517,64 @@ public class ThreadManager {
     public int getEmergencyConsumerCount() {
         return emergencyConsumerCount.get();
     }
+    
+    public int getRetiredConsumerCount() {
+        return retiredConsumerCount.get();
+    }
+    
+    /**
+     * Returns consumers that are running and not being retired.
+     * 
+     * @return active consumer count as seen by the auto-scaler
+     */
+    public int getActiveConsumerCount() {
+        return activeConsumers.size();
+    }
+    
+    public ScalingPolicy getScalingPolicy() {
+        return scalingPolicy;
+    }
+    
+    public int getMinConsumers() {
+        return minConsumers;
+    }
+    
+    public int getMaxConsumers() {
+        return maxConsumers;
+    }
+    
+    /**
+     * Returns whether the auto-scaler also reacts to queue watermark events.
+     * 
+     * @return true once runAutoScalerLoop registered with a queue that supports watermarks
+     */
+    public boolean isWatermarkDriven() {
+        return watermarkDriven;
+    }
+    
+    public ScalingTimeline getScalingTimeline() {
+        return timeline;
+    }
+    
+    /**
+     * Retire signal for one consumer.
+     */
+    private static final class ConsumerHandle {
+        private final String name;
+        private final boolean retirable; // False for the first minConsumers, which never check the signal
+        private volatile boolean retired;
+        
+        ConsumerHandle(String name, boolean retirable) {
+            this.name = name;
+            this.retirable = retirable;
+        }
+        
+        void retire() {
+            retired = true;
+        }
+        
+        boolean isRetired() {
+            return retired;
+        }
+    }
 }
@@ -0,0 +1,31 @@
+package com.pranjal.assign1;
+
+/**
+ * The original auto-scaler rule: once per second, add one consumer while
+ * the queue is more than 75% full, at most 3 times. Never scales down.
+ *
+ * @author Pranjal
+ * @version 2.1
+ */
+public class ThresholdScalingPolicy implements ScalingPolicy {
+
+    static final double HIGH_LOAD = 0.75;
+    static final int MAX_ADDITIONS = 3;
+
+    private int additions = 0;
+
+    @Override
+    public int desiredConsumers(ScalingSample sample) {
+        if (sample.getLoad() > HIGH_LOAD && additions < MAX_ADDITIONS
+                && sample.getConsumers() < sample.getMaxConsumers()) {
+            additions++;
+            return sample.getConsumers() + 1;
+        }
+        return sample.getConsumers();
+    }
+
+    @Override
+    public int getTargetDepth(int capacity) {
+        return (int) (capacity * HIGH_LOAD);
+    }
+}
@@ -0,0 +1,58 @@
+package com.pranjal.assign1;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Random duration source for inter-arrival and service times.
+ *
+ * Implementations are in {@link Distributions}. All methods must be
+ * thread-safe; every worker of a pool samples the same instance.
+ * Threads draw from ThreadLocalRandom; a seeded Random gives reproducible
+ * sequences for the discrete-event simulation.
+ *
+ * @author Pranjal
+ * @version 2.1
+ */
+public interface TimeDistribution {
+
+    /**
+     * Draws the next duration.
+     *
+     * @return duration in nanoseconds, never negative
+     */
+    default long nextNanos() {
+        return nextNanos(ThreadLocalRandom.current());
+    }
+
+    /**
+     * Draws the next duration from the given generator.
+     *
+     * @param random source of randomness
+     * @return duration in nanoseconds, never negative
+     */
+    long nextNanos(Random random);
+
+    /**
+     * Returns the mean of the distribution, used by the queueing model report.
+     *
+     * @return mean duration in nanoseconds; infinite if the mean does not exist
+     */
+    double getMeanNanos();
+
+    /**
+     * Returns the squared coefficient of variation, variance / mean^2:
+     * 0 for constant, 1 for exponential. M/G/1 predictions depend on it.
+     *
+     * @return SCV, infinite if the variance does not exist
+     */
+    double getScv();
+
+    /**
+     * Restarts any replay state, so that a run drawing from a seeded Random
+     * sees the same sequence as the previous run. Stateless distributions
+     * do nothing.
+     */
+    default void reset() {
+    }
+}
@@ -0,0 +1,223 @@
+package com.pranjal.assign1;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded blocking queue with independent put and take locks.
+ *
+ * Follows the two-lock scheme (Michael &amp; Scott): producers only contend
+ * with producers and consumers only with consumers, so a put and a take can
+ * proceed in parallel whenever the queue is neither full nor empty.
+ * The element count is an AtomicInteger shared by both sides; its volatile
+ * read/write also publishes slot contents between the two locks.
+ *
+ * Elements live in a preallocated circular array: the put lock owns the
+ * tail index and the take lock owns the head index.
+ *
+ * @param <T> the type of elements held in this queue
+ * @author Pranjal
+ * @version 2.1
+ */
+public class TwoLockBlockingQueue<T> implements BoundedBlockingQueue<T> {
+
+    private final Object[] items;
+    private final int capacity;
+    private final AtomicInteger count = new AtomicInteger(0);
+
+    // Guarded by takeLock
+    private int head;
+    // Guarded by putLock
+    private int tail;
+
+    // Consumers wait on notEmpty, producers on notFull
+    private final ReentrantLock takeLock;
+    private final Condition notEmpty;
+    private final ReentrantLock putLock;
+    private final Condition notFull;
+
+    /**
+     * Constructs a two-lock queue with fair locks.
+     *
+     * @param capacity maximum number of elements, must be positive
+     * @throws IllegalArgumentException if capacity is not positive
+     */
+    public TwoLockBlockingQueue(int capacity) {
+        this(capacity, true);
+    }
+
+    /**
+     * Constructs a two-lock queue.
+     *
+     * @param capacity maximum number of elements, must be positive
+     * @param fair true for FIFO hand-off among waiting threads on each side
+     * @throws IllegalArgumentException if capacity is not positive
+     */
+    public TwoLockBlockingQueue(int capacity, boolean fair) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Queue capacity must be positive, got: " + capacity);
+        }
+        this.capacity = capacity;
+        this.items = new Object[capacity];
+        this.takeLock = new ReentrantLock(fair);
+        this.notEmpty = takeLock.newCondition();
+        this.putLock = new ReentrantLock(fair);
+        this.notFull = putLock.newCondition();
+    }
+
+    @Override
+    public void put(T item) throws InterruptedException {
+        if (item == null) {
+            throw new NullPointerException("Cannot add null elements to queue");
+        }
+
+        int previous;
+        putLock.lockInterruptibly();
+        try {
+            while (count.get() == capacity) {
+                notFull.await();
+            }
+            previous = enqueue(item);
+        } finally {
+            putLock.unlock();
+        }
+        if (previous == 0) {
+            signalNotEmpty();
+        }
+    }
+
+    @Override
+    public T take() throws InterruptedException {
+        T item;
+        int previous;
+        takeLock.lockInterruptibly();
+        try {
+            while (count.get() == 0) {
+                notEmpty.await();
+            }
+            item = dequeue();
+            previous = count.getAndDecrement();
+            if (previous > 1) {
+                notEmpty.signal(); // Cascade to the next waiting consumer
+            }
+        } finally {
+            takeLock.unlock();
+        }
+        if (previous == capacity) {
+            signalNotFull();
+        }
+        return item;
+    }
+
+    @Override
+    public boolean offer(T item, long timeout, TimeUnit unit) throws InterruptedException {
+        if (item == null) {
+            throw new NullPointerException("Cannot add null elements to queue");
+        }
+
+        long nanos = unit.toNanos(timeout);
+        int previous;
+        putLock.lockInterruptibly();
+        try {
+            while (count.get() == capacity) {
+                if (nanos <= 0) return false;
+                nanos = notFull.awaitNanos(nanos);
+            }
+            previous = enqueue(item);
+        } finally {
+            putLock.unlock();
+        }
+        if (previous == 0) {
+            signalNotEmpty();
+        }
+        return true;
+    }
+
+    @Override
+    public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        T item;
+        int previous;
+        takeLock.lockInterruptibly();
+        try {
+            while (count.get() == 0) {
+                if (nanos <= 0) return null;
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            item = dequeue();
+            previous = count.getAndDecrement();
+            if (previous > 1) {
+                notEmpty.signal();
+            }
+        } finally {
+            takeLock.unlock();
+        }
+        if (previous == capacity) {
+            signalNotFull();
+        }
+        return item;
+    }
+
+    @Override
+    public int getSize() {
+        return count.get(); // Lock-free read
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Stores the item at the tail. Caller must hold putLock.
+     *
+     * @return element count before this insertion
+     */
+    private int enqueue(T item) {
+        items[tail] = item;
+        if (++tail == capacity) tail = 0;
+        int previous = count.getAndIncrement();
+        if (previous + 1 < capacity) {
+            notFull.signal(); // Cascade to the next waiting producer
+        }
+        return previous;
+    }
+
+    /**
+     * Removes the item at the head. Caller must hold takeLock.
+     * The subsequent count decrement publishes the freed slot to producers.
+     */
+    @SuppressWarnings("unchecked")
+    private T dequeue() {
+        T item = (T) items[head];
+        items[head] = null;
+        if (++head == capacity) head = 0;
+        return item;
+    }
+
+    /**
+     * Wakes a waiting consumer. Called only after an empty-to-non-empty transition.
+     */
+    private void signalNotEmpty() {
+        takeLock.lock();
+        try {
+            notEmpty.signal();
+        } finally {
+            takeLock.unlock();
+        }
+    }
+
+    /**
+     * Wakes a waiting producer. Called only after a full-to-non-full transition.
+     */
+    private void signalNotFull() {
+        putLock.lock();
+        try {
+            notFull.signal();
+        } finally {
+            putLock.unlock();
+        }
+    }
+}
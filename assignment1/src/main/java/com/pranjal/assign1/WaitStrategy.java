@@ -0,0 +1,76 @@
+package com.pranjal.assign1;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * How a thread waits while a lock-free queue is full (producer) or empty (consumer).
+ * 
+ * Lock-free queues have no condition variables to signal, so blocked callers
+ * retry in a loop and call {@link #idle(int)} between attempts. Strategies trade
+ * CPU burn for hand-off latency.
+ * 
+ * @author Pranjal
+ * @version 2.1
+ */
+public enum WaitStrategy {
+
+    /**
+     * Parks for a short fixed interval on every miss.
+     * Lowest CPU usage, highest wake-up latency.
+     */
+    PARK {
+        @Override
+        public void idle(int attempt) {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+    },
+
+    /**
+     * Yields the CPU to other runnable threads on every miss.
+     */
+    YIELD {
+        @Override
+        public void idle(int attempt) {
+            Thread.yield();
+        }
+    },
+
+    /**
+     * Spins briefly, then yields, then parks.
+     * Good default: fast hand-off under load without burning an idle core.
+     */
+    SPIN_THEN_PARK {
+        @Override
+        public void idle(int attempt) {
+            if (attempt < SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else if (attempt < SPIN_TRIES + YIELD_TRIES) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(PARK_NANOS);
+            }
+        }
+    },
+
+    /**
+     * Never gives up the CPU. Lowest latency; only use with a dedicated core per waiter.
+     */
+    BUSY_SPIN {
+        @Override
+        public void idle(int attempt) {
+            Thread.onSpinWait();
+        }
+    };
+
+    // Tuning constants shared by the strategies above
+    private static final long PARK_NANOS = 50_000;  // 50us
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+
+    /**
+     * Waits once before the caller retries.
+     * 
+     * @param attempt number of consecutive failed attempts so far, starting at 0
+     */
+    public abstract void idle(int attempt);
+}
@@ -0,0 +1,62 @@
+package com.pranjal.assign1;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Converts queue items to and from the bytes stored in a WriteAheadLog
+ * or a SpillingQueue's spill files.
+ *
+ * @param <T> the type of items stored
+ * @author Pranjal
+ * @version 2.1
+ */
+public interface WalCodec<T> {
+
+    /**
+     * Stores an item's toString() as UTF-8 and replays it as a String.
+     * Enough for the simulation, whose items are text records.
+     */
+    WalCodec<Object> TEXT = new WalCodec<>() {
+        @Override
+        public byte[] encode(Object item) {
+            return item.toString().getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public Object decode(byte[] bytes) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+
+    /**
+     * Stores byte records as they are, for payloads that arrive serialized.
+     * Callers must not modify an array after inserting it.
+     */
+    WalCodec<byte[]> BYTES = new WalCodec<>() {
+        @Override
+        public byte[] encode(byte[] item) {
+            return item;
+        }
+
+        @Override
+        public byte[] decode(byte[] bytes) {
+            return bytes;
+        }
+    };
+
+    /**
+     * Serializes an item.
+     *
+     * @param item item to log, never null
+     * @return payload bytes
+     */
+    byte[] encode(T item);
+
+    /**
+     * Rebuilds an item from a replayed payload.
+     *
+     * @param bytes payload written by {@link #encode}
+     * @return the item
+     */
+    T decode(byte[] bytes);
+}
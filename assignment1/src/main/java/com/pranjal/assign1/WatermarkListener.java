@@ -0,0 +1,32 @@
+package com.pranjal.assign1;
+
+/**
+ * Callback for queue depth crossing a high or low watermark.
+ *
+ * Called on the producer or consumer thread whose put or take crossed the
+ * threshold, after it has released the queue lock, so implementations must
+ * be quick and must not block. With hysteresis the two callbacks alternate,
+ * but calls from different threads can arrive slightly out of order;
+ * listeners that need the exact depth should re-read it.
+ *
+ * @author Pranjal
+ * @version 2.1
+ */
+public interface WatermarkListener {
+
+    /**
+     * The queue filled up to the high watermark.
+     *
+     * @param size queue size when the threshold was crossed
+     * @param capacity queue capacity
+     */
+    void onHighWatermark(int size, int capacity);
+
+    /**
+     * The queue drained down to the low watermark after a high event.
+     *
+     * @param size queue size when the threshold was crossed
+     * @param capacity queue capacity
+     */
+    void onLowWatermark(int size, int capacity);
+}
@@ -0,0 +1,108 @@
+package com.pranjal.assign1;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * A producer's record as it travels through the queue: who produced it,
+ * its sequence number, its payload and when it was enqueued.
+ *
+ * Mutable so that a {@link WorkItemPool} can hand the same instance out
+ * again once a consumer is done with it. Whoever holds an item owns it:
+ * a producer must not touch an item after the queue accepted it, and a
+ * consumer must not touch it after releasing it to the pool.
+ *
+ * toString() gives the "Record-P-I" form used in the logs, built only
+ * when it is called.
+ *
+ * @author Pranjal
+ * @version 2.1
+ */
+public final class WorkItem {
+
+    private static final VarHandle ENQUEUED_AT;
+
+    static {
+        try {
+            ENQUEUED_AT = MethodHandles.lookup().findVarHandle(WorkItem.class, "enqueuedAt", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private int producerId;
+    private long sequence;
+    private long payload;
+    private volatile long enqueuedAt; // System.nanoTime(), set by InstrumentedQueue
+
+    /**
+     * Creates an empty item, to be filled with {@link #set}.
+     */
+    public WorkItem() {
+    }
+
+    /**
+     * Creates an item.
+     *
+     * @param producerId producer that created it
+     * @param sequence position in that producer's output, from 1
+     * @param payload the work to do
+     */
+    public WorkItem(int producerId, long sequence, long payload) {
+        set(producerId, sequence, payload);
+    }
+
+    /**
+     * Fills in an item, new or taken from a pool.
+     *
+     * @param producerId producer that created it
+     * @param sequence position in that producer's output, from 1
+     * @param payload the work to do
+     * @return this item
+     */
+    public WorkItem set(int producerId, long sequence, long payload) {
+        this.producerId = producerId;
+        this.sequence = sequence;
+        this.payload = payload;
+        this.enqueuedAt = 0;
+        return this;
+    }
+
+    public int getProducerId() {
+        return producerId;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getPayload() {
+        return payload;
+    }
+
+    /**
+     * Returns when the item entered the queue.
+     *
+     * @return System.nanoTime() at enqueue, or 0 if not yet stamped
+     */
+    public long getEnqueuedAt() {
+        return enqueuedAt;
+    }
+
+    void stamp(long nanoTime) {
+        enqueuedAt = nanoTime;
+    }
+
+    /**
+     * Replaces a provisional stamp, unless the item was consumed and
+     * restamped by its next owner in the meantime.
+     */
+    void restamp(long provisional, long nanoTime) {
+        ENQUEUED_AT.compareAndSet(this, provisional, nanoTime);
+    }
+
+    @Override
+    public String toString() {
+        return "Record-" + producerId + "-" + sequence;
+    }
+}
@@ -0,0 +1,88 @@
+package com.pranjal.assign1;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded pool of {@link WorkItem}s that producers take from and consumers
+ * return to, so that steady-state production allocates nothing.
+ *
+ * Free items sit in a {@link LockFreeBoundedQueue}; acquire and release are
+ * each one CAS and never block. An empty pool allocates a new item and a
+ * full one drops the released item for the collector, so the pool only needs
+ * to be about as large as the number of items in flight (queue capacity plus
+ * what workers hold).
+ *
+ * An item must be released once, by its last owner. Items that come back
+ * from bytes (write-ahead-log replay, spill, OFF_HEAP) are plain Strings and
+ * are not pooled.
+ *
+ * @author Pranjal
+ * @version 2.1
+ */
+public final class WorkItemPool {
+
+    private final LockFreeBoundedQueue<WorkItem> free;
+    private final AtomicLong created = new AtomicLong();
+
+    /**
+     * Creates an empty pool.
+     *
+     * @param capacity most free items kept
+     * @throws IllegalArgumentException if capacity is not positive
+     */
+    public WorkItemPool(int capacity) {
+        this.free = new LockFreeBoundedQueue<>(capacity);
+    }
+
+    /**
+     * Returns a free item, or a new one if none is free.
+     *
+     * @return item to fill with {@link WorkItem#set}
+     */
+    public WorkItem acquire() {
+        WorkItem item = free.tryPoll();
+        if (item == null) {
+            created.incrementAndGet();
+            return new WorkItem();
+        }
+        return item;
+    }
+
+    /**
+     * Returns an item for reuse. The caller must not touch it afterwards.
+     *
+     * @param item consumed item, must not be null
+     */
+    public void release(WorkItem item) {
+        free.tryOffer(item); // Dropped if the pool is full
+    }
+
+    /**
+     * Returns what a worker may pass to the logger for an item it will hand
+     * on: a snapshot of its text when per-item logging is on, because sinks
+     * like {@link AsyncLogSink} format items later, possibly after reuse.
+     *
+     * @param item queue item
+     * @return the item's text if DEBUG is enabled, otherwise the item itself
+     */
+    public static Object loggable(Object item) {
+        return item instanceof WorkItem && Logger.isEnabled(LogLevel.DEBUG) ? item.toString() : item;
+    }
+
+    /**
+     * Returns how many items the pool has allocated because none were free.
+     *
+     * @return items created since construction
+     */
+    public long getCreatedCount() {
+        return created.get();
+    }
+
+    public int getFreeCount() {
+        return free.getSize();
+    }
+
+    public int getCapacity() {
+        return free.getCapacity();
+    }
+}
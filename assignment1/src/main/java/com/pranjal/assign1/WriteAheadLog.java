@@ -0,0 +1,539 @@
+package com.pranjal.assign1;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Segmented, memory-mapped write-ahead log of queue items.
+ *
+ * Each appended payload gets the next sequence number and is written to the
+ * current segment, a fixed-size mapped file named after the first sequence
+ * it holds. Record layout:
+ *   [int length][int CRC32 of sequence + payload][long sequence][payload]
+ * The length is written last, so a record whose length reads 0 was never
+ * finished. A full segment is forced (unless the policy is OS) and the next
+ * one started.
+ *
+ * Consumption is a single commit offset, the highest sequence consumed, kept
+ * in its own mapped file. Only EVERY_WRITE forces it on each commit; the
+ * other policies force it with the next sync, roll or close, so a power loss
+ * can hand back items that were already consumed but never drops unconsumed
+ * ones. Segments holding only committed records are deleted when the log
+ * rolls, opens or closes. The mapping itself is released when the buffer is
+ * garbage collected.
+ *
+ * Opening a directory replays it: records with a valid CRC and a sequence
+ * above the commit offset are returned by {@link #getRecovered()}, in order.
+ * Reading a segment stops at the first torn or corrupt record, so a crash
+ * mid-append costs only that record. Appends after opening always go to a
+ * fresh segment.
+ *
+ * Appends are serialized by one lock that covers only writing the record
+ * into the mapping. Every force runs outside it, so other producers keep
+ * appending while one waits for the disk: with EVERY_WRITE each producer
+ * forces its own record, with BATCH the producer that completes a batch
+ * forces all of it. Commits are a lock-free compare-and-set on the mapped
+ * offset.
+ *
+ * @author Pranjal
+ * @version 2.1
+ */
+public final class WriteAheadLog implements Closeable {
+
+    /** Default segment size, 64 MiB. */
+    public static final int DEFAULT_SEGMENT_BYTES = 64 * 1024 * 1024;
+
+    static final int RECORD_HEADER_BYTES = 16; // length, CRC32, sequence
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".wal";
+    private static final String COMMIT_FILE = "commit.offset";
+    private static final VarHandle COMMIT_OFFSET =
+        MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    private final Path directory;
+    private final FsyncPolicy fsyncPolicy;
+    private final int syncEvery;
+    private final int segmentBytes;
+    private final List<Entry> recovered;
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReentrantLock commitLock = new ReentrantLock(); // Serializes forces of the commit offset
+    private final List<Segment> segments = new ArrayList<>(); // Oldest first; guarded by appendLock
+    private final CRC32 crc = new CRC32();                     // Guarded by appendLock
+    private final MappedByteBuffer commitBuffer;               // Holds the commit offset
+    private final ScheduledExecutorService syncer;             // INTERVAL only
+
+    private long nextSequence;
+    private int unsyncedAppends;
+    private boolean closed;
+    private long lastForcedCommit; // Guarded by commitLock
+
+    /**
+     * Opens or creates a log with the default segment size.
+     *
+     * @param directory directory holding the segments, created if missing
+     * @param fsyncPolicy when to force pages to disk, must not be null
+     * @param syncEvery appends per force for BATCH, milliseconds for INTERVAL
+     * @return the log, with unconsumed records of a previous run in {@link #getRecovered()}
+     * @throws IOException if the directory cannot be read or written
+     * @throws IllegalArgumentException if syncEvery is not positive
+     */
+    public static WriteAheadLog open(Path directory, FsyncPolicy fsyncPolicy, int syncEvery) throws IOException {
+        return open(directory, fsyncPolicy, syncEvery, DEFAULT_SEGMENT_BYTES);
+    }
+
+    /**
+     * Opens or creates a log.
+     *
+     * @param directory directory holding the segments, created if missing
+     * @param fsyncPolicy when to force pages to disk, must not be null
+     * @param syncEvery appends per force for BATCH, milliseconds for INTERVAL
+     * @param segmentBytes size of each new segment file
+     * @return the log, with unconsumed records of a previous run in {@link #getRecovered()}
+     * @throws IOException if the directory cannot be read or written
+     * @throws IllegalArgumentException if syncEvery is not positive or segments are too small
+     */
+    public static WriteAheadLog open(Path directory, FsyncPolicy fsyncPolicy, int syncEvery,
+                                     int segmentBytes) throws IOException {
+        if (fsyncPolicy == null) {
+            throw new NullPointerException("Fsync policy must not be null");
+        }
+        if (syncEvery <= 0) {
+            throw new IllegalArgumentException("Sync interval must be positive, got: " + syncEvery);
+        }
+        if (segmentBytes < 2 * RECORD_HEADER_BYTES) {
+            throw new IllegalArgumentException("Segment size must be at least " + 2 * RECORD_HEADER_BYTES
+                                               + " bytes, got: " + segmentBytes);
+        }
+        return new WriteAheadLog(directory, fsyncPolicy, syncEvery, segmentBytes);
+    }
+
+    private WriteAheadLog(Path directory, FsyncPolicy fsyncPolicy, int syncEvery,
+                          int segmentBytes) throws IOException {
+        this.directory = directory;
+        this.fsyncPolicy = fsyncPolicy;
+        this.syncEvery = syncEvery;
+        this.segmentBytes = segmentBytes;
+
+        Files.createDirectories(directory);
+        this.commitBuffer = map(directory.resolve(COMMIT_FILE), Long.BYTES,
+                                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.lastForcedCommit = getCommittedSequence();
+        this.recovered = Collections.unmodifiableList(replay());
+        nextSequence = Math.max(nextSequence, lastForcedCommit + 1); // The commit file can reach disk before the segment
+        segments.add(createSegment(nextSequence));
+        deleteConsumedSegments();
+
+        if (fsyncPolicy == FsyncPolicy.INTERVAL) {
+            this.syncer = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r);
+                t.setName("WAL-Sync");
+                t.setDaemon(true); // Won't prevent JVM shutdown
+                return t;
+            });
+            syncer.scheduleWithFixedDelay(this::syncQuietly, syncEvery, syncEvery, TimeUnit.MILLISECONDS);
+        } else {
+            this.syncer = null;
+        }
+    }
+
+    /**
+     * Appends one record.
+     *
+     * @param payload item bytes, not empty
+     * @return sequence number of the record
+     * @throws IOException if a new segment cannot be created
+     * @throws IllegalArgumentException if the payload is empty or larger than a segment
+     * @throws IllegalStateException if the log is closed
+     */
+    public long append(byte[] payload) throws IOException {
+        int recordBytes = RECORD_HEADER_BYTES + payload.length;
+        if (payload.length == 0 || recordBytes > segmentBytes) {
+            throw new IllegalArgumentException("Payload must be 1 to " + (segmentBytes - RECORD_HEADER_BYTES)
+                                               + " bytes, got: " + payload.length);
+        }
+        long sequence;
+        Segment segment;
+        int from;
+        int to;
+        appendLock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Write-ahead log is closed");
+            }
+            segment = segments.get(segments.size() - 1);
+            if (segment.position + recordBytes > segment.buffer.capacity()) {
+                segment = roll(segment);
+            }
+            sequence = nextSequence++;
+            int position = segment.position;
+            MappedByteBuffer buffer = segment.buffer;
+            buffer.putLong(position + 8, sequence);
+            buffer.put(position + RECORD_HEADER_BYTES, payload);
+            buffer.putInt(position + 4, checksum(sequence, payload));
+            buffer.putInt(position, payload.length); // Last: publishes the record
+            segment.position = position + recordBytes;
+
+            if (fsyncPolicy == FsyncPolicy.EVERY_WRITE) {
+                from = position; // Just this record, so it is on disk when this call returns
+                to = position + recordBytes;
+            } else if (fsyncPolicy != FsyncPolicy.BATCH || ++unsyncedAppends < syncEvery) {
+                return sequence;
+            } else {
+                unsyncedAppends = 0;
+                from = segment.syncedPosition;
+                to = segment.position;
+                segment.syncedPosition = to;
+            }
+        } finally {
+            appendLock.unlock();
+        }
+        segment.buffer.force(from, to - from); // Outside the lock: other producers keep appending
+        return sequence;
+    }
+
+    /**
+     * Marks every record up to a sequence as consumed. Lower sequences than
+     * the current offset are ignored, so concurrent consumers may commit in
+     * any order.
+     *
+     * @param sequence highest consumed sequence
+     */
+    public void commit(long sequence) {
+        long current;
+        do {
+            current = getCommittedSequence();
+            if (sequence <= current) {
+                return;
+            }
+        } while (!COMMIT_OFFSET.compareAndSet(commitBuffer, 0, current, sequence));
+
+        if (fsyncPolicy == FsyncPolicy.EVERY_WRITE) {
+            forceCommit();
+        }
+    }
+
+    /**
+     * Forces everything appended and committed so far, whatever the policy.
+     * The disk write runs outside the append lock.
+     */
+    public void sync() {
+        Segment segment;
+        int from;
+        int to;
+        appendLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            segment = segments.get(segments.size() - 1);
+            from = segment.syncedPosition;
+            to = segment.position;
+            segment.syncedPosition = to;
+            unsyncedAppends = 0;
+        } finally {
+            appendLock.unlock();
+        }
+        if (to > from) {
+            segment.buffer.force(from, to - from);
+        }
+        forceCommit();
+    }
+
+    /**
+     * Stops the interval syncer, forces the log and deletes consumed
+     * segments. Later appends fail; commits are still recorded but not forced.
+     */
+    @Override
+    public void close() throws IOException {
+        if (syncer != null) {
+            syncer.shutdown();
+            try {
+                syncer.awaitTermination(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        appendLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            force(segments.get(segments.size() - 1));
+            forceCommit();
+            deleteConsumedSegments();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the unconsumed records found when the log was opened.
+     *
+     * @return records in sequence order, unmodifiable
+     */
+    public List<Entry> getRecovered() {
+        return recovered;
+    }
+
+    /**
+     * Returns the highest consumed sequence.
+     *
+     * @return commit offset, 0 if nothing was ever consumed
+     */
+    public long getCommittedSequence() {
+        return (long) COMMIT_OFFSET.getVolatile(commitBuffer, 0);
+    }
+
+    /**
+     * Returns the sequence the next append will get.
+     *
+     * @return next sequence number
+     */
+    public long getNextSequence() {
+        appendLock.lock();
+        try {
+            return nextSequence;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public FsyncPolicy getFsyncPolicy() {
+        return fsyncPolicy;
+    }
+
+    /**
+     * Returns the number of segment files currently kept.
+     *
+     * @return segments, including the one being written
+     */
+    int getSegmentCount() {
+        appendLock.lock();
+        try {
+            return segments.size();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Reads every segment in order and collects records above the commit
+     * offset. Sets nextSequence past the last readable record.
+     */
+    private List<Entry> replay() throws IOException {
+        List<Entry> pending = new ArrayList<>();
+        long committed = getCommittedSequence();
+        long expected = 1;
+        for (Path file : listSegments()) {
+            String name = file.getFileName().toString();
+            long first = Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                                                       name.length() - SEGMENT_SUFFIX.length()));
+            if (first > expected && first - 1 > committed) {
+                Logger.log(LogLevel.WARN, "WAL", "Records " + expected + ".." + (first - 1)
+                           + " are missing from " + directory);
+            }
+            Segment segment = new Segment(file, first, map(file, (int) Files.size(file),
+                                                           StandardOpenOption.READ, StandardOpenOption.WRITE));
+            long sequence = first;
+            byte[] payload;
+            while ((payload = read(segment.buffer, segment.position, sequence)) != null) {
+                if (sequence > committed) {
+                    pending.add(new Entry(sequence, payload));
+                }
+                segment.position += RECORD_HEADER_BYTES + payload.length;
+                sequence++;
+            }
+            if (segment.position + Integer.BYTES <= segment.buffer.capacity()
+                && segment.buffer.getInt(segment.position) != 0) {
+                Logger.log(LogLevel.WARN, "WAL", "Dropped torn record " + sequence + " in " + name);
+            }
+            if (sequence == first) {
+                Files.delete(file); // Nothing readable
+                continue;
+            }
+            segment.syncedPosition = segment.position;
+            segments.add(segment);
+            expected = sequence;
+        }
+        nextSequence = expected;
+        return pending;
+    }
+
+    /**
+     * Reads the record at a position if it is complete, has the expected
+     * sequence and a matching CRC.
+     *
+     * @return payload, or null at the end of the readable log
+     */
+    private byte[] read(ByteBuffer buffer, int position, long sequence) {
+        if (position + RECORD_HEADER_BYTES > buffer.capacity()) {
+            return null;
+        }
+        int length = buffer.getInt(position);
+        if (length <= 0 || length > buffer.capacity() - position - RECORD_HEADER_BYTES
+            || buffer.getLong(position + 8) != sequence) {
+            return null;
+        }
+        byte[] payload = new byte[length];
+        buffer.get(position + RECORD_HEADER_BYTES, payload);
+        return checksum(sequence, payload) == buffer.getInt(position + 4) ? payload : null;
+    }
+
+    private int checksum(long sequence, byte[] payload) {
+        crc.reset();
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            crc.update((int) (sequence >>> shift));
+        }
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Seals the full segment and starts the next. The commit offset is forced
+     * before consumed segments go, so a restart never looks for a deleted one.
+     * Caller holds appendLock.
+     */
+    private Segment roll(Segment full) throws IOException {
+        if (fsyncPolicy != FsyncPolicy.OS) {
+            force(full);
+            forceCommit();
+        }
+        Segment next = createSegment(nextSequence);
+        segments.add(next);
+        deleteConsumedSegments();
+        return next;
+    }
+
+    /**
+     * Deletes leading segments whose last record is committed. The segment
+     * being written is always kept. Caller holds appendLock.
+     */
+    private void deleteConsumedSegments() throws IOException {
+        long committed = getCommittedSequence();
+        while (segments.size() > 1 && segments.get(1).firstSequence - 1 <= committed) {
+            Files.deleteIfExists(segments.remove(0).path);
+        }
+    }
+
+    private Segment createSegment(long firstSequence) throws IOException {
+        Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+        return new Segment(path, firstSequence, map(path, segmentBytes, StandardOpenOption.CREATE_NEW,
+                                                    StandardOpenOption.READ, StandardOpenOption.WRITE));
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> p.getFileName().toString().matches(SEGMENT_PREFIX + "\\d{20}\\" + SEGMENT_SUFFIX))
+                        .sorted() // Zero-padded names sort by sequence
+                        .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Maps a file read-write, growing it to the given size.
+     * The mapping stays valid after the channel is closed.
+     */
+    private static MappedByteBuffer map(Path path, int size, OpenOption... options) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, options)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    /**
+     * Forces the segment's unsynced range. Caller holds appendLock.
+     */
+    private static void force(Segment segment) {
+        if (segment.position > segment.syncedPosition) {
+            segment.buffer.force(segment.syncedPosition, segment.position - segment.syncedPosition);
+            segment.syncedPosition = segment.position;
+        }
+    }
+
+    private void forceCommit() {
+        commitLock.lock();
+        try {
+            long current = getCommittedSequence();
+            if (current != lastForcedCommit) {
+                commitBuffer.force();
+                lastForcedCommit = current;
+            }
+        } finally {
+            commitLock.unlock();
+        }
+    }
+
+    /**
+     * Interval syncer task; a failed force is reported and retried next tick.
+     */
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (UncheckedIOException e) {
+            Logger.log(LogLevel.WARN, "WAL", "Sync failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * One replayed record.
+     */
+    public static final class Entry {
+        private final long sequence;
+        private final byte[] payload;
+
+        Entry(long sequence, byte[] payload) {
+            this.sequence = sequence;
+            this.payload = payload;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        public byte[] getPayload() {
+            return payload;
+        }
+    }
+
+    /**
+     * One mapped segment file and its write positions.
+     */
+    private static final class Segment {
+        final Path path;
+        final long firstSequence;
+        final MappedByteBuffer buffer;
+        int position;       // End of the last complete record
+        int syncedPosition; // End of the last forced record
+
+        Segment(Path path, long firstSequence, MappedByteBuffer buffer) {
+            this.path = path;
+            this.firstSequence = firstSequence;
+            this.buffer = buffer;
+        }
+    }
+}
@@ -19,6 +19,9 @@ import org.junit.jupiter.api.Timeout;
  * - [x] Capacity Constraints
  * - [x] Blocking Mechanics (Wait/Notify)
  * - [x] Edge-Case Handling (Timeouts)
+ * - [x] Ring Buffer Storage (Wrap-around)
+ * - [x] Watermark Listeners (Hysteresis)
+ * - [x] Close (Wake-all, Drain, End of Stream)
  */
 class AdvancedQueueTest {
 
@@ -176,4 +179,343 @@ class AdvancedQueueTest {
             new AdvancedBlockingQueue<>(-1);
         });
     }
-}
\ No newline at end of file
+
+    // ==========================================
+    // 5. RING BUFFER STORAGE TESTS
+    // ==========================================
+
+    @Test
+    void testRingBufferFIFOAcrossWrapAround() throws InterruptedException {
+        // Goal: Verify FIFO order holds when head/tail wrap past the array end.
+        AdvancedBlockingQueue<Integer> queue = new AdvancedBlockingQueue<>(3, QueueStorage.RING_BUFFER);
+
+        for (int round = 0; round < 5; round++) {
+            queue.put(round * 10 + 1);
+            queue.put(round * 10 + 2);
+            assertEquals(round * 10 + 1, queue.take());
+            assertEquals(round * 10 + 2, queue.take());
+        }
+        assertEquals(0, queue.getSize());
+        assertEquals(QueueStorage.RING_BUFFER, queue.getStorage());
+    }
+
+    @Test
+    void testRingBufferCapacityAndTimeouts() throws InterruptedException {
+        // Goal: Verify the ring buffer enforces capacity exactly like the LinkedList version.
+        AdvancedBlockingQueue<String> queue = new AdvancedBlockingQueue<>(2, QueueStorage.RING_BUFFER);
+
+        assertTrue(queue.offer("A", 10, TimeUnit.MILLISECONDS));
+        assertTrue(queue.offer("B", 10, TimeUnit.MILLISECONDS));
+        assertFalse(queue.offer("C", 50, TimeUnit.MILLISECONDS), "Full ring buffer should time out");
+        assertEquals(2, queue.getSize());
+
+        assertEquals("A", queue.poll(10, TimeUnit.MILLISECONDS));
+        assertEquals("B", queue.poll(10, TimeUnit.MILLISECONDS));
+        assertNull(queue.poll(50, TimeUnit.MILLISECONDS), "Empty ring buffer should time out");
+    }
+
+    @Test
+    void testDefaultStorageIsLinkedList() {
+        AdvancedBlockingQueue<String> queue = new AdvancedBlockingQueue<>(5);
+        assertEquals(QueueStorage.LINKED_LIST, queue.getStorage());
+
+        org.junit.jupiter.api.Assertions.assertThrows(NullPointerException.class, () -> {
+            new AdvancedBlockingQueue<>(5, null);
+        });
+    }
+
+    // ==========================================
+    // 6. BATCH OPERATION TESTS
+    // ==========================================
+
+    @Test
+    void testDrainToRespectsMaxElementsAndOrder() throws InterruptedException {
+        AdvancedBlockingQueue<Integer> queue = new AdvancedBlockingQueue<>(10);
+        for (int i = 1; i <= 5; i++) {
+            queue.put(i);
+        }
+
+        java.util.List<Integer> target = new java.util.ArrayList<>();
+        assertEquals(3, queue.drainTo(target, 3));
+        assertEquals(java.util.List.of(1, 2, 3), target);
+        assertEquals(2, queue.getSize());
+
+        assertEquals(2, queue.drainTo(target, 10), "Should only drain what is available");
+        assertEquals(0, queue.drainTo(target, 10), "Empty queue drains nothing");
+    }
+
+    @Test
+    @Timeout(value = 2, unit = TimeUnit.SECONDS)
+    void testTakeBatchWaitsForFirstElement() throws InterruptedException {
+        AdvancedBlockingQueue<String> queue = new AdvancedBlockingQueue<>(10);
+        java.util.List<String> target = new java.util.ArrayList<>();
+
+        assertEquals(0, queue.takeBatch(target, 5, 100, TimeUnit.MILLISECONDS), "Should time out when empty");
+
+        Thread delayedProducer = new Thread(() -> {
+            try {
+                Thread.sleep(200);
+                queue.putAll(java.util.List.of("A", "B", "C"));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        delayedProducer.start();
+
+        int taken = queue.takeBatch(target, 5, 1, TimeUnit.SECONDS);
+        assertTrue(taken >= 1, "Should wake once data arrives");
+        queue.drainTo(target, 5);
+        assertEquals(java.util.List.of("A", "B", "C"), target);
+    }
+
+    @Test
+    @Timeout(value = 2, unit = TimeUnit.SECONDS)
+    void testPutAllBlocksUntilSpaceFreed() throws InterruptedException {
+        AdvancedBlockingQueue<Integer> queue = new AdvancedBlockingQueue<>(2, QueueStorage.RING_BUFFER);
+        java.util.List<Integer> drained = java.util.Collections.synchronizedList(new java.util.ArrayList<>());
+
+        Thread consumer = new Thread(() -> {
+            try {
+                while (drained.size() < 5) {
+                    queue.takeBatch(drained, 2, 50, TimeUnit.MILLISECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        consumer.start();
+
+        queue.putAll(java.util.List.of(1, 2, 3, 4, 5)); // More than capacity
+        consumer.join(1500);
+
+        assertEquals(java.util.List.of(1, 2, 3, 4, 5), drained);
+    }
+
+    @Test
+    void testPutAllRejectsNullsWithoutPartialInsert() {
+        AdvancedBlockingQueue<String> queue = new AdvancedBlockingQueue<>(5);
+
+        org.junit.jupiter.api.Assertions.assertThrows(NullPointerException.class, () -> {
+            queue.putAll(java.util.Arrays.asList("A", null, "C"));
+        });
+        assertEquals(0, queue.getSize());
+    }
+
+
+    // ==========================================
+    // 7. MONITORING TESTS
+    // ==========================================
+
+    @Test
+    @Timeout(value = 2, unit = TimeUnit.SECONDS)
+    void testGetSizeDoesNotWaitForLockHolder() throws InterruptedException {
+        AdvancedBlockingQueue<Integer> queue = new AdvancedBlockingQueue<>(10);
+        queue.put(1);
+        queue.put(2);
+
+        java.util.concurrent.CountDownLatch inside = new java.util.concurrent.CountDownLatch(1);
+        java.util.concurrent.CountDownLatch release = new java.util.concurrent.CountDownLatch(1);
+        java.util.List<Integer> slowTarget = new java.util.ArrayList<>() {
+            @Override
+            public boolean add(Integer item) {
+                inside.countDown();
+                try {
+                    release.await(); // Holds the queue lock until released
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.add(item);
+            }
+        };
+        Thread drainer = new Thread(() -> queue.drainTo(slowTarget, 1));
+        drainer.start();
+        inside.await();
+
+        assertEquals(2, queue.getSize(), "Size read must not block on the held lock");
+
+        release.countDown();
+        drainer.join();
+        assertEquals(1, queue.getSize());
+    }
+
+    // ==========================================
+    // WATERMARK LISTENERS
+    // ==========================================
+
+    /**
+     * Records each callback as "H&lt;size&gt;" or "L&lt;size&gt;".
+     */
+    private static final class RecordingListener implements WatermarkListener {
+        final java.util.List<String> events = new java.util.concurrent.CopyOnWriteArrayList<>();
+
+        @Override
+        public void onHighWatermark(int size, int capacity) {
+            events.add("H" + size);
+        }
+
+        @Override
+        public void onLowWatermark(int size, int capacity) {
+            events.add("L" + size);
+        }
+    }
+
+    @Test
+    void testWatermarksFireOnceWithHysteresis() throws InterruptedException {
+        AdvancedBlockingQueue<Integer> queue = new AdvancedBlockingQueue<>(10);
+        RecordingListener listener = new RecordingListener();
+        assertTrue(queue.setWatermarkListener(8, 2, listener));
+
+        for (int i = 0; i < 8; i++) {
+            queue.put(i);
+        }
+        assertEquals(java.util.List.of("H8"), listener.events);
+
+        // Oscillating around the high watermark must not flap
+        for (int i = 0; i < 5; i++) {
+            queue.take();
+            queue.put(i);
+        }
+        assertEquals(java.util.List.of("H8"), listener.events);
+
+        java.util.List<Integer> drained = new java.util.ArrayList<>();
+        queue.drainTo(drained, 6);
+        assertEquals(java.util.List.of("H8", "L2"), listener.events);
+
+        // Back up through the band, then via putAll over the high mark again
+        queue.putAll(java.util.List.of(1, 2, 3, 4, 5, 6));
+        assertEquals(java.util.List.of("H8", "L2", "H8"), listener.events);
+    }
+
+    @Test
+    void testWatermarkInitialStateFollowsCurrentSize() throws InterruptedException {
+        AdvancedBlockingQueue<Integer> queue = new AdvancedBlockingQueue<>(4);
+        for (int i = 0; i < 4; i++) {
+            queue.put(i);
+        }
+        RecordingListener listener = new RecordingListener();
+        queue.setWatermarkListener(3, 1, listener);
+
+        queue.take();
+        queue.take();
+        assertTrue(listener.events.isEmpty(), "Already high, no second high event");
+        queue.poll(0, TimeUnit.MILLISECONDS);
+        assertEquals(java.util.List.of("L1"), listener.events);
+    }
+
+    @Test
+    void testWatermarkListenerRemovedAndValidated() throws InterruptedException {
+        AdvancedBlockingQueue<Integer> queue = new AdvancedBlockingQueue<>(4);
+        RecordingListener listener = new RecordingListener();
+        queue.setWatermarkListener(2, 0, listener);
+        queue.setWatermarkListener(0, 0, null);
+        queue.put(1);
+        queue.put(2);
+        assertTrue(listener.events.isEmpty());
+
+        org.junit.jupiter.api.Assertions.assertThrows(IllegalArgumentException.class,
+            () -> queue.setWatermarkListener(2, 2, listener));
+        org.junit.jupiter.api.Assertions.assertThrows(IllegalArgumentException.class,
+            () -> queue.setWatermarkListener(5, 1, listener));
+        org.junit.jupiter.api.Assertions.assertThrows(IllegalArgumentException.class,
+            () -> queue.setWatermarkListener(2, -1, listener));
+    }
+
+    // ==========================================
+    // CLOSE
+    // ==========================================
+
+    @Test
+    @Timeout(2)
+    void testCloseWakesAllWaitingTakersAtOnce() throws InterruptedException {
+        AdvancedBlockingQueue<Integer> queue = new AdvancedBlockingQueue<>(5);
+        java.util.concurrent.atomic.AtomicInteger ended = new java.util.concurrent.atomic.AtomicInteger();
+        Thread[] takers = new Thread[4];
+        for (int i = 0; i < takers.length; i++) {
+            takers[i] = new Thread(() -> {
+                try {
+                    queue.take();
+                } catch (QueueClosedException e) {
+                    ended.incrementAndGet();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            takers[i].start();
+        }
+        while (!allWaiting(takers)) {
+            Thread.sleep(5); // All four parked on notEmpty
+        }
+
+        assertTrue(queue.close());
+        for (Thread taker : takers) {
+            taker.join();
+        }
+        assertEquals(4, ended.get());
+        assertTrue(queue.isClosed());
+    }
+
+    @Test
+    void testCloseRejectsPutsButDrainsRemainingItems() throws InterruptedException {
+        AdvancedBlockingQueue<Integer> queue = new AdvancedBlockingQueue<>(5);
+        queue.put(1);
+        queue.put(2);
+        queue.put(3);
+        queue.close();
+        queue.close(); // Idempotent
+
+        org.junit.jupiter.api.Assertions.assertThrows(QueueClosedException.class, () -> queue.put(4));
+        org.junit.jupiter.api.Assertions.assertThrows(QueueClosedException.class,
+            () -> queue.offer(4, 0, TimeUnit.MILLISECONDS));
+        org.junit.jupiter.api.Assertions.assertThrows(QueueClosedException.class,
+            () -> queue.putAll(java.util.List.of(4)));
+
+        assertEquals(1, queue.take());
+        assertEquals(2, queue.poll(0, TimeUnit.MILLISECONDS));
+        java.util.List<Integer> batch = new java.util.ArrayList<>();
+        assertEquals(1, queue.takeBatch(batch, 10, 0, TimeUnit.MILLISECONDS));
+        assertEquals(java.util.List.of(3), batch);
+
+        org.junit.jupiter.api.Assertions.assertThrows(QueueClosedException.class, queue::take);
+        org.junit.jupiter.api.Assertions.assertThrows(QueueClosedException.class,
+            () -> queue.poll(1, TimeUnit.SECONDS));
+        org.junit.jupiter.api.Assertions.assertThrows(QueueClosedException.class,
+            () -> queue.takeBatch(batch, 10, 1, TimeUnit.SECONDS));
+        assertEquals(0, queue.drainTo(batch, 10), "drainTo never blocks, so it just finds nothing");
+    }
+
+    @Test
+    @Timeout(2)
+    void testCloseReleasesProducerBlockedOnFullQueue() throws InterruptedException {
+        AdvancedBlockingQueue<Integer> queue = new AdvancedBlockingQueue<>(1);
+        queue.put(1);
+        java.util.concurrent.atomic.AtomicBoolean rejected = new java.util.concurrent.atomic.AtomicBoolean();
+        Thread producer = new Thread(() -> {
+            try {
+                queue.put(2);
+            } catch (QueueClosedException e) {
+                rejected.set(true);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+        while (producer.getState() != Thread.State.WAITING) {
+            Thread.sleep(5);
+        }
+
+        queue.close();
+        producer.join();
+        assertTrue(rejected.get());
+        assertEquals(1, queue.getSize());
+        assertEquals(1, queue.take());
+    }
+
+    private static boolean allWaiting(Thread[] threads) {
+        for (Thread thread : threads) {
+            if (thread.getState() != Thread.State.WAITING) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,140 @@
+package com.pranjal.assign1;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * UNIT TESTS for the headless benchmark mode
+ * ------------------------------------------------------------------
+ * Focus: Runs stop cleanly and report only the measured window.
+ * Covers:
+ * - [x] Think time parsing and validation
+ * - [x] Zero-think run on a closeable queue and on a poison-pill queue
+ * - [x] Spill runs measure the spilling queue and drain the disk before stopping
+ * - [x] JSON summary fields
+ * - [x] Measured depth and wait against the M/M/1 prediction
+ */
+class BenchmarkRunnerTest {
+
+    @BeforeEach
+    void setUp() {
+        Logger.setLevel(LogLevel.OFF);
+    }
+
+    @AfterEach
+    void tearDown() {
+        Logger.setLevel(LogLevel.DEBUG);
+    }
+
+    @Test
+    void testThinkTimeParsing() {
+        assertEquals(ThinkTime.NONE, ThinkTime.parse("0"));
+        assertEquals(5.0, ThinkTime.parse("5").getMeanMillis(), 1e-9);
+        assertEquals("const:5", ThinkTime.parse("5").toString());
+        ThinkTime range = ThinkTime.parse("10-20");
+        assertEquals(15.0, range.getMeanMillis(), 1e-9);
+        assertEquals("uniform:10-20", range.toString());
+        assertEquals("exp:20", ThinkTime.parse("exp:20").toString());
+
+        assertThrows(IllegalArgumentException.class, () -> ThinkTime.parse("abc"));
+        assertThrows(IllegalArgumentException.class, () -> ThinkTime.parse("20-10"));
+        assertThrows(IllegalArgumentException.class, () -> ThinkTime.parse("-5"));
+        assertThrows(IllegalArgumentException.class, () -> ThinkTime.parse("exp:0"));
+    }
+
+    @Test
+    @Timeout(10)
+    void testRunMeasuresOnlyTheWindowAndStops() throws InterruptedException {
+        Configuration config = Configuration.custom(2, 1, 2, 64).withQueueType(QueueType.FAIR_RING);
+        BenchmarkResult result = new BenchmarkRunner(config, ThinkTime.NONE, ThinkTime.NONE, 100, 300).run();
+
+        assertTrue(result.getConsumed() > 0, "Zero think time moves items");
+        assertTrue(result.getThroughput() > 0);
+        assertTrue(result.getProduced() >= result.getConsumed() - config.getQueueCapacity(),
+                   "Window counts are consistent with each other");
+        long processed = result.getLatency(LatencyKind.PROCESSING).getCount();
+        assertTrue(Math.abs(processed - result.getConsumed()) <= config.getNumberOfConsumers(),
+                   "Warmup samples are not included, apart from items in flight at the switch");
+        assertTrue(result.getElapsedNanos() >= 300_000_000L);
+    }
+
+    @Test
+    @Timeout(10)
+    void testRunStopsQueueWithoutClose() throws InterruptedException {
+        Configuration config = Configuration.custom(2, 1, 3, 64)
+            .withQueueType(QueueType.LOCK_FREE).withConsumerBatchSize(8);
+        BenchmarkResult result = new BenchmarkRunner(config, ThinkTime.NONE, ThinkTime.NONE, 0, 200).run();
+        assertTrue(result.getConsumed() > 0, "Poison pill fallback ends the run");
+    }
+
+    @Test
+    @Timeout(20)
+    void testRunSpillsToDisk(@TempDir Path dir) throws InterruptedException, IOException {
+        Path spill = dir.resolve("spill");
+        Configuration config = Configuration.custom(2, 1, 1, 4).withSpillDirectory(spill.toString());
+        BenchmarkResult result = new BenchmarkRunner(config, new ThinkTime(1, 1), new ThinkTime(5, 5), 0, 200).run();
+
+        assertTrue(result.getLatency(LatencyKind.PAGE_IN).getCount() > 0, "Producers outran the consumer");
+        assertTrue(Files.isDirectory(spill));
+        try (Stream<Path> files = Files.list(spill)) {
+            assertEquals(0, files.count(), "Spill files are deleted once drained");
+        }
+    }
+
+    @Test
+    @Timeout(10)
+    void testJsonSummary() throws InterruptedException {
+        Configuration config = Configuration.custom(1, 1, 1, 16);
+        BenchmarkResult result = new BenchmarkRunner(config, ThinkTime.NONE, new ThinkTime(0, 1), 0, 100).run();
+        String json = result.toJson();
+
+        assertTrue(json.startsWith("{") && json.trim().endsWith("}"));
+        assertTrue(json.contains("\"queue\": \"FAIR_LINKED\""));
+        assertTrue(json.contains("\"consumed\": " + result.getConsumed()));
+        assertTrue(json.contains("\"consumerThink\": \"uniform:0-1\""));
+        assertTrue(json.contains("\"queueingModel\": {\"consumers\": 1, "));
+        assertTrue(json.contains("\"QUEUE_WAIT\": {\"count\": "));
+        assertTrue(json.contains("\"allocationBytesPerSec\": "));
+    }
+
+    @Test
+    @Timeout(20)
+    void testQueueingModelTracksMeasuredMm1() throws InterruptedException {
+        // One exponential stream into one exponential server at rho ~ 0.5: Lq = rho^2 / (1 - rho) ~ 0.5
+        Configuration config = Configuration.custom(1, 1, 1, 256);
+        BenchmarkResult result = new BenchmarkRunner(config, new ThinkTime(Distributions.exponential(4)),
+                                                     new ThinkTime(Distributions.exponential(2)), 200, 2000).run();
+        QueueingModelReport model = result.getQueueingModel();
+
+        assertTrue(model.getUtilization() > 0.2 && model.getUtilization() < 0.9,
+                   "Sleep overhead only shifts rho, got " + model.getUtilization());
+        assertEquals(model.getMmcDepth(), model.getMgDepth(), 1e-9, "SCV 1 makes P-K equal to Erlang C");
+        assertTrue(model.getMeasuredDepth() > 0, "Items do queue at rho ~ 0.5");
+        assertTrue(model.getMeasuredDepth() < model.getMmcDepth() * 4 + 0.5,
+                   "Measured " + model.getMeasuredDepth() + " vs predicted " + model.getMmcDepth());
+    }
+
+    @Test
+    void testInvalidDurationsAndPipelinesRejected() {
+        Configuration config = Configuration.withDefaults();
+        assertThrows(IllegalArgumentException.class,
+            () -> new BenchmarkRunner(config, ThinkTime.NONE, ThinkTime.NONE, -1, 100));
+        assertThrows(IllegalArgumentException.class,
+            () -> new BenchmarkRunner(config, ThinkTime.NONE, ThinkTime.NONE, 0, 0));
+        assertThrows(IllegalArgumentException.class,
+            () -> new BenchmarkRunner(config.withPipeline("parse:1:0;persist:1:0"), ThinkTime.NONE, ThinkTime.NONE,
+                                      0, 100));
+    }
+}
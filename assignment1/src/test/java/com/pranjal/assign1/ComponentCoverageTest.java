@@ -6,8 +6,11 @@ import org.junit.jupiter.api.AfterEach;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Timeout;
@@ -79,8 +82,10 @@ class ComponentCoverageTest {
         
         assertEquals(1, queue.getSize());
         try {
-            String item = (String) queue.take();
-            assertTrue(item.contains("Record-99"));
+            WorkItem item = (WorkItem) queue.take();
+            assertEquals(99, item.getProducerId());
+            assertEquals(1, item.getSequence());
+            assertEquals("Record-99-1", item.toString());
         } catch (InterruptedException e) {
             fail("Queue take failed");
         }
@@ -314,6 +319,29 @@ class ComponentCoverageTest {
         assertTrue(true);
     }
     
+    @Test
+    @Timeout(5)
+    void testManagerLifecycleOnVirtualThreads() throws InterruptedException {
+        assumeTrue(ExecutorType.VIRTUAL.isSupported(), "Virtual threads need Java 21+");
+        ThreadManager manager = new ThreadManager(queue, metrics, 1, ExecutorType.VIRTUAL);
+        
+        manager.startProducers(2, 1);
+        manager.startConsumers(1);
+        
+        manager.shutdown(); // Returns once both producers finished
+        assertEquals(2, metrics.getTotalProduced());
+        queue.put(QueueCommand.POISON_PILL);
+        manager.waitForConsumers();
+        assertEquals(0, manager.getConsumerCount());
+    }
+    
+    @Test
+    void testVirtualThreadsRejectedBeforeJava21() {
+        assumeFalse(ExecutorType.VIRTUAL.isSupported(), "Running on Java 21+");
+        assertThrows(UnsupportedOperationException.class,
+                     () -> new ThreadManager(queue, metrics, 1, ExecutorType.VIRTUAL));
+    }
+    
     // ==========================================
     // 6. TIMEOUT HANDLING COVERAGE
     // ==========================================
@@ -369,4 +397,213 @@ class ComponentCoverageTest {
         queue.put(QueueCommand.POISON_PILL);
         manager.waitForConsumers();
     }
-}
\ No newline at end of file
+
+    // ==========================================
+    // BATCH CONSUMER TESTS
+    // ==========================================
+
+    @Test
+    @Timeout(5)
+    void testBatchConsumerProcessesItemsAndRelaysPill() throws InterruptedException {
+        SystemMetrics batchMetrics = new SystemMetrics();
+        queue.put("Batch-1");
+        queue.put("Batch-2");
+        queue.put("Batch-3");
+        queue.put(QueueCommand.POISON_PILL);
+
+        ConsumerWorker consumer = new ConsumerWorker(queue, "BatchConsumer", batchMetrics, 8);
+        consumer.run();
+
+        // All items in one acquisition, pill relayed back
+        assertEquals(3, batchMetrics.getTotalConsumed());
+        assertEquals(1, batchMetrics.getBatchCount());
+        assertEquals(1, queue.getSize());
+        assertEquals(QueueCommand.POISON_PILL, queue.take());
+    }
+
+    @Test
+    @Timeout(5)
+    void testConsumersDrainAndExitWhenQueueClosed() throws InterruptedException {
+        SystemMetrics closeMetrics = new SystemMetrics();
+        Thread[] consumers = {
+            new Thread(new ConsumerWorker(queue, "Single", closeMetrics)),
+            new Thread(new ConsumerWorker(queue, "Batched", closeMetrics, 4)),
+            new Thread(new ConsumerWorker(queue, "Retirable", closeMetrics, 1, () -> false))
+        };
+        for (Thread consumer : consumers) {
+            consumer.start();
+        }
+        for (int i = 0; i < 6; i++) {
+            queue.put("Closing-" + i);
+        }
+        queue.close();
+
+        for (Thread consumer : consumers) {
+            consumer.join();
+        }
+        assertEquals(6, closeMetrics.getTotalConsumed(), "Items queued before close are still processed");
+        assertEquals(0, queue.getSize(), "Nothing to relay");
+    }
+
+    @Test
+    void testBatchConsumerRejectsInvalidBatchSize() {
+        org.junit.jupiter.api.Assertions.assertThrows(IllegalArgumentException.class, () -> {
+            new ConsumerWorker(queue, "Bad", metrics, 0);
+        });
+    }
+
+    // ==========================================
+    // ASYNC LOGGER TESTS
+    // ==========================================
+
+    @Test
+    @Timeout(10)
+    void testAsyncSinkCloseDrainsEveryEvent() throws InterruptedException {
+        java.io.StringWriter out = new java.io.StringWriter();
+        // Tiny ring so callers hit back-pressure instead of dropping events
+        AsyncLogSink sink = new AsyncLogSink(new java.io.PrintWriter(out), 16, 8, 50);
+
+        int threads = 4;
+        int perThread = 500;
+        Thread[] writers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            String component = "Writer-" + t;
+            writers[t] = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    sink.write(System.currentTimeMillis(), component, "event " + i);
+                }
+            });
+            writers[t].start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        sink.close();
+
+        String[] lines = out.toString().split(System.lineSeparator());
+        assertEquals(threads * perThread, lines.length, "close() must write every queued event");
+        assertTrue(lines[0].matches("\\[\\d{2}:\\d{2}:\\d{2}\\.\\d{3}\\] \\[Writer-\\d +\\] : event \\d+"),
+                   "Async lines must use the same format as SYNC: " + lines[0]);
+        assertEquals(0, sink.getPending());
+    }
+
+    @Test
+    @Timeout(5)
+    void testAsyncSinkFlushesOnInterval() throws InterruptedException {
+        java.io.StringWriter out = new java.io.StringWriter();
+        java.io.PrintWriter buffered = new java.io.PrintWriter(new java.io.BufferedWriter(out, 8192));
+        AsyncLogSink sink = new AsyncLogSink(buffered, 64, 1000, 20);
+
+        sink.write(System.currentTimeMillis(), "TEST", "single event");
+        // Far below the batch size, so only the time policy can flush it
+        long deadline = System.currentTimeMillis() + 2000;
+        while (out.toString().isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(out.toString().contains("single event"), "Interval flush should write pending lines");
+        sink.close();
+    }
+
+    @Test
+    void testAsyncLoggerModeWritesLogFile() {
+        Logger.init(LogMode.ASYNC);
+        Logger.log("TEST-COMPONENT", "Testing async logger writing.");
+        Logger.close();
+
+        File logFile = new File("execution_history.log");
+        assertTrue(logFile.exists(), "Log file should exist");
+        assertTrue(logFile.length() > 0, "Async close should have flushed the log");
+    }
+
+    // ==========================================
+    // LOG LEVEL TESTS
+    // ==========================================
+
+    /**
+     * Captures formatted messages in memory.
+     */
+    private static final class CapturingSink implements LogSink {
+        final java.util.List<String> lines = java.util.Collections.synchronizedList(new java.util.ArrayList<>());
+
+        @Override
+        public void write(long epochMillis, String component, String message) {
+            lines.add(component + ": " + message);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    @Test
+    void testDisabledLevelSkipsLazyArguments() {
+        CapturingSink sink = new CapturingSink();
+        Logger.init(sink);
+        Logger.setLevel(LogLevel.INFO);
+        try {
+            Logger.log(LogLevel.DEBUG, "TEST", "size {} {}", "x", () -> {
+                fail("Size probe must not run when DEBUG is disabled");
+                return 0;
+            });
+            Logger.log(LogLevel.DEBUG, "TEST", () -> {
+                fail("Supplier must not run when DEBUG is disabled");
+                return "";
+            });
+            Logger.log(LogLevel.WARN, "TEST", "kept {}", "warn");
+
+            assertFalse(Logger.isEnabled(LogLevel.DEBUG));
+            assertEquals(java.util.List.of("SYSTEM: Logger Initialized. Recording events...", "TEST: kept warn"),
+                         sink.lines);
+        } finally {
+            Logger.setLevel(LogLevel.DEBUG);
+        }
+    }
+
+    @Test
+    void testTemplateFormatting() {
+        CapturingSink sink = new CapturingSink();
+        Logger.init(sink);
+        Logger.log(LogLevel.DEBUG, "TEST", "ADDED {} | Queue Size: {}", "Record-1-1", () -> 7);
+        Logger.log(LogLevel.DEBUG, "TEST", "TOOK BATCH of {} | Queue Size: {}", 3, () -> 0);
+        Logger.log(LogLevel.DEBUG, "TEST", "{} and {}", (java.util.function.Supplier<String>) () -> "lazy", "eager");
+        Logger.log(LogLevel.DEBUG, "TEST", "only {} then {}", "one");
+
+        assertEquals("TEST: ADDED Record-1-1 | Queue Size: 7", sink.lines.get(1));
+        assertEquals("TEST: TOOK BATCH of 3 | Queue Size: 0", sink.lines.get(2));
+        assertEquals("TEST: lazy and eager", sink.lines.get(3));
+        assertEquals("TEST: only one then {}", sink.lines.get(4));
+    }
+
+    @Test
+    void testOffLevelSilencesEverything() {
+        CapturingSink sink = new CapturingSink();
+        Logger.init(sink);
+        Logger.setLevel(LogLevel.OFF);
+        try {
+            Logger.log("TEST", "info message");
+            Logger.log(LogLevel.ERROR, "TEST", "error message");
+            assertEquals(1, sink.lines.size(), "Only the init line written before OFF");
+            assertEquals(LogLevel.OFF, Logger.getLevel());
+        } finally {
+            Logger.setLevel(LogLevel.DEBUG);
+        }
+    }
+
+    @Test
+    @Timeout(5)
+    void testProducerAtInfoLevelLogsLifecycleOnly() {
+        CapturingSink sink = new CapturingSink();
+        Logger.init(sink);
+        Logger.setLevel(LogLevel.INFO);
+        try {
+            new ProducerWorker(queue, 5, 2, metrics).run();
+        } finally {
+            Logger.setLevel(LogLevel.DEBUG);
+        }
+        assertEquals(2, queue.getSize());
+        assertTrue(sink.lines.contains("Producer-5: STARTED."));
+        assertTrue(sink.lines.contains("Producer-5: FINISHED work."));
+        assertFalse(sink.lines.stream().anyMatch(line -> line.contains("ADDED")),
+                    "Per-item events are DEBUG");
+    }
+}
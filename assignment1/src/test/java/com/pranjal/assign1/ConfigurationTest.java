@@ -1,5 +1,7 @@
 package com.pranjal.assign1;
 
+import java.util.List;
+
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -265,5 +267,253 @@ class ConfigurationTest {
         Configuration config2 = Configuration.custom(1, 100, 50, 10);
         assertDoesNotThrow(() -> config2.validate());
     }
-}
 
+    // ==========================================
+    // QUEUE SELECTION TESTS
+    // ==========================================
+
+    @Test
+    void testDefaultQueueTypeIsFairLinked() {
+        Configuration config = Configuration.withDefaults();
+
+        assertEquals(QueueType.FAIR_LINKED, config.getQueueType());
+        assertEquals(WaitStrategy.SPIN_THEN_PARK, config.getWaitStrategy());
+        assertTrue(config.createQueue() instanceof AdvancedBlockingQueue);
+    }
+
+    @Test
+    void testWithQueueTypeReturnsModifiedCopy() {
+        Configuration original = Configuration.custom(2, 5, 1, 12);
+        Configuration lockFree = original.withQueueType(QueueType.LOCK_FREE)
+                                         .withWaitStrategy(WaitStrategy.BUSY_SPIN);
+
+        // Original untouched, copy keeps all other values
+        assertEquals(QueueType.FAIR_LINKED, original.getQueueType());
+        assertEquals(QueueType.LOCK_FREE, lockFree.getQueueType());
+        assertEquals(WaitStrategy.BUSY_SPIN, lockFree.getWaitStrategy());
+        assertEquals(12, lockFree.getQueueCapacity());
+        assertEquals(10, lockFree.getTotalExpectedItems());
+
+        BoundedBlockingQueue<Object> queue = lockFree.createQueue();
+        assertTrue(queue instanceof LockFreeBoundedQueue);
+        assertEquals(12, queue.getCapacity());
+        assertTrue(lockFree.toString().contains("queue=LOCK_FREE"));
+    }
+
+    @Test
+    void testEveryQueueTypeCreatesQueueWithConfiguredCapacity() {
+        for (QueueType type : QueueType.values()) {
+            Configuration config = Configuration.custom(1, 1, 1, 7).withQueueType(type);
+            assertEquals(7, config.createQueue().getCapacity(), "Capacity mismatch for " + type);
+        }
+    }
+
+    @Test
+    void testWithNullQueueTypeThrows() {
+        Configuration config = Configuration.withDefaults();
+
+        assertThrows(NullPointerException.class, () -> config.withQueueType(null));
+        assertThrows(NullPointerException.class, () -> config.withWaitStrategy(null));
+    }
+
+    @Test
+    void testConsumerBatchSize() {
+        Configuration config = Configuration.withDefaults();
+        assertEquals(1, config.getConsumerBatchSize());
+
+        Configuration batched = config.withConsumerBatchSize(16);
+        assertEquals(16, batched.getConsumerBatchSize());
+        assertDoesNotThrow(batched::validate);
+
+        assertThrows(IllegalArgumentException.class, () -> config.withConsumerBatchSize(0).validate());
+    }
+
+    @Test
+    void testMetricsType() {
+        Configuration config = Configuration.withDefaults();
+        assertEquals(MetricsType.ATOMIC, config.getMetricsType());
+        assertTrue(MetricsType.ATOMIC.create() instanceof SystemMetrics);
+
+        Configuration striped = config.withMetricsType(MetricsType.STRIPED);
+        assertEquals(MetricsType.STRIPED, striped.getMetricsType());
+        assertTrue(striped.getMetricsType().create() instanceof StripedMetrics);
+        assertTrue(striped.toString().contains("metrics=STRIPED"));
+
+        assertThrows(NullPointerException.class, () -> config.withMetricsType(null));
+    }
+
+
+    @Test
+    void testMetricsPort() {
+        Configuration config = Configuration.withDefaults();
+        assertEquals(-1, config.getMetricsPort());
+        assertFalse(config.isMetricsEndpointEnabled());
+
+        Configuration served = config.withMetricsPort(9400);
+        assertEquals(9400, served.getMetricsPort());
+        assertTrue(served.isMetricsEndpointEnabled());
+        assertTrue(config.withMetricsPort(0).isMetricsEndpointEnabled(), "Port 0 picks any free port");
+
+        assertThrows(IllegalArgumentException.class, () -> config.withMetricsPort(-2));
+        assertThrows(IllegalArgumentException.class, () -> config.withMetricsPort(65536));
+    }
+
+    @Test
+    void testExecutorType() {
+        Configuration config = Configuration.withDefaults();
+        assertEquals(ExecutorType.PLATFORM, config.getExecutorType());
+        assertTrue(ExecutorType.PLATFORM.isSupported());
+
+        Configuration virtual = config.withExecutorType(ExecutorType.VIRTUAL);
+        assertEquals(ExecutorType.VIRTUAL, virtual.getExecutorType());
+        assertEquals(ExecutorType.PLATFORM, config.getExecutorType(), "Original unchanged");
+        assertTrue(virtual.toString().contains("executor=VIRTUAL"));
+
+        assertThrows(NullPointerException.class, () -> config.withExecutorType(null));
+    }
+
+    @Test
+    void testScalingPolicyAndBounds() {
+        Configuration config = Configuration.custom(4, 20, 2, 10);
+        assertEquals(ScalingPolicyType.THRESHOLD, config.getScalingPolicy());
+        assertEquals(2, config.getMinConsumers(), "Defaults to the initial consumers");
+        assertEquals(5, config.getMaxConsumers(), "Defaults to 3 emergency consumers on top");
+
+        Configuration pid = config.withScalingPolicy(ScalingPolicyType.PID).withConsumerBounds(1, 8);
+        assertEquals(ScalingPolicyType.PID, pid.getScalingPolicy());
+        assertEquals(1, pid.getMinConsumers());
+        assertEquals(8, pid.getMaxConsumers());
+        assertTrue(pid.toString().contains("scaling=PID[1..8]"));
+        assertTrue(ScalingPolicyType.MMC.create() instanceof QueueingModelScalingPolicy);
+
+        assertThrows(NullPointerException.class, () -> config.withScalingPolicy(null));
+        assertThrows(IllegalArgumentException.class, () -> config.withConsumerBounds(3, 2));
+        assertThrows(IllegalArgumentException.class, () -> config.withConsumerBounds(-1, 2));
+        assertThrows(IllegalArgumentException.class, () -> config.withConsumerBounds(0, 0));
+    }
+
+    @Test
+    void testWriteAheadLogOptions() {
+        Configuration config = Configuration.custom(4, 20, 2, 10);
+        assertFalse(config.isWriteAheadLogEnabled());
+        assertNull(config.getWalDirectory());
+        assertEquals(FsyncPolicy.BATCH, config.getFsyncPolicy());
+        assertEquals(1024, config.getFsyncEvery());
+        assertFalse(config.toString().contains("wal="));
+
+        Configuration durable = config.withFsyncPolicy(FsyncPolicy.INTERVAL, 5).withWriteAheadLog("wal-data");
+        assertTrue(durable.isWriteAheadLogEnabled());
+        assertEquals("wal-data", durable.getWalDirectory());
+        assertEquals(FsyncPolicy.INTERVAL, durable.getFsyncPolicy());
+        assertEquals(5, durable.getFsyncEvery());
+        assertTrue(durable.toString().contains("wal=wal-data INTERVAL:5"));
+        assertFalse(durable.withWriteAheadLog(null).isWriteAheadLogEnabled());
+
+        assertThrows(IllegalArgumentException.class, () -> config.withWriteAheadLog(" "));
+        assertThrows(NullPointerException.class, () -> config.withFsyncPolicy(null, 1));
+        assertThrows(IllegalArgumentException.class, () -> config.withFsyncPolicy(FsyncPolicy.BATCH, 0));
+    }
+
+    @Test
+    void testSpillDirectoryOption() {
+        Configuration config = Configuration.custom(4, 20, 2, 10);
+        assertFalse(config.isSpillEnabled());
+        assertNull(config.getSpillDirectory());
+
+        Configuration spilling = config.withSpillDirectory("spill-data");
+        assertTrue(spilling.isSpillEnabled());
+        assertEquals("spill-data", spilling.getSpillDirectory());
+        assertTrue(spilling.toString().contains("spill=spill-data"));
+        assertEquals(10, spilling.getQueueCapacity(), "Capacity still bounds memory");
+        assertFalse(spilling.withSpillDirectory(null).isSpillEnabled());
+        assertThrows(IllegalArgumentException.class, () -> spilling.withWriteAheadLog("wal-data").validate(),
+                     "Spilled items would be acknowledged before they are durable");
+
+        assertThrows(IllegalArgumentException.class, () -> config.withSpillDirectory(""));
+    }
+
+    @Test
+    void testItemPoolOption() {
+        Configuration config = Configuration.custom(4, 20, 2, 10);
+        assertEquals(0, config.getItemPoolSize());
+        assertNull(config.createItemPool(), "Items are allocated by default");
+
+        Configuration pooled = config.withItemPool(64);
+        assertEquals(64, pooled.getItemPoolSize());
+        assertEquals(64, pooled.createItemPool().getCapacity());
+        assertTrue(pooled.toString().contains("pool=64"));
+        assertEquals(64, pooled.withSpillDirectory("spill-data").getItemPoolSize(), "Kept by other withX");
+
+        assertThrows(IllegalArgumentException.class, () -> config.withItemPool(-1));
+    }
+
+    @Test
+    void testPipelineOption() {
+        Configuration config = Configuration.custom(4, 20, 2, 10);
+        assertFalse(config.isPipelineEnabled());
+        assertNull(config.getPipelineStages());
+
+        Configuration staged = config.withPipeline("parse:2:5; enrich:1..6:exp:120 ;persist:1");
+        assertTrue(staged.isPipelineEnabled());
+        List<StageSpec> stages = staged.getPipelineStages();
+        assertEquals(3, stages.size());
+        assertEquals("parse", stages.get(0).getName());
+        assertEquals(2 + StageSpec.DEFAULT_HEADROOM, stages.get(0).getMaxWorkers(), "Headroom without a max");
+        assertEquals(6, stages.get(1).getMaxWorkers());
+        assertEquals(120, stages.get(1).getServiceTime().getMeanMillis(), 0.001);
+        assertSame(ThinkTime.CONSUMER_DEFAULT, stages.get(2).getServiceTime());
+        assertTrue(staged.toString().contains("pipeline=parse:2..5:"));
+        assertEquals(3, staged.withItemPool(16).getPipelineStages().size(), "Kept by other withX");
+        assertFalse(staged.withPipeline(null).isPipelineEnabled());
+
+        assertThrows(IllegalArgumentException.class, () -> config.withPipeline(""));
+        assertThrows(IllegalArgumentException.class, () -> config.withPipeline("parse"));
+        assertThrows(IllegalArgumentException.class, () -> config.withPipeline("parse:x"));
+        assertThrows(IllegalArgumentException.class, () -> config.withPipeline("parse:3..2"));
+        assertThrows(IllegalArgumentException.class, () -> config.withPipeline("parse:0"));
+        assertThrows(IllegalArgumentException.class, () -> config.withPipeline("a:1;a:2"));
+        assertThrows(IllegalArgumentException.class, () -> staged.withSpillDirectory("spill-data").validate());
+        assertThrows(IllegalArgumentException.class, () -> staged.withWriteAheadLog("wal-data").validate());
+    }
+
+    @Test
+    void testEachWitherKeepsEveryOtherField() {
+        Configuration config = Configuration.custom(3, 7, 2, 16)
+            .withQueueType(QueueType.FAIR_RING)
+            .withWaitStrategy(WaitStrategy.YIELD)
+            .withConsumerBatchSize(8)
+            .withMetricsType(MetricsType.STRIPED)
+            .withMetricsPort(9400)
+            .withExecutorType(ExecutorType.VIRTUAL)
+            .withScalingPolicy(ScalingPolicyType.PID)
+            .withConsumerBounds(1, 6)
+            .withFsyncPolicy(FsyncPolicy.INTERVAL, 25)
+            .withWriteAheadLog("wal-data")
+            .withItemPool(64);
+
+        assertEquals(3, config.getNumberOfProducers());
+        assertEquals(7, config.getItemsPerProducer());
+        assertEquals(2, config.getNumberOfConsumers());
+        assertEquals(16, config.getQueueCapacity());
+        assertEquals(QueueType.FAIR_RING, config.getQueueType());
+        assertEquals(WaitStrategy.YIELD, config.getWaitStrategy());
+        assertEquals(8, config.getConsumerBatchSize());
+        assertEquals(MetricsType.STRIPED, config.getMetricsType());
+        assertEquals(9400, config.getMetricsPort());
+        assertEquals(ExecutorType.VIRTUAL, config.getExecutorType());
+        assertEquals(ScalingPolicyType.PID, config.getScalingPolicy());
+        assertEquals(1, config.getMinConsumers());
+        assertEquals(6, config.getMaxConsumers());
+        assertEquals("wal-data", config.getWalDirectory());
+        assertEquals(FsyncPolicy.INTERVAL, config.getFsyncPolicy());
+        assertEquals(25, config.getFsyncEvery());
+        assertEquals(64, config.getItemPoolSize());
+
+        Configuration moved = config.withWriteAheadLog(null).withSpillDirectory("spill-data")
+            .withPipeline("parse:1:0;persist:1:0");
+        assertEquals("spill-data", moved.getSpillDirectory());
+        assertEquals(2, moved.getPipelineStages().size());
+        assertEquals(config.toString().replace(", wal=wal-data INTERVAL:25", ""),
+                     moved.withSpillDirectory(null).withPipeline(null).toString());
+    }
+}
@@ -0,0 +1,187 @@
+package com.pranjal.assign1;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * UNIT TESTS for the discrete-event simulation
+ * ------------------------------------------------------------------
+ * Focus: Deterministic, fast runs that model the threaded simulation.
+ * Covers:
+ * - [x] Same seed gives identical results, another seed does not
+ * - [x] A reused trace distribution replays from the start in every run
+ * - [x] Spilling and pipeline configurations are rejected
+ * - [x] Every item is processed, far faster than the virtual time
+ * - [x] Queue wait matches M/M/1 theory
+ * - [x] Auto-scaler adds and retires consumers on the virtual clock
+ * - [x] Producer offer timeouts when consumers cannot keep up
+ * - [x] Analysis report
+ */
+class DiscreteEventSimulationTest {
+
+    @BeforeEach
+    void setUp() {
+        Logger.setLevel(LogLevel.OFF);
+    }
+
+    @AfterEach
+    void tearDown() {
+        Logger.setLevel(LogLevel.DEBUG);
+    }
+
+    private static DiscreteEventSimulation run(Configuration config, long seed) {
+        DiscreteEventSimulation simulation = new DiscreteEventSimulation(config, seed);
+        simulation.run();
+        return simulation;
+    }
+
+    @Test
+    void testSameSeedIsDeterministic() {
+        Configuration config = Configuration.custom(4, 200, 2, 10).withScalingPolicy(ScalingPolicyType.PID);
+        DiscreteEventSimulation first = run(config, 7);
+        DiscreteEventSimulation second = run(config, 7);
+        DiscreteEventSimulation other = run(config, 8);
+
+        assertEquals(first.getVirtualNanos(), second.getVirtualNanos());
+        assertEquals(first.getEventCount(), second.getEventCount());
+        for (LatencyKind kind : LatencyKind.values()) {
+            LatencySnapshot a = first.getMetrics().getLatency(kind);
+            LatencySnapshot b = second.getMetrics().getLatency(kind);
+            assertEquals(a.getMean(), b.getMean(), 0.0, kind.name());
+            assertEquals(a.getP99(), b.getP99(), kind.name());
+        }
+        assertEquals(first.getScalingTimeline().getChanges().size(),
+                     second.getScalingTimeline().getChanges().size());
+        assertNotEquals(first.getVirtualNanos(), other.getVirtualNanos(), "Seed drives every draw");
+    }
+
+    @Test
+    void testTraceReplayRestartsEachRun(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("service.txt");
+        Files.write(file, List.of("3", "40", "7", "120", "1"));
+        ThinkTime service = new ThinkTime(Distributions.trace(file));
+        Configuration config = Configuration.custom(2, 51, 1, 10).withConsumerBounds(1, 1);
+
+        long[] virtualNanos = new long[2];
+        for (int i = 0; i < virtualNanos.length; i++) {
+            DiscreteEventSimulation simulation = new DiscreteEventSimulation(config,
+                new ThinkTime(Distributions.exponential(20)), service, 9);
+            simulation.run();
+            virtualNanos[i] = simulation.getVirtualNanos();
+        }
+        assertEquals(virtualNanos[0], virtualNanos[1], "Second run does not continue mid-trace");
+    }
+
+    @Test
+    void testSingleRunOnly() {
+        DiscreteEventSimulation simulation = run(Configuration.custom(1, 1, 1, 1), 1);
+        assertThrows(IllegalStateException.class, simulation::run);
+    }
+
+    @Test
+    void testSpillingAndPipelinesAreRejected() {
+        Configuration config = Configuration.custom(1, 1, 1, 1);
+        assertThrows(IllegalArgumentException.class,
+                     () -> new DiscreteEventSimulation(config.withSpillDirectory("spill-data"), 1));
+        assertThrows(IllegalArgumentException.class,
+                     () -> new DiscreteEventSimulation(config.withPipeline("parse:1:0;persist:1:0"), 1));
+    }
+
+    @Test
+    @Timeout(30)
+    void testProcessesEveryItemFasterThanRealTime() {
+        Configuration config = Configuration.custom(10, 20_000, 4, 100);
+        DiscreteEventSimulation simulation = run(config, 42);
+
+        assertEquals(200_000, simulation.getMetrics().getTotalProduced());
+        assertEquals(200_000, simulation.getMetrics().getTotalConsumed());
+        assertEquals(0, simulation.getQueueSize());
+        assertEquals(200_000, simulation.getMetrics().getLatency(LatencyKind.QUEUE_WAIT).getCount());
+        assertTrue(simulation.getVirtualNanos() > 1_000_000_000_000L,
+                   "4 consumers at 150 ms each need over 2 hours of virtual time");
+    }
+
+    @Test
+    void testQueueWaitMatchesMm1() {
+        // lambda 100/s, mu 200/s: Wq = rho / (mu - lambda) = 5 ms
+        Configuration config = Configuration.custom(1, 100_000, 1, 10_000).withConsumerBounds(1, 1);
+        DiscreteEventSimulation simulation = new DiscreteEventSimulation(config,
+            new ThinkTime(Distributions.exponential(10)), new ThinkTime(Distributions.exponential(5)), 3);
+        simulation.run();
+
+        double waitMillis = simulation.getMetrics().getLatency(LatencyKind.QUEUE_WAIT).getMean() / 1e6;
+        assertEquals(5.0, waitMillis, 0.5);
+        assertEquals(0, simulation.getTimedOutItems());
+    }
+
+    @Test
+    void testThresholdPolicyAddsEmergencyConsumers() {
+        // 4 producers at 10/s each against 1 consumer at ~6.7/s fills the queue
+        Configuration config = Configuration.custom(4, 100, 1, 10).withQueueType(QueueType.TWO_LOCK);
+        DiscreteEventSimulation simulation = run(config, 11);
+
+        assertEquals(ThresholdScalingPolicy.MAX_ADDITIONS, simulation.getEmergencyConsumerCount());
+        assertEquals(0, simulation.getRetiredConsumerCount());
+        for (ScalingTimeline.Entry entry : simulation.getScalingTimeline().getChanges()) {
+            assertEquals("TIMER", entry.getTrigger(), "TWO_LOCK has no watermarks");
+        }
+        assertEquals(400, simulation.getMetrics().getTotalConsumed());
+    }
+
+    @Test
+    void testWatermarksTriggerScalingAndPolicyRetires() {
+        Configuration config = Configuration.custom(4, 300, 1, 10)
+            .withScalingPolicy(ScalingPolicyType.PID).withConsumerBounds(1, 8);
+        DiscreteEventSimulation simulation = run(config, 5);
+
+        assertTrue(simulation.getEmergencyConsumerCount() > 0);
+        assertTrue(simulation.getRetiredConsumerCount() > 0, "PID scales down once the backlog is gone");
+        assertTrue(simulation.getScalingTimeline().getWatermarkChanges().size() > 0,
+                   "FAIR_LINKED crossings act before the next tick");
+        assertEquals(1200, simulation.getMetrics().getTotalConsumed());
+    }
+
+    @Test
+    void testProducersTimeOutWhenQueueStaysFull() {
+        Configuration config = Configuration.custom(2, 5, 1, 1).withConsumerBounds(1, 1);
+        DiscreteEventSimulation simulation = new DiscreteEventSimulation(config,
+            new ThinkTime(Distributions.constant(1)), new ThinkTime(Distributions.constant(3000)), 1);
+        simulation.run();
+
+        assertTrue(simulation.getTimedOutItems() > 0);
+        assertEquals(10, simulation.getMetrics().getTotalProduced() + simulation.getTimedOutItems());
+        assertEquals(simulation.getMetrics().getTotalProduced(), simulation.getMetrics().getTotalConsumed());
+        assertEquals(DiscreteEventSimulation.PRODUCER_TIMEOUT_NANOS,
+                     simulation.getMetrics().getLatency(LatencyKind.PRODUCER_BLOCK).getMax(),
+                     DiscreteEventSimulation.PRODUCER_TIMEOUT_NANOS / 50, "Histogram bucket precision");
+    }
+
+    @Test
+    void testAnalysisReport() {
+        DiscreteEventSimulation simulation = run(Configuration.custom(2, 50, 2, 5), 9);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        simulation.printAnalysisResults(new PrintStream(output));
+        String report = output.toString();
+
+        assertTrue(report.contains("DISCRETE-EVENT SIMULATION RESULTS"));
+        assertTrue(report.contains("SUCCESS - All items processed"));
+        assertTrue(report.contains("[AUTO-SCALING]"));
+        assertTrue(report.contains("Seed:                     9"));
+        assertTrue(report.contains("Virtual / Wall Time:"));
+    }
+}
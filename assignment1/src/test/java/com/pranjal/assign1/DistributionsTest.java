@@ -0,0 +1,161 @@
+package com.pranjal.assign1;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * UNIT TESTS for service-time distributions and queueing formulas
+ * ------------------------------------------------------------------
+ * Focus: Samples match their declared mean and SCV; models agree on known cases.
+ * Covers:
+ * - [x] Sample means of every built-in distribution
+ * - [x] Declared SCVs
+ * - [x] Pareto draws never exceed the cap, and the declared moments are the capped ones
+ * - [x] Text form parsing and rejection
+ * - [x] Trace replay order, cycling and reset
+ * - [x] Pollaczek-Khinchine and Allen-Cunneen reference values
+ */
+class DistributionsTest {
+
+    private static final int SAMPLES = 200_000;
+
+    private static double sampleMean(TimeDistribution distribution) {
+        double sum = 0;
+        for (int i = 0; i < SAMPLES; i++) {
+            sum += distribution.nextNanos();
+        }
+        return sum / SAMPLES;
+    }
+
+    @Test
+    void testSampleMeansMatchDeclaredMeans() {
+        for (TimeDistribution d : List.of(Distributions.constant(3), Distributions.uniform(2, 6),
+                                          Distributions.exponential(4), Distributions.lognormal(4, 0.5))) {
+            assertEquals(d.getMeanNanos(), sampleMean(d), d.getMeanNanos() * 0.02, d.toString());
+        }
+        // Finite variance (alpha > 2) so the sample mean settles
+        TimeDistribution pareto = Distributions.pareto(4, 3);
+        assertEquals(pareto.getMeanNanos(), sampleMean(pareto), pareto.getMeanNanos() * 0.05);
+    }
+
+    @Test
+    void testScv() {
+        assertEquals(0, Distributions.constant(5).getScv());
+        assertEquals(1, Distributions.exponential(5).getScv());
+        assertEquals(1.0 / 3, Distributions.uniform(0, 10).getScv(), 1e-12);
+        assertEquals(1.0 / 3, Distributions.pareto(5, 3).getScv(), 1e-3, "Default cap barely changes alpha > 2");
+        assertEquals(5e6, Distributions.pareto(5, 3).getMeanNanos(), 5e6 * 1e-6);
+        double heavy = Distributions.pareto(5, 1.5).getScv();
+        assertTrue(heavy > 10 && !Double.isInfinite(heavy), "Capped variance is finite: " + heavy);
+        assertEquals(Math.expm1(0.25), Distributions.lognormal(5, 0.5).getScv(), 1e-12);
+        assertEquals(0, Distributions.uniform(7, 7).getScv(), "Degenerate range is a constant");
+    }
+
+    @Test
+    void testParetoIsCapped() {
+        TimeDistribution pareto = Distributions.pareto(5, 1.2, 50);
+        double sum = 0;
+        double squares = 0;
+        for (int i = 0; i < SAMPLES; i++) {
+            long nanos = pareto.nextNanos();
+            assertTrue(nanos <= 50_000_000, "Draw above the cap: " + nanos);
+            sum += nanos;
+            squares += (double) nanos * nanos;
+        }
+        double mean = sum / SAMPLES;
+        assertTrue(pareto.getMeanNanos() < 5e6, "Capping lowers the mean");
+        assertEquals(pareto.getMeanNanos(), mean, pareto.getMeanNanos() * 0.02);
+        assertEquals(pareto.getScv(), squares / SAMPLES / (mean * mean) - 1, pareto.getScv() * 0.1);
+
+        // Alpha 2 takes the logarithmic branch of the second moment
+        TimeDistribution two = Distributions.pareto(4, 2, 40);
+        assertEquals(two.getMeanNanos(), sampleMean(two), two.getMeanNanos() * 0.02);
+        assertThrows(IllegalArgumentException.class, () -> Distributions.pareto(5, 1.5, 4));
+        assertThrows(IllegalArgumentException.class, () -> Distributions.pareto(5, 1.5, Double.POSITIVE_INFINITY));
+    }
+
+    @Test
+    void testParse() {
+        assertEquals("const:5", Distributions.parse("const:5").toString());
+        assertEquals("uniform:50-150", Distributions.parse("uniform:50-150").toString());
+        assertEquals("exp:10", Distributions.parse("EXP:10").toString());
+        assertEquals("pareto:10,1.5", Distributions.parse("pareto:10, 1.5").toString());
+        assertEquals("pareto:10,1.5,200", Distributions.parse("pareto:10,1.5, 200").toString());
+        assertEquals("lognormal:10,0.5", Distributions.parse("lognormal:10,0.5").toString());
+        assertEquals(2.5e6, Distributions.parse("exp:2.5").getMeanNanos(), 1e-6);
+
+        assertThrows(IllegalArgumentException.class, () -> Distributions.parse("exp"));
+        assertThrows(IllegalArgumentException.class, () -> Distributions.parse("gamma:3"));
+        assertThrows(IllegalArgumentException.class, () -> Distributions.parse("exp:x"));
+        assertThrows(IllegalArgumentException.class, () -> Distributions.parse("uniform:5"));
+        assertThrows(IllegalArgumentException.class, () -> Distributions.parse("pareto:10,1"));
+        assertThrows(IllegalArgumentException.class, () -> Distributions.parse("pareto:10,1.5,5"));
+        assertThrows(IllegalArgumentException.class, () -> Distributions.parse("pareto:10,1.5,200,1"));
+        assertThrows(IllegalArgumentException.class, () -> Distributions.parse("lognormal:10"));
+        assertThrows(IllegalArgumentException.class, () -> Distributions.parse("const:-1"));
+        assertThrows(IllegalArgumentException.class, () -> Distributions.parse("trace:/no/such/file"));
+    }
+
+    @Test
+    void testTraceReplaysInOrderAndCycles(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("service.txt");
+        Files.write(file, List.of("# recorded service times", "1", "", "2.5", "0"));
+        TimeDistribution trace = Distributions.parse("trace:" + file);
+
+        assertEquals("trace:service.txt[3]", trace.toString());
+        assertEquals(3.5e6 / 3, trace.getMeanNanos(), 1e-6);
+        long[] expected = {1_000_000, 2_500_000, 0, 1_000_000, 2_500_000};
+        for (long nanos : expected) {
+            assertEquals(nanos, trace.nextNanos());
+        }
+        trace.reset();
+        assertEquals(1_000_000, trace.nextNanos(), "Replay starts over");
+
+        Files.write(file, List.of("1", "slow"));
+        assertThrows(IllegalArgumentException.class, () -> Distributions.trace(file));
+        Files.write(file, List.of("# empty"));
+        assertThrows(IllegalArgumentException.class, () -> Distributions.trace(file));
+    }
+
+    @Test
+    void testPollaczekKhinchine() {
+        // M/M/1 at rho 0.8: Lq = rho^2 / (1 - rho) = 3.2; deterministic service halves it
+        assertEquals(3.2, QueueingModelReport.mg1MeanQueueLength(0.8, 1, 1), 1e-9);
+        assertEquals(1.6, QueueingModelReport.mg1MeanQueueLength(0.8, 1, 0), 1e-9);
+        assertEquals(Double.POSITIVE_INFINITY, QueueingModelReport.mg1MeanQueueLength(1, 1, 1));
+    }
+
+    @Test
+    void testAllenCunneenMatchesErlangCForExponentialService() {
+        double erlang = QueueingModelScalingPolicy.meanQueueLength(3, 1, 4);
+        assertEquals(erlang, QueueingModelReport.mgcMeanQueueLength(3, 1, 4, 1), 1e-12);
+        assertEquals(erlang / 2, QueueingModelReport.mgcMeanQueueLength(3, 1, 4, 0), 1e-12);
+        // With one server the approximation is exact P-K
+        assertEquals(QueueingModelReport.mg1MeanQueueLength(0.7, 1, 2.5),
+                     QueueingModelReport.mgcMeanQueueLength(0.7, 1, 1, 2.5), 1e-9);
+    }
+
+    @Test
+    void testReportPredictionsUseMeasuredRates() {
+        // 80 arrivals/s, 10 ms service, one consumer: rho 0.8
+        QueueingModelReport report = new QueueingModelReport(1, 80, 10_000_000, 0, 1.5, 20_000_000);
+        assertEquals(0.8, report.getUtilization(), 1e-9);
+        assertEquals(3.2, report.getMmcDepth(), 1e-9);
+        assertEquals(1.6, report.getMgDepth(), 1e-9);
+        assertTrue(report.toJson().contains("\"mg1Depth\": 1.6000"));
+
+        QueueingModelReport overloaded = new QueueingModelReport(1, 200, 10_000_000, 1, 64, 0);
+        assertTrue(overloaded.toJson().contains("\"mmcDepth\": null"));
+        QueueingModelReport idle = new QueueingModelReport(2, 0, 0, 1, 0, 0);
+        assertTrue(Double.isNaN(idle.getMgDepth()));
+    }
+}
@@ -0,0 +1,330 @@
+package com.pranjal.assign1;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * UNIT TESTS for the write-ahead-log backed queue
+ * ------------------------------------------------------------------
+ * Focus: Unconsumed items survive a crash, acknowledged ones do not come back.
+ * A crash is simulated by opening the directory again without closing
+ * the previous log.
+ * Covers:
+ * - [x] Replay of untaken and unacknowledged items, in order, under every fsync policy
+ * - [x] A batch is committed once, when it is acknowledged
+ * - [x] Torn and corrupt tail records are dropped
+ * - [x] Segments roll and consumed ones are deleted
+ * - [x] Concurrent producers and consumers lose nothing; only items taken ahead of an untaken one come back
+ * - [x] A timed-out offer is never replayed and does not hold back the commit
+ * - [x] Control objects pass through unlogged
+ * - [x] Simulation restart replays the previous run's backlog
+ */
+class DurableQueueTest {
+
+    @TempDir
+    Path dir;
+
+    @BeforeEach
+    void setUp() {
+        Logger.setLevel(LogLevel.OFF);
+    }
+
+    @AfterEach
+    void tearDown() {
+        Logger.setLevel(LogLevel.DEBUG);
+    }
+
+    private static DurableQueue<Object> durable(WriteAheadLog log, int capacity) {
+        return new DurableQueue<>(new AdvancedBlockingQueue<>(capacity), log, WalCodec.TEXT);
+    }
+
+    private static List<Path> segments(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(".wal")).sorted()
+                        .collect(Collectors.toList());
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(FsyncPolicy.class)
+    void testCrashReplaysUnacknowledgedItemsInOrder(FsyncPolicy policy) throws Exception {
+        WriteAheadLog log = WriteAheadLog.open(dir, policy, policy.getDefaultSyncEvery());
+        DurableQueue<Object> queue = durable(log, 100);
+        for (int i = 0; i < 10; i++) {
+            queue.put("item-" + i);
+        }
+        assertEquals("item-0", queue.take());
+        assertEquals("item-1", queue.poll(1, TimeUnit.SECONDS));
+        assertEquals("item-2", queue.take());
+        queue.acknowledge();
+        assertEquals("item-3", queue.take()); // Taken, never processed
+
+        WriteAheadLog reopened = WriteAheadLog.open(dir, policy, policy.getDefaultSyncEvery()); // No close: crash
+        DurableQueue<Object> recovered = durable(reopened, 100);
+        assertEquals(7, recovered.getRecoveredCount());
+        assertEquals(3, reopened.getCommittedSequence());
+        for (int i = 3; i < 10; i++) {
+            assertEquals("item-" + i, recovered.take());
+        }
+        recovered.put("new");
+        assertEquals("new", recovered.take());
+        recovered.acknowledge();
+        reopened.close();
+        log.close();
+
+        try (WriteAheadLog clean = WriteAheadLog.open(dir, policy, policy.getDefaultSyncEvery())) {
+            assertTrue(clean.getRecovered().isEmpty());
+            assertEquals(12, clean.getNextSequence());
+        }
+    }
+
+    @Test
+    void testBatchIsCommittedWhenAcknowledged() throws Exception {
+        try (WriteAheadLog log = WriteAheadLog.open(dir, FsyncPolicy.OS, 1)) {
+            DurableQueue<Object> queue = durable(log, 100);
+            for (int i = 0; i < 20; i++) {
+                queue.put("item-" + i);
+            }
+            List<Object> batch = new ArrayList<>();
+            assertEquals(8, queue.takeBatch(batch, 8, 1, TimeUnit.SECONDS));
+            assertEquals("item-7", batch.get(7));
+            assertEquals(0, log.getCommittedSequence(), "Taken is not yet processed");
+            queue.acknowledge();
+            assertEquals(8, log.getCommittedSequence());
+            assertEquals(4, queue.drainTo(batch, 4));
+            queue.acknowledge();
+            assertEquals(12, log.getCommittedSequence());
+        }
+        try (WriteAheadLog log = WriteAheadLog.open(dir, FsyncPolicy.OS, 1)) {
+            assertEquals(8, log.getRecovered().size());
+            assertEquals(13, log.getRecovered().get(0).getSequence());
+        }
+    }
+
+    @Test
+    void testTornTailIsDropped() throws Exception {
+        WriteAheadLog log = WriteAheadLog.open(dir, FsyncPolicy.EVERY_WRITE, 1);
+        DurableQueue<Object> queue = durable(log, 10);
+        queue.put("first");
+        queue.put("second");
+        queue.put("third");
+
+        // "third" gets a wrong last payload byte, then "second" loses its length, as if a crash came mid-append
+        Path segment = segments(dir).get(0);
+        int second = WriteAheadLog.RECORD_HEADER_BYTES + "first".length();
+        int third = second + WriteAheadLog.RECORD_HEADER_BYTES + "second".length();
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(third + WriteAheadLog.RECORD_HEADER_BYTES + "third".length() - 1);
+            file.write('X');
+        }
+        try (WriteAheadLog reopened = WriteAheadLog.open(dir, FsyncPolicy.EVERY_WRITE, 1)) {
+            assertEquals(2, reopened.getRecovered().size());
+            assertEquals(3, reopened.getNextSequence(), "Appends continue after the last good record");
+        }
+
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(second);
+            file.writeInt(0);
+        }
+        try (WriteAheadLog reopened = WriteAheadLog.open(dir, FsyncPolicy.EVERY_WRITE, 1)) {
+            DurableQueue<Object> recovered = durable(reopened, 10);
+            assertEquals(1, recovered.getRecoveredCount());
+            assertEquals("first", recovered.take());
+        }
+    }
+
+    @Test
+    void testSegmentsRollAndConsumedOnesAreDeleted() throws Exception {
+        int segmentBytes = 4 * (WriteAheadLog.RECORD_HEADER_BYTES + 7); // 4 records of "item-NN"
+        try (WriteAheadLog log = WriteAheadLog.open(dir, FsyncPolicy.BATCH, 3, segmentBytes)) {
+            DurableQueue<Object> queue = durable(log, 100);
+            for (int i = 10; i < 30; i++) {
+                queue.put("item-" + i);
+            }
+            assertEquals(5, log.getSegmentCount());
+            assertEquals(5, segments(dir).size());
+            for (int i = 10; i < 19; i++) {
+                assertEquals("item-" + i, queue.take());
+                queue.acknowledge();
+            }
+            queue.put("item-30"); // Rolls and drops the two fully consumed segments
+            assertEquals(4, log.getSegmentCount());
+            assertTrue(segments(dir).get(0).getFileName().toString().endsWith("00009.wal"));
+        }
+        try (WriteAheadLog log = WriteAheadLog.open(dir, FsyncPolicy.BATCH, 3, segmentBytes)) {
+            DurableQueue<Object> queue = durable(log, 100);
+            assertEquals(12, queue.getRecoveredCount());
+            for (int i = 19; i <= 30; i++) {
+                assertEquals("item-" + i, queue.take());
+            }
+            queue.acknowledge();
+        }
+        try (WriteAheadLog log = WriteAheadLog.open(dir, FsyncPolicy.BATCH, 3, segmentBytes)) {
+            assertTrue(log.getRecovered().isEmpty());
+            assertEquals(1, log.getSegmentCount(), "Only the fresh segment remains");
+        }
+    }
+
+    @Test
+    void testRejectsInvalidUse() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> WriteAheadLog.open(dir, FsyncPolicy.BATCH, 0));
+        assertThrows(IllegalArgumentException.class, () -> WriteAheadLog.open(dir, FsyncPolicy.OS, 1, 8));
+        assertThrows(NullPointerException.class, () -> WriteAheadLog.open(dir, null, 1));
+
+        WriteAheadLog log = WriteAheadLog.open(dir, FsyncPolicy.OS, 1, 64);
+        DurableQueue<Object> queue = durable(log, 10);
+        assertThrows(NullPointerException.class, () -> queue.put(null));
+        assertThrows(IllegalArgumentException.class, () -> log.append(new byte[0]));
+        assertThrows(IllegalArgumentException.class, () -> log.append(new byte[49]));
+        for (int i = 0; i < 5; i++) {
+            queue.put("item-" + i);
+        }
+        log.close();
+        assertThrows(IllegalStateException.class, () -> log.append(new byte[1]));
+
+        try (WriteAheadLog reopened = WriteAheadLog.open(dir, FsyncPolicy.OS, 1, 64)) {
+            assertThrows(IllegalStateException.class, () -> durable(reopened, 4),
+                         "Five recovered items do not fit four slots");
+        }
+    }
+
+    @Test
+    void testControlObjectsPassThroughUnlogged() throws Exception {
+        try (WriteAheadLog log = WriteAheadLog.open(dir, FsyncPolicy.OS, 1)) {
+            DurableQueue<Object> queue = durable(log, 10);
+            queue.put("item");
+            queue.put(QueueCommand.POISON_PILL);
+            assertTrue(queue.offer(QueueCommand.POISON_PILL, 1, TimeUnit.SECONDS));
+            assertEquals(2, log.getNextSequence());
+            assertEquals("item", queue.take());
+            assertSame(QueueCommand.POISON_PILL, queue.take());
+            assertSame(QueueCommand.POISON_PILL, queue.take());
+        }
+    }
+
+    @Test
+    void testTimedOutOfferIsNeverReplayed() throws Exception {
+        try (WriteAheadLog log = WriteAheadLog.open(dir, FsyncPolicy.OS, 1)) {
+            DurableQueue<Object> queue = durable(log, 1);
+            assertTrue(queue.offer("a", 1, TimeUnit.SECONDS));
+            assertFalse(queue.offer("b", 10, TimeUnit.MILLISECONDS));
+            assertEquals(3, log.getNextSequence(), "Logged before it was offered");
+            assertEquals(0, log.getCommittedSequence(), "Waits for the older item still queued");
+            assertEquals("a", queue.take());
+            queue.acknowledge();
+            assertEquals(2, log.getCommittedSequence(), "Both are done");
+            assertTrue(queue.offer("c", 1, TimeUnit.SECONDS));
+        }
+        try (WriteAheadLog log = WriteAheadLog.open(dir, FsyncPolicy.OS, 1)) {
+            DurableQueue<Object> queue = durable(log, 4);
+            assertEquals(1, queue.getRecoveredCount());
+            assertEquals("c", queue.take());
+        }
+    }
+
+    @Test
+    @Timeout(30)
+    void testConcurrentCrashLosesAndDuplicatesNothing() throws Exception {
+        WriteAheadLog log = WriteAheadLog.open(dir, FsyncPolicy.INTERVAL, 1, 4096);
+        DurableQueue<Object> queue = durable(log, 1024);
+        ExecutorService pool = Executors.newFixedThreadPool(6);
+        Set<Object> consumed = ConcurrentHashMap.newKeySet();
+        AtomicInteger remaining = new AtomicInteger(1000);
+        for (int p = 0; p < 4; p++) {
+            int producer = p;
+            pool.execute(() -> {
+                try {
+                    for (int i = 0; i < 500; i++) {
+                        queue.put("P" + producer + "-" + i);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        for (int c = 0; c < 2; c++) {
+            pool.execute(() -> {
+                try {
+                    List<Object> batch = new ArrayList<>();
+                    while (remaining.get() > 0) {
+                        batch.clear();
+                        queue.takeBatch(batch, Math.min(4, Math.max(1, remaining.get())), 10, TimeUnit.MILLISECONDS);
+                        remaining.addAndGet(-batch.size());
+                        consumed.addAll(batch);
+                        queue.acknowledge();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        while (remaining.get() > 0 || queue.getSize() < 2000 - consumed.size()) {
+            Thread.sleep(5);
+        }
+        pool.shutdownNow();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        try (WriteAheadLog reopened = WriteAheadLog.open(dir, FsyncPolicy.INTERVAL, 1, 4096)) {
+            DurableQueue<Object> recovered = durable(reopened, 2000);
+            Set<Object> all = new HashSet<>(consumed);
+            List<Object> replayed = new ArrayList<>();
+            recovered.drainTo(replayed, Integer.MAX_VALUE);
+            all.addAll(replayed);
+            assertEquals(2000, all.size(), "Nothing is lost");
+            assertTrue(replayed.size() >= 2000 - consumed.size(), "Every untaken item comes back");
+            assertTrue(replayed.size() < 2000 - consumed.size() + 64,
+                       "Only items taken ahead of an untaken one come back too: " + replayed.size());
+        }
+        log.close();
+    }
+
+    @Test
+    @Timeout(30)
+    void testSimulationRestartReplaysBacklog() throws Exception {
+        Path walDir = dir.resolve("wal");
+        try (WriteAheadLog log = WriteAheadLog.open(walDir, FsyncPolicy.BATCH, 64)) {
+            DurableQueue<Object> crashed = durable(log, 10);
+            for (int i = 0; i < 5; i++) {
+                crashed.put("Leftover-" + i);
+            }
+        }
+
+        Configuration config = Configuration.custom(2, 5, 2, 20).withWriteAheadLog(walDir.toString());
+        SimulationEngine engine = new SimulationEngine(config);
+        engine.start();
+        assertTrue(engine.waitForCompletion(20, TimeUnit.SECONDS));
+        engine.shutdown();
+
+        try (WriteAheadLog log = WriteAheadLog.open(walDir, FsyncPolicy.BATCH, 64)) {
+            assertTrue(log.getRecovered().isEmpty(), "Every item was consumed");
+            assertEquals(15, log.getCommittedSequence(), "5 replayed + 10 produced");
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.pranjal.assign1;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+/**
+ * UNIT TESTS for InstrumentedQueue
+ * ------------------------------------------------------------------
+ * Focus: Transparent wrapping plus a QUEUE_WAIT sample per dequeued item.
+ */
+class InstrumentedQueueTest {
+
+    @Test
+    @Timeout(5)
+    void testRecordsQueueWaitAndUnwrapsItems() throws InterruptedException {
+        SystemMetrics metrics = new SystemMetrics();
+        InstrumentedQueue<Object> queue = new InstrumentedQueue<>(new AdvancedBlockingQueue<>(4), metrics);
+
+        queue.put("A");
+        Thread.sleep(20);
+        assertEquals("A", queue.take());
+
+        LatencySnapshot wait = metrics.getLatency(LatencyKind.QUEUE_WAIT);
+        assertEquals(1, wait.getCount());
+        assertTrue(wait.getMax() >= TimeUnit.MILLISECONDS.toNanos(20), "Wait should cover the sleep: " + wait);
+    }
+
+    @Test
+    @Timeout(5)
+    void testBatchOperationsUnwrapInOrder() throws InterruptedException {
+        SystemMetrics metrics = new SystemMetrics();
+        InstrumentedQueue<Object> queue = new InstrumentedQueue<>(new TwoLockBlockingQueue<>(8), metrics);
+
+        queue.putAll(List.of("A", "B", "C"));
+        assertTrue(queue.offer("D", 0, TimeUnit.MILLISECONDS));
+        assertEquals(4, queue.getSize());
+        assertEquals(8, queue.getCapacity());
+
+        List<Object> out = new ArrayList<>();
+        assertEquals(2, queue.takeBatch(out, 2, 1, TimeUnit.SECONDS));
+        assertEquals(2, queue.drainTo(out, 10));
+        assertEquals(List.of("A", "B", "C", "D"), out);
+        assertNull(queue.poll(0, TimeUnit.MILLISECONDS));
+        assertEquals(4, metrics.getLatency(LatencyKind.QUEUE_WAIT).getCount());
+    }
+
+    @Test
+    void testControlObjectsOnDelegatePassThrough() throws InterruptedException {
+        SystemMetrics metrics = new SystemMetrics();
+        AdvancedBlockingQueue<Object> raw = new AdvancedBlockingQueue<>(2);
+        InstrumentedQueue<Object> queue = new InstrumentedQueue<>(raw, metrics);
+
+        raw.put(QueueCommand.POISON_PILL);
+        assertSame(QueueCommand.POISON_PILL, queue.take());
+        queue.put(QueueCommand.POISON_PILL); // Relayed by a consumer
+        assertSame(QueueCommand.POISON_PILL, raw.take());
+        assertEquals(0, metrics.getLatency(LatencyKind.QUEUE_WAIT).getCount());
+        assertThrows(NullPointerException.class, () -> queue.put(null));
+    }
+}
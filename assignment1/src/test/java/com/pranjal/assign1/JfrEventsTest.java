@@ -0,0 +1,191 @@
+package com.pranjal.assign1;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * UNIT TESTS for QueueEvents, the JFC profile and JfrEventAnalyzer
+ * ------------------------------------------------------------------
+ * Focus: Queue and thread-management operations show up in flight recordings.
+ * Covers:
+ * - [x] Put/offer, take/poll, timeout and lock wait events with their fields
+ * - [x] Auto-scaler decisions and consumer start/stop
+ * - [x] Events stay disabled, and queue events unallocated, outside a recording
+ * - [x] Bundled profile enables every event; analyzer summarizes a recording
+ */
+class JfrEventsTest {
+
+    private static final String[] EVENT_NAMES = {
+        "QueuePut", "QueueTake", "QueueOfferTimeout", "QueuePollTimeout", "QueueLockWait",
+        "AutoScaleDecision", "ConsumerLifecycle"
+    };
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testEventsDisabledOutsideRecording() {
+        assertFalse(QueueEvents.queueEventsEnabled, "Queue operations allocate no events");
+        assertFalse(new QueueEvents.Put().shouldCommit());
+        assertFalse(new QueueEvents.LockWait().shouldCommit());
+        assertFalse(new QueueEvents.ConsumerLifecycle().shouldCommit());
+    }
+
+    @Test
+    @Timeout(10)
+    void testQueueOperationsEmitEvents() throws Exception {
+        AdvancedBlockingQueue<String> queue = new AdvancedBlockingQueue<>(1);
+        Path file = record(() -> {
+            queue.put("A");
+            assertFalse(queue.offer("B", 10, TimeUnit.MILLISECONDS));
+            assertEquals("A", queue.take());
+            assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+            assertTrue(queue.offer("C", 10, TimeUnit.MILLISECONDS));
+            assertEquals("C", queue.poll(10, TimeUnit.MILLISECONDS));
+        });
+
+        Map<String, List<RecordedEvent>> events = byName(file);
+        RecordedEvent put = events.get("QueuePut").get(0);
+        assertEquals(1, put.getInt("queueSize"));
+        assertEquals(1, put.getInt("capacity"));
+        assertFalse(put.getBoolean("timed"));
+        assertTrue(events.get("QueuePut").get(1).getBoolean("timed"), "Successful offer");
+        assertEquals(0, events.get("QueueTake").get(0).getInt("queueSize"));
+        assertTrue(events.get("QueueTake").get(1).getBoolean("timed"), "Successful poll");
+
+        RecordedEvent offerTimeout = events.get("QueueOfferTimeout").get(0);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(10), offerTimeout.getLong("timeout"));
+        assertTrue(offerTimeout.getDuration().toMillis() >= 9, "Duration covers the wait");
+        assertEquals(1, events.get("QueuePollTimeout").size());
+
+        List<String> lockOperations = events.get("QueueLockWait").stream()
+            .map(e -> e.getString("operation")).collect(Collectors.toList());
+        assertEquals(List.of("put", "offer", "take", "poll", "offer", "poll"), lockOperations);
+    }
+
+    @Test
+    @Timeout(10)
+    void testThreadManagerEmitsLifecycleAndScalingEvents() throws Exception {
+        AdvancedBlockingQueue<Object> queue = new AdvancedBlockingQueue<>(10);
+        ThreadManager manager = new ThreadManager(queue, new SystemMetrics());
+        Path file = record(() -> {
+            manager.runAutoScalerLoop();
+            manager.startConsumers(1);
+            Thread.sleep(200); // First auto-scaler check runs immediately
+            manager.shutdown();
+            queue.put(QueueCommand.POISON_PILL);
+            manager.waitForConsumers();
+        });
+
+        Map<String, List<RecordedEvent>> events = byName(file);
+        List<RecordedEvent> lifecycle = events.get("ConsumerLifecycle");
+        assertEquals(2, lifecycle.size());
+        assertEquals("Consumer-1", lifecycle.get(0).getString("consumer"));
+        assertEquals("START", lifecycle.get(0).getString("action"));
+        assertEquals(1, lifecycle.get(0).getInt("activeConsumers"));
+        assertEquals("STOP", lifecycle.get(1).getString("action"));
+        assertEquals(0, lifecycle.get(1).getInt("activeConsumers"));
+        assertFalse(lifecycle.get(0).getBoolean("emergency"));
+
+        RecordedEvent decision = events.get("AutoScaleDecision").get(0);
+        assertEquals("HOLD", decision.getString("action"));
+        assertEquals(0, decision.getInt("emergencyConsumers"));
+    }
+
+    @Test
+    void testProfileEnablesEveryEvent() throws IOException, ParseException {
+        jdk.jfr.Configuration profile;
+        try (Reader reader = new InputStreamReader(
+                getClass().getResourceAsStream("/queue-events.jfc"), StandardCharsets.UTF_8)) {
+            profile = jdk.jfr.Configuration.create(reader);
+        }
+        assertEquals("Queue Events", profile.getLabel());
+        for (String name : EVENT_NAMES) {
+            assertEquals("true", profile.getSettings().get(QueueEvents.PREFIX + name + "#enabled"), name);
+        }
+        assertEquals("true", profile.getSettings().get("jdk.GCPhasePause#enabled"));
+        assertEquals("true", profile.getSettings().get("jdk.SafepointBegin#enabled"));
+    }
+
+    @Test
+    @Timeout(10)
+    void testAnalyzerSummarizesRecording() throws Exception {
+        AdvancedBlockingQueue<String> queue = new AdvancedBlockingQueue<>(5);
+        Path file = record(() -> {
+            for (int i = 0; i < 3; i++) {
+                queue.put("Item-" + i);
+            }
+            for (int i = 0; i < 3; i++) {
+                queue.take();
+            }
+            queue.poll(1, TimeUnit.MILLISECONDS);
+        });
+
+        StringWriter report = new StringWriter();
+        long events = JfrEventAnalyzer.analyze(file, new PrintWriter(report));
+
+        assertEquals(3 + 3 + 1 + 7, events, "Puts, takes, poll timeout and one lock wait per operation");
+        String text = report.toString();
+        assertTrue(text.matches("(?s).*QueuePut\\s+3\\s.*"), text);
+        assertTrue(text.matches("(?s).*QueueTake\\s+3\\s.*"), text);
+        assertTrue(text.matches("(?s).*QueuePollTimeout\\s+1\\s.*"), text);
+        assertTrue(text.contains("[GC PAUSES]"));
+        assertTrue(text.contains("[CORRELATION]  "));
+        assertTrue(text.contains("of 14 queue events overlapped"), text);
+    }
+
+    // ==========================================
+    // HELPERS
+    // ==========================================
+
+    private interface Action {
+        void run() throws Exception;
+    }
+
+    /**
+     * Runs the action under a recording with every application event enabled
+     * regardless of duration, and returns the dumped file.
+     */
+    private Path record(Action action) throws Exception {
+        Path file = dir.resolve("test-" + System.nanoTime() + ".jfr");
+        try (Recording recording = new Recording()) {
+            for (String name : EVENT_NAMES) {
+                recording.enable(QueueEvents.PREFIX + name).withoutThreshold();
+            }
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        return file;
+    }
+
+    private static Map<String, List<RecordedEvent>> byName(Path file) throws IOException {
+        return RecordingFile.readAllEvents(file).stream()
+            .filter(e -> e.getEventType().getName().startsWith(QueueEvents.PREFIX))
+            .sorted((a, b) -> a.getStartTime().compareTo(b.getStartTime()))
+            .collect(Collectors.groupingBy(e -> e.getEventType().getName().substring(QueueEvents.PREFIX.length())));
+    }
+}
@@ -0,0 +1,172 @@
+package com.pranjal.assign1;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * UNIT TESTS for JournalLogSink and JournalDecoder
+ * ------------------------------------------------------------------
+ * Focus: The binary journal must decode to exactly the text the SYNC sink writes.
+ * Covers:
+ * - [x] Round trip of messages and every event type
+ * - [x] Rolling across segment files
+ * - [x] No lost records with concurrent writers
+ * - [x] Record id packing
+ */
+class JournalLogSinkTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testRoundTripMatchesTextFormat() throws IOException {
+        Path base = dir.resolve("run.journal");
+        JournalLogSink journal = new JournalLogSink(base);
+        StringWriter text = new StringWriter();
+        FileLogSink sync = new FileLogSink(new PrintWriter(text));
+
+        for (LogSink sink : List.of(journal, sync)) {
+            sink.write(0, "SYSTEM", "Logger Initialized. Recording events...");
+            sink.writeEvent(0, "Producer-1", EventType.ADDED, "Record-1-1", 3);
+            sink.writeEvent(0, "Producer-1", EventType.TIMED_OUT, "Record-1-2", -1);
+            sink.writeEvent(0, "Consumer-1", EventType.PROCESSED, "Record-1-1", 2);
+            sink.writeEvent(0, "Consumer-2", EventType.BATCH_TAKEN, 4, 0);
+            sink.writeEvent(0, "Consumer-2", EventType.BATCH_PROCESSED, "Custom\tItem", -1);
+            sink.write(0, "SYSTEM", "Line with\nnewline");
+        }
+        journal.close();
+        sync.close();
+
+        StringWriter decoded = new StringWriter();
+        long records = JournalDecoder.decode(base, new PrintWriter(decoded));
+
+        assertEquals(7, records);
+        assertEquals(messages(text.toString()), messages(decoded.toString()));
+    }
+
+    @Test
+    void testRollsAcrossSegments() throws IOException {
+        Path base = dir.resolve("roll.journal");
+        JournalLogSink journal = new JournalLogSink(base, 4);
+        for (int i = 1; i <= 10; i++) {
+            journal.writeEvent(0, "Producer-7", EventType.ADDED, "Record-7-" + i, i);
+        }
+        journal.close();
+
+        assertTrue(Files.exists(JournalLogSink.segmentPath(base, 2)), "10 records at 4 per segment need 3 files");
+        StringWriter decoded = new StringWriter();
+        assertEquals(10, JournalDecoder.decode(base, new PrintWriter(decoded)));
+
+        List<String> lines = messages(decoded.toString());
+        for (int i = 1; i <= 10; i++) {
+            assertEquals("[Producer-7     ] : ADDED Record-7-" + i + " | Queue Size: " + i, lines.get(i - 1));
+        }
+    }
+
+    @Test
+    void testReinitReplacesPreviousSegments() throws IOException {
+        Path base = dir.resolve("reuse.journal");
+        JournalLogSink first = new JournalLogSink(base, 2);
+        for (int i = 0; i < 6; i++) {
+            first.write(0, "SYSTEM", "old " + i);
+        }
+        first.close();
+
+        JournalLogSink second = new JournalLogSink(base, 2);
+        second.write(0, "SYSTEM", "new");
+        second.close();
+
+        StringWriter decoded = new StringWriter();
+        assertEquals(1, JournalDecoder.decode(base, new PrintWriter(decoded)));
+    }
+
+    @Test
+    @Timeout(10)
+    void testConcurrentWritersLoseNothing() throws Exception {
+        Path base = dir.resolve("concurrent.journal");
+        JournalLogSink journal = new JournalLogSink(base, 1000);
+
+        int threads = 4;
+        int perThread = 2500;
+        Thread[] writers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int producer = t + 1;
+            writers[t] = new Thread(() -> {
+                for (int i = 1; i <= perThread; i++) {
+                    journal.writeEvent(0, "Producer-" + producer, EventType.ADDED, "Record-" + producer + "-" + i, 0);
+                }
+            });
+            writers[t].start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        journal.close();
+
+        StringWriter decoded = new StringWriter();
+        assertEquals(threads * perThread, JournalDecoder.decode(base, new PrintWriter(decoded)));
+        Set<String> unique = new HashSet<>(messages(decoded.toString()));
+        assertEquals(threads * perThread, unique.size(), "Every record distinct and present");
+    }
+
+    @Test
+    void testRecordIdPacking() {
+        long packed = JournalLogSink.parseRecordId("Record-12-345");
+        assertEquals((12L << 32) | 345, packed);
+        assertEquals("Record-12-345", JournalLogSink.formatRecordId(packed));
+        assertEquals(packed, JournalLogSink.parseRecordId(new WorkItem(12, 345, 0)), "Same id as its text");
+
+        assertEquals(-1, JournalLogSink.parseRecordId("Batch-1"));
+        assertEquals(-1, JournalLogSink.parseRecordId("Record-1"));
+        assertEquals(-1, JournalLogSink.parseRecordId("Record--1"));
+        assertEquals(-1, JournalLogSink.parseRecordId("Record-1-x"));
+        assertEquals(-1, JournalLogSink.parseRecordId(42));
+    }
+
+    @Test
+    @Timeout(5)
+    void testLoggerJournalModeWithProducer() throws IOException {
+        Path base = dir.resolve("logger.journal");
+        Logger.init(LogMode.JOURNAL, base.toString());
+        try {
+            new ProducerWorker(new AdvancedBlockingQueue<>(10), 3, 2, new SystemMetrics()).run();
+        } finally {
+            Logger.close();
+        }
+
+        StringWriter decoded = new StringWriter();
+        JournalDecoder.decode(base, new PrintWriter(decoded));
+        List<String> lines = messages(decoded.toString());
+        assertEquals(List.of(
+            "[SYSTEM         ] : Logger Initialized. Recording events...",
+            "[Producer-3     ] : STARTED.",
+            "[Producer-3     ] : ADDED Record-3-1 | Queue Size: 1",
+            "[Producer-3     ] : ADDED Record-3-2 | Queue Size: 2",
+            "[Producer-3     ] : FINISHED work.",
+            "[SYSTEM         ] : System Shutdown. Closing logs."), lines);
+    }
+
+    /**
+     * Strips the timestamp, which differs between sinks.
+     */
+    private static List<String> messages(String log) {
+        return Arrays.stream(log.split(System.lineSeparator()))
+                     .filter(line -> !line.isEmpty())
+                     .map(line -> line.substring(line.indexOf("] ") + 2))
+                     .collect(Collectors.toList());
+    }
+}
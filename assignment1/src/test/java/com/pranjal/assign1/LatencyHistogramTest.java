@@ -0,0 +1,111 @@
+package com.pranjal.assign1;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+/**
+ * UNIT TESTS for LatencyHistogram
+ * ------------------------------------------------------------------
+ * Focus: Log-linear bucketing and percentile accuracy.
+ * Covers:
+ * - [x] Bucket boundaries are contiguous over the whole long range
+ * - [x] Percentiles within the 1/128 relative error bound
+ * - [x] No lost samples with concurrent recorders
+ */
+class LatencyHistogramTest {
+
+    @Test
+    void testEmptyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getValueAtPercentile(99));
+        assertEquals(LatencySnapshot.EMPTY, histogram.snapshot());
+        assertEquals("no samples", histogram.snapshot().toString());
+    }
+
+    @Test
+    void testBucketsAreContiguous() {
+        // Every bucket starts right after the previous one ends
+        for (int i = 1; i < LatencyHistogram.BUCKET_COUNT; i++) {
+            long start = LatencyHistogram.highestEquivalentValue(i - 1) + 1;
+            assertEquals(i, LatencyHistogram.indexOf(start), "Gap before bucket " + i);
+            assertEquals(i, LatencyHistogram.indexOf(LatencyHistogram.highestEquivalentValue(i)));
+        }
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.highestEquivalentValue(LatencyHistogram.BUCKET_COUNT - 1));
+        assertEquals(LatencyHistogram.BUCKET_COUNT - 1, LatencyHistogram.indexOf(Long.MAX_VALUE));
+    }
+
+    @Test
+    void testSmallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int v = 1; v <= 100; v++) {
+            histogram.record(v);
+        }
+        assertEquals(50, histogram.getValueAtPercentile(50));
+        assertEquals(90, histogram.getValueAtPercentile(90));
+        assertEquals(100, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    void testPercentilesWithinRelativeError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        // 100us .. 10s in 100us steps
+        for (long i = 1; i <= 100_000; i++) {
+            histogram.record(i * 100_000L);
+        }
+        LatencySnapshot snapshot = histogram.snapshot();
+
+        assertEquals(100_000, snapshot.getCount());
+        assertWithin(50_000L * 100_000L, snapshot.getP50());
+        assertWithin(90_000L * 100_000L, snapshot.getP90());
+        assertWithin(99_000L * 100_000L, snapshot.getP99());
+        assertWithin(99_900L * 100_000L, snapshot.getP999());
+        assertEquals(100_000L * 100_000L, snapshot.getMax());
+        assertEquals(50_000.5 * 100_000, snapshot.getMean(), 1.0);
+    }
+
+    @Test
+    void testNegativeValuesCountAsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        assertEquals(1, histogram.getCount());
+        assertEquals(0, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    @Timeout(5)
+    void testConcurrentRecording() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        int threads = 8;
+        int perThread = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch latch = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            long base = t * 1_000L;
+            executor.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    histogram.record(base + i);
+                }
+                latch.countDown();
+            });
+        }
+        latch.await();
+        executor.shutdown();
+        executor.awaitTermination(2, TimeUnit.SECONDS);
+
+        assertEquals((long) threads * perThread, histogram.getCount());
+        assertEquals(7_000L + perThread - 1, histogram.snapshot().getMax());
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        double error = Math.abs(actual - expected) / (double) expected;
+        assertTrue(error <= 1.0 / 128, "Expected ~" + expected + " got " + actual);
+    }
+}
@@ -0,0 +1,145 @@
+package com.pranjal.assign1;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * UNIT TESTS for LockFreeBoundedQueue
+ * ------------------------------------------------------------------
+ * Focus: Sequence-numbered slots and wait strategies.
+ * Covers:
+ * - [x] FIFO Ordering across many laps of the ring
+ * - [x] Non-power-of-two capacities
+ * - [x] Timeouts and interruption for every wait strategy
+ * - [x] No lost or duplicated items under MPMC load
+ */
+class LockFreeBoundedQueueTest {
+
+    @Test
+    void testFIFOOrderingAcrossLaps() throws InterruptedException {
+        LockFreeBoundedQueue<Integer> queue = new LockFreeBoundedQueue<>(3);
+
+        for (int i = 0; i < 20; i++) {
+            queue.put(i);
+            queue.put(i + 100);
+            assertEquals(i, queue.take());
+            assertEquals(i + 100, queue.take());
+        }
+        assertEquals(0, queue.getSize());
+    }
+
+    @Test
+    void testNonBlockingCapacityLimit() {
+        LockFreeBoundedQueue<String> queue = new LockFreeBoundedQueue<>(5);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(queue.tryOffer("Item-" + i));
+        }
+        assertFalse(queue.tryOffer("Overflow"), "Sixth item should not fit");
+        assertEquals(5, queue.getSize());
+        assertEquals("Item-0", queue.tryPoll());
+        assertTrue(queue.tryOffer("Overflow"));
+    }
+
+    @ParameterizedTest
+    @EnumSource(WaitStrategy.class)
+    @Timeout(3)
+    void testTimeoutsForEveryWaitStrategy(WaitStrategy strategy) throws InterruptedException {
+        LockFreeBoundedQueue<String> queue = new LockFreeBoundedQueue<>(1, strategy);
+        queue.put("Blocker");
+
+        long start = System.currentTimeMillis();
+        assertFalse(queue.offer("Fail", 200, TimeUnit.MILLISECONDS));
+        assertTrue(System.currentTimeMillis() - start >= 150);
+
+        assertEquals("Blocker", queue.take());
+
+        start = System.currentTimeMillis();
+        assertNull(queue.poll(200, TimeUnit.MILLISECONDS));
+        assertTrue(System.currentTimeMillis() - start >= 150);
+    }
+
+    @Test
+    @Timeout(3)
+    void testBlockedTakeIsInterruptible() throws InterruptedException {
+        LockFreeBoundedQueue<String> queue = new LockFreeBoundedQueue<>(2, WaitStrategy.PARK);
+        AtomicBoolean interrupted = new AtomicBoolean(false);
+
+        Thread consumer = new Thread(() -> {
+            try {
+                queue.take();
+            } catch (InterruptedException e) {
+                interrupted.set(true);
+            }
+        });
+        consumer.start();
+        Thread.sleep(100);
+        consumer.interrupt();
+        consumer.join(1000);
+
+        assertTrue(interrupted.get(), "take() should throw InterruptedException");
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = WaitStrategy.class, names = {"PARK", "SPIN_THEN_PARK"})
+    @Timeout(10)
+    void testNoLostOrDuplicatedItemsUnderMPMC(WaitStrategy strategy) throws InterruptedException {
+        int producers = 4;
+        int consumers = 4;
+        int itemsPerProducer = 2_000;
+        LockFreeBoundedQueue<Integer> queue = new LockFreeBoundedQueue<>(7, strategy);
+        Set<Integer> seen = ConcurrentHashMap.newKeySet();
+        CountDownLatch done = new CountDownLatch(producers * itemsPerProducer);
+
+        ExecutorService pool = Executors.newFixedThreadPool(producers + consumers);
+        for (int p = 0; p < producers; p++) {
+            final int base = p * itemsPerProducer;
+            pool.submit(() -> {
+                for (int i = 0; i < itemsPerProducer; i++) {
+                    queue.put(base + i);
+                }
+                return null;
+            });
+        }
+        for (int c = 0; c < consumers; c++) {
+            pool.submit(() -> {
+                while (done.getCount() > 0) {
+                    Integer item = queue.poll(20, TimeUnit.MILLISECONDS);
+                    if (item != null) {
+                        assertTrue(seen.add(item), "Duplicate item " + item);
+                        done.countDown();
+                    }
+                }
+                return null;
+            });
+        }
+
+        assertTrue(done.await(8, TimeUnit.SECONDS), "All items should be consumed");
+        pool.shutdownNow();
+        assertEquals(producers * itemsPerProducer, seen.size());
+    }
+
+    @Test
+    void testDefensiveChecks() {
+        assertThrows(IllegalArgumentException.class, () -> new LockFreeBoundedQueue<>(0));
+        assertThrows(NullPointerException.class, () -> new LockFreeBoundedQueue<>(4, null));
+        LockFreeBoundedQueue<String> queue = new LockFreeBoundedQueue<>(4);
+        assertThrows(NullPointerException.class, () -> queue.put(null));
+        assertEquals(WaitStrategy.SPIN_THEN_PARK, queue.getWaitStrategy());
+    }
+}
@@ -0,0 +1,110 @@
+package com.pranjal.assign1;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+/**
+ * UNIT TESTS for MetricsServer
+ * ------------------------------------------------------------------
+ * Focus: Scrapes return Prometheus text without touching the queue lock.
+ * Covers:
+ * - [x] Counters, gauges and latency summaries in the exposition format
+ * - [x] Live values on each scrape
+ * - [x] Non-GET requests rejected
+ */
+class MetricsServerTest {
+
+    private SystemMetrics metrics;
+    private AdvancedBlockingQueue<Object> queue;
+    private MetricsServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        metrics = new SystemMetrics();
+        queue = new AdvancedBlockingQueue<>(8);
+        server = new MetricsServer(0, metrics, queue, new ThreadManager(queue, metrics));
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    @Test
+    @Timeout(5)
+    void testScrapeExposesCountersAndGauges() throws Exception {
+        metrics.recordProduction();
+        metrics.recordProduction();
+        metrics.recordConsumption();
+        queue.put("Record-1-1");
+
+        HttpResponse<String> response = get();
+
+        assertEquals(200, response.statusCode());
+        assertTrue(response.headers().firstValue("Content-Type").orElse("").startsWith("text/plain; version=0.0.4"));
+        String body = response.body();
+        assertTrue(body.contains("# TYPE simulation_items_produced_total counter\nsimulation_items_produced_total 2\n"));
+        assertTrue(body.contains("simulation_items_consumed_total 1\n"));
+        assertTrue(body.contains("simulation_queue_size 1\n"));
+        assertTrue(body.contains("simulation_queue_capacity 8\n"));
+        assertTrue(body.contains("simulation_producers_active 0\n"));
+        assertTrue(body.contains("simulation_consumers_active 0\n"));
+        assertTrue(body.contains("simulation_emergency_consumers_total 0\n"));
+    }
+
+    @Test
+    @Timeout(5)
+    void testScrapeExposesLatencySummaries() throws Exception {
+        metrics.recordLatency(LatencyKind.QUEUE_WAIT, 2_000_000);
+        metrics.recordLatency(LatencyKind.QUEUE_WAIT, 2_000_000);
+
+        String body = get().body();
+
+        assertTrue(body.contains("# TYPE simulation_latency_seconds summary"));
+        assertTrue(body.contains("simulation_latency_seconds_count{kind=\"queue_wait\"} 2\n"));
+        assertTrue(body.contains("simulation_latency_seconds{kind=\"queue_wait\",quantile=\"0.99\"} 0.002"));
+        assertTrue(body.contains("simulation_latency_seconds_count{kind=\"processing\"} 0\n"));
+        for (String line : body.split("\n")) {
+            assertTrue(line.startsWith("#") || line.matches("[a-z_]+(\\{[^}]*\\})? [0-9.E-]+"), "Malformed line: " + line);
+        }
+    }
+
+    @Test
+    @Timeout(5)
+    void testEachScrapeSeesCurrentValues() throws Exception {
+        assertTrue(get().body().contains("simulation_queue_size 0\n"));
+        queue.put("A");
+        queue.put("B");
+        assertTrue(get().body().contains("simulation_queue_size 2\n"));
+        queue.take();
+        assertTrue(get().body().contains("simulation_queue_size 1\n"));
+    }
+
+    @Test
+    @Timeout(5)
+    void testRejectsNonGetRequests() throws Exception {
+        HttpRequest post = HttpRequest.newBuilder(uri()).POST(HttpRequest.BodyPublishers.noBody()).build();
+        HttpResponse<String> response = HttpClient.newHttpClient().send(post, HttpResponse.BodyHandlers.ofString());
+        assertEquals(405, response.statusCode());
+    }
+
+    private HttpResponse<String> get() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri()).GET().build();
+        return HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri() {
+        return URI.create("http://localhost:" + server.getPort() + "/metrics");
+    }
+}
@@ -0,0 +1,260 @@
+package com.pranjal.assign1;
+
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+/**
+ * UNIT TESTS for OffHeapQueue
+ * ------------------------------------------------------------------
+ * Focus: Same contract as AdvancedBlockingQueue, with items stored as
+ * encoded bytes in a direct ByteBuffer ring.
+ * Covers:
+ * - [x] FIFO Ordering across many ring wrap-arounds
+ * - [x] Bounded by item count and by ring bytes, with timeouts
+ * - [x] Zero-copy views hold their bytes until closed, in any order
+ * - [x] Close, control objects and queue wait stamping
+ * - [x] No lost or duplicated items under many producers and consumers
+ * - [x] Runs the simulation as QueueType.OFF_HEAP
+ */
+class OffHeapQueueTest {
+
+    @BeforeEach
+    void setUp() {
+        Logger.setLevel(LogLevel.OFF);
+    }
+
+    @AfterEach
+    void tearDown() {
+        Logger.setLevel(LogLevel.DEBUG);
+    }
+
+    private static String text(ByteBuffer payload) {
+        byte[] bytes = new byte[payload.remaining()];
+        payload.duplicate().get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testFIFOOrderingAcrossWrapAround() throws InterruptedException {
+        OffHeapQueue<Object> queue = new OffHeapQueue<>(8, 200, WalCodec.TEXT);
+
+        for (int i = 0; i < 500; i++) {
+            queue.put("item-" + i);
+            queue.put("x".repeat(i % 40));
+            assertEquals("item-" + i, queue.take());
+            assertEquals("x".repeat(i % 40), queue.take());
+        }
+        assertEquals(0, queue.getSize());
+        assertEquals(8, queue.getCapacity());
+        assertEquals(0, queue.getUsedBytes());
+        assertEquals(200, queue.getRingBytes());
+    }
+
+    @Test
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    void testEmptyRingWrapsForRecordLongerThanTail() throws InterruptedException {
+        OffHeapQueue<byte[]> queue = new OffHeapQueue<>(4, 64, WalCodec.BYTES);
+        queue.put(new byte[8]); // 24 bytes, leaving a 40-byte tail
+        queue.take();
+
+        byte[] large = new byte[32]; // 48 bytes: fits the ring, not the tail
+        assertTrue(queue.offer(large, 1, TimeUnit.SECONDS), "Empty ring restarts at offset 0");
+        assertEquals(48, queue.getUsedBytes());
+        queue.put(new byte[0]); // 16 bytes, fills the ring exactly
+        assertEquals(32, queue.take().length);
+        assertEquals(0, queue.take().length);
+        assertEquals(0, queue.getUsedBytes());
+    }
+
+    @Test
+    void testBoundedByItemsAndBytes() throws InterruptedException {
+        OffHeapQueue<Object> byCount = new OffHeapQueue<>(2, 1024, WalCodec.TEXT);
+        byCount.put("A");
+        byCount.put("B");
+        assertFalse(byCount.offer("C", 50, TimeUnit.MILLISECONDS), "Item count is full");
+
+        OffHeapQueue<Object> byBytes = new OffHeapQueue<>(100, 64, WalCodec.TEXT);
+        byBytes.put("A"); // 16-byte header + 1, aligned to 24
+        byBytes.put("B");
+        assertEquals(48, byBytes.getUsedBytes());
+        long start = System.currentTimeMillis();
+        assertFalse(byBytes.offer("C", 300, TimeUnit.MILLISECONDS), "16 bytes left before the wrap, 16 free");
+        assertTrue(System.currentTimeMillis() - start >= 250);
+
+        assertEquals("A", byBytes.take());
+        assertTrue(byBytes.offer("C", 0, TimeUnit.MILLISECONDS), "Wraps to offset 0 after padding the tail");
+        assertEquals("B", byBytes.poll(10, TimeUnit.MILLISECONDS));
+        assertEquals("C", byBytes.poll(10, TimeUnit.MILLISECONDS));
+        assertNull(byBytes.poll(50, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testRejectsInvalidUse() {
+        assertThrows(IllegalArgumentException.class, () -> new OffHeapQueue<>(0, WalCodec.TEXT));
+        assertThrows(IllegalArgumentException.class, () -> new OffHeapQueue<>(4, 8, WalCodec.TEXT));
+        OffHeapQueue<Object> queue = new OffHeapQueue<>(4, 64, WalCodec.TEXT);
+        assertThrows(NullPointerException.class, () -> queue.put(null));
+        assertThrows(IllegalArgumentException.class, () -> queue.put("x".repeat(64)), "Larger than the ring");
+    }
+
+    @Test
+    void testViewsHoldBytesUntilClosed() throws InterruptedException {
+        OffHeapQueue<Object> queue = new OffHeapQueue<>(10, 80, WalCodec.TEXT);
+        queue.put("first");
+        queue.put("second");
+        queue.put("third");
+        assertEquals(72, queue.getUsedBytes());
+
+        OffHeapQueue<Object>.View first = queue.takeView();
+        OffHeapQueue<Object>.View second = queue.pollView(10, TimeUnit.MILLISECONDS);
+        assertEquals("first", text(first.payload()));
+        assertEquals("second", text(second.payload()));
+        assertNull(first.command());
+        assertTrue(first.payload().isReadOnly());
+        assertTrue(first.payload().isDirect(), "Reads the ring, no copy");
+        assertThrows(ReadOnlyBufferException.class, () -> first.payload().put(0, (byte) 1));
+        assertEquals(1, queue.getSize());
+
+        second.close();
+        assertEquals(72, queue.getUsedBytes(), "An older view is still open");
+        assertFalse(queue.offer("fourth", 0, TimeUnit.MILLISECONDS), "No bytes freed yet");
+        first.close();
+        first.close();
+        assertEquals(24, queue.getUsedBytes(), "Both reclaimed once the oldest closes");
+        assertTrue(queue.offer("fourth", 0, TimeUnit.MILLISECONDS));
+
+        assertEquals("third", queue.take());
+        try (OffHeapQueue<Object>.View view = queue.takeView()) {
+            assertEquals("fourth", text(view.payload()));
+        }
+        assertEquals(0, queue.getUsedBytes());
+    }
+
+    @Test
+    @Timeout(value = 2, unit = TimeUnit.SECONDS)
+    void testCloseWakesTakersAndDrains() throws Exception {
+        OffHeapQueue<Object> queue = new OffHeapQueue<>(4, WalCodec.TEXT);
+        Thread taker = new Thread(() -> assertThrows(QueueClosedException.class, queue::take));
+        taker.start();
+        Thread.sleep(50);
+        assertTrue(queue.close());
+        taker.join();
+
+        OffHeapQueue<Object> withItems = new OffHeapQueue<>(4, WalCodec.TEXT);
+        withItems.put("left");
+        withItems.close();
+        assertTrue(withItems.isClosed());
+        assertThrows(QueueClosedException.class, () -> withItems.put("late"));
+        assertEquals("left", withItems.take());
+        assertThrows(QueueClosedException.class, withItems::takeView);
+    }
+
+    @Test
+    void testControlObjectsAndQueueWait() throws InterruptedException {
+        SystemMetrics metrics = new SystemMetrics();
+        OffHeapQueue<Object> queue = new OffHeapQueue<>(4, WalCodec.TEXT);
+        assertSame(queue, InstrumentedQueue.instrument(queue, metrics), "Times queue wait itself");
+
+        queue.put("item");
+        queue.put(QueueCommand.POISON_PILL);
+        queue.put(QueueCommand.POISON_PILL);
+        assertEquals("item", queue.take());
+        assertSame(QueueCommand.POISON_PILL, queue.take());
+        try (OffHeapQueue<Object>.View view = queue.takeView()) {
+            assertSame(QueueCommand.POISON_PILL, view.command());
+            assertNull(view.payload());
+        }
+        assertEquals(1, metrics.getLatency(LatencyKind.QUEUE_WAIT).getCount(), "Only items are timed");
+        assertEquals(0, queue.getUsedBytes());
+    }
+
+    @Test
+    @Timeout(value = 20, unit = TimeUnit.SECONDS)
+    void testConcurrentProducersAndConsumersLoseNothing() throws Exception {
+        OffHeapQueue<Object> queue = new OffHeapQueue<>(64, 1024, WalCodec.TEXT);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        Set<String> consumed = ConcurrentHashMap.newKeySet();
+        AtomicInteger remaining = new AtomicInteger(8000);
+        for (int p = 0; p < 4; p++) {
+            int producer = p;
+            pool.execute(() -> {
+                try {
+                    for (int i = 0; i < 2000; i++) {
+                        queue.put("P" + producer + "-" + "x".repeat(i % 50) + i);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        for (int c = 0; c < 4; c++) {
+            boolean views = c % 2 == 0;
+            pool.execute(() -> {
+                try {
+                    List<Object> batch = new ArrayList<>();
+                    while (remaining.get() > 0) {
+                        if (views) {
+                            try (OffHeapQueue<Object>.View view = queue.pollView(10, TimeUnit.MILLISECONDS)) {
+                                if (view != null) {
+                                    assertTrue(consumed.add(text(view.payload())));
+                                    remaining.decrementAndGet();
+                                }
+                            }
+                        } else {
+                            batch.clear();
+                            queue.takeBatch(batch, 8, 10, TimeUnit.MILLISECONDS);
+                            for (Object item : batch) {
+                                assertTrue(consumed.add((String) item));
+                            }
+                            remaining.addAndGet(-batch.size());
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(15, TimeUnit.SECONDS));
+
+        assertEquals(8000, consumed.size());
+        assertEquals(0, queue.getSize());
+        assertEquals(0, queue.getUsedBytes());
+    }
+
+    @Test
+    @Timeout(value = 30, unit = TimeUnit.SECONDS)
+    void testSimulationRunsOffHeap() throws Exception {
+        Configuration config = Configuration.custom(2, 5, 2, 4).withQueueType(QueueType.OFF_HEAP);
+        assertFalse(QueueType.OFF_HEAP.storesObjects());
+        assertThrows(IllegalArgumentException.class, () -> config.withWriteAheadLog("wal").validate(),
+                     "The log's envelopes cannot be stored as bytes");
+
+        SimulationEngine engine = new SimulationEngine(config);
+        assertTrue(engine.getQueue() instanceof OffHeapQueue);
+        engine.start();
+        assertTrue(engine.waitForCompletion(20, TimeUnit.SECONDS));
+        engine.shutdown();
+        assertEquals(0, engine.getQueue().getSize());
+    }
+}
@@ -0,0 +1,225 @@
+package com.pranjal.assign1;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * UNIT TESTS for Pipeline and PipelineStage
+ * ------------------------------------------------------------------
+ * Focus: Items pass through chained stages, each with its own queue,
+ * workers and metrics; a slow stage holds up everything before it, and
+ * the auto-scaler grows only that stage, while idle stages shrink.
+ * Covers:
+ * - [x] Builder and stage specification validation
+ * - [x] Every item passes every stage, and end of stream cascades, for every queue type
+ * - [x] Backpressure: a slow stage blocks the stage before it and the producers
+ * - [x] The auto-scaler picks the busiest stage and grows it alone
+ * - [x] Any stage whose policy wants fewer workers shrinks, bottleneck or not
+ * - [x] SimulationEngine runs a pipeline from configuration
+ */
+class PipelineTest {
+
+    @BeforeEach
+    void setUp() {
+        Logger.setLevel(LogLevel.OFF);
+    }
+
+    @AfterEach
+    void tearDown() {
+        Logger.setLevel(LogLevel.DEBUG);
+    }
+
+    @Test
+    void testBuilderValidation() {
+        SystemMetrics metrics = new SystemMetrics();
+        assertThrows(IllegalArgumentException.class, () -> Pipeline.builder(metrics).build(), "No stages");
+        assertThrows(IllegalArgumentException.class,
+                     () -> Pipeline.builder(metrics).stage("a", 1, 1, ThinkTime.NONE).stage("a", 1, 1, ThinkTime.NONE));
+        assertThrows(IllegalArgumentException.class, () -> Pipeline.builder(metrics).capacity(0));
+        assertThrows(NullPointerException.class, () -> Pipeline.builder(null));
+        assertThrows(IllegalArgumentException.class, () -> new StageSpec("a", 0, 1, ThinkTime.NONE));
+        assertThrows(IllegalArgumentException.class, () -> new StageSpec("a:b", 1, 1, ThinkTime.NONE));
+        assertThrows(NullPointerException.class, () -> new StageSpec("a", 1, 1, null));
+        assertThrows(IllegalArgumentException.class,
+                     () -> Pipeline.fromConfiguration(Configuration.withDefaults(), metrics, null));
+
+        StageSpec spec = StageSpec.parse("enrich:2..6:40");
+        assertEquals("enrich:2..6:" + ThinkTime.parse("40"), spec.toString());
+        Pipeline pipeline = Pipeline.builder(metrics).stage(spec).stage("persist", 1, 1, ThinkTime.NONE).build();
+        assertEquals(2, pipeline.getStages().size());
+        assertSame(pipeline.getStages().get(0).getInput(), pipeline.getInput());
+        assertNull(pipeline.getBottleneck(), "No tick yet");
+    }
+
+    @ParameterizedTest
+    @EnumSource(QueueType.class)
+    @Timeout(value = 20, unit = TimeUnit.SECONDS)
+    void testEveryItemPassesEveryStage(QueueType queueType) throws InterruptedException {
+        SystemMetrics metrics = new SystemMetrics();
+        WorkItemPool pool = new WorkItemPool(32);
+        Pipeline pipeline = Pipeline.builder(metrics)
+            .queueType(queueType, WaitStrategy.SPIN_THEN_PARK)
+            .capacity(8)
+            .itemPool(pool)
+            .stage("parse", 2, 2, ThinkTime.NONE)
+            .stage("enrich", 3, 3, ThinkTime.NONE)
+            .stage("persist", 1, 1, ThinkTime.NONE)
+            .build();
+        pipeline.start();
+
+        Thread[] producers = new Thread[2];
+        for (int i = 0; i < producers.length; i++) {
+            producers[i] = new Thread(new ProducerWorker(pipeline.getInput(), i + 1, 500, metrics,
+                                                         ThinkTime.NONE, null, pool));
+            producers[i].start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        pipeline.close();
+
+        assertTrue(pipeline.awaitTermination(10, TimeUnit.SECONDS), "Each stage ends the next");
+        assertEquals(1000, metrics.getTotalConsumed());
+        for (PipelineStage stage : pipeline.getStages()) {
+            assertEquals(1000, stage.getMetrics().getTotalConsumed(), stage.getName());
+            assertEquals(1000, stage.getMetrics().getLatency(LatencyKind.QUEUE_WAIT).getCount(), stage.getName());
+            assertTrue(stage.isDrained(), stage.getName());
+        }
+        assertTrue(pool.getFreeCount() > 0 || !queueType.storesObjects(), "Last stage returns items to the pool");
+    }
+
+    @Test
+    @Timeout(value = 20, unit = TimeUnit.SECONDS)
+    void testSlowStageBlocksUpstream() throws InterruptedException {
+        SystemMetrics metrics = new SystemMetrics();
+        Pipeline pipeline = Pipeline.builder(metrics)
+            .capacity(2)
+            .stage("fast", 1, 1, ThinkTime.NONE)
+            .stage("slow", 1, 1, new ThinkTime(10, 10))
+            .build();
+        pipeline.start();
+
+        // 2 queues of 2, plus one item held by each worker, fit without blocking
+        new ProducerWorker(pipeline.getInput(), 1, 30, metrics, ThinkTime.NONE, null).run();
+        PipelineStage fast = pipeline.getStages().get(0);
+        assertTrue(metrics.getLatency(LatencyKind.PRODUCER_BLOCK).getMax() > 5_000_000,
+                   "Producer waited for the slow stage: " + metrics.getLatency(LatencyKind.PRODUCER_BLOCK));
+        assertTrue(fast.getMetrics().getLatency(LatencyKind.PRODUCER_BLOCK).getMax() > 5_000_000,
+                   "Fast stage waited on the slow one: " + fast.getMetrics().getLatency(LatencyKind.PRODUCER_BLOCK));
+
+        pipeline.close();
+        assertTrue(pipeline.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(30, metrics.getTotalConsumed());
+        assertTrue(fast.getOverallUtilization() < pipeline.getStages().get(1).getOverallUtilization(),
+                   "Blocked time does not count as busy");
+        assertSame(pipeline.getStages().get(1), pipeline.getOverallBottleneck());
+    }
+
+    @Test
+    @Timeout(value = 20, unit = TimeUnit.SECONDS)
+    void testAutoScalerGrowsOnlyTheBottleneck() throws InterruptedException {
+        SystemMetrics metrics = new SystemMetrics();
+        Pipeline pipeline = Pipeline.builder(metrics)
+            .capacity(4)
+            .scalingPolicy(ScalingPolicyType.THRESHOLD)
+            .stage("parse", 1, 4, ThinkTime.NONE)
+            .stage("enrich", 1, 4, new ThinkTime(20, 20))
+            .stage("persist", 1, 4, ThinkTime.NONE)
+            .build();
+        pipeline.start();
+        pipeline.scaleOnce(); // First sample, nothing queued yet
+
+        Thread producer = new Thread(new ProducerWorker(pipeline.getInput(), 1, 40, metrics, ThinkTime.NONE, null));
+        producer.start();
+        Thread.sleep(300);
+        pipeline.scaleOnce();
+
+        PipelineStage enrich = pipeline.getStages().get(1);
+        assertSame(enrich, pipeline.getBottleneck());
+        assertTrue(enrich.getUtilization() > 0.5, "Busy " + enrich.getUtilization());
+        assertEquals(2, enrich.getWorkerCount());
+        assertEquals(1, pipeline.getStages().get(0).getWorkerCount(), "Blocked stage is not scaled");
+        assertEquals(1, pipeline.getStages().get(2).getWorkerCount());
+
+        producer.join();
+        pipeline.close();
+        assertTrue(pipeline.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(40, metrics.getTotalConsumed());
+        assertEquals(2, enrich.getPeakWorkerCount());
+    }
+
+    @Test
+    @Timeout(value = 20, unit = TimeUnit.SECONDS)
+    void testAutoScalerShrinksIdleStagesOtherThanTheBottleneck() throws InterruptedException {
+        SystemMetrics metrics = new SystemMetrics();
+        Pipeline pipeline = Pipeline.builder(metrics)
+            .capacity(4)
+            .scalingPolicy(ScalingPolicyType.PID)
+            .stage("parse", 1, 4, ThinkTime.NONE)
+            .stage("enrich", 1, 4, new ThinkTime(20, 20))
+            .stage("persist", 1, 4, ThinkTime.NONE)
+            .build();
+        pipeline.start();
+        PipelineStage persist = pipeline.getStages().get(2);
+        persist.startWorker(); // Left over from an earlier bottleneck
+        persist.startWorker();
+        pipeline.scaleOnce();
+
+        Thread producer = new Thread(new ProducerWorker(pipeline.getInput(), 1, 40, metrics, ThinkTime.NONE, null));
+        producer.start();
+        Thread.sleep(300);
+        pipeline.scaleOnce();
+
+        assertSame(pipeline.getStages().get(1), pipeline.getBottleneck());
+        assertTrue(persist.getWorkerCount() < 3, "Idle stage shrinks: " + persist.getWorkerCount());
+        assertTrue(persist.getRetiredWorkerCount() > 0);
+        assertEquals(1, pipeline.getStages().get(0).getWorkerCount(), "Blocked stage still does not grow");
+
+        producer.join();
+        pipeline.close();
+        assertTrue(pipeline.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(40, metrics.getTotalConsumed());
+    }
+
+    @Test
+    @Timeout(value = 30, unit = TimeUnit.SECONDS)
+    void testSimulationEngineRunsPipeline() throws InterruptedException {
+        Configuration config = Configuration.custom(2, 10, 1, 4)
+            .withPipeline("parse:1:0;enrich:1..2:5;persist:1:0")
+            .withItemPool(16);
+        SimulationEngine engine = new SimulationEngine(config);
+        Pipeline pipeline = engine.getPipeline();
+        assertEquals(3, pipeline.getStages().size());
+        assertSame(pipeline.getStages().get(0).getQueue(), engine.getQueue());
+
+        engine.start();
+        assertTrue(engine.waitForCompletion(20, TimeUnit.SECONDS));
+        engine.shutdown();
+
+        for (PipelineStage stage : pipeline.getStages()) {
+            assertEquals(20, stage.getMetrics().getTotalConsumed(), stage.getName());
+            assertTrue(stage.isDrained(), stage.getName());
+        }
+        assertEquals(0, engine.getThreadManager().getConsumerCount(), "Stage workers replace the consumers");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SimulationEngine.printPipeline(new PrintStream(out), pipeline);
+        String report = out.toString();
+        assertTrue(report.contains("[PIPELINE]"));
+        assertTrue(report.contains("Stage enrich:1..2:"), report);
+        assertTrue(report.contains("Bottleneck:"), report);
+    }
+}
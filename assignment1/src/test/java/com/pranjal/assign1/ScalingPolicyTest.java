@@ -0,0 +1,287 @@
+package com.pranjal.assign1;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+/**
+ * UNIT TESTS for the auto-scaling policies and ThreadManager scaling
+ * ------------------------------------------------------------------
+ * Focus: Consumer count decisions and clean scale-down.
+ * Covers:
+ * - [x] Threshold policy keeps the original add-only, 3-consumer rule
+ * - [x] PID scales up on a full queue, down on an idle one, holds near target
+ * - [x] M/M/c Erlang C math and pool sizing with backlog drain
+ * - [x] ThreadManager clamps to bounds and retires consumers without poison pills
+ * - [x] Consumers within the minimum block in take() rather than polling for a retire signal
+ * - [x] Timeline tracking error, kept as running sums, and a bounded list of recent actions
+ * - [x] Watermark events trigger scaling ahead of the timer
+ */
+class ScalingPolicyTest {
+
+    private static final int CAPACITY = 10;
+
+    @BeforeEach
+    void setUp() {
+        Logger.setLevel(LogLevel.OFF);
+    }
+
+    @AfterEach
+    void tearDown() {
+        Logger.setLevel(LogLevel.DEBUG);
+    }
+
+    /**
+     * Returns whether some consumer thread is waiting inside the given method.
+     */
+    private static boolean consumerBlockedIn(String method) {
+        for (StackTraceElement[] stack : Thread.getAllStackTraces().values()) {
+            String trace = Arrays.toString(stack);
+            if (trace.contains("ConsumerWorker.run") && trace.contains(method + "(")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static ScalingSample sample(int depth, double lambda, double mu, int consumers) {
+        return sample(0, depth, lambda, mu, consumers);
+    }
+
+    private static ScalingSample sample(long millis, int depth, double lambda, double mu, int consumers) {
+        return new ScalingSample(millis, depth, CAPACITY, lambda, mu * consumers, mu, consumers, 1, 20);
+    }
+
+    // ==========================================
+    // POLICIES
+    // ==========================================
+
+    @Test
+    void testThresholdPolicyAddsAtMostThreeAndNeverRetires() {
+        ThresholdScalingPolicy policy = new ThresholdScalingPolicy();
+        assertEquals(2, policy.desiredConsumers(sample(5, 0, 0, 2)), "Below 75% holds");
+        assertEquals(2, policy.desiredConsumers(sample(0, 0, 0, 2)), "Never scales down");
+
+        assertEquals(3, policy.desiredConsumers(sample(8, 0, 0, 2)));
+        assertEquals(4, policy.desiredConsumers(sample(8, 0, 0, 3)));
+        assertEquals(5, policy.desiredConsumers(sample(8, 0, 0, 4)));
+        assertEquals(5, policy.desiredConsumers(sample(10, 0, 0, 5)), "Capped at 3 additions");
+        assertEquals(7, policy.getTargetDepth(CAPACITY));
+    }
+
+    @Test
+    void testPidScalesTowardTargetDepth() {
+        assertTrue(new PidScalingPolicy().desiredConsumers(sample(10, 20, 5, 4)) > 4,
+                   "Full queue with lambda/mu = 4 needs more than 4 consumers");
+        assertTrue(new PidScalingPolicy().desiredConsumers(sample(0, 5, 5, 6)) < 6,
+                   "Idle queue with lambda/mu = 1 needs fewer than 6 consumers");
+        assertEquals(4, new PidScalingPolicy().desiredConsumers(sample(5, 20, 5, 4)),
+                     "At target with matched rates holds");
+        assertEquals(5, new PidScalingPolicy().getTargetDepth(CAPACITY));
+    }
+
+    @Test
+    void testPidIntegralAccumulatesPersistentError() {
+        PidScalingPolicy policy = new PidScalingPolicy(0.5, 0, 1.0, 0);
+        int first = policy.desiredConsumers(sample(0, 10, 8, 5, 2));
+        int later = first;
+        for (int t = 1; t <= 8; t++) {
+            later = policy.desiredConsumers(sample(t * 250L, 10, 8, 5, 2));
+        }
+        assertTrue(later > first, "Integral term grows while the queue stays full");
+    }
+
+    @Test
+    void testPidRejectsBadParameters() {
+        assertThrows(IllegalArgumentException.class, () -> new PidScalingPolicy(0, 1, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new PidScalingPolicy(0.5, -1, 1, 1));
+    }
+
+    @Test
+    void testErlangCMeanQueueLength() {
+        // M/M/1: Lq = rho^2 / (1 - rho)
+        assertEquals(0.5, QueueingModelScalingPolicy.meanQueueLength(0.5, 1, 1), 1e-9);
+        // M/M/2 with a = 1: Erlang C = 1/3, Lq = 1/3
+        assertEquals(1.0 / 3, QueueingModelScalingPolicy.meanQueueLength(1, 1, 2), 1e-9);
+        assertEquals(Double.POSITIVE_INFINITY, QueueingModelScalingPolicy.meanQueueLength(2, 1, 2));
+    }
+
+    @Test
+    void testQueueingModelSizesPool() {
+        QueueingModelScalingPolicy policy = new QueueingModelScalingPolicy();
+        assertEquals(5, policy.desiredConsumers(sample(5, 20, 5, 3)), "Smallest stable c with Lq <= 5");
+        assertEquals(6, policy.desiredConsumers(sample(10, 20, 5, 3)), "One more to drain 5 excess items in 2s");
+        assertEquals(1, policy.desiredConsumers(sample(0, 1, 5, 4)), "Light load shrinks the pool");
+        assertEquals(4, policy.desiredConsumers(sample(10, 20, 0, 3)), "Unknown mu: add one above target");
+    }
+
+    // ==========================================
+    // THREAD MANAGER
+    // ==========================================
+
+    /**
+     * Always asks for a fixed number of consumers.
+     */
+    private static ScalingPolicy fixed(int consumers) {
+        return new ScalingPolicy() {
+            @Override
+            public int desiredConsumers(ScalingSample sample) {
+                return consumers;
+            }
+
+            @Override
+            public int getTargetDepth(int capacity) {
+                return 0;
+            }
+        };
+    }
+
+    @Test
+    @Timeout(5)
+    void testScaleDownRetiresConsumersWithoutPoisonPill() throws InterruptedException {
+        AdvancedBlockingQueue<Object> queue = new AdvancedBlockingQueue<>(CAPACITY);
+        ThreadManager manager = new ThreadManager(queue, new SystemMetrics(), 1, ExecutorType.PLATFORM,
+                                                  fixed(1), 1, 5);
+        manager.startConsumers(3);
+        manager.scaleOnce();
+
+        assertEquals(1, manager.getActiveConsumerCount());
+        assertEquals(2, manager.getRetiredConsumerCount());
+        while (manager.getConsumerCount() > 1) {
+            Thread.sleep(10); // Retired consumers notice within one poll interval
+        }
+        assertEquals(0, queue.getSize(), "No poison pill was used");
+        while (!consumerBlockedIn("AdvancedBlockingQueue.take")) {
+            Thread.sleep(10); // The minimum gets no retire signal, so it blocks instead of polling
+        }
+
+        queue.put("Item");
+        while (queue.getSize() > 0) {
+            Thread.sleep(10); // Survivor still consumes
+        }
+        manager.shutdown();
+        queue.put(QueueCommand.POISON_PILL);
+        manager.waitForConsumers();
+        assertEquals(0, manager.getConsumerCount());
+    }
+
+    @Test
+    @Timeout(5)
+    void testScaleUpClampedToMax() throws InterruptedException {
+        AdvancedBlockingQueue<Object> queue = new AdvancedBlockingQueue<>(CAPACITY);
+        ThreadManager manager = new ThreadManager(queue, new SystemMetrics(), 1, ExecutorType.PLATFORM,
+                                                  fixed(100), 1, 4);
+        manager.startConsumers(1);
+        manager.scaleOnce();
+        manager.scaleOnce();
+
+        assertEquals(4, manager.getActiveConsumerCount());
+        assertEquals(3, manager.getEmergencyConsumerCount());
+        ScalingTimeline timeline = manager.getScalingTimeline();
+        assertEquals(2, timeline.getSampleCount());
+        assertEquals(1, timeline.getChanges().size(), "Second tick was already at the limit");
+        assertEquals(4, timeline.getChanges().get(0).getConsumersAfter());
+
+        manager.shutdown();
+        queue.put(QueueCommand.POISON_PILL);
+        manager.waitForConsumers();
+    }
+
+    @Test
+    void testInvalidBoundsRejected() {
+        AdvancedBlockingQueue<Object> queue = new AdvancedBlockingQueue<>(CAPACITY);
+        assertThrows(IllegalArgumentException.class, () -> new ThreadManager(
+            queue, new SystemMetrics(), 1, ExecutorType.PLATFORM, fixed(1), 3, 2));
+    }
+
+    @Test
+    @Timeout(5)
+    void testHighWatermarkScalesBeforeTimerTick() throws InterruptedException {
+        AdvancedBlockingQueue<Object> queue = new AdvancedBlockingQueue<>(CAPACITY);
+        ScalingPolicy slow = new ScalingPolicy() {
+            @Override
+            public int desiredConsumers(ScalingSample sample) {
+                return sample.getQueueDepth() > 0 ? sample.getConsumers() + 1 : sample.getConsumers();
+            }
+
+            @Override
+            public int getTargetDepth(int capacity) {
+                return 0;
+            }
+
+            @Override
+            public long getIntervalMillis() {
+                return 60_000; // Only the first tick comes from the timer
+            }
+        };
+        ThreadManager manager = new ThreadManager(queue, new SystemMetrics(), 1, ExecutorType.PLATFORM,
+                                                  slow, 0, 5);
+        manager.runAutoScalerLoop();
+        assertTrue(manager.isWatermarkDriven());
+        while (manager.getScalingTimeline().getSampleCount() == 0) {
+            Thread.sleep(1); // Initial timer tick on the empty queue
+        }
+
+        for (int i = 0; i < 8; i++) {
+            queue.put("Item " + i); // 8 of 10 crosses the high watermark
+        }
+        while (manager.getScalingTimeline().getChanges().isEmpty()) {
+            Thread.sleep(1);
+        }
+        assertEquals(1, manager.getActiveConsumerCount());
+        ScalingTimeline.Entry action = manager.getScalingTimeline().getChanges().get(0);
+        assertEquals("HIGH_WATERMARK", action.getTrigger());
+        assertTrue(action.getReactionNanos() >= 0);
+
+        manager.shutdown();
+        queue.put(QueueCommand.POISON_PILL);
+        manager.waitForConsumers();
+    }
+
+    @Test
+    void testTimelineTrackingError() {
+        ScalingTimeline timeline = new ScalingTimeline(5, 10);
+        timeline.record(sample(5, 0, 0, 2), 2);
+        timeline.record(sample(9, 0, 0, 2), 3);
+        timeline.record(sample(3, 0, 0, 3), 3);
+        timeline.record(sample(5, 0, 0, 3), 3);
+
+        assertEquals(1.5, timeline.getMeanAbsoluteError(), 1e-9);
+        assertEquals(Math.sqrt(5), timeline.getRmsError(), 1e-9);
+        assertEquals(1, timeline.getTolerance());
+        assertEquals(0.5, timeline.getFractionWithinTolerance(), 1e-9);
+        assertEquals(1, timeline.getChanges().size());
+    }
+
+    @Test
+    void testTimelineKeepsOnlyRecentChanges() {
+        ScalingTimeline timeline = new ScalingTimeline(5, 10);
+        int ticks = ScalingTimeline.MAX_CHANGES + 10;
+        for (int i = 0; i < ticks; i++) {
+            timeline.record(sample(i, 5, 0, 0, 2), 3); // Every tick changes the count
+        }
+
+        assertEquals(ticks, timeline.getSampleCount());
+        assertEquals(ticks, timeline.getChangeCount());
+        List<ScalingTimeline.Entry> kept = timeline.getChanges();
+        assertEquals(ScalingTimeline.MAX_CHANGES, kept.size(), "Older actions are only counted");
+        assertEquals(10, kept.get(0).getSample().getElapsedMillis());
+        assertEquals(0, timeline.getMeanAbsoluteError(), 1e-9);
+        assertEquals(1.0, timeline.getFractionWithinTolerance(), 1e-9);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        timeline.print(new PrintStream(out));
+        assertTrue(out.toString().contains("Scaling Actions:          " + ticks + " (last "
+                                           + ScalingTimeline.MAX_CHANGES + " shown)"), out.toString());
+    }
+}
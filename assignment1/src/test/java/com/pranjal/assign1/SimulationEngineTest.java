@@ -7,6 +7,7 @@ import org.junit.jupiter.api.Timeout;
 
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -59,7 +60,7 @@ class SimulationEngineTest {
 
         SimulationEngine engine = new SimulationEngine(config);
 
-        AdvancedBlockingQueue<Object> queue = engine.getQueue();
+        BoundedBlockingQueue<Object> queue = engine.getQueue();
         assertNotNull(queue);
         assertEquals(15, queue.getCapacity());
     }
@@ -128,7 +129,7 @@ class SimulationEngineTest {
         Configuration config = Configuration.custom(2, 5, 1, 25);
         SimulationEngine engine = new SimulationEngine(config);
 
-        AdvancedBlockingQueue<Object> queue = engine.getQueue();
+        BoundedBlockingQueue<Object> queue = engine.getQueue();
 
         assertNotNull(queue);
         assertEquals(25, queue.getCapacity());
@@ -186,6 +187,20 @@ class SimulationEngineTest {
         assertTrue(true);
     }
 
+    @Test
+    @Timeout(10)
+    void testWaitForCompletionWithTimeout() throws InterruptedException {
+        Configuration config = Configuration.custom(1, 3, 1, 10);
+        SimulationEngine engine = new SimulationEngine(config);
+
+        // Nothing started yet, so nothing can be consumed
+        assertFalse(engine.waitForCompletion(50, TimeUnit.MILLISECONDS));
+
+        engine.start();
+        assertTrue(engine.waitForCompletion(5, TimeUnit.SECONDS));
+        engine.shutdown();
+    }
+
     @Test
     @Timeout(15)
     void testRunSimulationMethod() {
@@ -977,5 +992,145 @@ class SimulationEngineTest {
             System.setOut(originalOut);
         }
     }
-}
 
+    // ==========================================
+    // QUEUE IMPLEMENTATION TESTS
+    // ==========================================
+
+    @Test
+    @Timeout(10)
+    void testSimulationRunsOnLockFreeQueue() throws InterruptedException {
+        Configuration config = Configuration.custom(2, 5, 2, 4)
+                                            .withQueueType(QueueType.LOCK_FREE);
+        SimulationEngine engine = new SimulationEngine(config);
+
+        assertTrue(engine.getQueue() instanceof LockFreeBoundedQueue);
+
+        engine.start();
+        engine.waitForCompletion();
+        engine.shutdown();
+
+        assertEquals(0, engine.getThreadManager().getConsumerCount());
+    }
+
+    @Test
+    @Timeout(10)
+    void testSimulationRunsOnTwoLockQueue() throws InterruptedException {
+        Configuration config = Configuration.custom(2, 5, 2, 4)
+                                            .withQueueType(QueueType.TWO_LOCK);
+        SimulationEngine engine = new SimulationEngine(config);
+
+        assertTrue(engine.getQueue() instanceof TwoLockBlockingQueue);
+
+        engine.start();
+        engine.waitForCompletion();
+        engine.shutdown();
+
+        assertEquals(0, engine.getThreadManager().getConsumerCount());
+    }
+
+    @Test
+    @Timeout(10)
+    void testBatchModeReportsItemsPerLockAcquisition() throws InterruptedException {
+        Configuration config = Configuration.custom(3, 5, 1, 10).withConsumerBatchSize(4);
+        SimulationEngine engine = new SimulationEngine(config);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        PrintStream originalOut = System.out;
+        System.setOut(new PrintStream(outputStream));
+
+        try {
+            engine.start();
+            engine.waitForCompletion();
+            engine.shutdown();
+            engine.printAnalysisResults();
+
+            String output = outputStream.toString();
+            assertTrue(output.contains("Items per Lock Acquisition:"),
+                "Should report batching efficiency");
+            assertTrue(output.contains("consumer batch size 4"));
+        } finally {
+            System.setOut(originalOut);
+        }
+    }
+
+    @Test
+    @Timeout(10)
+    void testSimulationRunsWithStripedMetrics() throws InterruptedException {
+        Configuration config = Configuration.custom(3, 4, 2, 5).withMetricsType(MetricsType.STRIPED);
+        SimulationEngine engine = new SimulationEngine(config);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        PrintStream originalOut = System.out;
+        System.setOut(new PrintStream(outputStream));
+        try {
+            engine.start();
+            engine.waitForCompletion();
+            engine.shutdown();
+            engine.printAnalysisResults();
+        } finally {
+            System.setOut(originalOut);
+        }
+
+        String output = outputStream.toString();
+        assertTrue(output.contains("Items Consumed:           12"), "Striped counts must reach the target");
+        assertTrue(output.contains("SUCCESS"));
+    }
+
+    @Test
+    @Timeout(10)
+    void testAnalysisReportsLatencyPercentiles() throws InterruptedException {
+        Configuration config = Configuration.custom(2, 5, 1, 3);
+        SimulationEngine engine = new SimulationEngine(config);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        PrintStream originalOut = System.out;
+        System.setOut(new PrintStream(outputStream));
+        try {
+            engine.start();
+            engine.waitForCompletion();
+            engine.shutdown();
+            engine.printAnalysisResults();
+        } finally {
+            System.setOut(originalOut);
+        }
+
+        String output = outputStream.toString();
+        assertTrue(output.contains("[LATENCY]"));
+        assertTrue(output.contains("Queue Wait:"));
+        assertTrue(output.contains("Producer Block:"));
+        assertTrue(output.contains("Processing:"));
+        // Every consumed item produced one sample of each kind
+        assertTrue(output.contains("p99.9="), "Percentiles should be reported");
+        assertTrue(output.contains("(n=10)"), "One sample per item");
+    }
+
+
+    @Test
+    @Timeout(10)
+    void testMetricsEndpointServesDuringRunAndStopsOnShutdown() throws Exception {
+        Configuration config = Configuration.custom(2, 5, 1, 3).withMetricsPort(0);
+        SimulationEngine engine = new SimulationEngine(config);
+        assertNull(engine.getMetricsServer(), "Endpoint starts with the simulation");
+
+        PrintStream originalOut = System.out;
+        System.setOut(new PrintStream(new ByteArrayOutputStream()));
+        try {
+            engine.start();
+            java.net.URI uri = java.net.URI.create("http://localhost:" + engine.getMetricsServer().getPort() + "/metrics");
+            engine.waitForCompletion();
+
+            java.net.http.HttpClient client = java.net.http.HttpClient.newHttpClient();
+            String body = client.send(java.net.http.HttpRequest.newBuilder(uri).build(),
+                                      java.net.http.HttpResponse.BodyHandlers.ofString()).body();
+            assertTrue(body.contains("simulation_items_consumed_total 10\n"));
+            assertTrue(body.contains("simulation_queue_capacity 3\n"));
+
+            engine.shutdown();
+            assertThrows(java.io.IOException.class, () -> client.send(java.net.http.HttpRequest.newBuilder(uri).build(),
+                                                                      java.net.http.HttpResponse.BodyHandlers.ofString()));
+        } finally {
+            System.setOut(originalOut);
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.pranjal.assign1;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * UNIT TESTS for the disk spill-over queue
+ * ------------------------------------------------------------------
+ * Focus: Items beyond the in-memory capacity go to disk instead of
+ * blocking producers, and come back in FIFO order.
+ * Covers:
+ * - [x] Overflow spills and pages back in order, with page-in timings
+ * - [x] Inserts keep spilling until the spill has drained
+ * - [x] Segments roll, drained ones are deleted, stale ones removed on open
+ * - [x] Close drains the spill before end of stream, for closable and
+ *       unclosable delegates
+ * - [x] Concurrent producers lose nothing and keep their order
+ * - [x] Spill gauges on the metrics endpoint
+ * - [x] Simulation with a tiny queue drops nothing
+ */
+class SpillingQueueTest {
+
+    @TempDir
+    Path dir;
+
+    private SystemMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        Logger.setLevel(LogLevel.OFF);
+        metrics = new SystemMetrics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        Logger.setLevel(LogLevel.DEBUG);
+    }
+
+    private SpillingQueue<Object> spilling(BoundedBlockingQueue<Object> delegate, int segmentBytes)
+            throws IOException {
+        return new SpillingQueue<>(delegate, dir, WalCodec.TEXT, metrics, segmentBytes);
+    }
+
+    private static long fileCount(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.count();
+        }
+    }
+
+    @Test
+    @Timeout(10)
+    void testOverflowSpillsAndPagesBackInOrder() throws Exception {
+        SpillingQueue<Object> queue = spilling(new AdvancedBlockingQueue<>(4), SpillStore.DEFAULT_SEGMENT_BYTES);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(queue.offer("item-" + i, 0, TimeUnit.MILLISECONDS), "Never waits for space");
+        }
+        assertEquals(100, queue.getSize());
+        assertEquals(4, queue.getCapacity());
+        assertEquals(96, queue.getSpilledItems());
+        assertEquals(96 * (SpillStore.RECORD_HEADER_BYTES + "item-10".length()) - 6,
+                     queue.getSpilledBytes(), "item-4..item-9 are a byte shorter");
+        assertEquals(queue.getSpilledBytes(), queue.getTotalSpilledBytes());
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals("item-" + i, queue.take());
+        }
+        assertEquals(0, queue.getSize());
+        assertEquals(0, queue.getSpilledItems());
+        assertEquals(0, queue.getSpilledBytes());
+        assertEquals(96, queue.getTotalSpilledItems());
+        assertTrue(metrics.getLatency(LatencyKind.PAGE_IN).getCount() > 0, "Page-ins are timed");
+    }
+
+    @Test
+    @Timeout(10)
+    void testInsertsSpillUntilSpillDrains() throws Exception {
+        SpillingQueue<Object> queue = spilling(new AdvancedBlockingQueue<>(4), SpillStore.DEFAULT_SEGMENT_BYTES);
+        for (int i = 0; i < 5; i++) {
+            queue.put("item-" + i);
+        }
+        assertEquals("item-0", queue.take());
+        queue.put("item-5"); // Memory has room, but item-4 is still on disk
+        assertEquals(2, queue.getSpilledItems());
+
+        List<Object> drained = new ArrayList<>();
+        while (drained.size() < 5) {
+            queue.takeBatch(drained, 5, 10, TimeUnit.MILLISECONDS);
+        }
+        assertEquals(List.of("item-1", "item-2", "item-3", "item-4", "item-5"), drained);
+
+        queue.put("item-6");
+        assertEquals(0, queue.getSpilledItems(), "Back to memory once the spill is empty");
+    }
+
+    @Test
+    @Timeout(10)
+    void testSegmentsRollAndDrainedOnesAreDeleted() throws Exception {
+        Files.createFile(dir.resolve("spill-000007.seg"));
+        SpillingQueue<Object> queue = spilling(new AdvancedBlockingQueue<>(2), 64);
+        assertEquals(1, queue.getSegmentCount(), "Stale segment deleted, a fresh one opened");
+
+        for (int i = 0; i < 50; i++) {
+            queue.put("record-" + i);
+        }
+        assertTrue(queue.getSegmentCount() > 5, "Segments of 64 bytes roll");
+
+        for (int i = 0; i < 50; i++) {
+            assertEquals("record-" + i, queue.take());
+        }
+        assertEquals(1, queue.getSegmentCount(), "Drained segments are deleted");
+
+        assertTrue(queue.close());
+        assertEquals(0, fileCount(dir));
+    }
+
+    @Test
+    @Timeout(10)
+    void testCloseDrainsSpillBeforeEndOfStream() throws Exception {
+        SpillingQueue<Object> queue = spilling(new AdvancedBlockingQueue<>(2), SpillStore.DEFAULT_SEGMENT_BYTES);
+        for (int i = 0; i < 10; i++) {
+            queue.put("item-" + i);
+        }
+        assertTrue(queue.close());
+        assertTrue(queue.isClosed());
+        assertThrows(QueueClosedException.class, () -> queue.put("late"));
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals("item-" + i, queue.take());
+        }
+        assertThrows(QueueClosedException.class, queue::take);
+        assertEquals(0, fileCount(dir), "Spill files deleted once drained");
+    }
+
+    @Test
+    @Timeout(10)
+    void testUnclosableDelegateGetsPoisonPillAfterSpill() throws Exception {
+        SpillingQueue<Object> queue = spilling(new TwoLockBlockingQueue<>(2), SpillStore.DEFAULT_SEGMENT_BYTES);
+        for (int i = 0; i < 6; i++) {
+            queue.put("item-" + i);
+        }
+        assertTrue(queue.close(), "Closes even when the delegate cannot");
+
+        for (int i = 0; i < 6; i++) {
+            assertEquals("item-" + i, queue.take());
+        }
+        assertSame(QueueCommand.POISON_PILL, queue.take());
+    }
+
+    @Test
+    void testRejectsNull() throws Exception {
+        SpillingQueue<Object> queue = spilling(new AdvancedBlockingQueue<>(2), SpillStore.DEFAULT_SEGMENT_BYTES);
+        assertThrows(NullPointerException.class, () -> queue.put(null));
+        assertThrows(IllegalArgumentException.class,
+                     () -> new SpillingQueue<>(new AdvancedBlockingQueue<>(2), dir, WalCodec.TEXT, metrics, 4));
+    }
+
+    @Test
+    @Timeout(30)
+    void testConcurrentProducersLoseNothingAndKeepOrder() throws Exception {
+        SpillingQueue<Object> queue = spilling(new AdvancedBlockingQueue<>(16), 4096);
+        ExecutorService pool = Executors.newFixedThreadPool(5);
+        Map<Integer, List<Integer>> seen = new ConcurrentHashMap<>();
+        AtomicInteger remaining = new AtomicInteger(2000);
+        for (int p = 0; p < 4; p++) {
+            int producer = p;
+            seen.put(producer, new ArrayList<>());
+            pool.execute(() -> {
+                try {
+                    for (int i = 0; i < 500; i++) {
+                        queue.put(producer + "-" + i);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        pool.execute(() -> {
+            try {
+                List<Object> batch = new ArrayList<>();
+                while (remaining.get() > 0) {
+                    batch.clear();
+                    queue.takeBatch(batch, 4, 10, TimeUnit.MILLISECONDS);
+                    for (Object item : batch) {
+                        String[] parts = ((String) item).split("-");
+                        seen.get(Integer.parseInt(parts[0])).add(Integer.parseInt(parts[1]));
+                    }
+                    remaining.addAndGet(-batch.size());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(20, TimeUnit.SECONDS));
+
+        assertEquals(0, queue.getSize());
+        assertTrue(queue.getTotalSpilledItems() > 0, "Producers outran the consumer");
+        for (List<Integer> order : seen.values()) {
+            assertEquals(500, order.size());
+            for (int i = 0; i < 500; i++) {
+                assertEquals(i, order.get(i), "Each producer's items arrive in order");
+            }
+        }
+    }
+
+    @Test
+    void testMetricsEndpointExposesSpill() throws Exception {
+        SpillingQueue<Object> queue = spilling(new AdvancedBlockingQueue<>(1), SpillStore.DEFAULT_SEGMENT_BYTES);
+        queue.put("A");
+        queue.put("B");
+        queue.put("C");
+        MetricsServer server = new MetricsServer(0, metrics, queue, new ThreadManager(queue, metrics), queue);
+        try {
+            String body = server.render();
+            assertTrue(body.contains("simulation_spill_items 2\n"));
+            assertTrue(body.contains("simulation_spill_bytes 10\n"));
+            assertTrue(body.contains("# TYPE simulation_spilled_bytes_total counter\nsimulation_spilled_bytes_total 10\n"));
+            assertTrue(body.contains("simulation_latency_seconds_count{kind=\"page_in\"}"));
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    @Timeout(30)
+    void testSimulationWithSpillDropsNothing() throws Exception {
+        Path spillDir = dir.resolve("spill");
+        Configuration config = Configuration.custom(3, 4, 1, 1).withSpillDirectory(spillDir.toString());
+        SimulationEngine engine = new SimulationEngine(config);
+        engine.start();
+        assertTrue(engine.waitForCompletion(20, TimeUnit.SECONDS), "All 12 items consumed");
+        engine.shutdown();
+
+        // A record dropped after a producer timeout would never be consumed
+        assertEquals(0, engine.getQueue().getSize());
+        assertEquals(0, fileCount(spillDir), "Spill files deleted at shutdown");
+    }
+}
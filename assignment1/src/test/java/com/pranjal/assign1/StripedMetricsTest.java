@@ -0,0 +1,130 @@
+package com.pranjal.assign1;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+/**
+ * UNIT TESTS for StripedMetrics
+ * ------------------------------------------------------------------
+ * Focus: Same counts as SystemMetrics with LongAdder-backed counters.
+ * Covers:
+ * - [x] Exact totals after concurrent increments
+ * - [x] Reads during writes never exceed or go back
+ * - [x] Batch accounting and items per lock acquisition
+ */
+class StripedMetricsTest {
+
+    @Test
+    void testInitialState() {
+        StripedMetrics metrics = new StripedMetrics();
+        assertEquals(0, metrics.getTotalProduced());
+        assertEquals(0, metrics.getTotalConsumed());
+        assertEquals(0.0, metrics.getItemsPerLockAcquisition());
+    }
+
+    @Test
+    @Timeout(5)
+    void testConcurrentIncrementsAreExact() throws InterruptedException {
+        StripedMetrics metrics = new StripedMetrics();
+        int threadCount = 10;
+        int incrementsPerThread = 1000;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch latch = new CountDownLatch(threadCount);
+
+        for (int i = 0; i < threadCount; i++) {
+            executor.submit(() -> {
+                for (int j = 0; j < incrementsPerThread; j++) {
+                    metrics.recordProduction();
+                    metrics.recordConsumption();
+                }
+                latch.countDown();
+            });
+        }
+
+        latch.await();
+        executor.shutdown();
+        executor.awaitTermination(2, TimeUnit.SECONDS);
+
+        assertEquals(threadCount * incrementsPerThread, metrics.getTotalProduced());
+        assertEquals(threadCount * incrementsPerThread, metrics.getTotalConsumed());
+    }
+
+    @Test
+    @Timeout(5)
+    void testReadsDuringWritesAreMonotonicAndBounded() throws InterruptedException {
+        StripedMetrics metrics = new StripedMetrics();
+        int writers = 4;
+        int perWriter = 20_000;
+        AtomicBoolean violation = new AtomicBoolean(false);
+        CountDownLatch done = new CountDownLatch(writers);
+
+        for (int i = 0; i < writers; i++) {
+            new Thread(() -> {
+                for (int j = 0; j < perWriter; j++) {
+                    metrics.recordConsumption();
+                }
+                done.countDown();
+            }).start();
+        }
+
+        // Same reads awaitConsumed makes while a waiter is registered
+        long last = 0;
+        while (done.getCount() > 0) {
+            long seen = metrics.getTotalConsumed();
+            if (seen < last || seen > (long) writers * perWriter) {
+                violation.set(true);
+            }
+            last = seen;
+        }
+        done.await();
+
+        assertFalse(violation.get(), "Sum went backwards or over-counted");
+        assertEquals((long) writers * perWriter, metrics.getTotalConsumed());
+    }
+
+    @Test
+    @Timeout(5)
+    void testAwaitConsumedAcrossWriters() throws InterruptedException {
+        StripedMetrics metrics = new StripedMetrics();
+        int writers = 4;
+        int perWriter = 5_000;
+        for (int i = 0; i < writers; i++) {
+            new Thread(() -> {
+                for (int j = 0; j < perWriter; j++) {
+                    metrics.recordConsumption();
+                }
+            }).start();
+        }
+
+        assertTrue(metrics.awaitConsumed((long) writers * perWriter, 4, TimeUnit.SECONDS));
+        assertEquals((long) writers * perWriter, metrics.getTotalConsumed());
+    }
+
+    @Test
+    void testBatchAccounting() {
+        StripedMetrics metrics = new StripedMetrics();
+        metrics.recordConsumption();
+        metrics.recordConsumption();
+        metrics.recordBatchConsumption(8);
+        metrics.recordBatchConsumption(0); // Ignored
+
+        assertEquals(10, metrics.getTotalConsumed());
+        assertEquals(1, metrics.getBatchCount());
+        // 10 items over 3 acquisitions
+        assertEquals(10.0 / 3, metrics.getItemsPerLockAcquisition(), 1e-9);
+    }
+
+    @Test
+    void testImplementsMetricsCollector() {
+        assertTrue(MetricsType.STRIPED.create() instanceof StripedMetrics);
+    }
+}
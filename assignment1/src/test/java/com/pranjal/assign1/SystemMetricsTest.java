@@ -239,5 +239,108 @@ class SystemMetricsTest {
         assertEquals(1, collector.getTotalProduced());
         assertEquals(1, collector.getTotalConsumed());
     }
-}
 
+    // ==========================================
+    // BATCH CONSUMPTION TESTS
+    // ==========================================
+
+    @Test
+    void testItemsPerLockAcquisitionWithoutBatches() {
+        assertEquals(0.0, metrics.getItemsPerLockAcquisition());
+
+        metrics.recordConsumption();
+        metrics.recordConsumption();
+
+        assertEquals(1.0, metrics.getItemsPerLockAcquisition(), 0.0001);
+    }
+
+    @Test
+    void testItemsPerLockAcquisitionMixesSinglesAndBatches() {
+        metrics.recordBatchConsumption(8);
+        metrics.recordBatchConsumption(4);
+        metrics.recordConsumption();
+        metrics.recordBatchConsumption(0); // Ignored
+
+        // 13 items over 3 acquisitions (2 batches + 1 single take)
+        assertEquals(13, metrics.getTotalConsumed());
+        assertEquals(2, metrics.getBatchCount());
+        assertEquals(13.0 / 3, metrics.getItemsPerLockAcquisition(), 0.0001);
+    }
+
+    @Test
+    void testDefaultBatchConsumptionRecordsEachItem() {
+        MetricsCollector collector = new MockMetricsCollector();
+        collector.recordBatchConsumption(5);
+
+        assertEquals(5, collector.getTotalConsumed());
+        assertEquals(1.0, collector.getItemsPerLockAcquisition(), 0.0001);
+    }
+
+    // ==========================================
+    // COMPLETION TESTS
+    // ==========================================
+
+    @Test
+    @Timeout(5)
+    void testAwaitConsumedWakesOnLastItem() throws InterruptedException {
+        CountDownLatch waiting = new CountDownLatch(1);
+        long[] wokeAfter = new long[1];
+        Thread waiter = new Thread(() -> {
+            try {
+                waiting.countDown();
+                assertTrue(metrics.awaitConsumed(3, 10, TimeUnit.SECONDS));
+                wokeAfter[0] = metrics.getTotalConsumed();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        waiter.start();
+        waiting.await();
+
+        metrics.recordConsumption();
+        metrics.recordBatchConsumption(2);
+        waiter.join(1000);
+        assertFalse(waiter.isAlive(), "Woken by the consuming thread, well before the 10s timeout");
+        assertEquals(3, wokeAfter[0]);
+
+        metrics.recordConsumption(); // Fast path again with no waiter
+        assertTrue(metrics.awaitConsumed(4, 0, TimeUnit.SECONDS), "Already reached returns at once");
+    }
+
+    @Test
+    void testAwaitConsumedTimesOut() throws InterruptedException {
+        metrics.recordConsumption();
+        assertFalse(metrics.awaitConsumed(2, 20, TimeUnit.MILLISECONDS));
+        assertFalse(new MockMetricsCollector().awaitConsumed(1, 20, TimeUnit.MILLISECONDS),
+                    "Polling default also honours the timeout");
+    }
+
+    // ==========================================
+    // LATENCY TESTS
+    // ==========================================
+
+    @Test
+    void testLatencyPerKind() {
+        metrics.recordLatency(LatencyKind.QUEUE_WAIT, 1_000);
+        metrics.recordLatency(LatencyKind.QUEUE_WAIT, 3_000);
+        metrics.recordLatency(LatencyKind.PROCESSING, 5_000_000);
+
+        LatencySnapshot wait = metrics.getLatency(LatencyKind.QUEUE_WAIT);
+        assertEquals(2, wait.getCount());
+        assertEquals(3_000, wait.getMax());
+        assertEquals(1, metrics.getLatency(LatencyKind.PROCESSING).getCount());
+        assertEquals(0, metrics.getLatency(LatencyKind.PRODUCER_BLOCK).getCount());
+    }
+
+    @Test
+    void testDefaultLatencyIsNotTracked() {
+        MetricsCollector plain = new MetricsCollector() {
+            public void recordProduction() { }
+            public void recordConsumption() { }
+            public long getTotalProduced() { return 0; }
+            public long getTotalConsumed() { return 0; }
+        };
+        plain.recordLatency(LatencyKind.QUEUE_WAIT, 10);
+        assertEquals(LatencySnapshot.EMPTY, plain.getLatency(LatencyKind.QUEUE_WAIT));
+    }
+}
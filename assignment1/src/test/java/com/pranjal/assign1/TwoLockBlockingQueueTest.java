@@ -0,0 +1,141 @@
+package com.pranjal.assign1;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+/**
+ * UNIT TESTS for TwoLockBlockingQueue
+ * ------------------------------------------------------------------
+ * Focus: Same contract as AdvancedBlockingQueue, with separate put/take locks.
+ * Covers:
+ * - [x] FIFO Ordering across wrap-around
+ * - [x] Blocking and timeout semantics (notFull / notEmpty)
+ * - [x] No lost or duplicated items under many producers and consumers
+ */
+class TwoLockBlockingQueueTest {
+
+    @Test
+    void testFIFOOrderingAcrossWrapAround() throws InterruptedException {
+        TwoLockBlockingQueue<Integer> queue = new TwoLockBlockingQueue<>(3);
+
+        for (int i = 0; i < 10; i++) {
+            queue.put(i);
+            assertEquals(i, queue.take());
+        }
+        assertEquals(0, queue.getSize());
+        assertEquals(3, queue.getCapacity());
+    }
+
+    @Test
+    void testOfferAndPollTimeouts() throws InterruptedException {
+        TwoLockBlockingQueue<String> queue = new TwoLockBlockingQueue<>(1);
+        queue.put("Blocker");
+
+        long start = System.currentTimeMillis();
+        assertFalse(queue.offer("Fail", 300, TimeUnit.MILLISECONDS), "Offer should time out on full queue");
+        assertTrue(System.currentTimeMillis() - start >= 250);
+
+        assertEquals("Blocker", queue.poll(10, TimeUnit.MILLISECONDS));
+
+        start = System.currentTimeMillis();
+        assertNull(queue.poll(300, TimeUnit.MILLISECONDS), "Poll should time out on empty queue");
+        assertTrue(System.currentTimeMillis() - start >= 250);
+    }
+
+    @Test
+    @Timeout(value = 2, unit = TimeUnit.SECONDS)
+    void testTakeWakesWhenProducerPuts() throws InterruptedException {
+        TwoLockBlockingQueue<String> queue = new TwoLockBlockingQueue<>(5);
+
+        Thread delayedProducer = new Thread(() -> {
+            try {
+                Thread.sleep(300);
+                queue.put("Data");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        delayedProducer.start();
+
+        assertEquals("Data", queue.take());
+    }
+
+    @Test
+    @Timeout(value = 2, unit = TimeUnit.SECONDS)
+    void testPutWakesWhenConsumerTakes() throws InterruptedException {
+        TwoLockBlockingQueue<String> queue = new TwoLockBlockingQueue<>(1);
+        queue.put("Full");
+
+        Thread delayedConsumer = new Thread(() -> {
+            try {
+                Thread.sleep(300);
+                queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        delayedConsumer.start();
+
+        queue.put("New Data");
+        assertEquals("New Data", queue.take());
+    }
+
+    @Test
+    @Timeout(10)
+    void testNoLostOrDuplicatedItemsWithManyProducersAndConsumers() throws InterruptedException {
+        int producers = 4;
+        int consumers = 4;
+        int itemsPerProducer = 2_000;
+        TwoLockBlockingQueue<Integer> queue = new TwoLockBlockingQueue<>(8);
+        Set<Integer> seen = ConcurrentHashMap.newKeySet();
+        CountDownLatch done = new CountDownLatch(producers * itemsPerProducer);
+
+        ExecutorService pool = Executors.newFixedThreadPool(producers + consumers);
+        for (int p = 0; p < producers; p++) {
+            final int base = p * itemsPerProducer;
+            pool.submit(() -> {
+                for (int i = 0; i < itemsPerProducer; i++) {
+                    queue.put(base + i);
+                }
+                return null;
+            });
+        }
+        for (int c = 0; c < consumers; c++) {
+            pool.submit(() -> {
+                while (done.getCount() > 0) {
+                    Integer item = queue.poll(50, TimeUnit.MILLISECONDS);
+                    if (item != null) {
+                        assertTrue(seen.add(item), "Duplicate item " + item);
+                        done.countDown();
+                    }
+                }
+                return null;
+            });
+        }
+
+        assertTrue(done.await(8, TimeUnit.SECONDS), "All items should be consumed");
+        pool.shutdownNow();
+        assertEquals(producers * itemsPerProducer, seen.size());
+        assertEquals(0, queue.getSize());
+    }
+
+    @Test
+    void testDefensiveChecks() {
+        assertThrows(IllegalArgumentException.class, () -> new TwoLockBlockingQueue<>(0));
+        TwoLockBlockingQueue<String> queue = new TwoLockBlockingQueue<>(2, false);
+        assertThrows(NullPointerException.class, () -> queue.put(null));
+        assertThrows(NullPointerException.class, () -> queue.offer(null, 1, TimeUnit.SECONDS));
+    }
+}
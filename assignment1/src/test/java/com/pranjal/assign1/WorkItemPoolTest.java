@@ -0,0 +1,180 @@
+package com.pranjal.assign1;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+/**
+ * UNIT TESTS for WorkItem and WorkItemPool
+ * ------------------------------------------------------------------
+ * Focus: Producers fill typed items from a pool and consumers return
+ * them, so the steady-state hot path allocates nothing.
+ * Covers:
+ * - [x] Acquire reuses released items; empty pool allocates, full pool drops
+ * - [x] InstrumentedQueue stamps WorkItems in place, no envelope
+ * - [x] A late restamp never overwrites the stamp of a reused item
+ * - [x] Pooled put/take through the instrumented ring allocates nothing
+ * - [x] Workers recycle every item and log snapshots of pooled items
+ */
+class WorkItemPoolTest {
+
+    @BeforeEach
+    void setUp() {
+        Logger.setLevel(LogLevel.OFF);
+    }
+
+    @AfterEach
+    void tearDown() {
+        Logger.setLevel(LogLevel.DEBUG);
+    }
+
+    @Test
+    void testAcquireReusesReleasedItems() {
+        WorkItemPool pool = new WorkItemPool(2);
+        WorkItem first = pool.acquire().set(1, 1, 42);
+        WorkItem second = pool.acquire();
+        assertNotSame(first, second);
+        assertEquals(2, pool.getCreatedCount(), "Empty pool allocates");
+
+        pool.release(first);
+        pool.release(second);
+        pool.release(new WorkItem());
+        assertEquals(2, pool.getFreeCount(), "Full pool drops the extra item");
+
+        assertSame(first, pool.acquire());
+        assertSame(second, pool.acquire());
+        assertEquals(2, pool.getCreatedCount());
+        assertEquals(0, first.set(3, 7, 9).getEnqueuedAt(), "set() clears the old stamp");
+        assertEquals("Record-3-7", first.toString());
+        assertEquals(9, first.getPayload());
+
+        assertThrows(IllegalArgumentException.class, () -> new WorkItemPool(0));
+    }
+
+    @Test
+    void testInstrumentedQueueStampsWorkItemsInPlace() throws InterruptedException {
+        SystemMetrics metrics = new SystemMetrics();
+        AdvancedBlockingQueue<Object> delegate = new AdvancedBlockingQueue<>(4, QueueStorage.RING_BUFFER);
+        InstrumentedQueue<Object> queue = new InstrumentedQueue<>(delegate, metrics);
+        WorkItem item = new WorkItem(1, 1, 0);
+
+        long before = System.nanoTime();
+        queue.put(item);
+        assertTrue(item.getEnqueuedAt() >= before, "Stamped after the insert");
+        queue.put("text");
+        assertSame(item, delegate.poll(0, TimeUnit.MILLISECONDS), "Stored as is");
+        delegate.put(item);
+
+        List<Object> taken = new ArrayList<>();
+        queue.takeBatch(taken, 4, 10, TimeUnit.MILLISECONDS);
+        assertEquals(List.of("text", item), taken);
+        assertEquals(2, metrics.getLatency(LatencyKind.QUEUE_WAIT).getCount());
+    }
+
+    @Test
+    void testRestampSkipsReusedItem() {
+        WorkItem item = new WorkItem(1, 1, 0);
+        item.stamp(100);
+        item.restamp(100, 150);
+        assertEquals(150, item.getEnqueuedAt(), "Still provisional, moved to after the insert");
+
+        item.set(2, 1, 0).stamp(200); // Consumed and reused before the first producer restamped
+        item.restamp(100, 250);
+        assertEquals(200, item.getEnqueuedAt());
+    }
+
+    @Test
+    void testPooledHotPathAllocatesNothing() throws InterruptedException {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean
+                   && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemoryEnabled());
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+
+        WorkItemPool pool = new WorkItemPool(16);
+        InstrumentedQueue<Object> queue = new InstrumentedQueue<>(
+            new AdvancedBlockingQueue<>(16, QueueStorage.RING_BUFFER), new SystemMetrics());
+        // Until C2 compiles the loop, the queue's disabled JFR events are still allocated;
+        // steady state is reached once a round allocates less than a byte per item
+        long allocated = Long.MAX_VALUE;
+        for (int round = 0; round < 100 && allocated >= 10_000; round++) {
+            long start = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+            cycle(queue, pool, 10_000);
+            allocated = threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - start;
+        }
+
+        assertTrue(allocated < 10_000, "Under a byte per item, got " + allocated + " bytes");
+        assertTrue(pool.getCreatedCount() <= 16, "Items are reused, created " + pool.getCreatedCount());
+    }
+
+    private static void cycle(InstrumentedQueue<Object> queue, WorkItemPool pool, int items)
+            throws InterruptedException {
+        for (int i = 1; i <= items; i++) {
+            queue.offer(pool.acquire().set(1, i, i), 1, TimeUnit.SECONDS);
+            pool.release((WorkItem) queue.poll(1, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void testWorkersRecycleEveryItem() throws InterruptedException {
+        SystemMetrics metrics = new SystemMetrics();
+        WorkItemPool pool = new WorkItemPool(8);
+        BoundedBlockingQueue<Object> queue = new InstrumentedQueue<>(new AdvancedBlockingQueue<>(4), metrics);
+        Thread consumer = new Thread(new ConsumerWorker(queue, "Consumer", metrics, 2, null, ThinkTime.NONE, pool));
+        consumer.start();
+
+        new ProducerWorker(queue, 1, 500, metrics, ThinkTime.NONE, null, pool).run();
+        queue.put(QueueCommand.POISON_PILL);
+        consumer.join();
+
+        assertEquals(500, metrics.getTotalConsumed());
+        assertTrue(pool.getCreatedCount() <= 8, "At most the items in flight, got " + pool.getCreatedCount());
+        assertTrue(pool.getFreeCount() > 0);
+    }
+
+    @Test
+    void testPooledItemsAreLoggedAsSnapshots() throws InterruptedException {
+        List<Object> logged = new ArrayList<>();
+        Logger.init(new LogSink() {
+            @Override
+            public void write(long epochMillis, String component, String message) {
+            }
+
+            @Override
+            public void writeEvent(long epochMillis, String component, EventType type, Object item, int queueSize) {
+                logged.add(item); // Keeps the reference, like AsyncLogSink
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+        Logger.setLevel(LogLevel.DEBUG);
+        try {
+            AdvancedBlockingQueue<Object> queue = new AdvancedBlockingQueue<>(4);
+            new ProducerWorker(queue, 1, 1, new SystemMetrics(), ThinkTime.NONE, null, new WorkItemPool(4)).run();
+            new ProducerWorker(queue, 2, 1, new SystemMetrics(), ThinkTime.NONE, null, null).run();
+
+            assertEquals("Record-1-1", logged.get(0), "Text taken before the item could be reused");
+            queue.take();
+            assertSame(queue.take(), logged.get(1), "Unpooled item logged as is");
+            assertSame(QueueCommand.POISON_PILL, WorkItemPool.loggable(QueueCommand.POISON_PILL));
+        } finally {
+            Logger.close();
+        }
+        WorkItem item = new WorkItem(5, 6, 0);
+        assertSame(item, WorkItemPool.loggable(item), "No text built when nothing is logged");
+    }
+}
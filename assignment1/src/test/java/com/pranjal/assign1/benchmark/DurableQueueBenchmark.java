@@ -0,0 +1,125 @@
+package com.pranjal.assign1.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Control;
+
+import com.pranjal.assign1.AdvancedBlockingQueue;
+import com.pranjal.assign1.BoundedBlockingQueue;
+import com.pranjal.assign1.DurableQueue;
+import com.pranjal.assign1.FsyncPolicy;
+import com.pranjal.assign1.QueueStorage;
+import com.pranjal.assign1.WalCodec;
+import com.pranjal.assign1.WriteAheadLog;
+
+/**
+ * BENCHMARK: write-ahead-log fsync policies vs the in-memory queue, 4 producers / 4 consumers
+ * ------------------------------------------------------------------
+ * IN_MEMORY is the plain ring-buffer queue; every other value wraps the
+ * same queue in a DurableQueue whose log uses the policy's default N
+ * (BATCH: 1024 appends, INTERVAL: 10 ms). The log lives in target/bench-wal
+ * unless -Dbench.wal.dir names another directory.
+ * Producers and consumers retry short timed offer/poll calls until JMH
+ * signals the end of measurement, as in TwoLockQueueBenchmark.
+ *
+ * Run through org.openjdk.jmh.Main after mvn test-compile (see README). On
+ * tmpfs every force is free, which isolates the cost of the log itself;
+ * measure on the disk that will hold the log for the fsync cost.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DurableQueueBenchmark {
+
+    @Param({"IN_MEMORY", "OS", "INTERVAL", "BATCH", "EVERY_WRITE"})
+    public String policy;
+
+    @Param({"1024"})
+    public int capacity;
+
+    private final Path directory = Paths.get(System.getProperty("bench.wal.dir", "target/bench-wal"));
+    private BoundedBlockingQueue<Object> queue;
+    private WriteAheadLog log;
+    private final String item = "Record-P1-42";
+
+    @Setup
+    public void setUp() throws IOException {
+        deleteDirectory();
+        BoundedBlockingQueue<Object> memory = new AdvancedBlockingQueue<>(capacity, QueueStorage.RING_BUFFER);
+        if (policy.equals("IN_MEMORY")) {
+            queue = memory;
+            return;
+        }
+        FsyncPolicy fsync = FsyncPolicy.valueOf(policy);
+        log = WriteAheadLog.open(directory, fsync, fsync.getDefaultSyncEvery());
+        queue = new DurableQueue<>(memory, log, WalCodec.TEXT);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (log != null) {
+            log.close();
+        }
+        deleteDirectory();
+    }
+
+    @Benchmark
+    @Group("mpmc")
+    @GroupThreads(4)
+    public boolean produce(Control control) throws InterruptedException {
+        while (!control.stopMeasurement) {
+            if (queue.offer(item, 1, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Benchmark
+    @Group("mpmc")
+    @GroupThreads(4)
+    public Object consume(Control control) throws InterruptedException {
+        while (!control.stopMeasurement) {
+            Object value = queue.poll(1, TimeUnit.MILLISECONDS);
+            if (value != null) {
+                queue.acknowledge();
+                return value;
+            }
+        }
+        return null;
+    }
+
+    private void deleteDirectory() throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.pranjal.assign1.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.pranjal.assign1.AdvancedBlockingQueue;
+import com.pranjal.assign1.EventType;
+import com.pranjal.assign1.LogLevel;
+import com.pranjal.assign1.LogMode;
+import com.pranjal.assign1.Logger;
+
+/**
+ * BENCHMARK: per-item logging cost on the worker hot path
+ * ------------------------------------------------------------------
+ * Each operation is the producer's "ADDED ... | Queue Size: ..." log call.
+ * - eager: message concatenated and getSize() called before the level check
+ *          (the pre-template worker code)
+ * - lazy:  template + IntSupplier
+ * - event: structured Logger.event, as the workers do now; in JOURNAL mode
+ *          this is a few stores into a memory-mapped segment
+ *
+ * level=INFO disables the DEBUG event; level=DEBUG writes it through the
+ * chosen sink to target/bench-logging.log. Run with "-prof gc": lazy at
+ * INFO should report ~0 B/op and never touch the queue lock.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class LoggingOverheadBenchmark {
+
+    @Param({"INFO", "DEBUG"})
+    public LogLevel level;
+
+    @Param({"SYNC", "ASYNC", "JOURNAL"})
+    public LogMode mode;
+
+    private AdvancedBlockingQueue<Object> queue;
+    private IntSupplier queueSize;
+    private final String name = "Producer-1";
+    private final String data = "Record-1-1";
+
+    @Setup
+    public void setUp() throws InterruptedException {
+        queue = new AdvancedBlockingQueue<>(1024);
+        queue.put(data);
+        queueSize = queue::getSize;
+        Logger.init(mode, "target/bench-logging.log");
+        Logger.setLevel(level);
+    }
+
+    @TearDown
+    public void tearDown() {
+        Logger.close();
+        Logger.setLevel(LogLevel.DEBUG);
+    }
+
+    @Benchmark
+    public void eager() {
+        Logger.log(LogLevel.DEBUG, name, "ADDED " + data + " | Queue Size: " + queue.getSize());
+    }
+
+    @Benchmark
+    public void lazy() {
+        Logger.log(LogLevel.DEBUG, name, "ADDED {} | Queue Size: {}", data, queueSize);
+    }
+
+    @Benchmark
+    public void event() {
+        Logger.event(LogLevel.DEBUG, name, EventType.ADDED, data, queueSize);
+    }
+}
@@ -0,0 +1,70 @@
+package com.pranjal.assign1.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.pranjal.assign1.MetricsCollector;
+import com.pranjal.assign1.MetricsType;
+
+/**
+ * BENCHMARK: AtomicLong (SystemMetrics) vs LongAdder (StripedMetrics) counters
+ * ------------------------------------------------------------------
+ * - increment:   8 threads hammer recordConsumption on one shared collector
+ * - mixed group: 7 writers plus one reader polling getTotalConsumed,
+ *                like the dashboard and metrics scrapes
+ *
+ * Contention only shows up with several cores; override the thread count
+ * with "-t N" to match the machine.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsContentionBenchmark {
+
+    @Param({"ATOMIC", "STRIPED"})
+    public MetricsType type;
+
+    private MetricsCollector metrics;
+
+    @Setup
+    public void setUp() {
+        metrics = type.create();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void increment() {
+        metrics.recordConsumption();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(7)
+    public void write() {
+        metrics.recordConsumption();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public long read() {
+        return metrics.getTotalConsumed();
+    }
+}
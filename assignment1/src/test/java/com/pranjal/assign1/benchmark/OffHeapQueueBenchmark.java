@@ -0,0 +1,88 @@
+package com.pranjal.assign1.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.pranjal.assign1.AdvancedBlockingQueue;
+import com.pranjal.assign1.OffHeapQueue;
+import com.pranjal.assign1.QueueStorage;
+import com.pranjal.assign1.WalCodec;
+
+/**
+ * BENCHMARK: heap ring vs off-heap ring holding a deep backlog of byte records
+ * ------------------------------------------------------------------
+ * The queue is prefilled to depth, then each operation puts one 64-byte
+ * record and takes the oldest, so depth stays constant and every record
+ * lives for depth operations. On the heap each record is a fresh byte[]
+ * that survives young collections and is copied or promoted; off-heap it
+ * is copied into the ring and the collector never sees it.
+ *   HEAP          AdvancedBlockingQueue (ring storage) of byte[]
+ *   OFF_HEAP      OffHeapQueue, take() copies the record out
+ *   OFF_HEAP_VIEW OffHeapQueue, takeView() reads it in place
+ *
+ * Run with -prof gc to see gc.count and gc.time next to the latency
+ * (see README).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx1g", "-XX:MaxDirectMemorySize=1g"})
+public class OffHeapQueueBenchmark {
+
+    @Param({"HEAP", "OFF_HEAP", "OFF_HEAP_VIEW"})
+    public String queue;
+
+    @Param({"1000", "1000000"})
+    public int depth;
+
+    private static final int PAYLOAD_BYTES = 64;
+
+    private AdvancedBlockingQueue<byte[]> heap;
+    private OffHeapQueue<byte[]> offHeap;
+    private final byte[] record = new byte[PAYLOAD_BYTES];
+
+    @Setup
+    public void setUp() throws InterruptedException {
+        if (queue.equals("HEAP")) {
+            heap = new AdvancedBlockingQueue<>(depth + 1, QueueStorage.RING_BUFFER);
+            for (int i = 0; i < depth; i++) {
+                heap.put(new byte[PAYLOAD_BYTES]);
+            }
+        } else {
+            offHeap = new OffHeapQueue<>(depth + 1, (depth + 2) * (PAYLOAD_BYTES + 16), WalCodec.BYTES);
+            for (int i = 0; i < depth; i++) {
+                offHeap.put(record);
+            }
+        }
+    }
+
+    @Benchmark
+    public int putAndTake() throws InterruptedException {
+        switch (queue) {
+            case "HEAP":
+                heap.put(record.clone()); // A received record is a new array
+                return heap.take().length;
+            case "OFF_HEAP":
+                offHeap.put(record);
+                return offHeap.take().length;
+            default:
+                offHeap.put(record);
+                try (OffHeapQueue<byte[]>.View view = offHeap.takeView()) {
+                    return view.payload().get(0);
+                }
+        }
+    }
+}
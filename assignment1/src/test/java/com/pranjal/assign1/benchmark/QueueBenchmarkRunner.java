@@ -0,0 +1,51 @@
+package com.pranjal.assign1.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs QueueHotPathBenchmark at 1P1C, NP1C, 1PNC and NPNC with the GC profiler.
+ *
+ * Usage (from assignment1/):
+ *   mvn -P benchmark verify                        (all implementations)
+ *   mvn -P benchmark verify -Dbench.threads=8      (N = 8)
+ *   mvn -P benchmark verify -Dbench.include=LOCK_FREE
+ *
+ * Results for each thread layout are also written to target/jmh-&lt;layout&gt;.json.
+ */
+public class QueueBenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        int n = Integer.getInteger("bench.threads", Math.max(2, Runtime.getRuntime().availableProcessors() / 2));
+        String include = System.getProperty("bench.include", "");
+
+        int[][] layouts = {{1, 1}, {n, 1}, {1, n}, {n, n}};
+        String[] names = {"1P1C", n + "P1C", "1P" + n + "C", n + "P" + n + "C"};
+
+        for (int i = 0; i < layouts.length; i++) {
+            System.out.println("\n=== Thread layout " + names[i] + " ===");
+
+            OptionsBuilder builder = new OptionsBuilder();
+            builder.include(QueueHotPathBenchmark.class.getSimpleName())
+                   .mode(Mode.Throughput)
+                   .mode(Mode.SampleTime)
+                   .timeUnit(TimeUnit.MICROSECONDS)
+                   .threadGroups(layouts[i][0], layouts[i][1])
+                   .addProfiler(GCProfiler.class)
+                   .resultFormat(ResultFormatType.JSON)
+                   .result("target/jmh-" + names[i] + ".json");
+            if (!include.isEmpty()) {
+                builder.param("implementation", include.split(","));
+            }
+            Options options = builder.build();
+            new Runner(options).run();
+        }
+    }
+}
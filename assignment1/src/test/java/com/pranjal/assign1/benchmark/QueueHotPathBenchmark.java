@@ -0,0 +1,216 @@
+package com.pranjal.assign1.benchmark;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.LinkedTransferQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Control;
+
+import com.pranjal.assign1.AdvancedBlockingQueue;
+import com.pranjal.assign1.BoundedBlockingQueue;
+import com.pranjal.assign1.LockFreeBoundedQueue;
+import com.pranjal.assign1.QueueStorage;
+import com.pranjal.assign1.TwoLockBlockingQueue;
+import com.pranjal.assign1.WaitStrategy;
+
+/**
+ * BENCHMARK: queue hot paths against the JDK's blocking queues
+ * ------------------------------------------------------------------
+ * Two groups, each with producer and consumer methods:
+ * - putTake:   blocking hand-off. Callers retry 1ms timed waits until they
+ *              succeed, so they park on the queue's conditions like put/take,
+ *              but still return when JMH ends the iteration.
+ * - offerPoll: single zero-timeout attempt; a miss counts as an operation.
+ *
+ * Thread counts come from @GroupThreads (1P1C by default); QueueBenchmarkRunner
+ * re-runs the groups at 1P1C, NP1C, 1PNC and NPNC with the GC profiler.
+ * Use Mode.SampleTime (also enabled by the runner) for latency percentiles.
+ */
+@State(Scope.Group)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueueHotPathBenchmark {
+
+    @Param({
+        "ADVANCED_FAIR", "ADVANCED_UNFAIR", "ADVANCED_RING_FAIR", "ADVANCED_RING_UNFAIR",
+        "TWO_LOCK_FAIR", "TWO_LOCK_UNFAIR", "LOCK_FREE",
+        "ARRAY_BLOCKING_FAIR", "ARRAY_BLOCKING_UNFAIR", "LINKED_BLOCKING", "LINKED_TRANSFER"
+    })
+    public String implementation;
+
+    @Param({"1024"})
+    public int capacity;
+
+    private BenchQueue queue;
+    private final Integer item = 42;
+
+    @Setup
+    public void setUp() {
+        queue = create(implementation, capacity);
+    }
+
+    // ==========================================
+    // BLOCKING HAND-OFF (put / take)
+    // ==========================================
+
+    @Benchmark
+    @Group("putTake")
+    @GroupThreads(1)
+    public boolean put(Control control) throws InterruptedException {
+        while (!control.stopMeasurement) {
+            if (queue.offer(item, BLOCK_SLICE_NANOS)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Benchmark
+    @Group("putTake")
+    @GroupThreads(1)
+    public Integer take(Control control) throws InterruptedException {
+        while (!control.stopMeasurement) {
+            Integer value = queue.poll(BLOCK_SLICE_NANOS);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    // ==========================================
+    // NON-BLOCKING ATTEMPTS (offer / poll)
+    // ==========================================
+
+    @Benchmark
+    @Group("offerPoll")
+    @GroupThreads(1)
+    public boolean offer() throws InterruptedException {
+        return queue.offer(item, 0);
+    }
+
+    @Benchmark
+    @Group("offerPoll")
+    @GroupThreads(1)
+    public Integer poll() throws InterruptedException {
+        return queue.poll(0);
+    }
+
+    // ==========================================
+    // ADAPTERS
+    // ==========================================
+
+    private static final long BLOCK_SLICE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * Minimal common surface so every implementation runs the same benchmark code.
+     */
+    interface BenchQueue {
+        boolean offer(Integer item, long timeoutNanos) throws InterruptedException;
+
+        Integer poll(long timeoutNanos) throws InterruptedException;
+    }
+
+    static BenchQueue create(String implementation, int capacity) {
+        switch (implementation) {
+            case "ADVANCED_FAIR":
+                return of(new AdvancedBlockingQueue<>(capacity, QueueStorage.LINKED_LIST, true));
+            case "ADVANCED_UNFAIR":
+                return of(new AdvancedBlockingQueue<>(capacity, QueueStorage.LINKED_LIST, false));
+            case "ADVANCED_RING_FAIR":
+                return of(new AdvancedBlockingQueue<>(capacity, QueueStorage.RING_BUFFER, true));
+            case "ADVANCED_RING_UNFAIR":
+                return of(new AdvancedBlockingQueue<>(capacity, QueueStorage.RING_BUFFER, false));
+            case "TWO_LOCK_FAIR":
+                return of(new TwoLockBlockingQueue<>(capacity, true));
+            case "TWO_LOCK_UNFAIR":
+                return of(new TwoLockBlockingQueue<>(capacity, false));
+            case "LOCK_FREE":
+                return of(new LockFreeBoundedQueue<>(capacity, WaitStrategy.SPIN_THEN_PARK));
+            case "ARRAY_BLOCKING_FAIR":
+                return of(new ArrayBlockingQueue<>(capacity, true));
+            case "ARRAY_BLOCKING_UNFAIR":
+                return of(new ArrayBlockingQueue<>(capacity, false));
+            case "LINKED_BLOCKING":
+                return of(new LinkedBlockingQueue<>(capacity));
+            case "LINKED_TRANSFER":
+                return bounded(new LinkedTransferQueue<>(), capacity);
+            default:
+                throw new IllegalArgumentException("Unknown implementation: " + implementation);
+        }
+    }
+
+    private static BenchQueue of(BoundedBlockingQueue<Integer> queue) {
+        return new BenchQueue() {
+            @Override
+            public boolean offer(Integer item, long timeoutNanos) throws InterruptedException {
+                return queue.offer(item, timeoutNanos, TimeUnit.NANOSECONDS);
+            }
+
+            @Override
+            public Integer poll(long timeoutNanos) throws InterruptedException {
+                return queue.poll(timeoutNanos, TimeUnit.NANOSECONDS);
+            }
+        };
+    }
+
+    private static BenchQueue of(BlockingQueue<Integer> queue) {
+        return new BenchQueue() {
+            @Override
+            public boolean offer(Integer item, long timeoutNanos) throws InterruptedException {
+                return queue.offer(item, timeoutNanos, TimeUnit.NANOSECONDS);
+            }
+
+            @Override
+            public Integer poll(long timeoutNanos) throws InterruptedException {
+                return queue.poll(timeoutNanos, TimeUnit.NANOSECONDS);
+            }
+        };
+    }
+
+    /**
+     * LinkedTransferQueue is unbounded; a semaphore caps it at the same capacity
+     * as the other queues so fast producers cannot grow it without limit.
+     */
+    private static BenchQueue bounded(LinkedTransferQueue<Integer> queue, int capacity) {
+        Semaphore space = new Semaphore(capacity);
+        return new BenchQueue() {
+            @Override
+            public boolean offer(Integer item, long timeoutNanos) throws InterruptedException {
+                if (!space.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                    return false;
+                }
+                queue.offer(item);
+                return true;
+            }
+
+            @Override
+            public Integer poll(long timeoutNanos) throws InterruptedException {
+                Integer value = queue.poll(timeoutNanos, TimeUnit.NANOSECONDS);
+                if (value != null) {
+                    space.release();
+                }
+                return value;
+            }
+        };
+    }
+}
@@ -0,0 +1,65 @@
+package com.pranjal.assign1.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.pranjal.assign1.AdvancedBlockingQueue;
+import com.pranjal.assign1.QueueStorage;
+
+/**
+ * BENCHMARK: LinkedList vs ring buffer storage in AdvancedBlockingQueue
+ * ------------------------------------------------------------------
+ * Single-threaded fill/drain cycles isolate the storage cost from lock
+ * contention. Run with "-prof gc" to see allocation per operation:
+ * the ring buffer should report ~0 B/op, the LinkedList one node per put.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueueStorageBenchmark {
+
+    @Param({"LINKED_LIST", "RING_BUFFER"})
+    public QueueStorage storage;
+
+    @Param({"16", "1024"})
+    public int depth;
+
+    private AdvancedBlockingQueue<Integer> queue;
+    private final Integer item = 42;
+
+    @Setup
+    public void setUp() {
+        queue = new AdvancedBlockingQueue<>(depth, storage);
+    }
+
+    @Benchmark
+    public void putTake(Blackhole bh) throws InterruptedException {
+        queue.put(item);
+        bh.consume(queue.take());
+    }
+
+    @Benchmark
+    public void fillThenDrain(Blackhole bh) throws InterruptedException {
+        for (int i = 0; i < depth; i++) {
+            queue.put(item);
+        }
+        for (int i = 0; i < depth; i++) {
+            bh.consume(queue.take());
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.pranjal.assign1.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Control;
+
+import com.pranjal.assign1.AdvancedBlockingQueue;
+import com.pranjal.assign1.BoundedBlockingQueue;
+import com.pranjal.assign1.QueueStorage;
+import com.pranjal.assign1.TwoLockBlockingQueue;
+
+/**
+ * BENCHMARK: single fair lock vs two-lock queue under 4 producers / 4 consumers
+ * ------------------------------------------------------------------
+ * Producers and consumers retry short timed offer/poll calls until JMH
+ * signals the end of measurement, so no thread is left blocked forever
+ * when the iteration stops.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TwoLockQueueBenchmark {
+
+    @Param({"SINGLE_LOCK", "TWO_LOCK"})
+    public String implementation;
+
+    @Param({"1024"})
+    public int capacity;
+
+    private BoundedBlockingQueue<Integer> queue;
+    private final Integer item = 42;
+
+    @Setup
+    public void setUp() {
+        queue = implementation.equals("TWO_LOCK")
+            ? new TwoLockBlockingQueue<>(capacity)
+            : new AdvancedBlockingQueue<>(capacity, QueueStorage.RING_BUFFER);
+    }
+
+    @Benchmark
+    @Group("mpmc")
+    @GroupThreads(4)
+    public boolean produce(Control control) throws InterruptedException {
+        while (!control.stopMeasurement) {
+            if (queue.offer(item, 1, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Benchmark
+    @Group("mpmc")
+    @GroupThreads(4)
+    public Integer consume(Control control) throws InterruptedException {
+        while (!control.stopMeasurement) {
+            Integer value = queue.poll(1, TimeUnit.MILLISECONDS);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,170 @@
+package com.pranjal.assign1.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.pranjal.assign1.BoundedBlockingQueue;
+import com.pranjal.assign1.ExecutorType;
+import com.pranjal.assign1.LogLevel;
+import com.pranjal.assign1.Logger;
+import com.pranjal.assign1.MetricsCollector;
+import com.pranjal.assign1.MetricsType;
+import com.pranjal.assign1.QueueCommand;
+import com.pranjal.assign1.QueueType;
+import com.pranjal.assign1.ThreadManager;
+import com.pranjal.assign1.WaitStrategy;
+
+/**
+ * BENCHMARK: platform vs virtual worker threads at 10k and 100k workers
+ * ------------------------------------------------------------------
+ * Runs the real ThreadManager workers (sleeping producers and consumers)
+ * with half the workers producing and half consuming, and reports:
+ * - throughput:  items consumed per second, start to last item
+ * - peak heap:   sampled used heap
+ * - peak RSS:    sampled resident set size (Linux only); platform thread
+ *                stacks live here, not on the heap
+ * - peak threads: live platform threads (JVM + carriers for VIRTUAL)
+ *
+ * Not a JMH benchmark: each case is one long run, forked into its own JVM
+ * so memory from one case does not leak into the next. A case that cannot
+ * start its threads (e.g. 100k platform threads over the ulimit) is
+ * reported as FAILED. VIRTUAL is skipped before Java 21.
+ *
+ * Usage (from assignment1/):
+ *   mvn -P benchmark verify -Dbench.main=com.pranjal.assign1.benchmark.VirtualThreadScalingBenchmark
+ *   ... -Dbench.workers=10000,100000 -Dbench.include=VIRTUAL
+ */
+public class VirtualThreadScalingBenchmark {
+
+    private static final int ITEMS_PER_PRODUCER = Integer.getInteger("bench.items", 3);
+    private static final int CAPACITY = 1024;
+    private static final long TIMEOUT_SECONDS = 300;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 2) {
+            runCase(ExecutorType.valueOf(args[0]), Integer.parseInt(args[1]));
+            return;
+        }
+
+        String workers = System.getProperty("bench.workers", "");
+        String include = System.getProperty("bench.include", "");
+        List<ExecutorType> types = new ArrayList<>();
+        for (ExecutorType type : ExecutorType.values()) {
+            if (include.isEmpty() || include.contains(type.name())) {
+                types.add(type);
+            }
+        }
+
+        System.out.println(String.format("%-10s%10s%12s%14s%14s%14s%10s",
+            "Executor", "Workers", "Items", "Items/s", "Peak heap MB", "Peak RSS MB", "Threads"));
+        for (String count : (workers.isEmpty() ? "10000,100000" : workers).split(",")) {
+            for (ExecutorType type : types) {
+                if (!type.isSupported()) {
+                    System.out.println(String.format("%-10s%10s  SKIPPED: requires Java 21+", type, count.trim()));
+                    continue;
+                }
+                fork(type, count.trim());
+            }
+        }
+    }
+
+    /**
+     * Runs one case in a fresh JVM with the same classpath; the child prints its own row.
+     */
+    private static void fork(ExecutorType type, String workers) throws IOException, InterruptedException {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.add("-Dbench.items=" + ITEMS_PER_PRODUCER);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(VirtualThreadScalingBenchmark.class.getName());
+        command.add(type.name());
+        command.add(workers);
+
+        Process child = new ProcessBuilder(command).inheritIO().directory(new File(".")).start();
+        if (!child.waitFor(TIMEOUT_SECONDS + 60, TimeUnit.SECONDS)) {
+            child.destroyForcibly();
+            System.out.println(String.format("%-10s%10s  FAILED: timed out", type, workers));
+        }
+    }
+
+    private static void runCase(ExecutorType type, int workers) throws InterruptedException {
+        Logger.setLevel(LogLevel.OFF);
+        int producers = Math.max(1, workers / 2);
+        int consumers = Math.max(1, workers - producers);
+        long total = (long) producers * ITEMS_PER_PRODUCER;
+
+        BoundedBlockingQueue<Object> queue = QueueType.FAIR_RING.create(CAPACITY, WaitStrategy.SPIN_THEN_PARK);
+        MetricsCollector metrics = MetricsType.STRIPED.create();
+
+        AtomicLong peakHeap = new AtomicLong();
+        AtomicLong peakRss = new AtomicLong();
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "Memory-Sampler");
+            t.setDaemon(true);
+            return t;
+        });
+        sampler.scheduleAtFixedRate(() -> {
+            Runtime runtime = Runtime.getRuntime();
+            peakHeap.accumulateAndGet(runtime.totalMemory() - runtime.freeMemory(), Math::max);
+            peakRss.accumulateAndGet(readRssBytes(), Math::max);
+        }, 0, 50, TimeUnit.MILLISECONDS);
+
+        String row;
+        try {
+            ThreadManager manager = new ThreadManager(queue, metrics, 1, type);
+            long start = System.nanoTime();
+            manager.startConsumers(consumers);
+            manager.startProducers(producers, ITEMS_PER_PRODUCER);
+
+            long deadline = start + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+            while (metrics.getTotalConsumed() < total && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            long consumed = metrics.getTotalConsumed();
+
+            manager.shutdown();
+            queue.put(QueueCommand.POISON_PILL);
+            manager.waitForConsumers();
+
+            row = String.format("%-10s%10d%12d%14.0f%14.1f%14.1f%10d",
+                type, workers, consumed, consumed / seconds, peakHeap.get() / 1e6, peakRss.get() / 1e6,
+                ManagementFactory.getThreadMXBean().getPeakThreadCount());
+            if (consumed < total) {
+                row += "  (timed out at " + consumed + "/" + total + ")";
+            }
+        } catch (Throwable t) {
+            row = String.format("%-10s%10d  FAILED: %s", type, workers, t);
+        }
+        System.out.println(row);
+        System.out.flush();
+        Runtime.getRuntime().halt(0); // Don't wait on stuck workers after a failed start
+    }
+
+    /**
+     * Reads VmRSS from /proc/self/status, 0 where unavailable.
+     */
+    private static long readRssBytes() {
+        try {
+            for (String line : Files.readAllLines(Paths.get("/proc/self/status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", "")) * 1024;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // Not Linux
+        }
+        return 0;
+    }
+}
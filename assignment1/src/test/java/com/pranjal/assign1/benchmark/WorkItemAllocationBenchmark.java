@@ -0,0 +1,88 @@
+package com.pranjal.assign1.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.pranjal.assign1.AdvancedBlockingQueue;
+import com.pranjal.assign1.QueueCommand;
+import com.pranjal.assign1.QueueStorage;
+import com.pranjal.assign1.WorkItem;
+import com.pranjal.assign1.WorkItemPool;
+
+/**
+ * BENCHMARK: allocation per item, String records vs typed WorkItems
+ * ------------------------------------------------------------------
+ * Each operation produces one item into a ring-buffer queue and consumes it,
+ * as ProducerWorker and ConsumerWorker do with think time removed.
+ *   STRING  "Record-" + id + "-" + i, the pre-WorkItem producer
+ *   NEW     a new WorkItem per item
+ *   POOLED  a WorkItem from a WorkItemPool, released after consumption
+ *
+ * Run with -prof gc: gc.alloc.rate.norm is the bytes per item, and POOLED
+ * should report ~0 B/op (see README).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorkItemAllocationBenchmark {
+
+    @Param({"STRING", "NEW", "POOLED"})
+    public String items;
+
+    private static final int PRODUCER_ID = 7;
+
+    private AdvancedBlockingQueue<Object> queue;
+    private WorkItemPool pool;
+    private int sequence;
+
+    @Setup
+    public void setUp() {
+        queue = new AdvancedBlockingQueue<>(1024, QueueStorage.RING_BUFFER);
+        pool = new WorkItemPool(1024);
+    }
+
+    @Benchmark
+    public long produceAndConsume() throws InterruptedException {
+        int i = ++sequence;
+        Object item;
+        switch (items) {
+            case "STRING":
+                item = "Record-" + PRODUCER_ID + "-" + i;
+                break;
+            case "NEW":
+                item = new WorkItem(PRODUCER_ID, i, i);
+                break;
+            default:
+                item = pool.acquire().set(PRODUCER_ID, i, i);
+        }
+        queue.offer(item, 2, TimeUnit.SECONDS);
+
+        Object taken = queue.take();
+        if (taken == QueueCommand.POISON_PILL) {
+            return -1;
+        }
+        if (taken instanceof WorkItem) {
+            WorkItem work = (WorkItem) taken;
+            long result = work.getPayload();
+            if (items.equals("POOLED")) {
+                pool.release(work);
+            }
+            return result;
+        }
+        return taken.hashCode();
+    }
+}